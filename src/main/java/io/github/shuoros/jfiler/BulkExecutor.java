@@ -0,0 +1,193 @@
+package io.github.shuoros.jfiler;
+
+import io.github.shuoros.jfiler.operation.OperationResult;
+import io.github.shuoros.jfiler.util.Locations;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Runs one operation on many locations and collects a result per location instead of failing fast.
+ * Locations are grouped by their parent folder so each folder is checked once, and children of existing
+ * folders are spread in batches over a pool with the given parallelism, so even a selection from one
+ * folder is handled by many workers. A location which can't even be parsed fails on its own, like any other.
+ *
+ * @author Soroush Shemshadi
+ * @version 1.0.0
+ * @since 1.2.0
+ */
+class BulkExecutor {
+
+    private static final AtomicInteger THREAD_NUMBER = new AtomicInteger();
+
+    private final int parallelism;
+
+    BulkExecutor(int parallelism) {
+        if (parallelism < 1)
+            throw new IllegalArgumentException("Parallelism must be at least 1 but was " + parallelism);
+        this.parallelism = parallelism;
+    }
+
+    static int defaultParallelism() {
+        return Runtime.getRuntime().availableProcessors();
+    }
+
+    /**
+     * Runs the given task on every location.
+     *
+     * @param locations Locations of files or folders.
+     * @param task      Operation to run on each existing location.
+     * @return Result of operation for each location, in the same order as given locations.
+     */
+    List<OperationResult> execute(Collection<String> locations, Task task) {
+        return execute(locations, null, task);
+    }
+
+    /**
+     * Runs the given task on every location which has a target of its own. Two tasks on the same target would
+     * race, so only the first location of each target is run and the others are skipped, and so is a location
+     * which is given more than once. Locations inside other given locations are run before them, so deleting
+     * a folder never races with deleting something in it.
+     *
+     * @param locations Locations of files or folders.
+     * @param targetOf  Gives the location which task writes for each location, or null if tasks write nothing.
+     * @param task      Operation to run on each existing location.
+     * @return Result of operation for each location, in the same order as given locations.
+     */
+    List<OperationResult> execute(Collection<String> locations, Function<Path, Path> targetOf, Task task) {
+        List<String> items = new ArrayList<>(locations);
+        Path[] paths = new Path[items.size()];
+        Path[] normalized = new Path[items.size()];
+        OperationResult[] results = new OperationResult[items.size()];
+        Set<Path> targets = new HashSet<>();
+        Set<Path> selected = new HashSet<>();
+        List<Integer> accepted = new ArrayList<>();
+
+        for (int i = 0; i < items.size(); i++) {
+            Path target;
+            try {
+                paths[i] = Locations.toPath(items.get(i));
+                normalized[i] = paths[i].toAbsolutePath().normalize();
+                target = targetOf != null ? targetOf.apply(paths[i]) : null;
+            } catch (RuntimeException e) {
+                // A malformed location fails on its own instead of failing the whole batch
+                results[i] = OperationResult.failed(items.get(i), e);
+                continue;
+            }
+            if (!selected.add(normalized[i]))
+                results[i] = OperationResult.skipped(items.get(i), "The same location is given earlier.");
+            else if (target != null && !targets.add(target))
+                results[i] = OperationResult.skipped(items.get(i), "An earlier location has the same destination.");
+            else
+                accepted.add(i);
+        }
+
+        // Locations are run in rounds, the ones inside most other given locations first
+        NavigableMap<Integer, List<Integer>> rounds = new TreeMap<>(Comparator.reverseOrder());
+        for (int i : accepted) {
+            int depth = 0;
+            for (Path parent = normalized[i].getParent(); parent != null; parent = parent.getParent())
+                if (selected.contains(parent))
+                    depth++;
+            rounds.computeIfAbsent(depth, round -> new ArrayList<>()).add(i);
+        }
+        for (List<Integer> round : rounds.values())
+            runRound(round, items, paths, task, results);
+
+        return Arrays.asList(results);
+    }
+
+    private void runRound(List<Integer> round, List<String> items, Path[] paths, Task task, OperationResult[] results) {
+        Map<Path, List<Integer>> groups = new LinkedHashMap<>();
+        for (int i : round)
+            groups.computeIfAbsent(paths[i].getParent(), parent -> new ArrayList<>()).add(i);
+
+        List<List<Integer>> batches = new ArrayList<>();
+        groups.forEach((parent, indexes) -> {
+            if (parent != null && !Files.isDirectory(parent))
+                for (int i : indexes)
+                    results[i] = OperationResult.skipped(items.get(i), "Its parent folder doesn't exist.");
+            else
+                batches.addAll(split(indexes));
+        });
+
+        if (parallelism == 1 || batches.size() <= 1)
+            batches.forEach(batch -> runBatch(batch, items, paths, task, results));
+        else
+            runBatchesInParallel(batches, items, paths, task, results);
+    }
+
+    private List<List<Integer>> split(List<Integer> indexes) {
+        int size = (indexes.size() + parallelism - 1) / parallelism;
+        List<List<Integer>> batches = new ArrayList<>();
+        for (int from = 0; from < indexes.size(); from += size)
+            batches.add(indexes.subList(from, Math.min(from + size, indexes.size())));
+        return batches;
+    }
+
+    private void runBatchesInParallel(List<List<Integer>> batches, List<String> items, Path[] paths,//
+                                      Task task, OperationResult[] results) {
+        ExecutorService pool = Executors.newFixedThreadPool(Math.min(parallelism, batches.size()), runnable -> {
+            Thread thread = new Thread(runnable, "jfiler-bulk-" + THREAD_NUMBER.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            List<Callable<Void>> jobs = new ArrayList<>(batches.size());
+            batches.forEach(batch -> jobs.add(() -> {
+                runBatch(batch, items, paths, task, results);
+                return null;
+            }));
+            pool.invokeAll(jobs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            for (int i = 0; i < results.length; i++)
+                if (results[i] == null)
+                    results[i] = OperationResult.failed(items.get(i), e);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private void runBatch(List<Integer> indexes, List<String> items, Path[] paths,//
+                          Task task, OperationResult[] results) {
+        for (int i : indexes)
+            results[i] = runOne(items.get(i), paths[i], task);
+    }
+
+    private OperationResult runOne(String location, Path path, Task task) {
+        BasicFileAttributes attributes;
+        try {
+            attributes = Files.readAttributes(path, BasicFileAttributes.class);
+        } catch (NoSuchFileException e) {
+            return OperationResult.skipped(location, "It doesn't exist.");
+        } catch (IOException e) {
+            return OperationResult.failed(location, e);
+        }
+
+        try {
+            task.run(path, !attributes.isDirectory());
+            return OperationResult.success(location);
+        } catch (IOException | RuntimeException e) {
+            return OperationResult.failed(location, e);
+        }
+    }
+
+    /**
+     * An operation on a single existing file or folder.
+     */
+    @FunctionalInterface
+    interface Task {
+
+        void run(Path location, boolean isFile) throws IOException;
+
+    }
+
+}
@@ -0,0 +1,168 @@
+package io.github.shuoros.jfiler;
+
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * An immutable and bounded history of navigation. Locations are kept in order of navigation: locations before
+ * the current one are the rear history and locations after it are the front history, the nearest first.
+ * Every change returns a new history, so a history can be shared between threads and replaced atomically.
+ * <p>
+ * When a change makes history longer than its capacity, a location is dropped by its
+ * {@link io.github.shuoros.jfiler.HistoryEviction}. A null location stands for the list of roots.
+ *
+ * @author Soroush Shemshadi
+ * @version 1.0.0
+ * @since 1.2.0
+ */
+final class History {
+
+    private final Path[] locations;
+    private final int current;
+    private final int capacity;
+    private final HistoryEviction eviction;
+
+    private History(Path[] locations, int current, int capacity, HistoryEviction eviction) {
+        this.locations = locations;
+        this.current = current;
+        this.capacity = capacity;
+        this.eviction = eviction;
+    }
+
+    /**
+     * Creates a history which only has a current location and drops its oldest locations.
+     *
+     * @param location Current location.
+     * @param capacity Maximum number of locations, including the current one.
+     * @return A new history.
+     */
+    static History of(Path location, int capacity) {
+        return of(location, capacity, HistoryEviction.OLDEST);
+    }
+
+    /**
+     * Creates a history which only has a current location.
+     *
+     * @param location Current location.
+     * @param capacity Maximum number of locations, including the current one.
+     * @param eviction Which location is dropped when history is full.
+     * @return A new history.
+     */
+    static History of(Path location, int capacity, HistoryEviction eviction) {
+        return new History(new Path[]{location}, 0, checked(capacity), eviction);
+    }
+
+    Path current() {
+        return locations[current];
+    }
+
+    boolean hasRear() {
+        return current > 0;
+    }
+
+    boolean hasFront() {
+        return current < locations.length - 1;
+    }
+
+    Path rear() {
+        return hasRear() ? locations[current - 1] : null;
+    }
+
+    Path front() {
+        return hasFront() ? locations[current + 1] : null;
+    }
+
+    int size() {
+        return locations.length;
+    }
+
+    /**
+     * Changes capacity and eviction of this history and drops locations which don't fit anymore.
+     *
+     * @param capacity Maximum number of locations, including the current one.
+     * @param eviction Which location is dropped when history is full.
+     * @return The new history.
+     */
+    History limit(int capacity, HistoryEviction eviction) {
+        return new History(locations, current, checked(capacity), eviction).bounded(locations, current);
+    }
+
+    /**
+     * Opens a location: current location becomes the nearest rear location and front history is dropped.
+     *
+     * @param location Opened location.
+     * @return The new history.
+     */
+    History open(Path location) {
+        Path[] opened = Arrays.copyOf(locations, current + 2);
+        opened[current + 1] = location;
+        return bounded(opened, current + 1);
+    }
+
+    /**
+     * Goes to nearest rear location: current location becomes the nearest front location.
+     *
+     * @return The new history.
+     */
+    History backward() {
+        return new History(locations, current - 1, capacity, eviction);
+    }
+
+    /**
+     * Goes to nearest front location: current location becomes the nearest rear location.
+     *
+     * @return The new history.
+     */
+    History forward() {
+        return new History(locations, current + 1, capacity, eviction);
+    }
+
+    /**
+     * Goes up to parent of current location: current location becomes the nearest front location and
+     * rear history is kept.
+     *
+     * @param parent Parent of current location.
+     * @return The new history.
+     */
+    History up(Path parent) {
+        Path[] upped = new Path[locations.length + 1];
+        System.arraycopy(locations, 0, upped, 0, current);
+        upped[current] = parent;
+        System.arraycopy(locations, current, upped, current + 1, locations.length - current);
+        return bounded(upped, current);
+    }
+
+    private History bounded(Path[] locations, int current) {
+        while (locations.length > capacity) {
+            int dropped = toDrop(locations, current);
+            Path[] kept = new Path[locations.length - 1];
+            System.arraycopy(locations, 0, kept, 0, dropped);
+            System.arraycopy(locations, dropped + 1, kept, dropped, kept.length - dropped);
+            locations = kept;
+            if (dropped < current)
+                current--;
+        }
+        return new History(locations, current, capacity, eviction);
+    }
+
+    private int toDrop(Path[] locations, int current) {
+        if (eviction == HistoryEviction.REPEATED_FIRST && current > 0) {
+            Map<Path, Integer> counts = new HashMap<>();
+            for (Path location : locations)
+                counts.merge(location, 1, Integer::sum);
+            for (int i = 0; i < current; i++)
+                if (counts.get(locations[i]) > 1)
+                    return i;
+        }
+        return current > 0 ? 0 : locations.length - 1;
+    }
+
+    private static int checked(int capacity) {
+        if (capacity < 1)
+            throw new IllegalArgumentException("Capacity must be at least 1 but was " + capacity);
+        return capacity;
+    }
+
+}
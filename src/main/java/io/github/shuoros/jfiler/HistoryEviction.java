@@ -0,0 +1,25 @@
+package io.github.shuoros.jfiler;
+
+/**
+ * Decides which location is dropped when history of a {@link io.github.shuoros.jfiler.JFiler} grows longer
+ * than its limit.
+ *
+ * @author Soroush Shemshadi
+ * @version 1.0.0
+ * @see io.github.shuoros.jfiler.JFiler#limitHistory(int, HistoryEviction)
+ * @since 1.2.0
+ */
+public enum HistoryEviction {
+
+    /**
+     * Drops the oldest rear location, or the farthest front location if there is no rear history.
+     */
+    OLDEST,
+
+    /**
+     * Drops the oldest rear location which is also somewhere else in history, so each visited folder stays
+     * reachable as long as possible. If no location is repeated, drops like {@link #OLDEST}.
+     */
+    REPEATED_FIRST
+
+}
@@ -1,36 +1,73 @@
 package io.github.shuoros.jfiler;
 
 import io.github.shuoros.jcompressor.JCompressor;
+import io.github.shuoros.jfiler.archive.ArchiveEntry;
+import io.github.shuoros.jfiler.archive.ArchiveFolder;
+import io.github.shuoros.jfiler.archive.Archives;
+import io.github.shuoros.jfiler.archive.CompressionPolicy;
+import io.github.shuoros.jfiler.archive.ParallelGzip;
+import io.github.shuoros.jfiler.archive.PolicyZipCompressor;
+import io.github.shuoros.jfiler.archive.TarReader;
+import io.github.shuoros.jfiler.archive.TarWriter;
+import io.github.shuoros.jfiler.archive.ZipArchive;
+import io.github.shuoros.jfiler.copy.Copier;
+import io.github.shuoros.jfiler.copy.CopyOptions;
+import io.github.shuoros.jfiler.copy.RangeCopier;
 import io.github.shuoros.jfiler.exception.*;
 import io.github.shuoros.jfiler.file.File;
 import io.github.shuoros.jfiler.file.Folder;
+import io.github.shuoros.jfiler.hash.Hasher;
+import io.github.shuoros.jfiler.io.AtomicPublisher;
+import io.github.shuoros.jfiler.io.IOPriority;
+import io.github.shuoros.jfiler.io.IOScheduler;
+import io.github.shuoros.jfiler.journal.Journal;
+import io.github.shuoros.jfiler.journal.JournalEntry;
+import io.github.shuoros.jfiler.journal.JournalOperation;
+import io.github.shuoros.jfiler.operation.OperationResult;
+import io.github.shuoros.jfiler.search.SearchQuery;
+import io.github.shuoros.jfiler.trash.Trash;
+import io.github.shuoros.jfiler.trash.TrashedItem;
+import io.github.shuoros.jfiler.usage.DiskUsage;
+import io.github.shuoros.jfiler.usage.DiskUsageReport;
+import io.github.shuoros.jfiler.util.Locations;
 import io.github.shuoros.jfiler.util.SystemOS;
 
 import java.io.*;
+import java.nio.channels.FileChannel;
 import java.nio.file.*;
 import java.util.*;
-import java.util.regex.Pattern;
+import java.util.function.Function;
+import java.util.stream.Stream;
 
 /**
  * JFiller is a library for managing files in Java which easily and with the least line of code gives you
  * the ability to manage files like moving through folders and directories, reading files and folders information,
  * creating new files or folders, making changes to files and folders such as renaming or hiding them, deleting files
  * and folders, searching for files or folders by regex and compressing files and folders or extracting them from zip files.
+ * <p>
+ * An instance which has prefetching or a journal enabled holds background threads or an open file, and must be
+ * closed when it's not needed anymore.
  *
  * @author Soroush Shemshadi
  * @version 1.0.0
  * @see <a href="https://github.com/shuoros/JFiler">JFiler</a>
  * @since 1.0.0
  */
-public class JFiler {
+public class JFiler implements Closeable {
+
+    /**
+     * Number of locations which JFiler keeps in its history by default, including its current location.
+     */
+    public static final int DEFAULT_HISTORY_SIZE = 256;
 
     private final Folder homeLocation;
-    private final Stack<Folder> frontLocation = new Stack<>();
-    private final Stack<Folder> rearLocation = new Stack<>();
+    private History history;
     private boolean copy;
     private boolean cut;
-    private File clipBoard;
+    private List<File> clipBoard = Collections.emptyList();
     private Folder currentLocation;
+    private Prefetcher prefetcher;
+    private Journal journal;
 
     /**
      * Constructs a JFiler instance on the given location.
@@ -45,8 +82,9 @@ public class JFiler {
      * @param location Home of JFiler instance which going to be created.
      */
     public JFiler(String location) {
-        this.homeLocation = ("/".equals(location)) ? null : Folder.open(JFilerUtils.pathSeparatorCorrector(location));
+        this.homeLocation = ("/".equals(location)) ? null : Folder.open(Locations.normalize(location));
         this.currentLocation = this.homeLocation;
+        this.history = History.of(locationOf(this.currentLocation), DEFAULT_HISTORY_SIZE);
         this.copy = false;
         this.cut = false;
     }
@@ -108,7 +146,7 @@ public class JFiler {
      *                     an IOException will be thrown.
      */
     public static void hide(String location) throws IOException {
-        location = JFilerUtils.pathSeparatorCorrector(location);
+        location = Locations.normalize(location);
 
         if (File.isHidden(location))
             throw new FileIsAlreadyHideException(location);
@@ -142,7 +180,7 @@ public class JFiler {
      *                     an IOException will be thrown.
      */
     public static void unHide(String location) throws IOException {
-        location = JFilerUtils.pathSeparatorCorrector(location);
+        location = Locations.normalize(location);
 
         if (File.isVisible(location))
             throw new FileIsAlreadyVisibleException(location);
@@ -174,7 +212,7 @@ public class JFiler {
      *                     an IOException will be thrown.
      */
     public static void rename(String location, String newName) throws IOException {
-        moveTo(location, JFilerUtils.newNamedLocation(location, newName));
+        moveTo(location, Locations.rename(Locations.normalize(location), newName));
     }
 
     /**
@@ -190,14 +228,17 @@ public class JFiler {
 
     /**
      * Move your desired file or folder in destination you want.
+     * In the same file system it's just renamed, otherwise it's copied and then deleted.
      *
      * @param source      Location of your desired file or folder.
      * @param destination Location which you want your file to be moved there.
      * @throws IOException If anything goes wrong in cutting your desired file or folder an IOException will be thrown.
      */
     public static void moveTo(String source, String destination) throws IOException {
-        copyTo(source, destination);
-        deleteThe(source);
+        source = Locations.normalize(source);
+        destination = Locations.normalize(destination);
+
+        JFilerUtils.move(Paths.get(source), Paths.get(destination), File.isFile(source));
     }
 
     /**
@@ -219,15 +260,53 @@ public class JFiler {
      * @throws IOException If anything goes wrong in coping your desired file or folder an IOException will be thrown.
      */
     public static void copyTo(String source, String destination) throws IOException {
-        source = JFilerUtils.pathSeparatorCorrector(source);
-        destination = JFilerUtils.pathSeparatorCorrector(destination);
+        source = Locations.normalize(source);
+        destination = Locations.normalize(destination);
 
-        if (File.isFile(source))
+        if (Archives.archiveOf(Paths.get(source)) != null)
+            Archives.copy(Paths.get(source), Paths.get(destination));
+        else if (File.isFile(source))
             JFilerUtils.copyFile(source, destination);
         else
             JFilerUtils.copyFolder(source, destination);
     }
 
+    /**
+     * Copy your desired file or folder in destination you want with the given options, for example as a
+     * sparse copy. Copies keep last modification time of their sources.
+     *
+     * @param source      Location of your desired file or folder.
+     * @param destination Location which you want your file to be copy there, which must not exist.
+     * @param options     Options of copy.
+     * @throws IOException If anything goes wrong in coping your desired file or folder an IOException will be thrown.
+     */
+    public static void copyTo(String source, String destination, CopyOptions options) throws IOException {
+        source = Locations.normalize(source);
+        destination = Locations.normalize(destination);
+
+        new Copier(options).copy(Paths.get(source), Paths.get(destination));
+    }
+
+    /**
+     * Copy your desired file or folder in destination you want and computes its hash in the same pass,
+     * so the copy doesn't need to be read again to be verified.
+     *
+     * @param source      Location of your desired file or folder.
+     * @param destination Location which you want your file to be copy there.
+     * @param hasher      Hasher which computes hash of copied bytes.
+     * @return Hash of copied file, or Merkle hash of copied folder.
+     * @throws IOException If anything goes wrong in coping your desired file or folder an IOException will be thrown.
+     */
+    public static String copyTo(String source, String destination, Hasher hasher) throws IOException {
+        source = Locations.normalize(source);
+        destination = Locations.normalize(destination);
+
+        if (File.exists(destination))
+            throw new FileAlreadyExistsException(destination);
+
+        return hasher.copy(Paths.get(source), Paths.get(destination));
+    }
+
     /**
      * Compresses desired list of your files or folders into a zip file.
      *
@@ -266,6 +345,19 @@ public class JFiler {
         compressor.compress(locations, compressFileDestination);
     }
 
+    /**
+     * Compresses desired list of your files or folders into a zip file, and decides for each file by the given
+     * policy whether it's stored or deflated, so already compressed files like images and videos are not
+     * deflated again.
+     *
+     * @param locations               List of locations of your files or folders which you want to compress.
+     * @param compressFileDestination Location of zip file to save.
+     * @param policy                  Policy which decides how each file is compressed.
+     */
+    public static void compress(List<String> locations, String compressFileDestination, CompressionPolicy policy) {
+        compress(locations, compressFileDestination, new PolicyZipCompressor(policy));
+    }
+
     /**
      * Unzips your desired zip file in destination you want.
      *
@@ -288,6 +380,132 @@ public class JFiler {
         extractor.extract(zipFile, destination);
     }
 
+    /**
+     * Lists entries of a zip file. Only its central directory is read, so nothing is extracted or inflated.
+     *
+     * @param archive Location of your zip file.
+     * @return Entries of zip file in the order of its central directory.
+     * @throws IOException If anything goes wrong in reading an IOException will be thrown.
+     */
+    public static List<ArchiveEntry> listArchive(String archive) throws IOException {
+        try (ZipArchive zip = ZipArchive.open(Locations.toPath(Locations.normalize(archive)))) {
+            return zip.entries();
+        }
+    }
+
+    /**
+     * Extracts a single entry of a zip file without extracting the rest of it. Only compressed bytes of
+     * that entry are read.
+     *
+     * @param archive     Location of your zip file.
+     * @param entry       Name of entry in zip file, like "conf/site.properties".
+     * @param destination Location of extracted file to save, which must not exist.
+     * @throws IOException If entry doesn't exist or anything goes wrong in extracting an IOException will be thrown.
+     */
+    public static void extractEntry(String archive, String entry, String destination) throws IOException {
+        try (ZipArchive zip = ZipArchive.open(Locations.toPath(Locations.normalize(archive)))) {
+            zip.extract(entry, Locations.toPath(Locations.normalize(destination)));
+        }
+    }
+
+    /**
+     * Extracts entries of a zip file which their names match a glob, like "conf/*.properties", into a folder
+     * and keeps their locations in zip file. Other entries are not read.
+     *
+     * @param archive     Location of your zip file.
+     * @param glob        Glob to match names of entries with.
+     * @param destination Folder to extract entries in.
+     * @return Locations of extracted files.
+     * @throws IOException If anything goes wrong in extracting an IOException will be thrown.
+     */
+    public static List<String> extractEntries(String archive, String glob, String destination) throws IOException {
+        List<String> extracted = new ArrayList<>();
+        try (ZipArchive zip = ZipArchive.open(Locations.toPath(Locations.normalize(archive)))) {
+            for (Path location : zip.extractAll(glob, Locations.toPath(Locations.normalize(destination))))
+                extracted.add(location.toString());
+        }
+        return extracted;
+    }
+
+    /**
+     * Archives desired list of your files or folders into an uncompressed tar file. Content of files is
+     * moved into the archive by the kernel without passing through Java, so it's as fast as your disks.
+     *
+     * @param locations   List of locations of your files or folders which you want to archive.
+     * @param destination Location of tar file to save, which must not exist.
+     * @throws IOException If anything goes wrong in archiving an IOException will be thrown.
+     * @see io.github.shuoros.jfiler.archive.TarWriter
+     */
+    public static void compressTar(List<String> locations, String destination) throws IOException {
+        try (TarWriter tar = TarWriter.open(Locations.toPath(Locations.normalize(destination)))) {
+            for (String location : locations)
+                tar.add(Locations.toPath(Locations.normalize(location)));
+        }
+    }
+
+    /**
+     * Extracts your desired tar file in destination you want.
+     *
+     * @param source      Location of your tar file.
+     * @param destination Folder to extract files and folders of tar file in.
+     * @throws IOException If anything goes wrong in extracting an IOException will be thrown.
+     * @see io.github.shuoros.jfiler.archive.TarReader
+     */
+    public static void extractTar(String source, String destination) throws IOException {
+        try (TarReader tar = TarReader.open(Locations.toPath(Locations.normalize(source)))) {
+            tar.extractAll(Locations.toPath(Locations.normalize(destination)));
+        }
+    }
+
+    /**
+     * Compresses a single file to a gzip file on all cores. The file is split in blocks which are compressed
+     * at the same time and written as members of one standard gzip file.
+     *
+     * @param source      Location of your file which you want to compress.
+     * @param destination Location of gzip file to save, which must not exist.
+     * @throws IOException If anything goes wrong in compressing an IOException will be thrown.
+     * @see io.github.shuoros.jfiler.archive.ParallelGzip
+     */
+    public static void compressGzip(String source, String destination) throws IOException {
+        compressGzip(source, destination, new ParallelGzip());
+    }
+
+    /**
+     * Compresses a single file to a gzip file with the given compressor.
+     *
+     * @param source      Location of your file which you want to compress.
+     * @param destination Location of gzip file to save, which must not exist.
+     * @param gzip        Compressor with its parallelism, block size and level.
+     * @throws IOException If anything goes wrong in compressing an IOException will be thrown.
+     */
+    public static void compressGzip(String source, String destination, ParallelGzip gzip) throws IOException {
+        gzip.compress(Locations.toPath(Locations.normalize(source)), Locations.toPath(Locations.normalize(destination)));
+    }
+
+    /**
+     * Decompresses a gzip file. Files which are made by {@link #compressGzip(String, String)} are decompressed
+     * on all cores.
+     *
+     * @param source      Location of your gzip file.
+     * @param destination Location of decompressed file to save, which must not exist.
+     * @throws IOException If anything goes wrong in decompressing an IOException will be thrown.
+     */
+    public static void extractGzip(String source, String destination) throws IOException {
+        extractGzip(source, destination, new ParallelGzip());
+    }
+
+    /**
+     * Decompresses a gzip file with the given decompressor.
+     *
+     * @param source      Location of your gzip file.
+     * @param destination Location of decompressed file to save, which must not exist.
+     * @param gzip        Decompressor with its parallelism.
+     * @throws IOException If anything goes wrong in decompressing an IOException will be thrown.
+     */
+    public static void extractGzip(String source, String destination, ParallelGzip gzip) throws IOException {
+        gzip.decompress(Locations.toPath(Locations.normalize(source)), Locations.toPath(Locations.normalize(destination)));
+    }
+
     /**
      * Searches for files or folders with a regex in a folder you want.
      *
@@ -307,12 +525,81 @@ public class JFiler {
      * @return List of paths of files or folders which their names matches with given regex.
      */
     public static List<String> search(String regex, String location) {
-        location = JFilerUtils.pathSeparatorCorrector(location);
+        return search(SearchQuery.create().regex(regex), location);
+    }
 
-        if (File.isFile(location))
+    /**
+     * Searches for files or folders which match with a query in a folder you want. Folders which query excludes
+     * or are deeper than its max depth are not walked at all.
+     *
+     * @param query  Conditions which found files or folders must match with.
+     * @param folder Folder you want to search in.
+     * @return List of paths of files or folders which match with given query.
+     */
+    public static List<String> search(SearchQuery query, Folder folder) {
+        return search(query, folder.getPath());
+    }
+
+    /**
+     * Searches for files or folders which match with a query in a folder you want. Folders which query excludes
+     * or are deeper than its max depth are not walked at all.
+     *
+     * @param query    Conditions which found files or folders must match with.
+     * @param location Location you want to search in.
+     * @return List of paths of files or folders which match with given query.
+     */
+    public static List<String> search(SearchQuery query, String location) {
+        location = Locations.normalize(location);
+
+        if (File.isFile(location) && !Archives.isArchive(Paths.get(location)))
             throw new CannotSearchInFileException(location);
 
-        return JFilerUtils.recursionSearch(regex, location);
+        List<String> foundedFiles = new ArrayList<>();
+        for (Path found : query.searchIn(Paths.get(location)))
+            foundedFiles.add(found.toString());
+        return foundedFiles;
+    }
+
+    /**
+     * Reports what takes space under your desired folder: usage of each of its children, its largest files and
+     * folders, and usage by type and age of files. Use {@link DiskUsage} directly for other depths and tops.
+     *
+     * @param location Location of your desired folder.
+     * @return Report of usage.
+     * @throws IOException If folder can't be read an IOException will be thrown.
+     */
+    public static DiskUsageReport diskUsage(String location) throws IOException {
+        location = Locations.normalize(location);
+
+        return DiskUsage.create().analyze(Paths.get(location));
+    }
+
+    /**
+     * Deletes your desired file or folder instantly, by moving it to trash of its file store with one rename.
+     * Its space is reclaimed later by the background purger of the default {@link Trash}, and it can be restored
+     * until then.
+     *
+     * @param location Location of file or folder you want to delete.
+     * @return The trashed item, which can be given to {@link #restoreFromTrash(TrashedItem)}.
+     * @throws IOException If anything goes wrong in trashing your desired file or folder
+     *                     an IOException will be thrown.
+     */
+    public static TrashedItem moveToTrash(String location) throws IOException {
+        location = Locations.normalize(location);
+
+        return Trash.getDefault().trash(Paths.get(location));
+    }
+
+    /**
+     * Moves a trashed file or folder back to where it was before it was trashed.
+     *
+     * @param item The trashed item.
+     * @return Location of restored file or folder.
+     * @throws IOException If item has been purged, or its location is taken, or anything else goes wrong
+     *                     an IOException will be thrown.
+     */
+    public static String restoreFromTrash(TrashedItem item) throws IOException {
+        return Trash.getDefault().restore(item).toString();
     }
 
     /**
@@ -334,7 +621,7 @@ public class JFiler {
      *                     an IOException will be thrown.
      */
     public static void deleteThe(String location) throws IOException {
-        location = JFilerUtils.pathSeparatorCorrector(location);
+        location = Locations.normalize(location);
 
         if (File.isFile(location))
             JFilerUtils.deleteFile(location);
@@ -342,6 +629,147 @@ public class JFiler {
             JFilerUtils.deleteFolder(location);
     }
 
+    /**
+     * Deletes all of your desired files and folders. Unlike {@link #deleteThe(String)} it doesn't stop on the
+     * first failure and reports what happened to each location.
+     *
+     * @param locations Locations of files or folders you want to delete.
+     * @return Result of deletion for each location, in the same order as given locations.
+     */
+    public static List<OperationResult> deleteAll(Collection<String> locations) {
+        return deleteAll(locations, BulkExecutor.defaultParallelism());
+    }
+
+    /**
+     * Deletes all of your desired files and folders. Unlike {@link #deleteThe(String)} it doesn't stop on the
+     * first failure and reports what happened to each location.
+     *
+     * @param locations   Locations of files or folders you want to delete.
+     * @param parallelism Maximum number of folders which are processed at the same time.
+     * @return Result of deletion for each location, in the same order as given locations.
+     */
+    public static List<OperationResult> deleteAll(Collection<String> locations, int parallelism) {
+        return new BulkExecutor(parallelism).execute(locations, (location, isFile) -> {
+            if (isFile)
+                JFilerUtils.deleteFile(location);
+            else
+                JFilerUtils.deleteFolder(location.toString());
+        });
+    }
+
+    /**
+     * Deletes all of your desired files and folders and writes their intents in a journal before deleting any of
+     * them, so if the process crashes in the middle, {@link Journal#recover()} finishes the deletes.
+     *
+     * @param locations   Locations of files or folders you want to delete.
+     * @param parallelism Maximum number of folders which are processed at the same time.
+     * @param journal     Journal to write operations in.
+     * @return Result of deletion for each location, in the same order as given locations.
+     * @throws UncheckedIOException If intents or ends of operations can't be written in journal.
+     */
+    public static List<OperationResult> deleteAll(Collection<String> locations, int parallelism, Journal journal) {
+        return journaled(journal, JournalOperation.DELETE, locations, location -> null, parallelism);
+    }
+
+    /**
+     * Copies all of your desired files and folders into a folder. Unlike {@link #copyTo(String, String)}
+     * it doesn't stop on the first failure and reports what happened to each location.
+     *
+     * @param sources     Locations of files or folders you want to copy.
+     * @param destination Location of folder which you want your files to be copied in.
+     * @return Result of coping for each location, in the same order as given locations.
+     */
+    public static List<OperationResult> copyAll(Collection<String> sources, String destination) {
+        return copyAll(sources, destination, BulkExecutor.defaultParallelism());
+    }
+
+    /**
+     * Copies all of your desired files and folders into a folder. Unlike {@link #copyTo(String, String)}
+     * it doesn't stop on the first failure and reports what happened to each location.
+     *
+     * @param sources     Locations of files or folders you want to copy.
+     * @param destination Location of folder which you want your files to be copied in.
+     * @param parallelism Maximum number of folders which are processed at the same time.
+     * @return Result of coping for each location, in the same order as given locations.
+     */
+    public static List<OperationResult> copyAll(Collection<String> sources, String destination, int parallelism) {
+        Path destinationFolder = bulkDestination(destination);
+        Function<Path, Path> targetOf = targetIn(destinationFolder);
+        return new BulkExecutor(parallelism).execute(sources, targetOf, (location, isFile) -> {
+            String target = targetOf.apply(location).toString();
+            if (isFile)
+                JFilerUtils.copyFile(location.toString(), target);
+            else
+                JFilerUtils.copyFolder(location.toString(), target);
+        });
+    }
+
+    /**
+     * Copies all of your desired files and folders into a folder and writes their intents in a journal before
+     * coping any of them. Each one is copied next to its destination and then renamed, so if the process crashes
+     * in the middle, {@link Journal#recover()} removes unfinished copies and never leaves a partial destination.
+     *
+     * @param sources     Locations of files or folders you want to copy.
+     * @param destination Location of folder which you want your files to be copied in.
+     * @param parallelism Maximum number of folders which are processed at the same time.
+     * @param journal     Journal to write operations in.
+     * @return Result of coping for each location, in the same order as given locations.
+     * @throws UncheckedIOException If intents or ends of operations can't be written in journal.
+     */
+    public static List<OperationResult> copyAll(Collection<String> sources, String destination, int parallelism,//
+                                                Journal journal) {
+        Path destinationFolder = bulkDestination(destination);
+        return journaled(journal, JournalOperation.COPY, sources,//
+                targetIn(destinationFolder), parallelism);
+    }
+
+    /**
+     * Moves all of your desired files and folders into a folder. Unlike {@link #moveTo(String, String)}
+     * it doesn't stop on the first failure and reports what happened to each location.
+     *
+     * @param sources     Locations of files or folders you want to move.
+     * @param destination Location of folder which you want your files to be moved in.
+     * @return Result of moving for each location, in the same order as given locations.
+     */
+    public static List<OperationResult> moveAll(Collection<String> sources, String destination) {
+        return moveAll(sources, destination, BulkExecutor.defaultParallelism());
+    }
+
+    /**
+     * Moves all of your desired files and folders into a folder. Unlike {@link #moveTo(String, String)}
+     * it doesn't stop on the first failure and reports what happened to each location.
+     *
+     * @param sources     Locations of files or folders you want to move.
+     * @param destination Location of folder which you want your files to be moved in.
+     * @param parallelism Maximum number of folders which are processed at the same time.
+     * @return Result of moving for each location, in the same order as given locations.
+     */
+    public static List<OperationResult> moveAll(Collection<String> sources, String destination, int parallelism) {
+        Path destinationFolder = bulkDestination(destination);
+        Function<Path, Path> targetOf = targetIn(destinationFolder);
+        return new BulkExecutor(parallelism).execute(sources, targetOf, (location, isFile) ->//
+                JFilerUtils.move(location, targetOf.apply(location), isFile));
+    }
+
+    /**
+     * Moves all of your desired files and folders into a folder and writes their intents in a journal before
+     * moving any of them. If the process crashes in the middle, {@link Journal#recover()} deletes what is left of
+     * sources which have been copied completely, and removes unfinished copies of the others.
+     *
+     * @param sources     Locations of files or folders you want to move.
+     * @param destination Location of folder which you want your files to be moved in.
+     * @param parallelism Maximum number of folders which are processed at the same time.
+     * @param journal     Journal to write operations in.
+     * @return Result of moving for each location, in the same order as given locations.
+     * @throws UncheckedIOException If intents or ends of operations can't be written in journal.
+     */
+    public static List<OperationResult> moveAll(Collection<String> sources, String destination, int parallelism,//
+                                                Journal journal) {
+        Path destinationFolder = bulkDestination(destination);
+        return journaled(journal, JournalOperation.MOVE, sources,//
+                targetIn(destinationFolder), parallelism);
+    }
+
     /**
      * Creates a new file in your desired location.
      *
@@ -349,7 +777,7 @@ public class JFiler {
      * @throws IOException If anything goes wrong in creating a new file an IOException will be thrown.
      */
     public static void createNewFile(String location) throws IOException {
-        location = JFilerUtils.pathSeparatorCorrector(location);
+        location = Locations.normalize(location);
 
         if (File.exists(location))
             throw new FileAlreadyExistsException(location);
@@ -357,6 +785,64 @@ public class JFiler {
         File.create(Paths.get(location));
     }
 
+    /**
+     * Creates a new file with the given content in your desired location atomically, so no one ever sees it
+     * half written, and forces it and its folder to disk.
+     *
+     * @param location Location which you want to create your new file in.
+     * @param content  Content of new file.
+     * @throws IOException If anything goes wrong in creating a new file an IOException will be thrown.
+     */
+    public static void createNewFile(String location, byte[] content) throws IOException {
+        try (AtomicPublisher publisher = AtomicPublisher.create()) {
+            createNewFile(location, content, publisher);
+        }
+    }
+
+    /**
+     * Creates a new file with the given content in your desired location atomically through a publisher,
+     * which forces folders of many new files to disk in one go when it's synced or closed.
+     *
+     * @param location  Location which you want to create your new file in.
+     * @param content   Content of new file.
+     * @param publisher Publisher of new file.
+     * @throws IOException If anything goes wrong in creating a new file an IOException will be thrown.
+     */
+    public static void createNewFile(String location, byte[] content, AtomicPublisher publisher) throws IOException {
+        location = Locations.normalize(location);
+
+        publisher.write(Paths.get(location), content, false);
+    }
+
+    /**
+     * Replaces whole content of your desired file atomically, so readers see either its old or its new content,
+     * and forces it and its folder to disk. The file is created if it doesn't exist.
+     *
+     * @param location Location of your desired file.
+     * @param content  New content of file.
+     * @throws IOException If anything goes wrong in writing an IOException will be thrown.
+     */
+    public static void writeContent(String location, byte[] content) throws IOException {
+        try (AtomicPublisher publisher = AtomicPublisher.create()) {
+            writeContent(location, content, publisher);
+        }
+    }
+
+    /**
+     * Replaces whole content of your desired file atomically through a publisher, which forces folders of many
+     * files to disk in one go when it's synced or closed. The file is created if it doesn't exist.
+     *
+     * @param location  Location of your desired file.
+     * @param content   New content of file.
+     * @param publisher Publisher of file.
+     * @throws IOException If anything goes wrong in writing an IOException will be thrown.
+     */
+    public static void writeContent(String location, byte[] content, AtomicPublisher publisher) throws IOException {
+        location = Locations.normalize(location);
+
+        publisher.write(Paths.get(location), content, true);
+    }
+
     /**
      * Creates a new folder in your desired location.
      *
@@ -364,7 +850,7 @@ public class JFiler {
      * @throws IOException If anything goes wrong in creating a new folder an IOException will be thrown.
      */
     public static void createNewFolder(String location) throws IOException {
-        location = JFilerUtils.pathSeparatorCorrector(location);
+        location = Locations.normalize(location);
 
         if (File.exists(location))
             throw new FileAlreadyExistsException(location);
@@ -415,29 +901,40 @@ public class JFiler {
      * Returns an instance of {@link io.github.shuoros.jfiler.file.Folder}
      * which represent the rear location of JFiler.
      *
-     * @return An instance of Folder which represent the rear location of JFiler.
+     * @return An instance of Folder which represent the rear location of JFiler,
+     * or null if there is no backward history or rear location is root.
      */
     public Folder getRear() {
-        return this.rearLocation.peek();
+        return folderOf(this.history.rear());
     }
 
     /**
      * Returns an instance of {@link io.github.shuoros.jfiler.file.Folder}
      * which represent the front location of JFiler.
      *
-     * @return An instance of Folder which represent the front location of JFiler.
+     * @return An instance of Folder which represent the front location of JFiler,
+     * or null if there is no forward history or front location is root.
      */
     public Folder getFront() {
-        return this.frontLocation.peek();
+        return folderOf(this.history.front());
     }
 
     /**
      * Returns an instance of {@link io.github.shuoros.jfiler.file.File} which represent
-     * the current file or folder in clipboard.
+     * the current file or folder in clipboard. If many files are in clipboard, it's the first one.
      *
      * @return An instance of File which represent the current file or folder in clipboard.
      */
     public File getClipBoard() {
+        return this.clipBoard.isEmpty() ? null : this.clipBoard.get(0);
+    }
+
+    /**
+     * Returns all files and folders in clipboard.
+     *
+     * @return An unmodifiable list of files and folders in clipboard, in the order they were given.
+     */
+    public List<File> getClipBoardEntries() {
         return this.clipBoard;
     }
 
@@ -467,29 +964,123 @@ public class JFiler {
         if (null == this.currentLocation)
             for (java.io.File root : java.io.File.listRoots())
                 files.add(new File(root.toPath()));
-        else
-            files.addAll(this.currentLocation.getContains());
+        else if (this.prefetcher != null && !(this.currentLocation instanceof ArchiveFolder))
+            files.addAll(this.prefetcher.list(this.currentLocation.getLocation()));
+        else {
+            IOScheduler.Permit permit = interactive(this.currentLocation.getLocation());
+            try {
+                files.addAll(this.currentLocation.getContains());
+            } finally {
+                permit.close();
+            }
+        }
 
         return files;
     }
 
+    /**
+     * Limits history of JFiler. History only keeps locations of folders, and a folder is opened again
+     * when JFiler goes back or forward to it. Locations which don't fit anymore are dropped right away.
+     * By default history keeps {@link #DEFAULT_HISTORY_SIZE} locations and drops the oldest ones.
+     *
+     * @param size     Maximum number of locations in history, including the current location.
+     * @param eviction Which location is dropped when history is full.
+     */
+    public void limitHistory(int size, HistoryEviction eviction) {
+        this.history = this.history.limit(size, eviction);
+    }
+
+    /**
+     * Enables prefetching. After each navigation the current location and its sub folders are listed in
+     * background, and {@link #getList()} is served from those listings while their folders don't change.
+     * If prefetching is already enabled, the old policy is replaced.
+     *
+     * @param policy Depth, budget and threads of prefetching.
+     */
+    public void enablePrefetch(PrefetchPolicy policy) {
+        disablePrefetch();
+        this.prefetcher = new Prefetcher(policy);
+        prefetch();
+    }
+
+    /**
+     * Disables prefetching, stops its background threads and drops its listings.
+     */
+    public void disablePrefetch() {
+        if (this.prefetcher != null)
+            this.prefetcher.shutdown();
+        this.prefetcher = null;
+    }
+
+    /**
+     * Writes paste and delete operations of this JFiler in a journal, so they can be recovered if the process
+     * crashes in the middle of them. Operations which were left incomplete in the journal by an earlier run are
+     * recovered first.
+     *
+     * @param location Location of journal file.
+     * @return Result of recovery for each incomplete operation.
+     * @throws IOException If journal can't be opened or recovered an IOException will be thrown.
+     */
+    public List<OperationResult> enableJournal(String location) throws IOException {
+        disableJournal();
+        Journal opened = Journal.open(Locations.normalize(location));
+        try {
+            List<OperationResult> recovered = opened.recover();
+            this.journal = opened;
+            return recovered;
+        } catch (IOException e) {
+            opened.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Stops writing operations in journal and closes it.
+     *
+     * @throws IOException If journal can't be closed an IOException will be thrown.
+     */
+    public void disableJournal() throws IOException {
+        Journal opened = this.journal;
+        this.journal = null;
+        if (opened != null)
+            opened.close();
+    }
+
+    /**
+     * Disables prefetching and journal of this JFiler, which stops its background threads and closes its journal.
+     * Static methods of JFiler can still be used after it.
+     *
+     * @throws IOException If journal can't be closed an IOException will be thrown.
+     */
+    @Override
+    public void close() throws IOException {
+        disablePrefetch();
+        disableJournal();
+    }
+
     /**
      * Opens a folder in the given location in JFiler's current location. The current location will be added
      * to rear location and the folder you give to function will be set in current location. If home is locked
      * and the given location is outside of home it throws
-     * {@link LocationNotFoundException}.
+     * {@link LocationNotFoundException}. A zip file, or a folder in it, is opened as a read only
+     * {@link ArchiveFolder} without being extracted.
      *
      * @param location Location of desired folder which you want to open.
      */
     public void openFolder(String location) {
         location = InitialPreparationOfLocation(location);
 
-        if (canNotOpenThis(location))
-            throw new LocationNotFoundException(location);
+        IOScheduler.Permit permit = interactive(Paths.get(location));
+        try {
+            if (canNotOpenThis(location))
+                throw new LocationNotFoundException(location);
+        } finally {
+            permit.close();
+        }
 
-        this.frontLocation.clear();
-        this.rearLocation.push(this.currentLocation);
-        this.currentLocation = Folder.open(location);
+        this.currentLocation = folderOf(Paths.get(location));
+        this.history = this.history.open(this.currentLocation.getLocation());
+        prefetch();
     }
 
     /**
@@ -498,11 +1089,12 @@ public class JFiler {
      * it throws {@link io.github.shuoros.jfiler.exception.NoBackwardHistoryException}.
      */
     public void goBackward() {
-        if (this.rearLocation.isEmpty())
+        if (!this.history.hasRear())
             throw new NoBackwardHistoryException();
 
-        this.frontLocation.push(this.currentLocation);
-        this.currentLocation = this.rearLocation.pop();
+        this.history = this.history.backward();
+        this.currentLocation = folderOf(this.history.current());
+        prefetch();
     }
 
 
@@ -512,11 +1104,12 @@ public class JFiler {
      * it throws {@link io.github.shuoros.jfiler.exception.NoForwardHistoryException}.
      */
     public void goForward() {
-        if (this.frontLocation.isEmpty())
+        if (!this.history.hasFront())
             throw new NoForwardHistoryException();
 
-        this.rearLocation.push(this.currentLocation);
-        this.currentLocation = this.frontLocation.pop();
+        this.history = this.history.forward();
+        this.currentLocation = folderOf(this.history.current());
+        prefetch();
     }
 
     /**
@@ -528,11 +1121,12 @@ public class JFiler {
         if (this.currentLocation == null || canNotGoUpFromThisFolder(this.currentLocation.getPath()))
             throw new LocationNotFoundException(null);
 
-        this.frontLocation.push(this.currentLocation);
         if (currentLocationIsLastLocationToUp())
             this.currentLocation = null;
         else
             this.currentLocation = this.currentLocation.getParentFolder();
+        this.history = this.history.up(locationOf(this.currentLocation));
+        prefetch();
     }
 
     /**
@@ -541,9 +1135,16 @@ public class JFiler {
      * @param source Location of your desired file or folder you want to cut.
      */
     public void cut(String source) {
-        source = InitialPreparationOfLocation(source);
+        cut(Collections.singletonList(source));
+    }
 
-        this.clipBoard = File.open(source);
+    /**
+     * Saves all of your desired files and folders in clipboard and set pasting operation to cut method.
+     *
+     * @param sources Locations of your desired files or folders you want to cut.
+     */
+    public void cut(Collection<String> sources) {
+        this.clipBoard = clipBoardOf(sources);
         this.cut = true;
         this.copy = false;
     }
@@ -554,32 +1155,89 @@ public class JFiler {
      * @param source Location of your desired file or folder you want to copy.
      */
     public void copy(String source) {
-        source = InitialPreparationOfLocation(source);
+        copy(Collections.singletonList(source));
+    }
 
-        this.clipBoard = File.open(source);
+    /**
+     * Saves all of your desired files and folders in clipboard and set pasting operation to copy method.
+     *
+     * @param sources Locations of your desired files or folders you want to copy.
+     */
+    public void copy(Collection<String> sources) {
+        this.clipBoard = clipBoardOf(sources);
         this.copy = true;
         this.cut = false;
     }
 
     /**
      * Pastes the file or folder in clipboard in your desired destination with pasting operation
-     * you choose before "copy/cut".
+     * you choose before "copy/cut". If many files are in clipboard, destination is the folder which
+     * they are pasted in, like {@link #pasteAll(String)}.
      *
      * @param destination Location which you want to copy or cut file or folder in clipboard.
      * @throws IOException If anything goes wrong in coping or cutting an IOException will be thrown.
      */
     public void paste(String destination) throws IOException {
+        if (this.clipBoard.size() > 1) {
+            throwIfFailed(pasteAll(destination));
+            return;
+        }
+
         destination = InitialPreparationOfLocation(destination);
 
-        if (this.clipBoard != null)
+        if (!this.clipBoard.isEmpty() && this.journal != null && (this.copy || this.cut)) {
+            Path target = Paths.get(destination);
+            throwIfFailed(journaled(this.journal, this.copy ? JournalOperation.COPY : JournalOperation.MOVE,//
+                    Collections.singletonList(this.clipBoard.get(0).getPath()), location -> target, 1));
+        } else if (!this.clipBoard.isEmpty())
             if (this.copy)
-                copyTo(this.clipBoard.getPath(), destination);
+                copyTo(this.clipBoard.get(0).getPath(), destination);
             else if (this.cut)
-                moveTo(this.clipBoard.getPath(), destination);
+                moveTo(this.clipBoard.get(0).getPath(), destination);
 
-        this.clipBoard = null;
-        this.copy = false;
-        this.cut = false;
+        clearClipBoard();
+    }
+
+    /**
+     * Pastes all files and folders in clipboard in your desired folder as one batch. Copies run in parallel,
+     * and moves in the same file system are done by renaming. It doesn't stop on the first failure and
+     * reports what happened to each file in clipboard.
+     *
+     * @param destination Location of folder which you want to copy or cut files and folders in clipboard in.
+     * @return Result of pasting for each file in clipboard, in the same order as they were given.
+     */
+    public List<OperationResult> pasteAll(String destination) {
+        return pasteAll(destination, BulkExecutor.defaultParallelism());
+    }
+
+    /**
+     * Pastes all files and folders in clipboard in your desired folder as one batch. Copies run in parallel,
+     * and moves in the same file system are done by renaming. It doesn't stop on the first failure and
+     * reports what happened to each file in clipboard.
+     *
+     * @param destination Location of folder which you want to copy or cut files and folders in clipboard in.
+     * @param parallelism Maximum number of files which are pasted at the same time.
+     * @return Result of pasting for each file in clipboard, in the same order as they were given.
+     */
+    public List<OperationResult> pasteAll(String destination, int parallelism) {
+        destination = InitialPreparationOfLocation(destination);
+
+        List<String> sources = new ArrayList<>(this.clipBoard.size());
+        for (File file : this.clipBoard)
+            sources.add(file.getPath());
+
+        List<OperationResult> results = Collections.emptyList();
+        if (this.copy)
+            results = this.journal == null//
+                    ? copyAll(sources, destination, parallelism)//
+                    : copyAll(sources, destination, parallelism, this.journal);
+        else if (this.cut)
+            results = this.journal == null//
+                    ? moveAll(sources, destination, parallelism)//
+                    : moveAll(sources, destination, parallelism, this.journal);
+
+        clearClipBoard();
+        return results;
     }
 
     /**
@@ -591,11 +1249,64 @@ public class JFiler {
     public void delete(String destination) throws IOException {
         destination = InitialPreparationOfLocation(destination);
 
-        deleteThe(destination);
+        if (this.journal != null)
+            throwIfFailed(deleteAll(Collections.singletonList(destination), 1, this.journal));
+        else
+            deleteThe(destination);
+    }
+
+    private static void throwIfFailed(List<OperationResult> results) throws IOException {
+        IOException failure = null;
+        for (OperationResult result : results)
+            if (!result.isSuccess()) {
+                Throwable cause = result.getCause() != null ? result.getCause() : new IOException(result.getReason());
+                if (failure == null)
+                    failure = new IOException("Operation failed on " + result.getLocation(), cause);
+                else
+                    failure.addSuppressed(cause);
+            }
+        if (failure != null)
+            throw failure;
+    }
+
+    private List<File> clipBoardOf(Collection<String> sources) {
+        List<File> files = new ArrayList<>(sources.size());
+        for (String source : sources)
+            files.add(File.open(InitialPreparationOfLocation(source)));
+        return Collections.unmodifiableList(files);
+    }
+
+    private void clearClipBoard() {
+        this.clipBoard = Collections.emptyList();
+        this.copy = false;
+        this.cut = false;
+    }
+
+    Prefetcher getPrefetcher() {
+        return this.prefetcher;
+    }
+
+    private void prefetch() {
+        if (this.prefetcher != null && this.currentLocation != null//
+                && !(this.currentLocation instanceof ArchiveFolder))
+            this.prefetcher.navigatedTo(this.currentLocation.getLocation());
+    }
+
+    private static Path locationOf(Folder folder) {
+        return folder == null ? null : folder.getLocation();
+    }
+
+    private static Folder folderOf(Path location) {
+        if (location == null)
+            return null;
+        // Zip files and folders in them are browsed without being extracted
+        if (Archives.isArchive(location) || Archives.archiveOf(location) != null)
+            return Archives.openFolder(location);
+        return Folder.open(location);
     }
 
     private Boolean currentLocationIsLastLocationToUp() {
-        return this.currentLocation.getPath().split("(?<!:)/").length == 2;
+        return Locations.isRootOrChildOfRoot(this.currentLocation.getLocation());
     }
 
     private String InitialPreparationOfLocation(String location) {
@@ -603,24 +1314,106 @@ public class JFiler {
             location = location.substring(1);
         if (this.homeLocation != null && !location.startsWith("/"))
             location = this.homeLocation.getPath().concat("/").concat(location);
-        return JFilerUtils.pathSeparatorCorrector(location);
+        return Locations.normalize(location);
     }
 
     private boolean canNotOpenThis(String location) {
-        return (this.homeLocation == null && !File.exists(location)) //
-                || (this.homeLocation != null && !File.exists(location));
+        return !File.exists(location) && !Archives.isFolder(Paths.get(location));
     }
 
     private boolean canNotGoUpFromThisFolder(String location) {
         return this.homeLocation != null && location.equals(this.homeLocation.getPath());
     }
 
+    private static List<OperationResult> journaled(Journal journal, JournalOperation operation,//
+                                                   Collection<String> locations, Function<Path, Path> destinationOf,//
+                                                   int parallelism) {
+        Map<Path, JournalEntry> entries = new LinkedHashMap<>();
+        Map<Path, IOException> unjournaled = new HashMap<>();
+        Set<Path> sources = new HashSet<>();
+        Set<Path> destinations = new HashSet<>();
+        for (String location : locations) {
+            Path source;
+            Path destination;
+            try {
+                source = Locations.toPath(location);
+                destination = destinationOf.apply(source);
+            } catch (RuntimeException e) {
+                // Executor fails this location on its own
+                continue;
+            }
+            // Locations which are skipped for being given twice or for having the destination of an earlier one
+            // are not journaled
+            if (!sources.add(source.toAbsolutePath().normalize()) ||//
+                    (destination != null && !destinations.add(destination)))
+                continue;
+            try {
+                entries.put(source, journal.begin(operation, source, destination));
+            } catch (IOException e) {
+                unjournaled.put(source, e);
+            }
+        }
+        try {
+            // One fsync for intents of the whole batch
+            journal.sync();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        Function<Path, Path> targetOf = operation == JournalOperation.DELETE ? null : destinationOf;
+        List<OperationResult> results = new BulkExecutor(parallelism).execute(locations, targetOf, (location, isFile) -> {
+            JournalEntry entry = entries.get(location);
+            // A location whose intent couldn't be written is never touched
+            if (entry == null)
+                throw unjournaled.get(location);
+            JFilerUtils.runJournaled(journal, entry, isFile);
+        });
+
+        try {
+            for (JournalEntry entry : entries.values())
+                journal.end(entry);
+            journal.sync();
+        } catch (IOException e) {
+            // Operations are done, but they are left incomplete in journal and the caller must know it
+            throw new UncheckedIOException("Operations are done but their ends couldn't be written in journal", e);
+        }
+        return results;
+    }
+
+    static IOScheduler.Permit interactive(Path location) {
+        try {
+            return IOScheduler.getDefault().acquire(IOPriority.INTERACTIVE, location);
+        } catch (InterruptedIOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static Function<Path, Path> targetIn(Path destinationFolder) {
+        return location -> {
+            Path name = location.getFileName();
+            if (name == null)
+                throw new IllegalArgumentException("A root can't be put in a folder: " + location);
+            return destinationFolder.resolve(name);
+        };
+    }
+
+    private static Path bulkDestination(String destination) {
+        destination = Locations.normalize(destination);
+
+        if (!new java.io.File(destination).isDirectory())
+            throw new LocationNotFoundException(destination);
+
+        return Paths.get(destination);
+    }
+
     private static class JFilerUtils {
 
-        public static void writeFromInputStreamToOutputStream(InputStream is, OutputStream os) throws IOException {
-            byte[] buffer = new byte[1024];
+        public static void writeFromInputStreamToOutputStream(InputStream is, OutputStream os,//
+                                                              IOScheduler.Permit permit) throws IOException {
+            byte[] buffer = new byte[64 * 1024];
             int length;
             while ((length = is.read(buffer)) > 0) {
+                permit.transferred(length);
                 os.write(buffer, 0, length);
             }
 
@@ -630,12 +1423,29 @@ public class JFiler {
 
         public static void deleteFile(String location) throws IOException {
             File file = File.open(location);
-            if (!file.delete())
+            boolean deleted;
+            IOScheduler.Permit permit = IOScheduler.getDefault().acquire(IOPriority.BULK, file.getLocation());
+            try {
+                deleted = file.delete();
+            } finally {
+                permit.close();
+            }
+            if (!deleted)
                 throw new IOException(//
                         "Failed to delete the file because: " +//
                                 getReasonForFileDeletionFailureInPlainEnglish(file));
         }
 
+        // Executor has already checked the file, so it's deleted without opening it again
+        public static void deleteFile(Path location) throws IOException {
+            IOScheduler.Permit permit = IOScheduler.getDefault().acquire(IOPriority.BULK, location);
+            try {
+                Files.delete(location);
+            } finally {
+                permit.close();
+            }
+        }
+
         private static String getReasonForFileDeletionFailureInPlainEnglish(File file) {
             try {
                 if (!file.exists())
@@ -649,20 +1459,8 @@ public class JFiler {
             }
         }
 
-        public static String newNamedLocation(String location, String newName) {
-            location = pathSeparatorCorrector(location);
-            StringBuilder newNamedLocation = new StringBuilder();
-            for (String directory : location.split("/"))
-                if (directory.equals(location.split("/")[location.split("/").length - 1]))
-                    newNamedLocation.append(newName);
-                else
-                    newNamedLocation.append(directory).append("/");
-
-            return newNamedLocation.toString();
-        }
-
         public static void hideFileInUnix(String destination) throws IOException {
-            JFiler.rename(destination, "." + destination.split("/")[destination.split("/").length - 1]);
+            JFiler.rename(destination, "." + Locations.nameOf(destination));
         }
 
         public static void hideFileInWindows(String destination) throws IOException {
@@ -670,16 +1468,91 @@ public class JFiler {
         }
 
         public static void unHideFileInUnix(String destination) throws IOException {
-            JFiler.rename(destination, destination.split("/")[destination.split("/").length - 1]//
-                    .replaceFirst(".", ""));
+            JFiler.rename(destination, Locations.nameOf(destination).substring(1));
         }
 
         public static void unHideFileInWindows(String destination) throws IOException {
             Files.setAttribute(Paths.get(destination), "dos:hidden", false, LinkOption.NOFOLLOW_LINKS);
         }
 
-        public static String pathSeparatorCorrector(String path) {
-            return path.replaceAll("\\\\", "/");
+        public static void move(Path source, Path destination, boolean isFile) throws IOException {
+            try {
+                // In the same file system a move is just a rename, or a link which never replaces destination
+                AtomicPublisher.moveNew(source, destination);
+                return;
+            } catch (AtomicMoveNotSupportedException e) {
+                // Another file system, so it must be copied
+            }
+            if (isFile) {
+                copyFile(source.toString(), destination.toString());
+                deleteFile(source.toString());
+            } else {
+                copyFolder(source.toString(), destination.toString());
+                deleteFolder(source.toString());
+            }
+        }
+
+        public static void runJournaled(Journal journal, JournalEntry entry, boolean isFile) throws IOException {
+            switch (entry.getOperation()) {
+                case COPY:
+                    publishCopy(entry, isFile);
+                    break;
+                case MOVE:
+                    moveJournaled(journal, entry, isFile);
+                    break;
+                case DELETE:
+                    if (isFile)
+                        deleteFile(entry.getSource().toString());
+                    else
+                        deleteFolder(entry.getSource().toString());
+                    break;
+            }
+        }
+
+        public static void publishCopy(JournalEntry entry, boolean isFile) throws IOException {
+            Path destination = entry.getDestination();
+            Path temporary = entry.getTemporaryLocation();
+            if (Files.exists(destination, LinkOption.NOFOLLOW_LINKS))
+                throw new FileAlreadyExistsException(destination.toString());
+            try {
+                if (isFile)
+                    copyFile(entry.getSource().toString(), temporary.toString());
+                else
+                    copyFolder(entry.getSource().toString(), temporary.toString());
+                AtomicPublisher.moveNew(temporary, destination);
+            } catch (IOException | RuntimeException e) {
+                if (Files.exists(temporary, LinkOption.NOFOLLOW_LINKS))
+                    deleteFolder(temporary.toString());
+                throw e;
+            }
+        }
+
+        public static void moveJournaled(Journal journal, JournalEntry entry, boolean isFile) throws IOException {
+            Path destination = entry.getDestination();
+            try {
+                AtomicPublisher.moveNew(entry.getSource(), destination);
+                return;
+            } catch (AtomicMoveNotSupportedException e) {
+                // Another file system, so it must be copied
+            }
+            publishCopy(entry, isFile);
+            // Source is only deleted once its copy is surely on disk
+            forceTree(destination);
+            journal.copied(entry);
+            if (isFile)
+                deleteFile(entry.getSource().toString());
+            else
+                deleteFolder(entry.getSource().toString());
+        }
+
+        public static void forceTree(Path location) throws IOException {
+            try (Stream<Path> files = Files.walk(location)) {
+                for (Path file : (Iterable<Path>) files::iterator)
+                    if (Files.isRegularFile(file, LinkOption.NOFOLLOW_LINKS))
+                        try (FileChannel channel = FileChannel.open(file)) {
+                            channel.force(true);
+                        }
+            }
         }
 
         public static void copyFolder(String source, String destination) throws IOException {
@@ -693,30 +1566,58 @@ public class JFiler {
         }
 
         public static void copyFile(String source, String destination) throws IOException {
+            if (Files.size(Paths.get(source)) >= RangeCopier.LARGE_FILE_SIZE) {
+                new RangeCopier().copy(Paths.get(source), Paths.get(destination));
+                return;
+            }
             JFiler.createNewFile(destination);
-            InputStream is = new FileInputStream(source);
-            OutputStream os = new FileOutputStream(destination);
-            writeFromInputStreamToOutputStream(is, os);
+            try (IOScheduler.Permit permit = IOScheduler.getDefault().acquire(IOPriority.BULK, Paths.get(source));
+                 InputStream is = new FileInputStream(source);
+                 OutputStream os = new FileOutputStream(destination)) {
+                writeFromInputStreamToOutputStream(is, os, permit);
+            }
         }
 
         public static void deleteFolder(String destination) throws IOException {
-            Files.walk(Paths.get(destination))
-                    .sorted(Comparator.reverseOrder())
-                    .map(Path::toFile)
-                    .forEach(java.io.File::delete);
-        }
-
-        public static List<String> recursionSearch(String regex, String destination) {
-            Folder folder = new Folder(Paths.get(destination));
-            List<String> foundedFiles = new ArrayList<>();
-            Pattern p = Pattern.compile(regex);
-            for (File file : folder.getContains()) {
-                if (p.matcher(file.getName()).find())
-                    foundedFiles.add(file.getPath());
-                if (file.isDirectory())
-                    foundedFiles.addAll(recursionSearch(regex, file.getPath()));
+            IOException failure = deleteTree(Paths.get(destination), null);
+            if (failure != null)
+                throw failure;
+        }
+
+        // The rest is still deleted, but the first failure is what left the folder in place
+        private static IOException deleteTree(Path folder, IOException failure) throws InterruptedIOException {
+            if (!Files.isDirectory(folder, LinkOption.NOFOLLOW_LINKS))
+                return delete(folder, failure);
+
+            // One permit for files of a folder instead of one per file, so an IOPS limit doesn't make a large
+            // delete crawl. It's released before sub folders are deleted so permits are never nested
+            List<Path> folders = new ArrayList<>();
+            IOScheduler.Permit permit = IOScheduler.getDefault().acquire(IOPriority.BULK, folder);
+            try (DirectoryStream<Path> children = Files.newDirectoryStream(folder)) {
+                for (Path child : children)
+                    if (Files.isDirectory(child, LinkOption.NOFOLLOW_LINKS))
+                        folders.add(child);
+                    else
+                        failure = delete(child, failure);
+            } catch (IOException e) {
+                failure = failure != null ? failure : e;
+            } catch (DirectoryIteratorException e) {
+                failure = failure != null ? failure : e.getCause();
+            } finally {
+                permit.close();
+            }
+            for (Path child : folders)
+                failure = deleteTree(child, failure);
+            return delete(folder, failure);
+        }
+
+        private static IOException delete(Path location, IOException failure) {
+            try {
+                Files.delete(location);
+                return failure;
+            } catch (IOException e) {
+                return failure != null ? failure : e;
             }
-            return foundedFiles;
         }
     }
 
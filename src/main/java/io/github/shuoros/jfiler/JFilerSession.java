@@ -0,0 +1,259 @@
+package io.github.shuoros.jfiler;
+
+import io.github.shuoros.jfiler.exception.LocationNotFoundException;
+import io.github.shuoros.jfiler.exception.NoBackwardHistoryException;
+import io.github.shuoros.jfiler.exception.NoForwardHistoryException;
+import io.github.shuoros.jfiler.file.File;
+import io.github.shuoros.jfiler.file.Folder;
+import io.github.shuoros.jfiler.io.IOPriority;
+import io.github.shuoros.jfiler.util.Locations;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+
+/**
+ * A light and thread safe counterpart of {@link io.github.shuoros.jfiler.JFiler} to browse files of one user.
+ * All state of a session is one immutable value which is replaced by compare and set, so a session can be
+ * used from many threads at the same time without locks. History is bounded and holds shared locations
+ * instead of folders, and listings of folders are shared by all sessions of the same
+ * {@link io.github.shuoros.jfiler.JFilerSessions}, so an idle session takes a few hundred bytes.
+ *
+ * @author Soroush Shemshadi
+ * @version 1.0.0
+ * @see io.github.shuoros.jfiler.JFilerSessions#open(String)
+ * @since 1.2.0
+ */
+public class JFilerSession {
+
+    private static final AtomicReferenceFieldUpdater<JFilerSession, State> STATE =//
+            AtomicReferenceFieldUpdater.newUpdater(JFilerSession.class, State.class, "state");
+
+    private final JFilerSessions sessions;
+    private final Path home;
+    private volatile State state;
+
+    JFilerSession(JFilerSessions sessions, Path home, History history) {
+        this.sessions = sessions;
+        this.home = home;
+        this.state = new State(history, null, false);
+    }
+
+    /**
+     * Returns an instance of {@link io.github.shuoros.jfiler.file.Folder} which represent the home.
+     *
+     * @return An instance of Folder which represent the home, or null if home is root.
+     */
+    public Folder getHome() {
+        return folder(home);
+    }
+
+    /**
+     * Returns an instance of {@link io.github.shuoros.jfiler.file.Folder}
+     * which represent the current location of session.
+     *
+     * @return An instance of Folder which represent the current location, or null if it's root.
+     */
+    public Folder getCurrent() {
+        return folder(state.history.current());
+    }
+
+    /**
+     * Returns an instance of {@link io.github.shuoros.jfiler.file.Folder}
+     * which represent the rear location of session.
+     *
+     * @return An instance of Folder which represent the rear location, or null if there is none or it's root.
+     */
+    public Folder getRear() {
+        return folder(state.history.rear());
+    }
+
+    /**
+     * Returns an instance of {@link io.github.shuoros.jfiler.file.Folder}
+     * which represent the front location of session.
+     *
+     * @return An instance of Folder which represent the front location, or null if there is none or it's root.
+     */
+    public Folder getFront() {
+        return folder(state.history.front());
+    }
+
+    /**
+     * Returns an instance of {@link io.github.shuoros.jfiler.file.File} which represent
+     * the current file or folder in clipboard.
+     *
+     * @return An instance of File which represent the current file or folder in clipboard.
+     */
+    public File getClipBoard() {
+        Path clipBoard = state.clipBoard;
+        return clipBoard == null ? null : File.open(clipBoard);
+    }
+
+    /**
+     * Returns a string that indicates the operation that the session is about to perform.
+     *
+     * @return "copy", "cut" or "NaN".
+     */
+    public String pasteOperation() {
+        State current = state;
+        if (current.clipBoard == null)
+            return "NaN";
+        return current.cut ? "cut" : "copy";
+    }
+
+    /**
+     * Returns list of all files and folders in current location of session. The list is shared with other
+     * sessions and can't be modified.
+     *
+     * @return List of all files and folders in current location of session.
+     */
+    public List<File> getList() {
+        Path current = state.history.current();
+        if (current != null)
+            return sessions.getListings().list(current, IOPriority.INTERACTIVE);
+
+        List<File> roots = new ArrayList<>();
+        for (java.io.File root : java.io.File.listRoots())
+            roots.add(new File(root.toPath()));
+        return Collections.unmodifiableList(roots);
+    }
+
+    /**
+     * Opens a folder in the given location. The current location will be added to rear location and front
+     * history is dropped. If home is locked and the given location is outside of home it throws
+     * {@link LocationNotFoundException}.
+     *
+     * @param location Location of desired folder which you want to open.
+     */
+    public void openFolder(String location) {
+        Path folder = resolve(location);
+
+        if (!File.exists(folder))
+            throw new LocationNotFoundException(folder.toString());
+
+        STATE.updateAndGet(this, current -> current.with(current.history.open(folder)));
+    }
+
+    /**
+     * Goes backward to the last rear location. If there is no backward history
+     * it throws {@link io.github.shuoros.jfiler.exception.NoBackwardHistoryException}.
+     */
+    public void goBackward() {
+        STATE.updateAndGet(this, current -> {
+            if (!current.history.hasRear())
+                throw new NoBackwardHistoryException();
+            return current.with(current.history.backward());
+        });
+    }
+
+    /**
+     * Goes forward to the last front location. If there is no forward history
+     * it throws {@link io.github.shuoros.jfiler.exception.NoForwardHistoryException}.
+     */
+    public void goForward() {
+        STATE.updateAndGet(this, current -> {
+            if (!current.history.hasFront())
+                throw new NoForwardHistoryException();
+            return current.with(current.history.forward());
+        });
+    }
+
+    /**
+     * Goes up to the parent of current location. The current location will be added to front location. If home
+     * is locked and parent of current location is outside of home it throws {@link LocationNotFoundException}.
+     */
+    public void goUp() {
+        STATE.updateAndGet(this, current -> {
+            Path location = current.history.current();
+            if (location == null || location.equals(home))
+                throw new LocationNotFoundException(null);
+            Path parent = Locations.isRootOrChildOfRoot(location) ? null : sessions.intern(location.getParent());
+            return current.with(current.history.up(parent));
+        });
+    }
+
+    /**
+     * Saves your desired file or folder in clipboard and set pasting operation to cut method.
+     *
+     * @param source Location of your desired file or folder you want to cut.
+     */
+    public void cut(String source) {
+        Path location = resolve(source);
+        STATE.updateAndGet(this, current -> new State(current.history, location, true));
+    }
+
+    /**
+     * Saves your desired file or folder in clipboard and set pasting operation to copy method.
+     *
+     * @param source Location of your desired file or folder you want to copy.
+     */
+    public void copy(String source) {
+        Path location = resolve(source);
+        STATE.updateAndGet(this, current -> new State(current.history, location, false));
+    }
+
+    /**
+     * Pastes the file or folder in clipboard in your desired destination. Clipboard is emptied before pasting,
+     * so when many threads paste at the same time only one of them pastes it.
+     *
+     * @param destination Location which you want to copy or cut file or folder in clipboard.
+     * @throws IOException If anything goes wrong in coping or cutting an IOException will be thrown.
+     */
+    public void paste(String destination) throws IOException {
+        String location = resolve(destination).toString();
+        State taken = STATE.getAndUpdate(this, current -> new State(current.history, null, false));
+
+        if (taken.clipBoard == null)
+            return;
+        if (taken.cut)
+            JFiler.moveTo(taken.clipBoard.toString(), location);
+        else
+            JFiler.copyTo(taken.clipBoard.toString(), location);
+    }
+
+    /**
+     * Deletes your desired file or folder.
+     *
+     * @param destination Location of file or folder you want to delete.
+     * @throws IOException If anything goes wrong in deleting file or folder an IOException will be thrown.
+     */
+    public void delete(String destination) throws IOException {
+        JFiler.deleteThe(resolve(destination).toString());
+    }
+
+    private Path resolve(String location) {
+        if (this.home != null)
+            location = this.home.toString().concat("/").concat(location.startsWith("/") ? location.substring(1) : location);
+        // ".." must not lead out of home, and equal locations must be equal paths to share their listings
+        Path path = Locations.toPath(location).normalize();
+        if (this.home != null && !path.startsWith(this.home))
+            throw new LocationNotFoundException(path.toString());
+        return sessions.intern(path);
+    }
+
+    private static Folder folder(Path location) {
+        return location == null ? null : Folder.open(location);
+    }
+
+    private static final class State {
+
+        private final History history;
+        private final Path clipBoard;
+        private final boolean cut;
+
+        State(History history, Path clipBoard, boolean cut) {
+            this.history = history;
+            this.clipBoard = clipBoard;
+            this.cut = cut;
+        }
+
+        State with(History history) {
+            return new State(history, clipBoard, cut);
+        }
+
+    }
+
+}
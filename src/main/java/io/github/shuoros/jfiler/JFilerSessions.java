@@ -0,0 +1,119 @@
+package io.github.shuoros.jfiler;
+
+import io.github.shuoros.jfiler.util.Locations;
+
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Creates {@link io.github.shuoros.jfiler.JFilerSession}s which share their folder data. Listings of folders
+ * are kept once for all sessions and every location is kept as one shared {@link Path} instance, so a session
+ * itself only holds a few references and a short history of locations.
+ * <p>
+ * For example, to serve many users each in their own home:
+ * <pre>{@code
+ * JFilerSessions sessions = JFilerSessions.create();
+ * JFilerSession session = sessions.open("/srv/users/soroush");
+ * session.openFolder("documents");
+ * List<File> files = session.getList();
+ * }</pre>
+ *
+ * @author Soroush Shemshadi
+ * @version 1.0.0
+ * @see io.github.shuoros.jfiler.JFilerSession
+ * @since 1.2.0
+ */
+public class JFilerSessions {
+
+    /**
+     * Number of locations which a session keeps in its history by default, including its current location.
+     */
+    public static final int DEFAULT_HISTORY_SIZE = 16;
+
+    /**
+     * Number of folders which their listings are kept by default.
+     */
+    public static final int DEFAULT_CACHE_SIZE = 4096;
+
+    private static final int MAX_INTERNED_PATHS = 64 * 1024;
+
+    private final int historySize;
+    private final Listings listings;
+    private final Map<Path, Path> paths = new ConcurrentHashMap<>();
+
+    /**
+     * Constructs a session factory with default history and cache sizes.
+     */
+    public JFilerSessions() {
+        this(DEFAULT_HISTORY_SIZE, DEFAULT_CACHE_SIZE);
+    }
+
+    /**
+     * Constructs a session factory.
+     *
+     * @param historySize Maximum number of locations in history of each session, including its current location.
+     * @param cacheSize   Maximum number of folders which their listings are kept.
+     */
+    public JFilerSessions(int historySize, int cacheSize) {
+        if (historySize < 1)
+            throw new IllegalArgumentException("History size must be at least 1 but was " + historySize);
+        this.historySize = historySize;
+        this.listings = new Listings(cacheSize);
+    }
+
+    /**
+     * Creates a session factory with default history and cache sizes.
+     *
+     * @return A new session factory.
+     */
+    public static JFilerSessions create() {
+        return new JFilerSessions();
+    }
+
+    /**
+     * Opens a session which its home is root.
+     *
+     * @return A new session.
+     */
+    public JFilerSession open() {
+        return open("/");
+    }
+
+    /**
+     * Opens a session in given home.
+     *
+     * @param location Home of session which going to be opened.
+     * @return A new session in your desired location.
+     */
+    public JFilerSession open(String location) {
+        Path home = ("/".equals(location)) ? null : intern(Locations.toPath(location).normalize());
+        return new JFilerSession(this, home, History.of(home, historySize));
+    }
+
+    /**
+     * Drops all kept listings, so each folder is listed again the next time it's needed.
+     */
+    public void clearCache() {
+        listings.clear();
+        paths.clear();
+    }
+
+    Listings getListings() {
+        return listings;
+    }
+
+    Path intern(Path location) {
+        if (location == null)
+            return null;
+        Path interned = paths.get(location);
+        if (interned != null)
+            return interned;
+        if (paths.size() >= MAX_INTERNED_PATHS)
+            // Interned paths stay valid, only later ones are not shared with them anymore
+            paths.clear();
+        interned = paths.putIfAbsent(location, location);
+        return interned != null ? interned : location;
+    }
+
+}
@@ -0,0 +1,171 @@
+package io.github.shuoros.jfiler;
+
+import io.github.shuoros.jfiler.file.File;
+import io.github.shuoros.jfiler.file.Folder;
+import io.github.shuoros.jfiler.io.IOPriority;
+import io.github.shuoros.jfiler.io.IOScheduler;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps listings of folders in memory. A kept listing is served as long as last modification time of its
+ * folder hasn't changed, and its list is unmodifiable so it can be shared by every caller and thread.
+ * When more folders than the limit are kept, some of them are dropped.
+ * <p>
+ * Some file systems, like FAT, HFS+ and some network mounts, keep modification times in steps of up to two
+ * seconds, so a second change in the same step doesn't change it. A folder which was modified less than a step
+ * before it was listed may still be changing, so its listing is only served while its number of entries hasn't
+ * changed either.
+ * <p>
+ * Rewriting a file doesn't change last modification time of its folder, so each kept file is checked against its
+ * own last modification time when a listing is served, and the ones which have changed are read again.
+ *
+ * @author Soroush Shemshadi
+ * @version 1.0.0
+ * @since 1.2.0
+ */
+class Listings {
+
+    private static final long TIMESTAMP_STEP = 2000;
+
+    private final int limit;
+    private final Map<Path, Listing> listings = new ConcurrentHashMap<>();
+
+    Listings(int limit) {
+        if (limit < 1)
+            throw new IllegalArgumentException("Limit must be at least 1 but was " + limit);
+        this.limit = limit;
+    }
+
+    /**
+     * Gets listing of a folder from memory if it's still valid, otherwise lists it now and keeps it.
+     *
+     * @param folder   Folder to list.
+     * @param priority Priority which folder is listed with if it's not in memory.
+     * @return Files and folders in given folder.
+     */
+    List<File> list(Path folder, IOPriority priority) {
+        List<File> cached = cached(folder);
+        return cached != null ? cached : listAndKeep(folder, priority);
+    }
+
+    /**
+     * Determines if a valid listing of given folder is in memory.
+     *
+     * @param folder Folder to check.
+     * @return True if folder can be listed from memory and false if not.
+     */
+    boolean isListed(Path folder) {
+        return cached(folder) != null;
+    }
+
+    void clear() {
+        listings.clear();
+    }
+
+    private List<File> cached(Path folder) {
+        Listing listing = listings.get(folder);
+        if (listing == null || listing.lastModified != lastModified(folder))
+            return null;
+        if (!listing.settled && (listing.entries < 0 || listing.entries != count(folder)))
+            return null;
+        List<File> files = refreshed(listing.files);
+        if (files != listing.files)
+            listings.replace(folder, listing, new Listing(listing.lastModified, listing.settled, listing.entries, files));
+        return files;
+    }
+
+    private static List<File> refreshed(List<File> files) {
+        List<File> refreshed = null;
+        for (int i = 0; i < files.size(); i++) {
+            File file = files.get(i);
+            Date lastModified = file.getLastModifiedDate();
+            if (lastModified != null && lastModified.getTime() == lastModified(file.getLocation()))
+                continue;
+            if (refreshed == null)
+                refreshed = new ArrayList<>(files);
+            Path location = file.getLocation();
+            refreshed.set(i, location.toFile().isFile() ? new File(location) : new Folder(location));
+        }
+        return refreshed == null ? files : Collections.unmodifiableList(refreshed);
+    }
+
+    private List<File> listAndKeep(Path folder, IOPriority priority) {
+        long lastModified = lastModified(folder);
+        boolean settled = System.currentTimeMillis() - lastModified >= TIMESTAMP_STEP;
+        int entries;
+        List<File> files;
+        IOScheduler.Permit permit = acquire(priority, folder);
+        try {
+            entries = settled ? 0 : count(folder);
+            files = Collections.unmodifiableList(new ArrayList<>(Folder.open(folder).getContains()));
+        } finally {
+            permit.close();
+        }
+        if (listings.size() >= limit)
+            evict();
+        listings.put(folder, new Listing(lastModified, settled, entries, files));
+        return files;
+    }
+
+    private void evict() {
+        // Not the least recently used one, but dropping any keeps this lock free
+        Iterator<Path> keys = listings.keySet().iterator();
+        while (listings.size() >= limit && keys.hasNext()) {
+            keys.next();
+            keys.remove();
+        }
+    }
+
+    private static IOScheduler.Permit acquire(IOPriority priority, Path folder) {
+        try {
+            return IOScheduler.getDefault().acquire(priority, folder);
+        } catch (InterruptedIOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static long lastModified(Path folder) {
+        try {
+            return Files.getLastModifiedTime(folder).toMillis();
+        } catch (IOException e) {
+            return Long.MIN_VALUE;
+        }
+    }
+
+    private static int count(Path folder) {
+        int count = 0;
+        try (DirectoryStream<Path> entries = Files.newDirectoryStream(folder)) {
+            for (Iterator<Path> iterator = entries.iterator(); iterator.hasNext(); iterator.next())
+                count++;
+        } catch (IOException | RuntimeException e) {
+            return -1;
+        }
+        return count;
+    }
+
+    private static class Listing {
+
+        private final long lastModified;
+        private final boolean settled;
+        // Only counted for folders which may still be changing, and -1 if they couldn't be counted
+        private final int entries;
+        private final List<File> files;
+
+        Listing(long lastModified, boolean settled, int entries, List<File> files) {
+            this.lastModified = lastModified;
+            this.settled = settled;
+            this.entries = entries;
+            this.files = files;
+        }
+
+    }
+
+}
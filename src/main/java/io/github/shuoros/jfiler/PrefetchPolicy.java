@@ -0,0 +1,122 @@
+package io.github.shuoros.jfiler;
+
+/**
+ * Configuration of prefetching in a {@link io.github.shuoros.jfiler.JFiler} instance. When prefetching is
+ * enabled, after each navigation JFiler lists the new current folder and its sub folders in background, so
+ * the next {@link JFiler#openFolder(String)} and {@link JFiler#getList()} are served from memory.
+ * <p>
+ * For example, to warm two levels of sub folders but list at most 200 folders after each navigation:
+ * <pre>{@code
+ * jFiler.enablePrefetch(PrefetchPolicy.create().depth(2).budget(200));
+ * }</pre>
+ *
+ * @author Soroush Shemshadi
+ * @version 1.0.0
+ * @since 1.2.0
+ */
+public class PrefetchPolicy {
+
+    private int depth = 1;
+    private int budget = 64;
+    private int threads = 1;
+    private int cacheSize = 1024;
+    private boolean cancelOnNavigation = true;
+
+    private PrefetchPolicy() {
+    }
+
+    /**
+     * Creates a policy which lists direct sub folders of current folder, at most 64 of them,
+     * on one background thread.
+     *
+     * @return A new policy.
+     */
+    public static PrefetchPolicy create() {
+        return new PrefetchPolicy();
+    }
+
+    /**
+     * Sets how many levels of sub folders are listed. 0 only lists current folder.
+     *
+     * @param depth Levels of sub folders to list.
+     * @return This policy.
+     */
+    public PrefetchPolicy depth(int depth) {
+        if (depth < 0)
+            throw new IllegalArgumentException("Depth can't be negative but was " + depth);
+        this.depth = depth;
+        return this;
+    }
+
+    /**
+     * Sets maximum number of folders which are listed after each navigation.
+     *
+     * @param budget Maximum number of folders to list.
+     * @return This policy.
+     */
+    public PrefetchPolicy budget(int budget) {
+        if (budget < 1)
+            throw new IllegalArgumentException("Budget must be at least 1 but was " + budget);
+        this.budget = budget;
+        return this;
+    }
+
+    /**
+     * Sets number of low priority background threads which list folders.
+     *
+     * @param threads Number of threads.
+     * @return This policy.
+     */
+    public PrefetchPolicy threads(int threads) {
+        if (threads < 1)
+            throw new IllegalArgumentException("Threads must be at least 1 but was " + threads);
+        this.threads = threads;
+        return this;
+    }
+
+    /**
+     * Sets maximum number of folder listings which are kept in memory. When there are more, arbitrary
+     * ones are dropped, so keeping them stays lock free.
+     *
+     * @param cacheSize Maximum number of kept listings.
+     * @return This policy.
+     */
+    public PrefetchPolicy cacheSize(int cacheSize) {
+        if (cacheSize < 1)
+            throw new IllegalArgumentException("Cache size must be at least 1 but was " + cacheSize);
+        this.cacheSize = cacheSize;
+        return this;
+    }
+
+    /**
+     * Sets whether prefetching for previous location is stopped when JFiler navigates somewhere else.
+     *
+     * @param cancelOnNavigation True to stop previous prefetching on navigation.
+     * @return This policy.
+     */
+    public PrefetchPolicy cancelOnNavigation(boolean cancelOnNavigation) {
+        this.cancelOnNavigation = cancelOnNavigation;
+        return this;
+    }
+
+    int getDepth() {
+        return depth;
+    }
+
+    int getBudget() {
+        return budget;
+    }
+
+    int getThreads() {
+        return threads;
+    }
+
+    int getCacheSize() {
+        return cacheSize;
+    }
+
+    boolean isCancelOnNavigation() {
+        return cancelOnNavigation;
+    }
+
+}
@@ -0,0 +1,117 @@
+package io.github.shuoros.jfiler;
+
+import io.github.shuoros.jfiler.file.File;
+import io.github.shuoros.jfiler.file.Folder;
+import io.github.shuoros.jfiler.io.IOPriority;
+
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lists folders in background for a {@link io.github.shuoros.jfiler.JFiler} and keeps their listings in memory.
+ * A kept listing is served as long as last modification time of its folder hasn't changed.
+ * <p>
+ * Each navigation starts a new generation of prefetching. When {@link PrefetchPolicy#cancelOnNavigation(boolean)}
+ * is on, tasks of older generations stop as soon as they notice a newer one.
+ *
+ * @author Soroush Shemshadi
+ * @version 1.0.0
+ * @since 1.2.0
+ */
+class Prefetcher {
+
+    private static final AtomicInteger THREAD_NUMBER = new AtomicInteger();
+
+    private final PrefetchPolicy policy;
+    private final ExecutorService executor;
+    private final Listings listings;
+    private final AtomicLong generation = new AtomicLong();
+
+    Prefetcher(PrefetchPolicy policy) {
+        this.policy = policy;
+        this.executor = Executors.newFixedThreadPool(policy.getThreads(), runnable -> {
+            Thread thread = new Thread(runnable, "jfiler-prefetch-" + THREAD_NUMBER.incrementAndGet());
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        });
+        this.listings = new Listings(policy.getCacheSize());
+    }
+
+    /**
+     * Starts listing given folder and its sub folders in background.
+     *
+     * @param folder Folder which JFiler has navigated to.
+     */
+    void navigatedTo(Path folder) {
+        long current = policy.isCancelOnNavigation() ? generation.incrementAndGet() : generation.get();
+        submit(folder, 0, current, new AtomicInteger(policy.getBudget()));
+    }
+
+    /**
+     * Gets listing of a folder from memory if it's still valid, otherwise lists it now, as interactive I/O,
+     * and keeps it.
+     *
+     * @param folder Folder to list.
+     * @return Files and folders in given folder.
+     */
+    List<File> list(Path folder) {
+        return listings.list(folder, IOPriority.INTERACTIVE);
+    }
+
+    /**
+     * Determines if a valid listing of given folder is in memory.
+     *
+     * @param folder Folder to check.
+     * @return True if folder can be listed from memory and false if not.
+     */
+    boolean isListed(Path folder) {
+        return listings.isListed(folder);
+    }
+
+    /**
+     * Stops background threads and drops all kept listings.
+     */
+    void shutdown() {
+        generation.incrementAndGet();
+        executor.shutdownNow();
+        listings.clear();
+    }
+
+    private void submit(Path folder, int depth, long taskGeneration, AtomicInteger budget) {
+        try {
+            executor.execute(() -> warm(folder, depth, taskGeneration, budget));
+        } catch (RejectedExecutionException e) {
+            // Prefetcher is shut down
+        }
+    }
+
+    private void warm(Path folder, int depth, long taskGeneration, AtomicInteger budget) {
+        if (taskGeneration != generation.get() || budget.decrementAndGet() < 0)
+            return;
+
+        List<File> files;
+        try {
+            files = listings.list(folder, IOPriority.BULK);
+        } catch (UncheckedIOException e) {
+            // Interrupted while waiting for I/O, because prefetcher is shut down
+            return;
+        }
+        if (depth >= policy.getDepth())
+            return;
+
+        for (File file : files) {
+            if (taskGeneration != generation.get())
+                return;
+            if (file instanceof Folder && file.isDirectory())
+                submit(file.getLocation(), depth + 1, taskGeneration, budget);
+        }
+    }
+
+}
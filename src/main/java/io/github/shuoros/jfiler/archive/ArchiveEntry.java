@@ -0,0 +1,123 @@
+package io.github.shuoros.jfiler.archive;
+
+import java.nio.file.attribute.FileTime;
+
+/**
+ * A single file or folder in a {@link io.github.shuoros.jfiler.archive.ZipArchive}, as it's described by
+ * the archive's central directory.
+ *
+ * @author Soroush Shemshadi
+ * @version 1.0.0
+ * @since 1.2.0
+ */
+public class ArchiveEntry {
+
+    /**
+     * Compression method of entries which are stored as they are.
+     */
+    public static final int STORED = 0;
+
+    /**
+     * Compression method of entries which are compressed with deflate.
+     */
+    public static final int DEFLATED = 8;
+
+    private final String name;
+    private final int method;
+    private final int flags;
+    private final long crc;
+    private final long compressedSize;
+    private final long size;
+    private final long localHeaderOffset;
+    private final FileTime lastModified;
+
+    ArchiveEntry(String name, int method, int flags, long crc, long compressedSize, long size,//
+                 long localHeaderOffset, FileTime lastModified) {
+        this.name = name;
+        this.method = method;
+        this.flags = flags;
+        this.crc = crc;
+        this.compressedSize = compressedSize;
+        this.size = size;
+        this.localHeaderOffset = localHeaderOffset;
+        this.lastModified = lastModified;
+    }
+
+    /**
+     * Gets name of this entry, which is its location in archive separated by "/". Names of folders end
+     * with "/".
+     *
+     * @return Name of entry.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Checks if this entry is a folder.
+     *
+     * @return True if entry is a folder.
+     */
+    public boolean isFolder() {
+        return name.endsWith("/");
+    }
+
+    /**
+     * Gets compression method of this entry.
+     *
+     * @return {@link #STORED}, {@link #DEFLATED} or another method which can't be extracted.
+     */
+    public int getMethod() {
+        return method;
+    }
+
+    /**
+     * Gets CRC-32 of extracted content of this entry.
+     *
+     * @return CRC-32 of content.
+     */
+    public long getCrc() {
+        return crc;
+    }
+
+    /**
+     * Gets number of bytes which this entry takes in archive.
+     *
+     * @return Compressed size in bytes.
+     */
+    public long getCompressedSize() {
+        return compressedSize;
+    }
+
+    /**
+     * Gets number of bytes of extracted content of this entry.
+     *
+     * @return Size in bytes.
+     */
+    public long getSize() {
+        return size;
+    }
+
+    /**
+     * Gets last modification time of this entry.
+     *
+     * @return Last modification time.
+     */
+    public FileTime getLastModified() {
+        return lastModified;
+    }
+
+    boolean isEncrypted() {
+        return (flags & 1) != 0;
+    }
+
+    long getLocalHeaderOffset() {
+        return localHeaderOffset;
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+
+}
@@ -0,0 +1,160 @@
+package io.github.shuoros.jfiler.archive;
+
+import io.github.shuoros.jfiler.file.File;
+import io.github.shuoros.jfiler.file.FileContent;
+import io.github.shuoros.jfiler.file.Folder;
+import io.github.shuoros.jfiler.file.Type;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.Date;
+
+/**
+ * A read only {@link io.github.shuoros.jfiler.file.File} inside of a zip file. Its content is read from
+ * the archive with {@link #openStream()}, which only reads compressed bytes of this file.
+ *
+ * @author Soroush Shemshadi
+ * @version 1.0.0
+ * @see io.github.shuoros.jfiler.archive.Archives#open(Path)
+ * @since 1.2.0
+ */
+public class ArchiveFile extends File {
+
+    private static final long serialVersionUID = 1L;
+
+    private final Path archive;
+    private final ArchiveEntry entry;
+
+    ArchiveFile(Path archive, ArchiveEntry entry) {
+        super(Archives.locationOf(archive, entry.getName()));
+        this.archive = archive;
+        this.entry = entry;
+    }
+
+    /**
+     * Gets location of zip file which this file is in.
+     *
+     * @return Location of zip file.
+     */
+    public Path getArchive() {
+        return archive;
+    }
+
+    /**
+     * Gets entry of this file in its archive.
+     *
+     * @return Entry of file.
+     */
+    public ArchiveEntry getEntry() {
+        return entry;
+    }
+
+    /**
+     * Opens a stream of extracted content of this file.
+     *
+     * @return A stream which must be closed.
+     * @throws IOException If archive can't be read an IOException will be thrown.
+     */
+    public InputStream openStream() throws IOException {
+        ZipArchive zip = ZipArchive.open(archive);
+        try {
+            return new FilterInputStream(zip.openEntry(entry)) {
+                @Override
+                public void close() throws IOException {
+                    try {
+                        super.close();
+                    } finally {
+                        zip.close();
+                    }
+                }
+            };
+        } catch (IOException | RuntimeException e) {
+            zip.close();
+            throw e;
+        }
+    }
+
+    @Override
+    public Type getType() {
+        return Type.byName(getName());
+    }
+
+    @Override
+    public Folder getParentFolder() {
+        String name = entry.getName();
+        return new ArchiveFolder(archive, name.substring(0, name.lastIndexOf('/') + 1));
+    }
+
+    @Override
+    public Long getSize() {
+        return entry.getSize();
+    }
+
+    @Override
+    public long length() {
+        return entry.getSize();
+    }
+
+    @Override
+    public Date getLastModifiedDate() {
+        return new Date(entry.getLastModified().toMillis());
+    }
+
+    @Override
+    public long lastModified() {
+        return entry.getLastModified().toMillis();
+    }
+
+    @Override
+    public boolean exists() {
+        // Called by constructor of File before this file is initialized
+        return entry != null;
+    }
+
+    @Override
+    public boolean isFile() {
+        return entry != null;
+    }
+
+    @Override
+    public boolean isDirectory() {
+        return false;
+    }
+
+    @Override
+    public boolean canWrite() {
+        return false;
+    }
+
+    /**
+     * Files in archives are read with {@link #openStream()}.
+     *
+     * @throws UnsupportedOperationException Always.
+     */
+    @Override
+    public FileContent openForRead() {
+        throw new UnsupportedOperationException("Read files in archive with openStream(): " + getLocation());
+    }
+
+    /**
+     * Archives are read only.
+     *
+     * @throws UnsupportedOperationException Always.
+     */
+    @Override
+    public FileContent openForWrite() {
+        throw new UnsupportedOperationException("Archive is read only: " + archive);
+    }
+
+    @Override
+    public String toString() {
+        return "ArchiveFile{" +
+                "archive=" + archive +
+                ", name='" + entry.getName() + '\'' +
+                ", size=" + entry.getSize() + " bytes" +
+                '}';
+    }
+
+}
@@ -0,0 +1,176 @@
+package io.github.shuoros.jfiler.archive;
+
+import io.github.shuoros.jfiler.file.File;
+import io.github.shuoros.jfiler.file.FileContent;
+import io.github.shuoros.jfiler.file.Folder;
+import io.github.shuoros.jfiler.file.Type;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * A read only {@link io.github.shuoros.jfiler.file.Folder} inside of a zip file, or the root of a zip file.
+ * Its content is listed from the archive's cached central directory, without extracting anything.
+ *
+ * @author Soroush Shemshadi
+ * @version 1.0.0
+ * @see io.github.shuoros.jfiler.archive.Archives#openFolder(Path)
+ * @since 1.2.0
+ */
+public class ArchiveFolder extends Folder {
+
+    private static final long serialVersionUID = 1L;
+
+    private final Path archive;
+    private final String entryName;
+
+    ArchiveFolder(Path archive, String entryName) {
+        super(Archives.locationOf(archive, entryName));
+        this.archive = archive;
+        this.entryName = entryName;
+    }
+
+    /**
+     * Gets location of zip file which this folder is in.
+     *
+     * @return Location of zip file.
+     */
+    public Path getArchive() {
+        return archive;
+    }
+
+    /**
+     * Gets name of this folder in its archive, which ends with "/", or "" for root of archive.
+     *
+     * @return Name of folder in archive.
+     */
+    public String getEntryName() {
+        return entryName;
+    }
+
+    /**
+     * Gets list of files and folders in this folder from central directory of its archive.
+     *
+     * @return A new list of files and folders in this folder.
+     */
+    @Override
+    public List<File> getContains() {
+        ZipIndex index = index();
+        Set<String> children = index.children(entryName);
+        List<File> contains = new ArrayList<>(children.size());
+        for (String child : children)
+            contains.add(child.endsWith("/")//
+                    ? new ArchiveFolder(archive, entryName + child)//
+                    : new ArchiveFile(archive, index.entries().get(entryName + child)));
+        return contains;
+    }
+
+    /**
+     * Gets size of extracted content of all files in this folder.
+     *
+     * @return Size of folder in bytes.
+     */
+    @Override
+    public Long getSize() {
+        long size = 0;
+        for (ArchiveEntry entry : index().entries().values())
+            if (!entry.isFolder() && entry.getName().startsWith(entryName))
+                size += entry.getSize();
+        return size;
+    }
+
+    @Override
+    public Type getType() {
+        return Type.Folder;
+    }
+
+    @Override
+    public Folder getParentFolder() {
+        if (entryName.isEmpty())
+            return Folder.open(archive.getParent());
+        String parent = entryName.substring(0, entryName.lastIndexOf('/', entryName.length() - 2) + 1);
+        return new ArchiveFolder(archive, parent);
+    }
+
+    @Override
+    public Date getLastModifiedDate() {
+        return new Date(Archives.lastModifiedOf(index(), entryName).toMillis());
+    }
+
+    @Override
+    public long lastModified() {
+        return getLastModifiedDate().getTime();
+    }
+
+    @Override
+    public boolean exists() {
+        // Called by constructor of File before this folder is initialized
+        return archive != null;
+    }
+
+    @Override
+    public boolean isDirectory() {
+        return archive != null;
+    }
+
+    @Override
+    public boolean isFile() {
+        return false;
+    }
+
+    @Override
+    public boolean canWrite() {
+        return false;
+    }
+
+    @Override
+    public String[] list() {
+        Set<String> children = index().children(entryName);
+        List<String> names = new ArrayList<>(children.size());
+        for (String child : children)
+            names.add(child.endsWith("/") ? child.substring(0, child.length() - 1) : child);
+        return names.toArray(new String[0]);
+    }
+
+    /**
+     * Folders in archives can't be read as content.
+     *
+     * @throws UnsupportedOperationException Always.
+     */
+    @Override
+    public FileContent openForRead() {
+        throw new UnsupportedOperationException("A folder in archive has no content: " + getLocation());
+    }
+
+    /**
+     * Archives are read only.
+     *
+     * @throws UnsupportedOperationException Always.
+     */
+    @Override
+    public FileContent openForWrite() {
+        throw new UnsupportedOperationException("Archive is read only: " + archive);
+    }
+
+    @Override
+    public String toString() {
+        return "ArchiveFolder{" +
+                "archive=" + archive +
+                ", name='" + entryName + '\'' +
+                '}';
+    }
+
+    private ZipIndex index() {
+        try {
+            return ZipIndex.of(archive);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+}
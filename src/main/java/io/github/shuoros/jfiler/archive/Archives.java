@@ -0,0 +1,287 @@
+package io.github.shuoros.jfiler.archive;
+
+import io.github.shuoros.jfiler.file.File;
+import io.github.shuoros.jfiler.file.Folder;
+
+import java.io.IOException;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.Locale;
+import java.util.zip.ZipException;
+
+/**
+ * A utility class to browse zip files as read only folders, without extracting them. A location inside
+ * an archive is the location of the zip file followed by the location of the entry in it, like
+ * "/backup/site.zip/conf/site.properties".
+ * <p>
+ * Archives are browsed through their central directory which is cached per archive, so going back and forth
+ * in an archive never reads it again until it changes.
+ *
+ * @author Soroush Shemshadi
+ * @version 1.0.0
+ * @see io.github.shuoros.jfiler.archive.ArchiveFolder
+ * @see io.github.shuoros.jfiler.archive.ArchiveFile
+ * @since 1.2.0
+ */
+public final class Archives {
+
+    private static final String EXTENSION = ".zip";
+
+    private Archives() {
+    }
+
+    /**
+     * Checks if a location is a zip file which can be browsed as a folder.
+     *
+     * @param location Location to check.
+     * @return True if location is a zip file.
+     */
+    public static boolean isArchive(Path location) {
+        Path name = location.getFileName();
+        return name != null && hasArchiveExtension(name) && Files.isRegularFile(location);
+    }
+
+    /**
+     * Finds the zip file which a location is inside of.
+     *
+     * @param location Location of a file or folder.
+     * @return Location of zip file, or null if location is not inside of a zip file.
+     */
+    public static Path archiveOf(Path location) {
+        // Names are checked first so locations outside of archives never touch disk
+        for (int i = 0; i < location.getNameCount() - 1; i++)
+            if (hasArchiveExtension(location.getName(i))) {
+                Path candidate = location.getRoot() == null//
+                        ? location.subpath(0, i + 1)//
+                        : location.getRoot().resolve(location.subpath(0, i + 1));
+                if (Files.isRegularFile(candidate))
+                    return candidate;
+            }
+        return null;
+    }
+
+    /**
+     * Checks if a location is a zip file or a folder inside of a zip file.
+     *
+     * @param location Location to check.
+     * @return True if location can be opened with {@link #openFolder(Path)}.
+     */
+    public static boolean isFolder(Path location) {
+        if (isArchive(location))
+            return true;
+        Path archive = archiveOf(location);
+        if (archive == null)
+            return false;
+        try {
+            return ZipIndex.of(archive).isFolder(entryName(archive, location) + "/");
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Opens a zip file, or a folder inside of it, as a read only folder. Nothing is read until its content
+     * is listed.
+     *
+     * @param location Location of zip file or of a folder inside of it.
+     * @return A folder which lists entries of archive.
+     */
+    public static ArchiveFolder openFolder(Path location) {
+        Path archive = archiveOf(location);
+        if (archive == null)
+            return new ArchiveFolder(location, "");
+        return new ArchiveFolder(archive, entryName(archive, location) + "/");
+    }
+
+    /**
+     * Opens a file or folder inside of a zip file.
+     *
+     * @param location Location of a file or folder inside of a zip file.
+     * @return An {@link io.github.shuoros.jfiler.archive.ArchiveFile} or an
+     * {@link io.github.shuoros.jfiler.archive.ArchiveFolder}.
+     * @throws IOException If location is not in archive a NoSuchFileException, or if archive can't be read an
+     *                     IOException, will be thrown.
+     */
+    public static File open(Path location) throws IOException {
+        Path archive = archiveOf(location);
+        if (archive == null)
+            throw new NoSuchFileException(location.toString());
+
+        ZipIndex index = ZipIndex.of(archive);
+        String name = entryName(archive, location);
+        if (index.isFolder(name + "/"))
+            return new ArchiveFolder(archive, name + "/");
+        ArchiveEntry entry = index.entries().get(name);
+        if (entry == null)
+            throw new NoSuchFileException(location.toString());
+        return new ArchiveFile(archive, entry);
+    }
+
+    /**
+     * Copies a file or folder out of a zip file, and only reads the entries which are copied.
+     *
+     * @param source      Location of a file or folder inside of a zip file, or of zip file itself to extract it all.
+     * @param destination Location to copy in, which must not exist.
+     * @throws IOException If an entry would be copied outside of destination a ZipException, or if anything else
+     *                     goes wrong in coping an IOException, will be thrown.
+     */
+    public static void copy(Path source, Path destination) throws IOException {
+        Path archive = isArchive(source) ? source : archiveOf(source);
+        if (archive == null)
+            throw new NoSuchFileException(source.toString());
+
+        try (ZipArchive zip = ZipArchive.open(archive)) {
+            ZipIndex index = ZipIndex.of(archive);
+            String name = entryName(archive, source);
+            if (name.isEmpty() || index.isFolder(name + "/"))
+                copyFolder(zip, index, name.isEmpty() ? "" : name + "/", destination);
+            else
+                zip.extract(name, destination);
+        }
+    }
+
+    /**
+     * Walks a zip file, or a folder inside of it, the same way as {@link Files#walkFileTree} walks a folder.
+     *
+     * @param start    Location of zip file or of a folder inside of it.
+     * @param maxDepth Maximum number of levels of folders to visit.
+     * @param visitor  Visitor to call for each file and folder.
+     * @throws IOException If archive can't be read, or visitor throws, an IOException will be thrown.
+     */
+    public static void walkFileTree(Path start, int maxDepth, FileVisitor<? super Path> visitor) throws IOException {
+        ArchiveFolder folder = openFolder(start);
+        ZipIndex index = ZipIndex.of(folder.getArchive());
+        walk(index, folder.getArchive(), folder.getEntryName(), start, 0, maxDepth, visitor);
+    }
+
+    /**
+     * Removes all cached central directories.
+     */
+    public static void clearCache() {
+        ZipIndex.clearCache();
+    }
+
+    static Path locationOf(Path archive, String name) {
+        String stripped = name.endsWith("/") ? name.substring(0, name.length() - 1) : name;
+        return stripped.isEmpty() ? archive : archive.resolve(stripped);
+    }
+
+    static FileTime lastModifiedOf(ZipIndex index, String name) {
+        ArchiveEntry entry = index.entries().get(name);
+        return entry != null ? entry.getLastModified() : FileTime.fromMillis(index.lastModified());
+    }
+
+    private static String entryName(Path archive, Path location) {
+        if (location.equals(archive))
+            return "";
+        StringBuilder name = new StringBuilder();
+        for (Path part : archive.relativize(location)) {
+            if (name.length() > 0)
+                name.append('/');
+            name.append(part);
+        }
+        return name.toString();
+    }
+
+    private static boolean hasArchiveExtension(Path name) {
+        return name.toString().toLowerCase(Locale.ROOT).endsWith(EXTENSION);
+    }
+
+    private static void copyFolder(ZipArchive zip, ZipIndex index, String folder, Path destination) throws IOException {
+        Files.createDirectory(destination);
+        Path root = destination.toAbsolutePath().normalize();
+        for (String child : index.children(folder)) {
+            String name = child.endsWith("/") ? child.substring(0, child.length() - 1) : child;
+            Path target = root.resolve(name).normalize();
+            // Names like "..\evil.bat" are split by Windows but not by zip, and must not escape the folder
+            if (!root.equals(target.getParent()))
+                throw new ZipException("Entry " + folder + child + " is outside of " + destination);
+            if (child.endsWith("/"))
+                copyFolder(zip, index, folder + child, target);
+            else
+                zip.extract(folder + child, target);
+        }
+    }
+
+    private static FileVisitResult walk(ZipIndex index, Path archive, String name, Path location, int depth,//
+                                        int maxDepth, FileVisitor<? super Path> visitor) throws IOException {
+        boolean isFolder = name.isEmpty() || name.endsWith("/");
+        BasicFileAttributes attributes = new EntryAttributes(index, name, isFolder);
+        if (!isFolder || depth >= maxDepth)
+            return visitor.visitFile(location, attributes);
+
+        FileVisitResult result = visitor.preVisitDirectory(location, attributes);
+        if (result != FileVisitResult.CONTINUE)
+            return result == FileVisitResult.SKIP_SUBTREE ? FileVisitResult.CONTINUE : result;
+        for (String child : index.children(name)) {
+            result = walk(index, archive, name + child, locationOf(archive, name + child), depth + 1, maxDepth, visitor);
+            if (result == FileVisitResult.TERMINATE)
+                return result;
+            if (result == FileVisitResult.SKIP_SIBLINGS)
+                break;
+        }
+        return visitor.postVisitDirectory(location, null);
+    }
+
+    private static class EntryAttributes implements BasicFileAttributes {
+
+        private final FileTime lastModified;
+        private final boolean isFolder;
+        private final long size;
+
+        EntryAttributes(ZipIndex index, String name, boolean isFolder) {
+            ArchiveEntry entry = index.entries().get(name);
+            this.lastModified = lastModifiedOf(index, name);
+            this.isFolder = isFolder;
+            this.size = entry == null || isFolder ? 0 : entry.getSize();
+        }
+
+        @Override
+        public FileTime lastModifiedTime() {
+            return lastModified;
+        }
+
+        @Override
+        public FileTime lastAccessTime() {
+            return lastModified;
+        }
+
+        @Override
+        public FileTime creationTime() {
+            return lastModified;
+        }
+
+        @Override
+        public boolean isRegularFile() {
+            return !isFolder;
+        }
+
+        @Override
+        public boolean isDirectory() {
+            return isFolder;
+        }
+
+        @Override
+        public boolean isSymbolicLink() {
+            return false;
+        }
+
+        @Override
+        public boolean isOther() {
+            return false;
+        }
+
+        @Override
+        public long size() {
+            return size;
+        }
+
+        @Override
+        public Object fileKey() {
+            return null;
+        }
+
+    }
+
+}
@@ -0,0 +1,161 @@
+package io.github.shuoros.jfiler.archive;
+
+import io.github.shuoros.jfiler.file.Type;
+
+import java.nio.file.Path;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.Deflater;
+
+/**
+ * Decides for each file which is added to a zip file whether it's stored as it is or deflated, and with
+ * which level. Files of types which are already compressed, like images, videos and archives, are stored.
+ * Other files are deflated only if a quick trial compression of their first block saves enough.
+ * <p>
+ * For example, to store media, trial compress anything else and deflate logs as hard as possible:
+ * <pre>{@code
+ * JFiler.compress(List.of("/photos", "/logs"), "/backup/all.zip",
+ *         CompressionPolicy.create().level(Type.TXT, Deflater.BEST_COMPRESSION));
+ * }</pre>
+ *
+ * @author Soroush Shemshadi
+ * @version 1.0.0
+ * @see io.github.shuoros.jfiler.archive.PolicyZipCompressor
+ * @since 1.2.0
+ */
+public class CompressionPolicy {
+
+    /**
+     * Number of bytes from start of a file which are trial compressed by default.
+     */
+    public static final int DEFAULT_TRIAL_SIZE = 64 * 1024;
+
+    /**
+     * Fraction of size which trial compression must save by default for a file to be deflated.
+     */
+    public static final double DEFAULT_MIN_SAVINGS = 0.05;
+
+    private static final Set<Type> COMPRESSED_TYPES = EnumSet.of(//
+            Type.JPG, Type.PNG, Type.GIF, Type.WEBP, Type.HEIC, Type.AVIF, Type.JP2,//
+            Type.MP3, Type.AAC, Type.M4A, Type.OGG, Type.OPUS, Type.WMA, Type.AMR, Type.FLAC,//
+            Type.MP4, Type.MKV, Type.WEBM, Type.AVI, Type.MOV, Type.WMV, Type.FLV, Type.MPEG, Type.THREE_GP, Type.OGV,//
+            Type.ZIP, Type.RAR, Type.SEVEN_Z, Type.GZ, Type.BZ2, Type.XZ, Type.ZST, Type.LZ4, Type.LZMA, Type.Z,//
+            Type.CAB, Type.DMG, Type.DEB, Type.RPM, Type.APK, Type.JAR,//
+            Type.DOCX, Type.XLSX, Type.PPTX, Type.ODT, Type.ODS, Type.ODP, Type.EPUB,//
+            Type.WOFF, Type.WOFF2, Type.PARQUET, Type.ORC);
+
+    private final Set<Type> stored = EnumSet.copyOf(COMPRESSED_TYPES);
+    private final Map<Type, Integer> levels = new EnumMap<>(Type.class);
+    private int defaultLevel = Deflater.DEFAULT_COMPRESSION;
+    private int trialSize = DEFAULT_TRIAL_SIZE;
+    private double minSavings = DEFAULT_MIN_SAVINGS;
+
+    private CompressionPolicy() {
+    }
+
+    /**
+     * Creates a policy which stores already compressed types and trial compresses the rest.
+     *
+     * @return New policy.
+     */
+    public static CompressionPolicy create() {
+        return new CompressionPolicy();
+    }
+
+    /**
+     * Stores files of given types without trying to compress them.
+     *
+     * @param types Types to store.
+     * @return This policy.
+     */
+    public CompressionPolicy store(Type... types) {
+        for (Type type : types) {
+            stored.add(type);
+            levels.remove(type);
+        }
+        return this;
+    }
+
+    /**
+     * Deflates files of given type with given level, even if it's one of already compressed types.
+     * Their first block is still trial compressed.
+     *
+     * @param type  Type of files.
+     * @param level Deflate level from {@link Deflater#BEST_SPEED} to {@link Deflater#BEST_COMPRESSION}.
+     * @return This policy.
+     */
+    public CompressionPolicy level(Type type, int level) {
+        checkLevel(level);
+        stored.remove(type);
+        levels.put(type, level);
+        return this;
+    }
+
+    /**
+     * Sets level which files are deflated with if their type has no level of its own.
+     *
+     * @param level Deflate level from {@link Deflater#BEST_SPEED} to {@link Deflater#BEST_COMPRESSION}.
+     * @return This policy.
+     */
+    public CompressionPolicy defaultLevel(int level) {
+        checkLevel(level);
+        this.defaultLevel = level;
+        return this;
+    }
+
+    /**
+     * Sets number of bytes from start of a file which are compressed as a trial, to decide if the file
+     * is worth deflating.
+     *
+     * @param bytes Number of bytes, or 0 to deflate every file which its type isn't stored without a trial.
+     * @return This policy.
+     */
+    public CompressionPolicy trialSize(int bytes) {
+        if (bytes < 0)
+            throw new IllegalArgumentException("Trial size must not be negative but was " + bytes);
+        this.trialSize = bytes;
+        return this;
+    }
+
+    /**
+     * Sets fraction of size which trial compression must save for a file to be deflated.
+     *
+     * @param fraction A fraction from 0 to 1, like 0.05 for 5%.
+     * @return This policy.
+     */
+    public CompressionPolicy minSavings(double fraction) {
+        if (fraction < 0 || fraction > 1)
+            throw new IllegalArgumentException("Savings must be between 0 and 1 but was " + fraction);
+        this.minSavings = fraction;
+        return this;
+    }
+
+    boolean isStored(Type type) {
+        return type != null && stored.contains(type);
+    }
+
+    int levelOf(Type type) {
+        Integer level = type == null ? null : levels.get(type);
+        return level != null ? level : defaultLevel;
+    }
+
+    int getTrialSize() {
+        return trialSize;
+    }
+
+    boolean isWorthDeflating(int size, int compressedSize) {
+        return compressedSize <= size * (1 - minSavings);
+    }
+
+    static Type typeOf(Path location) {
+        return Type.byName(location.getFileName().toString());
+    }
+
+    private static void checkLevel(int level) {
+        if (level != Deflater.DEFAULT_COMPRESSION && (level < Deflater.NO_COMPRESSION || level > Deflater.BEST_COMPRESSION))
+            throw new IllegalArgumentException("Level must be between 0 and 9 but was " + level);
+    }
+
+}
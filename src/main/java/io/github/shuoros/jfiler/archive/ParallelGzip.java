@@ -0,0 +1,299 @@
+package io.github.shuoros.jfiler.archive;
+
+import io.github.shuoros.jfiler.io.IOPriority;
+import io.github.shuoros.jfiler.io.IOScheduler;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.*;
+
+/**
+ * Compresses a single file to gzip on many cores. The file is split in blocks which are deflated at the same
+ * time, and each block is written as an independent gzip member, in order. A gzip file with many members is
+ * standard and is decompressed by any gzip tool to the whole file.
+ * <p>
+ * Each member also carries its own size in an extra field of its header, so {@link #decompress(Path, Path)}
+ * can find the next member without inflating the current one and inflates members on many cores too.
+ * Gzip files which are made by other tools are decompressed on one core.
+ * <p>
+ * Only a few blocks per worker are in memory at a time, however big the file is.
+ *
+ * @author Soroush Shemshadi
+ * @version 1.0.0
+ * @since 1.2.0
+ */
+public class ParallelGzip {
+
+    /**
+     * Size of blocks which are compressed on their own, by default.
+     */
+    public static final int DEFAULT_BLOCK_SIZE = 1024 * 1024;
+
+    /**
+     * Biggest block size. Members which claim to hold more are rejected as corrupted when decompressing.
+     */
+    public static final int MAX_BLOCK_SIZE = 64 * 1024 * 1024;
+
+    private static final AtomicInteger THREAD_NUMBER = new AtomicInteger();
+    private static final int HEADER_SIZE = 10;
+    private static final int EXTRA_SIZE = 10;
+    private static final int TRAILER_SIZE = 8;
+    private static final byte FLAG_EXTRA = 4;
+    private static final byte OS_UNKNOWN = (byte) 255;
+    private static final byte EXTRA_ID_1 = 'J';
+    private static final byte EXTRA_ID_2 = 'F';
+    // Deflate grows incompressible blocks only a little, so members are never near twice the biggest block
+    private static final long MAX_MEMBER_SIZE = 2L * MAX_BLOCK_SIZE;
+
+    private final int parallelism;
+    private final int blockSize;
+    private final int level;
+
+    /**
+     * Constructs a compressor which uses one worker per core and default block size and level.
+     */
+    public ParallelGzip() {
+        this(Runtime.getRuntime().availableProcessors(), DEFAULT_BLOCK_SIZE, Deflater.DEFAULT_COMPRESSION);
+    }
+
+    /**
+     * Constructs a compressor.
+     *
+     * @param parallelism Number of blocks which are compressed or decompressed at the same time.
+     * @param blockSize   Size of blocks in bytes, up to {@link #MAX_BLOCK_SIZE}. Bigger blocks compress slightly
+     *                    better.
+     * @param level       Deflate level from {@link Deflater#BEST_SPEED} to {@link Deflater#BEST_COMPRESSION}.
+     */
+    public ParallelGzip(int parallelism, int blockSize, int level) {
+        if (parallelism < 1)
+            throw new IllegalArgumentException("Parallelism must be at least 1 but was " + parallelism);
+        if (blockSize < 1 || blockSize > MAX_BLOCK_SIZE)
+            throw new IllegalArgumentException("Block size must be between 1 and " + MAX_BLOCK_SIZE + " but was " + blockSize);
+        if (level != Deflater.DEFAULT_COMPRESSION && (level < Deflater.NO_COMPRESSION || level > Deflater.BEST_COMPRESSION))
+            throw new IllegalArgumentException("Level must be between 0 and 9 but was " + level);
+        this.parallelism = parallelism;
+        this.blockSize = blockSize;
+        this.level = level;
+    }
+
+    /**
+     * Compresses a file to a gzip file. Destination must not exist.
+     *
+     * @param source      Location of file to compress.
+     * @param destination Location of gzip file to save.
+     * @throws IOException If anything goes wrong in compressing an IOException will be thrown.
+     */
+    public void compress(Path source, Path destination) throws IOException {
+        ExecutorService pool = newPool();
+        boolean created = false;
+        try (IOScheduler.Permit permit = IOScheduler.getDefault().acquire(IOPriority.BULK, source);
+             FileChannel in = FileChannel.open(source, StandardOpenOption.READ);
+             FileChannel out = FileChannel.open(destination, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+            created = true;
+            Deque<Future<ByteBuffer>> pending = new ArrayDeque<>();
+            long size = in.size();
+            long position = 0;
+            do {
+                ByteBuffer block = ByteBuffer.allocate((int) Math.min(blockSize, size - position));
+                while (block.hasRemaining())
+                    if (in.read(block, position + block.position()) < 0)
+                        // Otherwise position would never reach size and empty members would be written forever
+                        throw new IOException(source + " was truncated while it was compressed");
+                block.flip();
+                permit.transferred(block.remaining());
+                position += block.remaining();
+                pending.add(pool.submit(() -> member(block)));
+                if (pending.size() >= parallelism * 2)
+                    write(out, take(pending));
+            } while (position < size);
+            while (!pending.isEmpty())
+                write(out, take(pending));
+        } catch (IOException | RuntimeException e) {
+            // A partial destination would make trying again fail
+            if (created)
+                Files.deleteIfExists(destination);
+            throw e;
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * Decompresses a gzip file. Members which are made by this class are inflated on many cores, any other
+     * gzip file is inflated on one core. Destination must not exist.
+     *
+     * @param source      Location of gzip file.
+     * @param destination Location of decompressed file to save.
+     * @throws IOException If file is not a valid gzip file a ZipException, or if anything else goes wrong
+     *                     an IOException, will be thrown.
+     */
+    public void decompress(Path source, Path destination) throws IOException {
+        ExecutorService pool = newPool();
+        boolean created = false;
+        try (IOScheduler.Permit permit = IOScheduler.getDefault().acquire(IOPriority.BULK, source);
+             FileChannel in = FileChannel.open(source, StandardOpenOption.READ);
+             FileChannel out = FileChannel.open(destination, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+            created = true;
+            Deque<Future<ByteBuffer>> pending = new ArrayDeque<>();
+            long size = in.size();
+            long position = 0;
+            while (position < size) {
+                long memberSize = memberSize(in, position);
+                if (memberSize < 0)
+                    break;
+                // Size comes from the file, so a crafted one must not make us allocate more than is there
+                if (memberSize > size - position || memberSize > MAX_MEMBER_SIZE)
+                    throw new ZipException("Invalid size of gzip member at " + position);
+                ByteBuffer member = ByteBuffer.allocate((int) memberSize);
+                while (member.hasRemaining())
+                    if (in.read(member, position + member.position()) < 0)
+                        throw new ZipException("Unexpected end of gzip file");
+                member.flip();
+                permit.transferred(memberSize);
+                position += memberSize;
+                pending.add(pool.submit(() -> inflate(member)));
+                if (pending.size() >= parallelism * 2)
+                    write(out, take(pending));
+            }
+            while (!pending.isEmpty())
+                write(out, take(pending));
+
+            if (position < size)
+                // The rest is not made by this class, so members can't be found without inflating them
+                try (InputStream rest = new GZIPInputStream(Channels.newInputStream(in.position(position)), 64 * 1024);
+                     OutputStream output = Channels.newOutputStream(out)) {
+                    byte[] buffer = new byte[64 * 1024];
+                    int length;
+                    while ((length = rest.read(buffer)) > 0)
+                        output.write(buffer, 0, length);
+                }
+        } catch (IOException | RuntimeException e) {
+            // A partial destination would make trying again fail
+            if (created)
+                Files.deleteIfExists(destination);
+            throw e;
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private ByteBuffer member(ByteBuffer block) {
+        Deflater deflater = new Deflater(level, true);
+        CRC32 crc = new CRC32();
+        try {
+            crc.update(block.duplicate());
+            int length = block.remaining();
+            deflater.setInput(block.array(), 0, length);
+            deflater.finish();
+
+            // Deflate may grow incompressible data by a few bytes per 16 KB
+            byte[] output = new byte[HEADER_SIZE + EXTRA_SIZE + length + length / 1000 + 64 + TRAILER_SIZE];
+            int written = HEADER_SIZE + EXTRA_SIZE;
+            while (!deflater.finished()) {
+                if (written == output.length - TRAILER_SIZE)
+                    output = Arrays.copyOf(output, output.length * 2);
+                written += deflater.deflate(output, written, output.length - TRAILER_SIZE - written);
+            }
+
+            ByteBuffer member = ByteBuffer.wrap(output, 0, written + TRAILER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            member.put(0, (byte) 0x1f).put(1, (byte) 0x8b).put(2, (byte) 8).put(3, FLAG_EXTRA)//
+                    .putInt(4, 0).put(8, (byte) 0).put(9, OS_UNKNOWN)//
+                    .putShort(10, (short) 8).put(12, EXTRA_ID_1).put(13, EXTRA_ID_2).putShort(14, (short) 4)//
+                    .putInt(16, written + TRAILER_SIZE)//
+                    .putInt(written, (int) crc.getValue()).putInt(written + 4, length);
+            return member;
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static ByteBuffer inflate(ByteBuffer member) throws ZipException {
+        member.order(ByteOrder.LITTLE_ENDIAN);
+        int end = member.limit() - TRAILER_SIZE;
+        int crc = member.getInt(end);
+        int length = member.getInt(end + 4);
+        if (length < 0 || length > MAX_BLOCK_SIZE)
+            throw new ZipException("Corrupted gzip member");
+        byte[] output = new byte[length];
+
+        Inflater inflater = new Inflater(true);
+        try {
+            int start = HEADER_SIZE + EXTRA_SIZE;
+            inflater.setInput(member.array(), start, end - start);
+            int inflated = 0;
+            while (inflated < length && !inflater.finished()) {
+                int count = inflater.inflate(output, inflated, length - inflated);
+                if (count == 0 && (inflater.needsInput() || inflater.needsDictionary()))
+                    break;
+                inflated += count;
+            }
+            CRC32 check = new CRC32();
+            check.update(output, 0, inflated);
+            if (inflated != length || (int) check.getValue() != crc)
+                throw new ZipException("Corrupted gzip member");
+            return ByteBuffer.wrap(output);
+        } catch (DataFormatException e) {
+            throw new ZipException("Corrupted gzip member: " + e.getMessage());
+        } finally {
+            inflater.end();
+        }
+    }
+
+    /**
+     * Reads size of member at given position from its extra field.
+     *
+     * @return Size of member, or -1 if it's not made by this class.
+     */
+    private static long memberSize(FileChannel in, long position) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE + EXTRA_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        while (header.hasRemaining())
+            if (in.read(header, position + header.position()) < 0)
+                return -1;
+        if ((header.get(0) & 0xFF) != 0x1f || (header.get(1) & 0xFF) != 0x8b)
+            throw new ZipException("Not a gzip file");
+        boolean ours = header.get(3) == FLAG_EXTRA && header.getShort(10) == 8//
+                && header.get(12) == EXTRA_ID_1 && header.get(13) == EXTRA_ID_2 && header.getShort(14) == 4;
+        long size = header.getInt(16) & 0xFFFFFFFFL;
+        return ours && size > HEADER_SIZE + EXTRA_SIZE + TRAILER_SIZE && size <= Integer.MAX_VALUE ? size : -1;
+    }
+
+    private static ByteBuffer take(Deque<Future<ByteBuffer>> pending) throws IOException {
+        try {
+            return pending.poll().get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while compressing");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            throw cause instanceof IOException ? (IOException) cause : new IOException(cause);
+        }
+    }
+
+    private static void write(FileChannel out, ByteBuffer bytes) throws IOException {
+        while (bytes.hasRemaining())
+            out.write(bytes);
+    }
+
+    private ExecutorService newPool() {
+        return Executors.newFixedThreadPool(parallelism, runnable -> {
+            Thread thread = new Thread(runnable, "jfiler-gzip-" + THREAD_NUMBER.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+}
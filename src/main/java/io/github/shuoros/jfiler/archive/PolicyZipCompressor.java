@@ -0,0 +1,223 @@
+package io.github.shuoros.jfiler.archive;
+
+import io.github.shuoros.jcompressor.JCompressor;
+import io.github.shuoros.jfiler.file.Type;
+import io.github.shuoros.jfiler.io.IOPriority;
+import io.github.shuoros.jfiler.io.IOScheduler;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * A zip {@link JCompressor} which decides for each file by a
+ * {@link io.github.shuoros.jfiler.archive.CompressionPolicy} whether it's stored or deflated, so no CPU is spent
+ * on deflating files which don't shrink. Folders are added with all of their content, in order of names.
+ * <p>
+ * Every file is read once. A stored entry needs its size and CRC before its content, so a file which is stored is
+ * held in memory while it's read, and its entry describes exactly the bytes which were read. A file bigger than
+ * {@link #MAX_HELD_SIZE} isn't held, it's deflated with no compression instead, which costs almost no CPU either.
+ * <p>
+ * Zip files which are made by it can be extracted by any zip tool, and are extracted by it through
+ * {@link io.github.shuoros.jfiler.archive.ZipArchive}.
+ *
+ * @author Soroush Shemshadi
+ * @version 1.0.0
+ * @since 1.2.0
+ */
+public class PolicyZipCompressor implements JCompressor {
+
+    /**
+     * Maximum size of a file which is added as a stored entry.
+     */
+    public static final int MAX_HELD_SIZE = 4 * 1024 * 1024;
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final CompressionPolicy policy;
+
+    /**
+     * Constructs a compressor which uses given policy.
+     *
+     * @param policy Policy which decides how each file is added.
+     */
+    public PolicyZipCompressor(CompressionPolicy policy) {
+        this.policy = policy;
+    }
+
+    /**
+     * Compresses files and folders into a zip file. Each of them is added by its name at root of zip file.
+     *
+     * @param files       Files or folders to compress.
+     * @param destination Location of zip file to save.
+     * @throws UncheckedIOException If anything goes wrong in compressing.
+     */
+    @Override
+    public void compress(List<java.io.File> files, java.io.File destination) {
+        try (ZipOutputStream zip = new ZipOutputStream(//
+                new BufferedOutputStream(Files.newOutputStream(destination.toPath()), BUFFER_SIZE))) {
+            byte[] buffer = new byte[Math.max(BUFFER_SIZE, policy.getTrialSize())];
+            for (java.io.File file : files)
+                add(zip, file.toPath(), file.getName(), buffer);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Extracts all entries of a zip file into a folder, which is created if it doesn't exist.
+     *
+     * @param file        Zip file to extract.
+     * @param destination Folder to extract in.
+     * @throws UncheckedIOException If anything goes wrong in extracting.
+     */
+    @Override
+    public void extract(java.io.File file, java.io.File destination) {
+        try (ZipArchive archive = ZipArchive.open(file.toPath())) {
+            Files.createDirectories(destination.toPath());
+            archive.extractAll("**", destination.toPath());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void add(ZipOutputStream zip, Path location, String name, byte[] buffer) throws IOException {
+        BasicFileAttributes attributes = Files.readAttributes(location, BasicFileAttributes.class);
+        if (!attributes.isDirectory()) {
+            addFile(zip, location, name, attributes, buffer);
+            return;
+        }
+
+        ZipEntry entry = new ZipEntry(name + "/");
+        entry.setTime(attributes.lastModifiedTime().toMillis());
+        zip.putNextEntry(entry);
+        zip.closeEntry();
+
+        List<Path> children = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(location)) {
+            stream.forEach(children::add);
+        }
+        children.sort(null);
+        for (Path child : children)
+            add(zip, child, name + "/" + child.getFileName(), buffer);
+    }
+
+    private void addFile(ZipOutputStream zip, Path location, String name, BasicFileAttributes attributes,//
+                         byte[] buffer) throws IOException {
+        Type type = CompressionPolicy.typeOf(location);
+        ZipEntry entry = new ZipEntry(name);
+        entry.setTime(attributes.lastModifiedTime().toMillis());
+
+        try (IOScheduler.Permit permit = IOScheduler.getDefault().acquire(IOPriority.BULK, location);
+             InputStream in = Files.newInputStream(location)) {
+            int trialSize = policy.getTrialSize();
+            int first = readFully(in, buffer, trialSize > 0 ? trialSize : buffer.length);
+            boolean stored = policy.isStored(type)//
+                    || (trialSize > 0 && first > 0 && !isWorthDeflating(buffer, first));
+
+            int length = first;
+            if (stored && attributes.size() <= MAX_HELD_SIZE) {
+                byte[] held = hold(in, buffer, first, attributes.size());
+                if (held.length <= MAX_HELD_SIZE) {
+                    addStored(zip, entry, held);
+                    permit.transferred(held.length);
+                    return;
+                }
+                // It has grown past the limit while it was read, so what's held is deflated with the rest
+                entry.setMethod(ZipEntry.DEFLATED);
+                zip.setLevel(Deflater.NO_COMPRESSION);
+                zip.putNextEntry(entry);
+                permit.transferred(held.length);
+                zip.write(held);
+                length = in.read(buffer);
+            } else {
+                entry.setMethod(ZipEntry.DEFLATED);
+                zip.setLevel(stored ? Deflater.NO_COMPRESSION : policy.levelOf(type));
+                zip.putNextEntry(entry);
+            }
+
+            while (length > 0) {
+                permit.transferred(length);
+                zip.write(buffer, 0, length);
+                length = in.read(buffer);
+            }
+            zip.closeEntry();
+        }
+    }
+
+    /**
+     * Reads the rest of a file after its first bytes which are in buffer, up to one byte more than
+     * {@link #MAX_HELD_SIZE}.
+     *
+     * @return Content of file, which is longer than {@link #MAX_HELD_SIZE} if file is.
+     */
+    private static byte[] hold(InputStream in, byte[] buffer, int first, long expectedSize) throws IOException {
+        // One byte more than expected, so reaching the end doesn't need the array to grow
+        byte[] held = new byte[(int) Math.min(Math.max(expectedSize, first) + 1, MAX_HELD_SIZE + 1)];
+        System.arraycopy(buffer, 0, held, 0, first);
+        int size = first;
+        while (size <= MAX_HELD_SIZE) {
+            if (size == held.length)
+                held = Arrays.copyOf(held, (int) Math.min(2L * held.length, MAX_HELD_SIZE + 1));
+            int read = in.read(held, size, held.length - size);
+            if (read < 0)
+                break;
+            size += read;
+        }
+        return size == held.length ? held : Arrays.copyOf(held, size);
+    }
+
+    private static void addStored(ZipOutputStream zip, ZipEntry entry, byte[] content) throws IOException {
+        CRC32 crc = new CRC32();
+        crc.update(content, 0, content.length);
+        entry.setMethod(ZipEntry.STORED);
+        entry.setSize(content.length);
+        entry.setCompressedSize(content.length);
+        entry.setCrc(crc.getValue());
+        zip.putNextEntry(entry);
+        zip.write(content);
+        zip.closeEntry();
+    }
+
+    private boolean isWorthDeflating(byte[] bytes, int length) {
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED, true);
+        try {
+            deflater.setInput(bytes, 0, length);
+            deflater.finish();
+            byte[] output = new byte[BUFFER_SIZE];
+            int compressed = 0;
+            while (!deflater.finished()) {
+                compressed += deflater.deflate(output);
+                if (!policy.isWorthDeflating(length, compressed))
+                    return false;
+            }
+            return true;
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static int readFully(InputStream in, byte[] buffer, int length) throws IOException {
+        int total = 0;
+        while (total < length) {
+            int read = in.read(buffer, total, length - total);
+            if (read < 0)
+                break;
+            total += read;
+        }
+        return total;
+    }
+
+}
@@ -0,0 +1,77 @@
+package io.github.shuoros.jfiler.archive;
+
+import java.nio.file.attribute.FileTime;
+
+/**
+ * A single file or folder in a tar archive, as it's described by its header.
+ *
+ * @author Soroush Shemshadi
+ * @version 1.0.0
+ * @see io.github.shuoros.jfiler.archive.TarReader
+ * @since 1.2.0
+ */
+public class TarEntry {
+
+    private final String name;
+    private final long size;
+    private final char type;
+    private final FileTime lastModified;
+
+    TarEntry(String name, long size, char type, FileTime lastModified) {
+        this.name = name;
+        this.size = size;
+        this.type = type;
+        this.lastModified = lastModified;
+    }
+
+    /**
+     * Gets name of this entry, which is its location in archive separated by "/".
+     *
+     * @return Name of entry.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Gets size of content of this entry.
+     *
+     * @return Size in bytes, which is 0 for folders.
+     */
+    public long getSize() {
+        return size;
+    }
+
+    /**
+     * Checks if this entry is a folder.
+     *
+     * @return True if entry is a folder.
+     */
+    public boolean isFolder() {
+        return type == TarWriter.TYPE_FOLDER;
+    }
+
+    /**
+     * Checks if this entry is a regular file. Links and special files are neither files nor folders.
+     *
+     * @return True if entry is a regular file.
+     */
+    public boolean isFile() {
+        return type == TarWriter.TYPE_FILE || type == 0;
+    }
+
+    /**
+     * Gets last modification time of this entry.
+     *
+     * @return Last modification time.
+     */
+    public FileTime getLastModified() {
+        return lastModified;
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+
+}
@@ -0,0 +1,332 @@
+package io.github.shuoros.jfiler.archive;
+
+import io.github.shuoros.jfiler.io.IOPriority;
+import io.github.shuoros.jfiler.io.IOScheduler;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.ZipException;
+
+/**
+ * Reads a tar archive in ustar, pax or GNU format entry by entry. When archive is a file, content of entries is
+ * moved with {@link FileChannel#transferTo} straight from it to where it's extracted, and entries which are not
+ * needed are skipped without being read.
+ * <p>
+ * Archive can also be read from any {@link ReadableByteChannel}, like a socket or a pipe, in which case it's
+ * read once from start to end.
+ *
+ * @author Soroush Shemshadi
+ * @version 1.0.0
+ * @see io.github.shuoros.jfiler.archive.TarWriter
+ * @since 1.2.0
+ */
+public class TarReader implements Closeable {
+
+    private static final char TYPE_GLOBAL_PAX = 'g';
+    private static final char TYPE_GNU_LONG_NAME = 'L';
+    private static final int MAX_METADATA_SIZE = 1024 * 1024;
+    private static final long TRANSFER_SIZE = 8 * 1024 * 1024;
+    private static final int SKIP_BUFFER_SIZE = 64 * 1024;
+
+    private final ReadableByteChannel channel;
+    private final FileChannel file;
+    private long position;
+    private TarEntry current;
+    private long remaining;
+    private boolean ended;
+
+    /**
+     * Constructs a reader which reads archive from given channel. The channel is closed when this reader is closed.
+     *
+     * @param channel Channel to read archive from.
+     */
+    public TarReader(ReadableByteChannel channel) {
+        this.channel = channel;
+        this.file = channel instanceof FileChannel ? (FileChannel) channel : null;
+    }
+
+    /**
+     * Opens a reader on a tar file.
+     *
+     * @param source Location of tar file.
+     * @return A reader which must be closed.
+     * @throws IOException If file can't be opened an IOException will be thrown.
+     */
+    public static TarReader open(Path source) throws IOException {
+        return new TarReader(FileChannel.open(source, StandardOpenOption.READ));
+    }
+
+    /**
+     * Moves to the next entry of archive. Unread content of the current entry is skipped.
+     *
+     * @return Next entry, or null at end of archive.
+     * @throws IOException If archive is not a valid tar archive a ZipException, or if anything else goes wrong
+     *                     an IOException, will be thrown.
+     */
+    public TarEntry next() throws IOException {
+        if (ended)
+            return null;
+        if (current != null)
+            skip(remaining + padding(current.getSize()));
+        current = null;
+
+        String longName = null;
+        Long longSize = null;
+        while (true) {
+            ByteBuffer header = ByteBuffer.allocate(TarWriter.BLOCK_SIZE);
+            if (!read(header) || isZeros(header)) {
+                ended = true;
+                return null;
+            }
+            if (!hasValidChecksum(header))
+                throw new ZipException("Invalid tar header at " + (position - TarWriter.BLOCK_SIZE));
+
+            char type = (char) header.get(156);
+            long size = octal(header, 124, 12);
+            if (size < 0)
+                throw new ZipException("Invalid size in tar header at " + (position - TarWriter.BLOCK_SIZE));
+            if (type == TarWriter.TYPE_PAX || type == TYPE_GLOBAL_PAX || type == TYPE_GNU_LONG_NAME) {
+                // Size comes from archive, so a crafted one must not make us allocate gigabytes
+                if (size > MAX_METADATA_SIZE)
+                    throw new ZipException("Tar metadata header of " + size + " bytes at "//
+                            + (position - TarWriter.BLOCK_SIZE) + " is too big");
+                ByteBuffer content = ByteBuffer.allocate((int) size);
+                if (!read(content))
+                    throw new ZipException("Unexpected end of tar archive");
+                skip(padding(size));
+                String text = new String(content.array(), StandardCharsets.UTF_8);
+                if (type == TYPE_GNU_LONG_NAME)
+                    longName = text.indexOf(0) >= 0 ? text.substring(0, text.indexOf(0)) : text;
+                else if (type == TarWriter.TYPE_PAX) {
+                    String path = paxValue(text, "path");
+                    String paxSize = paxValue(text, "size");
+                    if (path != null)
+                        longName = path;
+                    if (paxSize != null)
+                        longSize = paxSize(paxSize);
+                }
+                continue;
+            }
+
+            String name = longName != null ? longName : ustarName(header);
+            if (longSize != null)
+                size = longSize;
+            // Links and special files have no content whatever their size says
+            boolean hasContent = type == TarWriter.TYPE_FILE || type == 0 || type == '7';
+            current = new TarEntry(name, hasContent ? size : 0, type,//
+                    FileTime.fromMillis(octal(header, 136, 12) * 1000));
+            remaining = hasContent ? size : 0;
+            return current;
+        }
+    }
+
+    /**
+     * Moves unread content of the current entry into a channel.
+     *
+     * @param target Channel to write content in.
+     * @return Number of bytes which have been moved.
+     * @throws IOException If anything goes wrong in reading or writing an IOException will be thrown.
+     */
+    public long transferTo(WritableByteChannel target) throws IOException {
+        long moved = 0;
+        if (file != null)
+            while (remaining > 0) {
+                long transferred = file.transferTo(position, Math.min(TRANSFER_SIZE, remaining), target);
+                if (transferred <= 0)
+                    throw new ZipException("Unexpected end of tar archive");
+                position += transferred;
+                remaining -= transferred;
+                moved += transferred;
+            }
+        else {
+            ByteBuffer buffer = ByteBuffer.allocate(SKIP_BUFFER_SIZE);
+            while (remaining > 0) {
+                buffer.clear().limit((int) Math.min(buffer.capacity(), remaining));
+                if (!read(buffer))
+                    throw new ZipException("Unexpected end of tar archive");
+                buffer.flip();
+                while (buffer.hasRemaining())
+                    target.write(buffer);
+                remaining -= buffer.limit();
+                moved += buffer.limit();
+            }
+        }
+        return moved;
+    }
+
+    /**
+     * Extracts all files and folders of archive into a folder, keeping their locations in archive. Links and
+     * special files are skipped.
+     *
+     * @param folder Folder to extract in, which is created if it doesn't exist.
+     * @return Locations of extracted files.
+     * @throws IOException If anything goes wrong in extracting an IOException will be thrown.
+     */
+    public List<Path> extractAll(Path folder) throws IOException {
+        Path root = folder.toAbsolutePath().normalize();
+        Files.createDirectories(root);
+        List<Path> extracted = new ArrayList<>();
+        for (TarEntry entry = next(); entry != null; entry = next()) {
+            if (!entry.isFile() && !entry.isFolder())
+                continue;
+            Path destination = root.resolve(entry.getName()).normalize();
+            // Entries like "../../etc/passwd" must not escape the folder
+            if (!destination.startsWith(root))
+                throw new ZipException("Entry " + entry.getName() + " is outside of " + folder);
+            if (entry.isFolder()) {
+                Files.createDirectories(destination);
+                continue;
+            }
+            if (destination.equals(root))
+                throw new ZipException("Entry " + entry.getName() + " is outside of " + folder);
+
+            Files.createDirectories(destination.getParent());
+            try (IOScheduler.Permit permit = IOScheduler.getDefault().acquire(IOPriority.BULK, destination);
+                 FileChannel out = FileChannel.open(destination, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+                permit.transferred(transferTo(out));
+            }
+            Files.setLastModifiedTime(destination, entry.getLastModified());
+            extracted.add(destination);
+        }
+        return extracted;
+    }
+
+    /**
+     * Closes the channel of archive.
+     *
+     * @throws IOException If anything goes wrong in closing an IOException will be thrown.
+     */
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private boolean read(ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            int read = file != null ? file.read(buffer, position) : channel.read(buffer);
+            if (read < 0)
+                return false;
+            position += read;
+        }
+        return true;
+    }
+
+    private void skip(long bytes) throws IOException {
+        if (file != null) {
+            position += bytes;
+            return;
+        }
+        ByteBuffer buffer = ByteBuffer.allocate((int) Math.min(SKIP_BUFFER_SIZE, Math.max(bytes, 1)));
+        while (bytes > 0) {
+            buffer.clear().limit((int) Math.min(buffer.capacity(), bytes));
+            if (!read(buffer))
+                throw new ZipException("Unexpected end of tar archive");
+            bytes -= buffer.limit();
+        }
+    }
+
+    private static long padding(long size) {
+        return (TarWriter.BLOCK_SIZE - size % TarWriter.BLOCK_SIZE) % TarWriter.BLOCK_SIZE;
+    }
+
+    private static boolean isZeros(ByteBuffer header) {
+        for (int i = 0; i < header.limit(); i++)
+            if (header.get(i) != 0)
+                return false;
+        return true;
+    }
+
+    private static boolean hasValidChecksum(ByteBuffer header) {
+        long expected = octal(header, 148, 8);
+        long checksum = 0;
+        for (int i = 0; i < TarWriter.BLOCK_SIZE; i++)
+            checksum += i >= 148 && i < 156 ? ' ' : header.get(i) & 0xFF;
+        return checksum == expected;
+    }
+
+    private static String ustarName(ByteBuffer header) {
+        String name = string(header, 0, 100);
+        boolean ustar = header.get(257) == 'u' && header.get(258) == 's' && header.get(259) == 't'//
+                && header.get(260) == 'a' && header.get(261) == 'r';
+        String prefix = ustar ? string(header, 345, 155) : "";
+        return prefix.isEmpty() ? name : prefix + "/" + name;
+    }
+
+    private static String string(ByteBuffer header, int offset, int length) {
+        int end = offset;
+        while (end < offset + length && header.get(end) != 0)
+            end++;
+        byte[] bytes = new byte[end - offset];
+        for (int i = 0; i < bytes.length; i++)
+            bytes[i] = header.get(offset + i);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static long octal(ByteBuffer header, int offset, int length) {
+        // Big numbers may be stored in base 256 by GNU tar
+        if ((header.get(offset) & 0x80) != 0) {
+            long value = header.get(offset) & 0x7F;
+            for (int i = 1; i < length; i++)
+                value = (value << 8) | (header.get(offset + i) & 0xFF);
+            return value;
+        }
+        long value = 0;
+        for (int i = offset; i < offset + length; i++) {
+            byte b = header.get(i);
+            if (b == 0 || (b == ' ' && value > 0))
+                break;
+            if (b >= '0' && b <= '7')
+                value = value * 8 + (b - '0');
+        }
+        return value;
+    }
+
+    private static long paxSize(String value) throws ZipException {
+        try {
+            long size = Long.parseLong(value);
+            if (size >= 0)
+                return size;
+        } catch (NumberFormatException e) {
+            // Reported below like a negative size
+        }
+        throw new ZipException("Invalid size in pax header: " + value);
+    }
+
+    private static String paxValue(String records, String key) {
+        String value = null;
+        int index = 0;
+        while (index < records.length()) {
+            int space = records.indexOf(' ', index);
+            if (space < 0)
+                break;
+            int length;
+            try {
+                length = Integer.parseInt(records.substring(index, space));
+            } catch (NumberFormatException e) {
+                break;
+            }
+            // Length counts bytes, not characters
+            byte[] rest = records.substring(space + 1).getBytes(StandardCharsets.UTF_8);
+            int recordLength = length - (space - index) - 1;
+            if (recordLength <= 0 || recordLength > rest.length)
+                break;
+            String record = new String(rest, 0, recordLength - 1, StandardCharsets.UTF_8);
+            if (record.startsWith(key + "="))
+                value = record.substring(key.length() + 1);
+            index = space + 1 + new String(rest, 0, recordLength, StandardCharsets.UTF_8).length();
+        }
+        return value;
+    }
+
+}
@@ -0,0 +1,241 @@
+package io.github.shuoros.jfiler.archive;
+
+import io.github.shuoros.jfiler.io.IOPriority;
+import io.github.shuoros.jfiler.io.IOScheduler;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Writes an uncompressed tar archive in ustar format, with pax headers for names and sizes which don't fit in
+ * ustar. Content of files is moved with {@link FileChannel#transferTo} straight into the archive's channel, so
+ * the kernel copies it without passing it through Java, and archiving is as fast as the disks are.
+ * <p>
+ * Archive can be written to any {@link WritableByteChannel}, like a file, a socket or a pipe:
+ * <pre>{@code
+ * try (TarWriter tar = new TarWriter(socketChannel)) {
+ *     tar.add(Paths.get("/data/videos"));
+ * }
+ * }</pre>
+ *
+ * @author Soroush Shemshadi
+ * @version 1.0.0
+ * @see io.github.shuoros.jfiler.archive.TarReader
+ * @since 1.2.0
+ */
+public class TarWriter implements Closeable {
+
+    static final int BLOCK_SIZE = 512;
+    static final char TYPE_FILE = '0';
+    static final char TYPE_FOLDER = '5';
+    static final char TYPE_PAX = 'x';
+
+    private static final long MAX_USTAR_SIZE = 077777777777L;
+    private static final int MAX_NAME_SIZE = 100;
+    private static final int MAX_PREFIX_SIZE = 155;
+    private static final long TRANSFER_SIZE = 8 * 1024 * 1024;
+
+    private final WritableByteChannel channel;
+    private boolean closed;
+
+    /**
+     * Constructs a writer which writes archive to given channel. The channel is closed when this writer is closed.
+     *
+     * @param channel Channel to write archive in.
+     */
+    public TarWriter(WritableByteChannel channel) {
+        this.channel = channel;
+    }
+
+    /**
+     * Creates a tar file and opens a writer on it.
+     *
+     * @param destination Location of tar file, which must not exist.
+     * @return A writer which must be closed.
+     * @throws IOException If file can't be created an IOException will be thrown.
+     */
+    public static TarWriter open(Path destination) throws IOException {
+        return new TarWriter(FileChannel.open(destination, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE));
+    }
+
+    /**
+     * Adds a file or folder with all of its content by its own name at root of archive.
+     *
+     * @param location Location of file or folder.
+     * @throws IOException If anything goes wrong in reading or writing an IOException will be thrown.
+     */
+    public void add(Path location) throws IOException {
+        add(location, location.getFileName().toString());
+    }
+
+    /**
+     * Adds a file or folder with all of its content by the given name. Content of folders is added in order
+     * of names.
+     *
+     * @param location Location of file or folder.
+     * @param name     Name of file or folder in archive, separated by "/".
+     * @throws IOException If anything goes wrong in reading or writing an IOException will be thrown.
+     */
+    public void add(Path location, String name) throws IOException {
+        BasicFileAttributes attributes = Files.readAttributes(location, BasicFileAttributes.class);
+        long lastModified = attributes.lastModifiedTime().toMillis() / 1000;
+        if (!attributes.isDirectory()) {
+            addFile(location, name, attributes.size(), lastModified);
+            return;
+        }
+
+        writeHeader(name + "/", 0, lastModified, TYPE_FOLDER);
+        List<Path> children = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(location)) {
+            stream.forEach(children::add);
+        }
+        children.sort(null);
+        for (Path child : children)
+            add(child, name + "/" + child.getFileName());
+    }
+
+    /**
+     * Writes end of archive and closes the channel.
+     *
+     * @throws IOException If anything goes wrong in writing an IOException will be thrown.
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed)
+            return;
+        closed = true;
+        try {
+            write(ByteBuffer.allocate(2 * BLOCK_SIZE));
+        } finally {
+            channel.close();
+        }
+    }
+
+    private void addFile(Path location, String name, long size, long lastModified) throws IOException {
+        try (IOScheduler.Permit permit = IOScheduler.getDefault().acquire(IOPriority.BULK, location);
+             FileChannel in = FileChannel.open(location, StandardOpenOption.READ)) {
+            writeHeader(name, size, lastModified, TYPE_FILE);
+            long position = 0;
+            while (position < size) {
+                long transferred = in.transferTo(position, Math.min(TRANSFER_SIZE, size - position), channel);
+                if (transferred <= 0 && position >= in.size())
+                    throw new IOException(location + " was truncated while it was archived");
+                permit.transferred(transferred);
+                position += transferred;
+            }
+        }
+        pad(size);
+    }
+
+    private void writeHeader(String name, long size, long lastModified, char type) throws IOException {
+        byte[] nameBytes = name.getBytes(StandardCharsets.UTF_8);
+        int split = splitOf(nameBytes);
+        if (split < 0 || size > MAX_USTAR_SIZE) {
+            // A pax header for the next entry carries what ustar can't hold
+            StringBuilder records = new StringBuilder();
+            if (split < 0)
+                records.append(paxRecord("path", name));
+            if (size > MAX_USTAR_SIZE)
+                records.append(paxRecord("size", Long.toString(size)));
+            byte[] content = records.toString().getBytes(StandardCharsets.UTF_8);
+            write(header(truncated("PaxHeaders/" + name), content.length, lastModified, TYPE_PAX, -1));
+            write(ByteBuffer.wrap(content));
+            pad(content.length);
+            nameBytes = truncated(name).getBytes(StandardCharsets.UTF_8);
+            split = splitOf(nameBytes);
+        }
+        write(header(nameBytes, Math.min(size, MAX_USTAR_SIZE), lastModified, type, split));
+    }
+
+    private static ByteBuffer header(String name, long size, long lastModified, char type, int split) {
+        return header(name.getBytes(StandardCharsets.UTF_8), size, lastModified, type, split);
+    }
+
+    private static ByteBuffer header(byte[] name, long size, long lastModified, char type, int split) {
+        byte[] header = new byte[BLOCK_SIZE];
+        if (split > 0) {
+            System.arraycopy(name, 0, header, 345, split);
+            System.arraycopy(name, split + 1, header, 0, name.length - split - 1);
+        } else {
+            System.arraycopy(name, 0, header, 0, Math.min(name.length, MAX_NAME_SIZE));
+        }
+        octal(header, 100, 8, type == TYPE_FOLDER ? 0755 : 0644);
+        octal(header, 108, 8, 0);
+        octal(header, 116, 8, 0);
+        octal(header, 124, 12, size);
+        octal(header, 136, 12, Math.max(lastModified, 0));
+        header[156] = (byte) type;
+        System.arraycopy("ustar\u000000".getBytes(StandardCharsets.US_ASCII), 0, header, 257, 8);
+
+        for (int i = 148; i < 156; i++)
+            header[i] = ' ';
+        long checksum = 0;
+        for (byte b : header)
+            checksum += b & 0xFF;
+        octal(header, 148, 7, checksum);
+        return ByteBuffer.wrap(header);
+    }
+
+    /**
+     * Finds where a name is split into prefix and name fields of ustar header.
+     *
+     * @return 0 if name fits in name field, index of the "/" which splits it, or -1 if it doesn't fit.
+     */
+    private static int splitOf(byte[] name) {
+        if (name.length <= MAX_NAME_SIZE)
+            return 0;
+        for (int i = Math.min(name.length - 1, MAX_PREFIX_SIZE); i > 0; i--)
+            if (name[i] == '/' && name.length - i - 1 <= MAX_NAME_SIZE && name.length - i - 1 > 0)
+                return i;
+        return -1;
+    }
+
+    private static String truncated(String name) {
+        byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length <= MAX_NAME_SIZE)
+            return name;
+        return new String(bytes, 0, MAX_NAME_SIZE, StandardCharsets.US_ASCII).replaceAll("[^\\x20-\\x7E]", "_");
+    }
+
+    private static String paxRecord(String key, String value) {
+        // Length of record includes its own digits
+        int length = key.length() + value.getBytes(StandardCharsets.UTF_8).length + 3;
+        int digits = Integer.toString(length).length();
+        while (Integer.toString(length + digits).length() != digits)
+            digits++;
+        return (length + digits) + " " + key + "=" + value + "\n";
+    }
+
+    private static void octal(byte[] header, int offset, int length, long value) {
+        String digits = Long.toOctalString(value);
+        int padding = length - 1 - digits.length();
+        for (int i = 0; i < padding; i++)
+            header[offset + i] = '0';
+        for (int i = 0; i < digits.length(); i++)
+            header[offset + padding + i] = (byte) digits.charAt(i);
+        header[offset + length - 1] = 0;
+    }
+
+    private void pad(long size) throws IOException {
+        int padding = (int) ((BLOCK_SIZE - size % BLOCK_SIZE) % BLOCK_SIZE);
+        if (padding > 0)
+            write(ByteBuffer.allocate(padding));
+    }
+
+    private void write(ByteBuffer bytes) throws IOException {
+        while (bytes.hasRemaining())
+            channel.write(bytes);
+    }
+
+}
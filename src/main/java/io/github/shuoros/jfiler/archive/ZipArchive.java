@@ -0,0 +1,471 @@
+package io.github.shuoros.jfiler.archive;
+
+import io.github.shuoros.jfiler.io.IOPriority;
+import io.github.shuoros.jfiler.io.IOScheduler;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.nio.file.attribute.FileTime;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.*;
+import java.util.zip.*;
+
+/**
+ * Reads entries of a zip file one by one, without extracting the whole archive.
+ * <p>
+ * Only the central directory at end of archive is read to list its entries, so listing never inflates
+ * anything and costs the same for a small archive and a huge one with the same entries. Extracting an entry
+ * seeks to its local header and reads only its compressed bytes. Reads are positional, so entries can be
+ * read from many threads at the same time.
+ * <p>
+ * For example, to take one config file out of a big archive:
+ * <pre>{@code
+ * try (ZipArchive archive = ZipArchive.open(Paths.get("/backup/site.zip"))) {
+ *     archive.extract("conf/site.properties", Paths.get("/tmp/site.properties"));
+ * }
+ * }</pre>
+ * Central directories are cached, so opening the same archive again is cheap until it changes. Zip64 archives
+ * are supported; encrypted entries and methods other than stored and deflated are not.
+ *
+ * @author Soroush Shemshadi
+ * @version 1.0.0
+ * @since 1.2.0
+ */
+public class ZipArchive implements Closeable {
+
+    private static final int END_SIGNATURE = 0x06054b50;
+    private static final int END_SIZE = 22;
+    private static final int MAX_COMMENT_SIZE = 0xFFFF;
+    private static final int ZIP64_LOCATOR_SIGNATURE = 0x07064b50;
+    private static final int ZIP64_LOCATOR_SIZE = 20;
+    private static final int ZIP64_END_SIGNATURE = 0x06064b50;
+    private static final int CENTRAL_SIGNATURE = 0x02014b50;
+    private static final int CENTRAL_HEADER_SIZE = 46;
+    private static final int LOCAL_SIGNATURE = 0x04034b50;
+    private static final int LOCAL_HEADER_SIZE = 30;
+    private static final int ZIP64_EXTRA = 0x0001;
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final Path location;
+    private final FileChannel channel;
+    private final Map<String, ArchiveEntry> entries;
+
+    private ZipArchive(Path location, FileChannel channel, ZipIndex index) {
+        this.location = location;
+        this.channel = channel;
+        this.entries = index.entries();
+    }
+
+    /**
+     * Opens a zip file and reads its central directory.
+     *
+     * @param location Location of zip file.
+     * @return An open archive which must be closed.
+     * @throws IOException If file can't be read an IOException, or if it's not a zip file a ZipException, will be thrown.
+     */
+    public static ZipArchive open(Path location) throws IOException {
+        FileChannel channel = FileChannel.open(location, StandardOpenOption.READ);
+        try {
+            return new ZipArchive(location, channel, ZipIndex.of(location, channel));
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Gets location of this archive.
+     *
+     * @return Location of zip file.
+     */
+    public Path getLocation() {
+        return location;
+    }
+
+    /**
+     * Gets all entries of this archive in the order of its central directory.
+     *
+     * @return Unmodifiable list of entries.
+     */
+    public List<ArchiveEntry> entries() {
+        return Collections.unmodifiableList(new ArrayList<>(entries.values()));
+    }
+
+    /**
+     * Gets an entry by its name.
+     *
+     * @param name Name of entry, like "conf/site.properties".
+     * @return The entry, or null if archive has no entry with this name.
+     */
+    public ArchiveEntry entry(String name) {
+        return entries.get(name);
+    }
+
+    /**
+     * Gets entries which their names match a glob, like "conf/*.properties" or "**.xml".
+     *
+     * @param glob Glob in the syntax of {@link FileSystem#getPathMatcher(String)}.
+     * @return Matching entries in the order of central directory.
+     */
+    public List<ArchiveEntry> entries(String glob) {
+        PathMatcher matcher = matcherOf(glob);
+        List<ArchiveEntry> matching = new ArrayList<>();
+        for (ArchiveEntry entry : entries.values())
+            if (!entry.isFolder() && matcher.matches(Paths.get(entry.getName())))
+                matching.add(entry);
+        return matching;
+    }
+
+    /**
+     * Opens a stream of extracted content of an entry. Only the entry's own bytes are read from archive.
+     * Its CRC-32 is checked when the stream reaches its end.
+     *
+     * @param name Name of entry.
+     * @return A stream which must be closed.
+     * @throws IOException If entry doesn't exist or can't be read an IOException will be thrown.
+     */
+    public InputStream openEntry(String name) throws IOException {
+        ArchiveEntry entry = entries.get(name);
+        if (entry == null)
+            throw new NoSuchFileException(location + "!/" + name);
+        return openEntry(entry);
+    }
+
+    /**
+     * Opens a stream of extracted content of an entry. Only the entry's own bytes are read from archive.
+     * Its CRC-32 is checked when the stream reaches its end.
+     *
+     * @param entry Entry of this archive.
+     * @return A stream which must be closed.
+     * @throws IOException If entry can't be read an IOException will be thrown.
+     */
+    public InputStream openEntry(ArchiveEntry entry) throws IOException {
+        if (entry.isEncrypted())
+            throw new ZipException("Encrypted entry " + entry.getName() + " can't be extracted");
+        if (entry.getMethod() != ArchiveEntry.STORED && entry.getMethod() != ArchiveEntry.DEFLATED)
+            throw new ZipException("Entry " + entry.getName() + " has unsupported method " + entry.getMethod());
+
+        InputStream raw = new RangeInputStream(dataOffset(entry), entry.getCompressedSize());
+        InputStream content = entry.getMethod() == ArchiveEntry.STORED ? raw : new EntryInflaterInputStream(raw);
+        return new CheckedEntryInputStream(content, entry);
+    }
+
+    /**
+     * Extracts one entry to destination. Destination must not exist.
+     *
+     * @param name        Name of entry.
+     * @param destination Location of extracted file or folder.
+     * @throws IOException If entry doesn't exist or anything goes wrong in extracting an IOException will be thrown.
+     */
+    public void extract(String name, Path destination) throws IOException {
+        ArchiveEntry entry = entries.get(name);
+        if (entry == null)
+            throw new NoSuchFileException(location + "!/" + name);
+        extract(entry, destination);
+    }
+
+    /**
+     * Extracts every entry which its name matches a glob into a folder, keeping their locations in archive.
+     * Missing parent folders are created, and so are folders which match glob even if they are empty.
+     *
+     * @param glob   Glob in the syntax of {@link FileSystem#getPathMatcher(String)}.
+     * @param folder Folder to extract in.
+     * @return Locations of extracted files.
+     * @throws IOException If anything goes wrong in extracting an IOException will be thrown.
+     */
+    public List<Path> extractAll(String glob, Path folder) throws IOException {
+        Path root = folder.toAbsolutePath().normalize();
+        PathMatcher matcher = matcherOf(glob);
+        List<Path> extracted = new ArrayList<>();
+        for (ArchiveEntry entry : entries.values()) {
+            if (!matcher.matches(Paths.get(entry.getName())))
+                continue;
+            Path destination = root.resolve(entry.getName()).normalize();
+            // Entries like "../../etc/passwd" must not escape the folder
+            if (!destination.startsWith(root) || destination.equals(root))
+                throw new ZipException("Entry " + entry.getName() + " is outside of " + folder);
+            if (entry.isFolder()) {
+                Files.createDirectories(destination);
+                continue;
+            }
+            Files.createDirectories(destination.getParent());
+            extract(entry, destination);
+            extracted.add(destination);
+        }
+        return extracted;
+    }
+
+    /**
+     * Closes the zip file. Streams which are opened from this archive must not be used anymore.
+     *
+     * @throws IOException If anything goes wrong in closing an IOException will be thrown.
+     */
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private void extract(ArchiveEntry entry, Path destination) throws IOException {
+        if (entry.isFolder()) {
+            Files.createDirectory(destination);
+            return;
+        }
+        try (IOScheduler.Permit permit = IOScheduler.getDefault().acquire(IOPriority.BULK, location);
+             InputStream in = openEntry(entry);
+             OutputStream out = Files.newOutputStream(destination, StandardOpenOption.CREATE_NEW)) {
+            byte[] buffer = new byte[BUFFER_SIZE];
+            int length;
+            while ((length = in.read(buffer)) > 0) {
+                permit.transferred(length);
+                out.write(buffer, 0, length);
+            }
+        }
+        Files.setLastModifiedTime(destination, entry.getLastModified());
+    }
+
+    private static PathMatcher matcherOf(String glob) {
+        return FileSystems.getDefault().getPathMatcher("glob:" + glob);
+    }
+
+    private long dataOffset(ArchiveEntry entry) throws IOException {
+        ByteBuffer header = read(channel, entry.getLocalHeaderOffset(), LOCAL_HEADER_SIZE);
+        if (header.getInt(0) != LOCAL_SIGNATURE)
+            throw new ZipException("Invalid local header of entry " + entry.getName());
+        return entry.getLocalHeaderOffset() + LOCAL_HEADER_SIZE//
+                + (header.getShort(26) & 0xFFFF) + (header.getShort(28) & 0xFFFF);
+    }
+
+    static Map<String, ArchiveEntry> readCentralDirectory(FileChannel channel) throws IOException {
+        long size = channel.size();
+        int tailSize = (int) Math.min(size, END_SIZE + MAX_COMMENT_SIZE);
+        ByteBuffer tail = read(channel, size - tailSize, tailSize);
+
+        int end = -1;
+        for (int i = tailSize - END_SIZE; i >= 0; i--)
+            if (tail.getInt(i) == END_SIGNATURE) {
+                end = i;
+                break;
+            }
+        if (end < 0)
+            throw new ZipException("Not a zip file");
+
+        long count = tail.getShort(end + 10) & 0xFFFF;
+        long directorySize = tail.getInt(end + 12) & 0xFFFFFFFFL;
+        long directoryOffset = tail.getInt(end + 16) & 0xFFFFFFFFL;
+        long endOffset = size - tailSize + end;
+        if ((count == 0xFFFF || directorySize == 0xFFFFFFFFL || directoryOffset == 0xFFFFFFFFL)//
+                && endOffset >= ZIP64_LOCATOR_SIZE) {
+            ByteBuffer locator = read(channel, endOffset - ZIP64_LOCATOR_SIZE, ZIP64_LOCATOR_SIZE);
+            if (locator.getInt(0) == ZIP64_LOCATOR_SIGNATURE) {
+                ByteBuffer zip64End = read(channel, locator.getLong(8), 56);
+                if (zip64End.getInt(0) != ZIP64_END_SIGNATURE)
+                    throw new ZipException("Invalid zip64 end of central directory");
+                count = zip64End.getLong(32);
+                directorySize = zip64End.getLong(40);
+                directoryOffset = zip64End.getLong(48);
+            }
+        }
+        if (directorySize > Integer.MAX_VALUE || directoryOffset + directorySize > size)
+            throw new ZipException("Invalid central directory");
+
+        ByteBuffer directory = read(channel, directoryOffset, (int) directorySize);
+        Map<String, ArchiveEntry> entries = new LinkedHashMap<>((int) Math.min(count, 1 << 20) * 4 / 3 + 1);
+        int position = 0;
+        while (position + CENTRAL_HEADER_SIZE <= directory.limit()//
+                && directory.getInt(position) == CENTRAL_SIGNATURE) {
+            ArchiveEntry entry = readCentralHeader(directory, position);
+            entries.put(entry.getName(), entry);
+            position += CENTRAL_HEADER_SIZE + (directory.getShort(position + 28) & 0xFFFF)//
+                    + (directory.getShort(position + 30) & 0xFFFF) + (directory.getShort(position + 32) & 0xFFFF);
+        }
+        return entries;
+    }
+
+    private static ArchiveEntry readCentralHeader(ByteBuffer directory, int position) throws ZipException {
+        int flags = directory.getShort(position + 8) & 0xFFFF;
+        int method = directory.getShort(position + 10) & 0xFFFF;
+        int time = directory.getShort(position + 12) & 0xFFFF;
+        int date = directory.getShort(position + 14) & 0xFFFF;
+        long crc = directory.getInt(position + 16) & 0xFFFFFFFFL;
+        long compressedSize = directory.getInt(position + 20) & 0xFFFFFFFFL;
+        long size = directory.getInt(position + 24) & 0xFFFFFFFFL;
+        int nameLength = directory.getShort(position + 28) & 0xFFFF;
+        int extraLength = directory.getShort(position + 30) & 0xFFFF;
+        long offset = directory.getInt(position + 42) & 0xFFFFFFFFL;
+        if (position + CENTRAL_HEADER_SIZE + nameLength + extraLength > directory.limit())
+            throw new ZipException("Invalid central directory header");
+
+        byte[] nameBytes = new byte[nameLength];
+        ByteBuffer name = directory.duplicate();
+        name.position(position + CENTRAL_HEADER_SIZE);
+        name.get(nameBytes);
+
+        // Sizes and offset which don't fit in 32 bits are in the zip64 extra field, in this order
+        int extra = position + CENTRAL_HEADER_SIZE + nameLength;
+        int extraEnd = extra + extraLength;
+        while (extra + 4 <= extraEnd) {
+            int id = directory.getShort(extra) & 0xFFFF;
+            int length = directory.getShort(extra + 2) & 0xFFFF;
+            if (id == ZIP64_EXTRA) {
+                int value = extra + 4;
+                if (size == 0xFFFFFFFFL && value + 8 <= extraEnd) {
+                    size = directory.getLong(value);
+                    value += 8;
+                }
+                if (compressedSize == 0xFFFFFFFFL && value + 8 <= extraEnd) {
+                    compressedSize = directory.getLong(value);
+                    value += 8;
+                }
+                if (offset == 0xFFFFFFFFL && value + 8 <= extraEnd)
+                    offset = directory.getLong(value);
+                break;
+            }
+            extra += 4 + length;
+        }
+
+        return new ArchiveEntry(new String(nameBytes, StandardCharsets.UTF_8), method, flags, crc,//
+                compressedSize, size, offset, dosTime(date, time));
+    }
+
+    private static FileTime dosTime(int date, int time) {
+        int year = ((date >> 9) & 0x7F) + 1980;
+        int month = Math.max((date >> 5) & 0x0F, 1);
+        int day = Math.max(date & 0x1F, 1);
+        try {
+            LocalDateTime dateTime = LocalDateTime.of(year, month, day,//
+                    (time >> 11) & 0x1F, (time >> 5) & 0x3F, Math.min((time & 0x1F) * 2, 59));
+            return FileTime.from(dateTime.atZone(ZoneId.systemDefault()).toInstant());
+        } catch (RuntimeException e) {
+            return FileTime.fromMillis(0);
+        }
+    }
+
+    private static ByteBuffer read(FileChannel channel, long position, int size) throws IOException {
+        if (position < 0)
+            throw new ZipException("Invalid offset " + position);
+        ByteBuffer buffer = ByteBuffer.allocate(size).order(ByteOrder.LITTLE_ENDIAN);
+        while (buffer.hasRemaining())
+            if (channel.read(buffer, position + buffer.position()) < 0)
+                throw new ZipException("Unexpected end of zip file");
+        buffer.flip();
+        return buffer;
+    }
+
+    /**
+     * Reads a range of the zip file with positional reads, so it never moves the shared position of channel.
+     */
+    private class RangeInputStream extends InputStream {
+
+        private long position;
+        private final long end;
+
+        RangeInputStream(long position, long size) {
+            this.position = position;
+            this.end = position + size;
+        }
+
+        @Override
+        public int read() throws IOException {
+            byte[] one = new byte[1];
+            return read(one, 0, 1) < 0 ? -1 : one[0] & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] bytes, int offset, int length) throws IOException {
+            if (position >= end)
+                return -1;
+            ByteBuffer buffer = ByteBuffer.wrap(bytes, offset, (int) Math.min(length, end - position));
+            int read = channel.read(buffer, position);
+            if (read < 0)
+                throw new ZipException("Unexpected end of zip file");
+            position += read;
+            return read;
+        }
+
+        @Override
+        public int available() {
+            return (int) Math.min(end - position, Integer.MAX_VALUE);
+        }
+
+    }
+
+    private static class EntryInflaterInputStream extends InflaterInputStream {
+
+        private boolean endOfInput;
+
+        EntryInflaterInputStream(InputStream in) {
+            super(in, new Inflater(true), BUFFER_SIZE);
+        }
+
+        @Override
+        protected void fill() throws IOException {
+            if (endOfInput)
+                throw new ZipException("Unexpected end of entry");
+            len = in.read(buf, 0, buf.length);
+            if (len < 0) {
+                // A raw inflater may need one more byte after the end of deflated data
+                buf[0] = 0;
+                len = 1;
+                endOfInput = true;
+            }
+            inf.setInput(buf, 0, len);
+        }
+
+        @Override
+        public void close() throws IOException {
+            inf.end();
+            super.close();
+        }
+
+    }
+
+    private static class CheckedEntryInputStream extends CheckedInputStream {
+
+        private final ArchiveEntry entry;
+        private long read;
+        private boolean checked;
+
+        CheckedEntryInputStream(InputStream in, ArchiveEntry entry) {
+            super(in, new CRC32());
+            this.entry = entry;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b < 0)
+                check();
+            else
+                read++;
+            return b;
+        }
+
+        @Override
+        public int read(byte[] bytes, int offset, int length) throws IOException {
+            int count = super.read(bytes, offset, length);
+            if (count < 0)
+                check();
+            else
+                read += count;
+            return count;
+        }
+
+        private void check() throws ZipException {
+            if (checked)
+                return;
+            checked = true;
+            if (read != entry.getSize() || getChecksum().getValue() != entry.getCrc())
+                throw new ZipException("Entry " + entry.getName() + " is corrupted");
+        }
+
+    }
+
+}
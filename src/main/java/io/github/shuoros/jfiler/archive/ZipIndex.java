@@ -0,0 +1,129 @@
+package io.github.shuoros.jfiler.archive;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.*;
+
+/**
+ * Central directory of a zip file, with its entries by name and the children of every folder in it.
+ * Folders which have no entry of their own, but have entries under them, are known too.
+ * <p>
+ * Indexes are cached by location of archive and are used until its size or last modification time changes,
+ * so opening the same archive again doesn't read its central directory again.
+ *
+ * @author Soroush Shemshadi
+ * @version 1.0.0
+ * @since 1.2.0
+ */
+final class ZipIndex {
+
+    private static final int MAX_CACHED_INDEXES = 64;
+    private static final Map<Path, ZipIndex> CACHE = new LinkedHashMap<Path, ZipIndex>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Path, ZipIndex> eldest) {
+            return size() > MAX_CACHED_INDEXES;
+        }
+    };
+
+    private final long size;
+    private final long lastModified;
+    private final Map<String, ArchiveEntry> entries;
+    private final Map<String, SortedSet<String>> children = new HashMap<>();
+
+    private ZipIndex(long size, long lastModified, Map<String, ArchiveEntry> entries) {
+        this.size = size;
+        this.lastModified = lastModified;
+        this.entries = entries;
+        children.put("", new TreeSet<>());
+        for (String name : entries.keySet())
+            addToParents(name);
+    }
+
+    static ZipIndex of(Path archive) throws IOException {
+        ZipIndex cached = cached(archive);
+        if (cached != null)
+            return cached;
+        try (FileChannel channel = FileChannel.open(archive)) {
+            return of(archive, channel);
+        }
+    }
+
+    static ZipIndex of(Path archive, FileChannel channel) throws IOException {
+        ZipIndex cached = cached(archive);
+        if (cached != null)
+            return cached;
+
+        BasicFileAttributes attributes = Files.readAttributes(archive, BasicFileAttributes.class);
+        ZipIndex index = new ZipIndex(attributes.size(), attributes.lastModifiedTime().toMillis(),//
+                ZipArchive.readCentralDirectory(channel));
+        synchronized (CACHE) {
+            CACHE.put(archive.toAbsolutePath(), index);
+        }
+        return index;
+    }
+
+    static void clearCache() {
+        synchronized (CACHE) {
+            CACHE.clear();
+        }
+    }
+
+    Map<String, ArchiveEntry> entries() {
+        return entries;
+    }
+
+    long lastModified() {
+        return lastModified;
+    }
+
+    /**
+     * Checks if a folder is in archive.
+     *
+     * @param folder Name of folder which ends with "/", or "" for root of archive.
+     */
+    boolean isFolder(String folder) {
+        return children.containsKey(folder);
+    }
+
+    /**
+     * Gets names of files and folders right under a folder. Names of folders end with "/".
+     *
+     * @param folder Name of folder which ends with "/", or "" for root of archive.
+     */
+    SortedSet<String> children(String folder) {
+        SortedSet<String> names = children.get(folder);
+        return names == null ? Collections.emptySortedSet() : Collections.unmodifiableSortedSet(names);
+    }
+
+    private static ZipIndex cached(Path archive) throws IOException {
+        ZipIndex cached;
+        synchronized (CACHE) {
+            cached = CACHE.get(archive.toAbsolutePath());
+        }
+        if (cached == null)
+            return null;
+        BasicFileAttributes attributes = Files.readAttributes(archive, BasicFileAttributes.class);
+        return cached.size == attributes.size() && cached.lastModified == attributes.lastModifiedTime().toMillis()//
+                ? cached : null;
+    }
+
+    private void addToParents(String name) {
+        String[] parts = name.split("/");
+        String parent = "";
+        for (int i = 0; i < parts.length; i++) {
+            // Such names can't be navigated to, and are only extracted by name
+            if (parts[i].isEmpty() || parts[i].equals(".") || parts[i].equals(".."))
+                return;
+            boolean isFolder = i < parts.length - 1 || name.endsWith("/");
+            String child = isFolder ? parts[i] + "/" : parts[i];
+            children.computeIfAbsent(parent, key -> new TreeSet<>()).add(child);
+            parent = parent + child;
+            if (isFolder)
+                children.computeIfAbsent(parent, key -> new TreeSet<>());
+        }
+    }
+
+}
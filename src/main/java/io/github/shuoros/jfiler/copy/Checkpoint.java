@@ -0,0 +1,340 @@
+package io.github.shuoros.jfiler.copy;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.util.*;
+import java.util.zip.CRC32C;
+
+/**
+ * Progress of a resumable copy on disk: files which have been copied completely, and how much of each file which
+ * is being copied is surely on disk. Records are appended with a CRC32C checksum each, like records of
+ * {@link io.github.shuoros.jfiler.journal.Journal}, and a torn record at the end is dropped when it's opened.
+ * <p>
+ * Progress of a file is appended and forced right away, but only after the copied bytes it covers are forced.
+ * Completed files are forced one by one and their records are forced at most once per second, so a crash may
+ * only forget the files of last second, which are then copied again. Completed files are recorded with the size
+ * and last modification time of their sources, so a source which has changed since it was copied is copied again.
+ * When the checkpoint file grows to twice its size after it was last rewritten, it's rewritten with just its
+ * current state, so a long copy spends time on rewrites in proportion to records it appends.
+ *
+ * @author Soroush Shemshadi
+ * @version 1.0.0
+ * @see io.github.shuoros.jfiler.copy.CopyOptions#checkpoint(Path)
+ * @since 1.2.0
+ */
+class Checkpoint implements Closeable {
+
+    private static final byte STARTED = 1;
+    private static final byte PROGRESS = 2;
+    private static final byte DONE = 3;
+    private static final int HEADER_SIZE = 8;
+    private static final long MIN_COMPACTION_SIZE = 4 * 1024 * 1024;
+    private static final long FLUSH_INTERVAL_MILLIS = 1000;
+
+    private final Path location;
+    private final Path source;
+    private final Path destination;
+    private final Map<String, Progress> done = new HashMap<>();
+    private final Map<String, Progress> inFlight = new HashMap<>();
+    private List<ByteBuffer> pending = new ArrayList<>();
+    private FileChannel channel;
+    private boolean resumed;
+    private long compactedSize;
+    private long lastFlush = System.currentTimeMillis();
+
+    private Checkpoint(Path location, Path source, Path destination) {
+        this.location = location;
+        this.source = source;
+        this.destination = destination;
+    }
+
+    /**
+     * Opens checkpoint of a copy, or creates it if it doesn't exist.
+     *
+     * @param location    Location of checkpoint file.
+     * @param source      Location of file or folder which is copied.
+     * @param destination Location which it's copied to.
+     * @return The opened checkpoint.
+     * @throws IOException If checkpoint belongs to another copy, or it can't be read or written, an IOException
+     *                     will be thrown.
+     */
+    static Checkpoint open(Path location, Path source, Path destination) throws IOException {
+        Checkpoint checkpoint = new Checkpoint(location, source.toAbsolutePath(), destination.toAbsolutePath());
+        checkpoint.channel = FileChannel.open(location,//
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            checkpoint.read();
+            if (!checkpoint.resumed) {
+                checkpoint.append(checkpoint.encodeStarted());
+                checkpoint.flush();
+            }
+        } catch (IOException | RuntimeException e) {
+            checkpoint.channel.close();
+            throw e;
+        }
+        return checkpoint;
+    }
+
+    /**
+     * Checks if this checkpoint has been left by a copy which didn't complete.
+     *
+     * @return True if copy is resumed from it.
+     */
+    boolean isResumed() {
+        return resumed;
+    }
+
+    /**
+     * Checks if a file has been copied completely from a source which still has the same size and last
+     * modification time.
+     */
+    synchronized boolean isDone(String relative, long size, long lastModified) {
+        Progress progress = done.get(relative);
+        return progress != null && progress.getSize() == size && progress.getLastModified() == lastModified;
+    }
+
+    synchronized Progress progressOf(String relative) {
+        return inFlight.get(relative);
+    }
+
+    /**
+     * Records how much of a file is on disk, and forces the record. Copied bytes must be forced before.
+     *
+     * @throws IOException If anything goes wrong in writing an IOException will be thrown.
+     */
+    synchronized void progress(String relative, Progress progress) throws IOException {
+        inFlight.put(relative, progress);
+        append(encodeProgress(relative, progress));
+        flush();
+    }
+
+    /**
+     * Records that a file has been copied completely. Its copy must be forced before. The record is forced
+     * with the next progress, or if it's been a second since the last force.
+     *
+     * @throws IOException If anything goes wrong in writing an IOException will be thrown.
+     */
+    synchronized void done(String relative, long size, long lastModified) throws IOException {
+        Progress progress = new Progress(size, size, lastModified, 0);
+        inFlight.remove(relative);
+        done.put(relative, progress);
+        append(encodeDone(relative, progress));
+        if (System.currentTimeMillis() - lastFlush >= FLUSH_INTERVAL_MILLIS)
+            flush();
+    }
+
+    /**
+     * Deletes the checkpoint file once the whole copy is complete.
+     *
+     * @throws IOException If anything goes wrong in deleting an IOException will be thrown.
+     */
+    synchronized void complete() throws IOException {
+        channel.close();
+        Files.deleteIfExists(location);
+    }
+
+    /**
+     * Forces pending records and closes the checkpoint file, which is kept to resume the copy.
+     *
+     * @throws IOException If anything goes wrong in writing an IOException will be thrown.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (!channel.isOpen())
+            return;
+        try {
+            flush();
+        } finally {
+            channel.close();
+        }
+    }
+
+    private void flush() throws IOException {
+        lastFlush = System.currentTimeMillis();
+        if (pending.isEmpty())
+            return;
+        if (channel.size() > Math.max(MIN_COMPACTION_SIZE, 2 * compactedSize)) {
+            compact();
+            return;
+        }
+        write(channel, pending);
+        pending = new ArrayList<>();
+        channel.force(false);
+    }
+
+    private void compact() throws IOException {
+        List<ByteBuffer> records = new ArrayList<>();
+        records.add(encodeStarted());
+        for (Map.Entry<String, Progress> entry : done.entrySet())
+            records.add(encodeDone(entry.getKey(), entry.getValue()));
+        for (Map.Entry<String, Progress> entry : inFlight.entrySet())
+            records.add(encodeProgress(entry.getKey(), entry.getValue()));
+
+        Path temporary = location.resolveSibling(location.getFileName() + ".tmp");
+        try (FileChannel compacted = FileChannel.open(temporary, StandardOpenOption.CREATE,//
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            write(compacted, records);
+            compacted.force(false);
+        }
+        channel.close();
+        Files.move(temporary, location, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        channel = FileChannel.open(location, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        compactedSize = channel.size();
+        channel.position(compactedSize);
+        pending = new ArrayList<>();
+    }
+
+    private void read() throws IOException {
+        long valid = 0;
+        DataInputStream in = new DataInputStream(new BufferedInputStream(Channels.newInputStream(channel.position(0))));
+        CRC32C crc = new CRC32C();
+        while (true) {
+            byte[] payload;
+            try {
+                int length = in.readInt();
+                int checksum = in.readInt();
+                if (length < 0 || length > channel.size())
+                    break;
+                payload = new byte[length];
+                in.readFully(payload);
+                crc.reset();
+                crc.update(payload);
+                if ((int) crc.getValue() != checksum)
+                    break;
+            } catch (EOFException e) {
+                break;
+            }
+            apply(payload);
+            valid += HEADER_SIZE + payload.length;
+        }
+        // Anything after the last valid record was torn by a crash
+        channel.truncate(valid);
+        channel.position(valid);
+        compactedSize = valid;
+    }
+
+    private void apply(byte[] payload) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload));
+        byte type = in.readByte();
+        if (type == STARTED) {
+            String copiedSource = in.readUTF();
+            String copiedDestination = in.readUTF();
+            if (!copiedSource.equals(source.toString()) || !copiedDestination.equals(destination.toString()))
+                throw new IOException(location + " is checkpoint of coping " + copiedSource + " to "//
+                        + copiedDestination);
+            resumed = true;
+        } else if (type == PROGRESS) {
+            String relative = in.readUTF();
+            inFlight.put(relative, new Progress(in.readLong(), in.readLong(), in.readLong(), in.readLong()));
+        } else if (type == DONE) {
+            String relative = in.readUTF();
+            inFlight.remove(relative);
+            // Records of older checkpoints have no state of source, so their files are copied again
+            if (in.available() >= 2 * Long.BYTES) {
+                long size = in.readLong();
+                done.put(relative, new Progress(size, size, in.readLong(), 0));
+            }
+        }
+    }
+
+    private ByteBuffer encodeStarted() throws IOException {
+        return encode(out -> {
+            out.writeByte(STARTED);
+            out.writeUTF(source.toString());
+            out.writeUTF(destination.toString());
+        });
+    }
+
+    private static ByteBuffer encodeProgress(String relative, Progress progress) throws IOException {
+        return encode(out -> {
+            out.writeByte(PROGRESS);
+            out.writeUTF(relative);
+            out.writeLong(progress.getOffset());
+            out.writeLong(progress.getSize());
+            out.writeLong(progress.getLastModified());
+            out.writeLong(progress.getCrc());
+        });
+    }
+
+    private static ByteBuffer encodeDone(String relative, Progress progress) throws IOException {
+        return encode(out -> {
+            out.writeByte(DONE);
+            out.writeUTF(relative);
+            out.writeLong(progress.getSize());
+            out.writeLong(progress.getLastModified());
+        });
+    }
+
+    private static ByteBuffer encode(RecordWriter writer) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64);
+        bytes.write(new byte[HEADER_SIZE]);
+        DataOutputStream out = new DataOutputStream(bytes);
+        writer.write(out);
+        out.flush();
+
+        ByteBuffer record = ByteBuffer.wrap(bytes.toByteArray());
+        CRC32C crc = new CRC32C();
+        crc.update(record.array(), HEADER_SIZE, record.capacity() - HEADER_SIZE);
+        record.putInt(0, record.capacity() - HEADER_SIZE);
+        record.putInt(4, (int) crc.getValue());
+        return record;
+    }
+
+    private void append(ByteBuffer record) {
+        pending.add(record);
+    }
+
+    private static void write(FileChannel channel, List<ByteBuffer> records) throws IOException {
+        ByteBuffer[] buffers = records.toArray(new ByteBuffer[0]);
+        long remaining = 0;
+        for (ByteBuffer buffer : buffers)
+            remaining += buffer.remaining();
+        while (remaining > 0)
+            remaining -= channel.write(buffers);
+    }
+
+    private interface RecordWriter {
+
+        void write(DataOutputStream out) throws IOException;
+
+    }
+
+    /**
+     * How much of a file is on disk, and the state of its source when it was copied.
+     */
+    static class Progress {
+
+        private final long offset;
+        private final long size;
+        private final long lastModified;
+        private final long crc;
+
+        Progress(long offset, long size, long lastModified, long crc) {
+            this.offset = offset;
+            this.size = size;
+            this.lastModified = lastModified;
+            this.crc = crc;
+        }
+
+        long getOffset() {
+            return offset;
+        }
+
+        long getSize() {
+            return size;
+        }
+
+        long getLastModified() {
+            return lastModified;
+        }
+
+        long getCrc() {
+            return crc;
+        }
+
+    }
+
+}
@@ -0,0 +1,406 @@
+package io.github.shuoros.jfiler.copy;
+
+import io.github.shuoros.jfiler.io.AtomicPublisher;
+import io.github.shuoros.jfiler.io.IOPriority;
+import io.github.shuoros.jfiler.io.IOScheduler;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.CRC32C;
+
+/**
+ * Copies files and folders by the given {@link io.github.shuoros.jfiler.copy.CopyOptions}. Copies keep last
+ * modification time of their sources. Destination must not exist, unless a resumable copy left it.
+ * <p>
+ * In sparse copies, content is read in big chunks and each block of a chunk which is all zeros is skipped by
+ * moving the write position past it instead of being written, so it becomes a hole of destination.
+ * <p>
+ * In snapshot copies of folders, each file which hasn't changed since the previous snapshot is hard linked to
+ * its copy in that snapshot, and only changed files are copied. Files of a folder are handled in parallel.
+ * <p>
+ * Other files of {@link io.github.shuoros.jfiler.copy.RangeCopier#LARGE_FILE_SIZE} or bigger are copied in
+ * ranges at the same time by a {@link io.github.shuoros.jfiler.copy.RangeCopier}.
+ * <p>
+ * In direct copies, files are read and written with direct I/O where it's supported, so they don't pass through
+ * the page cache.
+ * <p>
+ * In resumable copies, progress is recorded in a checkpoint file: completed files, and every 64 MB the offset which
+ * a file being copied is surely on disk up to. A copy which was interrupted is resumed by copying with the same
+ * checkpoint again, which skips completed files whose sources haven't changed and continues partly copied ones from
+ * their recorded offset. Resumable copies don't copy sparse, direct or in ranges.
+ * <p>
+ * In atomic copies, each file is copied to a hidden temporary file next to its destination and published by an
+ * {@link io.github.shuoros.jfiler.io.AtomicPublisher} once it's complete.
+ *
+ * @author Soroush Shemshadi
+ * @version 1.0.0
+ * @see io.github.shuoros.jfiler.JFiler#copyTo(String, String, CopyOptions)
+ * @since 1.2.0
+ */
+public class Copier {
+
+    private static final int CHUNK_SIZE = 1024 * 1024;
+    private static final long CHECKPOINT_INTERVAL = 64L * 1024 * 1024;
+    private static final AtomicInteger THREAD_NUMBER = new AtomicInteger();
+
+    private final CopyOptions options;
+
+    /**
+     * Constructs a copier.
+     *
+     * @param options Options of copies.
+     */
+    public Copier(CopyOptions options) {
+        this.options = options;
+    }
+
+    /**
+     * Copies a file or folder.
+     *
+     * @param source      Location of file or folder to copy.
+     * @param destination Location to copy in, which must not exist unless this copy resumes an interrupted one.
+     * @throws IOException If anything goes wrong in coping an IOException will be thrown.
+     */
+    public void copy(Path source, Path destination) throws IOException {
+        if (options.getCheckpoint() == null) {
+            if (Files.exists(destination, LinkOption.NOFOLLOW_LINKS))
+                throw new FileAlreadyExistsException(destination.toString());
+            copy(source, destination, null);
+            if (options.isOwnPublisher())
+                options.getPublisher().sync();
+            return;
+        }
+
+        try (Checkpoint checkpoint = Checkpoint.open(options.getCheckpoint(), source, destination)) {
+            // Only a copy which left its checkpoint may find its destination there
+            if (!checkpoint.isResumed() && Files.exists(destination, LinkOption.NOFOLLOW_LINKS)) {
+                checkpoint.complete();
+                throw new FileAlreadyExistsException(destination.toString());
+            }
+            copy(source, destination, checkpoint);
+            checkpoint.complete();
+        }
+    }
+
+    private void copy(Path source, Path destination, Checkpoint checkpoint) throws IOException {
+        if (!Files.isDirectory(source)) {
+            copyFile(source, destination, "", checkpoint);
+            return;
+        }
+
+        if (options.getParallelism() == 1) {
+            copyFolder(source, destination, Runnable::run, checkpoint);
+            return;
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(options.getParallelism(), runnable -> {
+            Thread thread = new Thread(runnable, "jfiler-copy-" + THREAD_NUMBER.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            copyFolder(source, destination, pool, checkpoint);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private void copyFolder(Path source, Path destination, Executor executor, Checkpoint checkpoint)//
+            throws IOException {
+        // Folders are made in order while walking, files are handled by executor with a bounded backlog
+        Semaphore backlog = new Semaphore(options.getParallelism() * 4);
+        Phaser running = new Phaser(1);
+        IOException[] failure = new IOException[1];
+
+        try {
+            Files.walkFileTree(source, new SimpleFileVisitor<Path>() {
+                @Override
+                public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attributes) throws IOException {
+                    Path copy = destination.resolve(source.relativize(dir).toString());
+                    if (checkpoint == null)
+                        Files.createDirectory(copy);
+                    else
+                        Files.createDirectories(copy);
+                    return FileVisitResult.CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult visitFile(Path file, BasicFileAttributes attributes) throws IOException {
+                    String relative = source.relativize(file).toString();
+                    // A file is copied again if its source has changed since it was done
+                    if (checkpoint != null && checkpoint.isDone(relative, attributes.size(),//
+                            attributes.lastModifiedTime().toMillis()))
+                        return FileVisitResult.CONTINUE;
+                    acquire(backlog);
+                    running.register();
+                    try {
+                        executor.execute(() -> {
+                            try {
+                                linkOrCopy(file, attributes, destination.resolve(relative), relative, checkpoint);
+                            } catch (IOException | RuntimeException e) {
+                                fail(failure, e);
+                            } finally {
+                                backlog.release();
+                                running.arriveAndDeregister();
+                            }
+                        });
+                    } catch (RuntimeException e) {
+                        backlog.release();
+                        running.arriveAndDeregister();
+                        throw e;
+                    }
+                    synchronized (failure) {
+                        return failure[0] == null ? FileVisitResult.CONTINUE : FileVisitResult.TERMINATE;
+                    }
+                }
+
+                @Override
+                public FileVisitResult visitFileFailed(Path file, IOException e) {
+                    fail(failure, e);
+                    return FileVisitResult.TERMINATE;
+                }
+            });
+        } catch (IOException | RuntimeException e) {
+            fail(failure, e);
+        } finally {
+            // Files which are being copied must be finished before checkpoint or pool can be closed
+            running.arriveAndAwaitAdvance();
+        }
+
+        if (failure[0] != null)
+            throw failure[0];
+    }
+
+    private static void fail(IOException[] failure, Exception e) {
+        IOException thrown = e instanceof IOException ? (IOException) e : new IOException(e);
+        synchronized (failure) {
+            if (failure[0] == null)
+                failure[0] = thrown;
+            else
+                failure[0].addSuppressed(thrown);
+        }
+    }
+
+    private void linkOrCopy(Path source, BasicFileAttributes attributes, Path destination, String relative,//
+                            Checkpoint checkpoint) throws IOException {
+        Path previousSnapshot = options.getPreviousSnapshot();
+        if (previousSnapshot != null) {
+            Path previous = previousSnapshot.resolve(relative);
+            if (isUnchanged(previous, attributes)) {
+                IOScheduler.Permit permit = IOScheduler.getDefault().acquire(IOPriority.BULK, previous);
+                try {
+                    if (checkpoint != null)
+                        Files.deleteIfExists(destination);
+                    Files.createLink(destination, previous);
+                    if (checkpoint != null)
+                        checkpoint.done(relative, attributes.size(), attributes.lastModifiedTime().toMillis());
+                    return;
+                } catch (UnsupportedOperationException | FileSystemException e) {
+                    // Links are not supported here or previous snapshot is on another file system
+                } finally {
+                    permit.close();
+                }
+            }
+        }
+        copyFile(source, destination, relative, checkpoint);
+    }
+
+    private static boolean isUnchanged(Path previous, BasicFileAttributes attributes) {
+        try {
+            BasicFileAttributes previousAttributes = Files.readAttributes(previous, BasicFileAttributes.class,//
+                    LinkOption.NOFOLLOW_LINKS);
+            return previousAttributes.isRegularFile() && attributes.isRegularFile()//
+                    && previousAttributes.size() == attributes.size()//
+                    && previousAttributes.lastModifiedTime().equals(attributes.lastModifiedTime());
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private static void acquire(Semaphore semaphore) throws InterruptedIOException {
+        try {
+            semaphore.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while coping");
+        }
+    }
+
+    private void copyFile(Path source, Path destination, String relative, Checkpoint checkpoint)//
+            throws IOException {
+        if (checkpoint != null) {
+            copyResumable(source, destination, relative, checkpoint);
+            return;
+        }
+        AtomicPublisher publisher = options.getPublisher();
+        if (publisher == null) {
+            copyContent(source, destination);
+            return;
+        }
+        if (Files.exists(destination, LinkOption.NOFOLLOW_LINKS))
+            throw new FileAlreadyExistsException(destination.toString());
+        Path temporary = publisher.temporaryOf(destination);
+        try {
+            copyContent(source, temporary);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temporary);
+            throw e;
+        }
+        publisher.publish(temporary, destination, false);
+    }
+
+    private void copyContent(Path source, Path destination) throws IOException {
+        if (!options.isSparse() && !options.isDirect() && options.getMaxRanges() > 1//
+                && Files.size(source) >= RangeCopier.LARGE_FILE_SIZE) {
+            new RangeCopier(options.getMaxRanges()).copy(source, destination);
+            return;
+        }
+        try (IOScheduler.Permit permit = IOScheduler.getDefault().acquire(IOPriority.BULK, source);
+             FileChannel in = FileChannel.open(source, StandardOpenOption.READ);
+             FileChannel out = FileChannel.open(destination, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+            if (options.isSparse())
+                copySparse(in, out, permit);
+            else if (!options.isDirect() || !DirectIO.copy(source, destination, in.size(), permit))
+                copyAll(in, out, permit);
+        }
+        if (options.isSparse())
+            // A trailing hole is made by extending the file without writing to it
+            try (RandomAccessFile file = new RandomAccessFile(destination.toFile(), "rw")) {
+                file.setLength(Files.size(source));
+            }
+        Files.setLastModifiedTime(destination, Files.getLastModifiedTime(source));
+    }
+
+    private void copyResumable(Path source, Path destination, String relative, Checkpoint checkpoint)//
+            throws IOException {
+        BasicFileAttributes attributes = Files.readAttributes(source, BasicFileAttributes.class);
+        long size = attributes.size();
+        long lastModified = attributes.lastModifiedTime().toMillis();
+        CRC32C crc = options.isVerifyResume() ? new CRC32C() : null;
+        try (IOScheduler.Permit permit = IOScheduler.getDefault().acquire(IOPriority.BULK, source);
+             FileChannel in = FileChannel.open(source, StandardOpenOption.READ);
+             FileChannel out = FileChannel.open(destination,//
+                     StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer chunk = ByteBuffer.allocateDirect(CHUNK_SIZE);
+            long position = resumePosition(checkpoint.progressOf(relative), size, lastModified, out, crc, chunk);
+            out.truncate(position);
+            long sinceCheckpoint = 0;
+            while (position < size) {
+                chunk.clear();
+                int read = in.read(chunk, position);
+                if (read < 0)
+                    throw new IOException(source + " was truncated while it was copied");
+                chunk.flip();
+                permit.transferred(read);
+                if (crc != null)
+                    crc.update(chunk.duplicate());
+                while (chunk.hasRemaining())
+                    out.write(chunk, position + chunk.position());
+                position += read;
+                sinceCheckpoint += read;
+
+                if (sinceCheckpoint >= CHECKPOINT_INTERVAL && position < size) {
+                    // Progress is only recorded once the bytes it covers are on disk
+                    out.force(false);
+                    checkpoint.progress(relative,//
+                            new Checkpoint.Progress(position, size, lastModified, crc == null ? 0 : crc.getValue()));
+                    sinceCheckpoint = 0;
+                }
+            }
+            out.force(false);
+        }
+        Files.setLastModifiedTime(destination, attributes.lastModifiedTime());
+        checkpoint.done(relative, size, lastModified);
+    }
+
+    /**
+     * Finds where copy of a file which has been partly copied before continues from. Copied prefix is trusted if
+     * source has the same size and last modification time as before, and copy is at least as long as it, and if
+     * a CRC is given, the prefix read back from copy has the CRC which was recorded.
+     *
+     * @return Offset which copy continues from, or 0 if it must start over.
+     */
+    private static long resumePosition(Checkpoint.Progress progress, long size, long lastModified, FileChannel out,//
+                                       CRC32C crc, ByteBuffer chunk) throws IOException {
+        if (progress == null || progress.getSize() != size || progress.getLastModified() != lastModified//
+                || out.size() < progress.getOffset())
+            return 0;
+        if (crc == null)
+            return progress.getOffset();
+
+        long position = 0;
+        while (position < progress.getOffset()) {
+            chunk.clear().limit((int) Math.min(chunk.capacity(), progress.getOffset() - position));
+            int read = out.read(chunk, position);
+            if (read < 0)
+                break;
+            chunk.flip();
+            crc.update(chunk);
+            position += read;
+        }
+        if (position == progress.getOffset() && crc.getValue() == progress.getCrc())
+            return position;
+        crc.reset();
+        return 0;
+    }
+
+    private static void copyAll(FileChannel in, FileChannel out, IOScheduler.Permit permit) throws IOException {
+        long size = in.size();
+        long position = 0;
+        while (position < size) {
+            // Transferred in chunks so a bandwidth limit can slow it down
+            long transferred = in.transferTo(position, Math.min(CHUNK_SIZE, size - position), out);
+            // Nothing is transferred past end of source, which would loop forever if it shrank
+            if (transferred == 0)
+                throw new IOException("Source was truncated while it was copied");
+            permit.transferred(transferred);
+            position += transferred;
+        }
+    }
+
+    private void copySparse(FileChannel in, FileChannel out, IOScheduler.Permit permit) throws IOException {
+        int blockSize = options.getBlockSize();
+        ByteBuffer chunk = ByteBuffer.allocateDirect(Math.max(blockSize, CHUNK_SIZE / blockSize * blockSize));
+        long position = 0;
+        while (true) {
+            chunk.clear();
+            int read = 0;
+            while (chunk.hasRemaining() && read >= 0)
+                read = in.read(chunk, position + chunk.position());
+            chunk.flip();
+            if (!chunk.hasRemaining())
+                return;
+            permit.transferred(chunk.remaining());
+
+            for (int start = 0; start < chunk.limit(); start += blockSize) {
+                int end = Math.min(start + blockSize, chunk.limit());
+                if (isZero(chunk, start, end))
+                    continue;
+                ByteBuffer block = chunk.duplicate();
+                block.limit(end).position(start);
+                while (block.hasRemaining())
+                    out.write(block, position + block.position());
+            }
+            position += chunk.limit();
+        }
+    }
+
+    private static boolean isZero(ByteBuffer bytes, int start, int end) {
+        int i = start;
+        for (; i + Long.BYTES <= end; i += Long.BYTES)
+            if (bytes.getLong(i) != 0)
+                return false;
+        for (; i < end; i++)
+            if (bytes.get(i) != 0)
+                return false;
+        return true;
+    }
+
+}
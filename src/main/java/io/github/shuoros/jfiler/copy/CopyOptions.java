@@ -0,0 +1,266 @@
+package io.github.shuoros.jfiler.copy;
+
+import io.github.shuoros.jfiler.io.AtomicPublisher;
+import io.github.shuoros.jfiler.util.Locations;
+
+import java.nio.file.Path;
+
+/**
+ * Options of a {@link io.github.shuoros.jfiler.copy.Copier}.
+ * <p>
+ * For example, to copy a sparse disk image without writing its holes:
+ * <pre>{@code
+ * JFiler.copyTo("/vm/disk.img", "/backup/disk.img", CopyOptions.create().sparse(true));
+ * }</pre>
+ * Or to back up a large folder without evicting page cache of other processes on the machine:
+ * <pre>{@code
+ * JFiler.copyTo("/data", "/backup/data", CopyOptions.create().direct(true));
+ * }</pre>
+ * Or to copy a huge folder which can be resumed where it was left if the process dies in the middle:
+ * <pre>{@code
+ * JFiler.copyTo("/data", "/backup/data", CopyOptions.create().checkpoint("/backup/data.checkpoint"));
+ * }</pre>
+ * Or to copy reports into a shared folder where readers must never see a half copied one:
+ * <pre>{@code
+ * JFiler.copyTo("/reports/today", "/shared/reports/today", CopyOptions.create().atomic(true));
+ * }</pre>
+ * Or to take today's snapshot of a folder which only costs space of files changed since yesterday's one:
+ * <pre>{@code
+ * JFiler.copyTo("/data", "/snapshots/today", CopyOptions.create().snapshotOf("/snapshots/yesterday").parallelism(8));
+ * }</pre>
+ *
+ * @author Soroush Shemshadi
+ * @version 1.0.0
+ * @since 1.2.0
+ */
+public class CopyOptions {
+
+    /**
+     * Size of blocks which are checked for zeros in sparse copies by default.
+     */
+    public static final int DEFAULT_BLOCK_SIZE = 4096;
+
+    private boolean sparse;
+    private boolean direct;
+    private int blockSize = DEFAULT_BLOCK_SIZE;
+    private Path previousSnapshot;
+    private int parallelism = 1;
+    private int maxRanges = RangeCopier.DEFAULT_MAX_RANGES;
+    private Path checkpoint;
+    private boolean verifyResume;
+    private AtomicPublisher publisher;
+    private boolean ownPublisher;
+
+    private CopyOptions() {
+    }
+
+    /**
+     * Creates options which copy every byte.
+     *
+     * @return New options.
+     */
+    public static CopyOptions create() {
+        return new CopyOptions();
+    }
+
+    /**
+     * Sets if blocks which are all zeros are skipped instead of written, so they become holes of destination.
+     * Destination then takes as much disk as the data in source, even if source itself isn't sparse.
+     *
+     * @param sparse True to skip blocks of zeros and false to write them.
+     * @return These options.
+     */
+    public CopyOptions sparse(boolean sparse) {
+        this.sparse = sparse;
+        return this;
+    }
+
+    /**
+     * Sets if files are read and written with direct I/O, which bypasses the page cache, so a large copy like
+     * a nightly backup doesn't evict cached pages of other processes. Where Java or file system doesn't support
+     * direct I/O, files are copied as usual. Direct copies are not sparse and don't copy large files in ranges.
+     *
+     * @param direct True to bypass the page cache where it's possible.
+     * @return These options.
+     */
+    public CopyOptions direct(boolean direct) {
+        this.direct = direct;
+        return this;
+    }
+
+    /**
+     * Sets size of blocks which are checked for zeros in sparse copies. It should be the block size of
+     * destination's file system, or a multiple of it, since smaller holes are not kept by file systems.
+     *
+     * @param blockSize Size of blocks in bytes.
+     * @return These options.
+     */
+    public CopyOptions blockSize(int blockSize) {
+        if (blockSize < 1)
+            throw new IllegalArgumentException("Block size must be positive but was " + blockSize);
+        this.blockSize = blockSize;
+        return this;
+    }
+
+    /**
+     * Makes folder copies snapshots: a file which is in the previous snapshot at the same relative location,
+     * with the same size and last modification time, is hard linked to it instead of being copied.
+     *
+     * @param previousSnapshot Location of previous copy of the same folder.
+     * @return These options.
+     * @see #snapshotOf(Path)
+     */
+    public CopyOptions snapshotOf(String previousSnapshot) {
+        return snapshotOf(Locations.toPath(Locations.normalize(previousSnapshot)));
+    }
+
+    /**
+     * Makes folder copies snapshots: a file which is in the previous snapshot at the same relative location,
+     * with the same size and last modification time, is hard linked to it instead of being copied. Previous
+     * snapshot and destination must be on the same file system, otherwise files are copied.
+     *
+     * @param previousSnapshot Location of previous copy of the same folder.
+     * @return These options.
+     */
+    public CopyOptions snapshotOf(Path previousSnapshot) {
+        this.previousSnapshot = previousSnapshot;
+        return this;
+    }
+
+    /**
+     * Sets maximum number of files which are copied or linked at the same time in folder copies.
+     *
+     * @param parallelism Maximum number of files handled at the same time.
+     * @return These options.
+     */
+    public CopyOptions parallelism(int parallelism) {
+        if (parallelism < 1)
+            throw new IllegalArgumentException("Parallelism must be at least 1 but was " + parallelism);
+        this.parallelism = parallelism;
+        return this;
+    }
+
+    /**
+     * Sets maximum number of ranges of a large file which are copied at the same time. Sparse copies are
+     * always copied from start to end.
+     *
+     * @param maxRanges Maximum number of ranges, or 1 to copy large files from start to end.
+     * @return These options.
+     * @see io.github.shuoros.jfiler.copy.RangeCopier
+     */
+    public CopyOptions maxRanges(int maxRanges) {
+        if (maxRanges < 1)
+            throw new IllegalArgumentException("Maximum ranges must be at least 1 but was " + maxRanges);
+        this.maxRanges = maxRanges;
+        return this;
+    }
+
+    /**
+     * Makes copies resumable through a checkpoint file. It's created when the copy starts, updated as files and
+     * parts of large files are copied, kept if the copy is interrupted so copying again with it continues where
+     * it was left, and deleted once the copy is complete.
+     *
+     * @param checkpoint Location of checkpoint file, outside of destination.
+     * @return These options.
+     * @see #checkpoint(Path)
+     */
+    public CopyOptions checkpoint(String checkpoint) {
+        return checkpoint(Locations.toPath(Locations.normalize(checkpoint)));
+    }
+
+    /**
+     * Makes copies resumable: progress is recorded in the given checkpoint file while coping, and if the copy is
+     * interrupted, coping the same source to the same destination with the same checkpoint again continues where
+     * it was left, instead of failing because destination exists. Checkpoint file is deleted once the copy is
+     * complete.
+     *
+     * @param checkpoint Location of checkpoint file, outside of destination.
+     * @return These options.
+     */
+    public CopyOptions checkpoint(Path checkpoint) {
+        this.checkpoint = checkpoint;
+        return this;
+    }
+
+    /**
+     * Sets if the already copied part of a file is read back and checked against the CRC32C which was recorded
+     * for it before a resumed copy continues it. Otherwise it's trusted if source has the same size and last
+     * modification time as before.
+     *
+     * @param verifyResume True to check resumed files by their CRC32C.
+     * @return These options.
+     */
+    public CopyOptions verifyResume(boolean verifyResume) {
+        this.verifyResume = verifyResume;
+        return this;
+    }
+
+    /**
+     * Sets if each copied file is written to a hidden temporary file next to its destination and renamed to it
+     * once it's complete and on disk, so readers never see a half copied file. Folders of copied files are
+     * forced to disk once, when the copy is done. Resumable copies write in destination itself.
+     *
+     * @param atomic True to publish copied files atomically.
+     * @return These options.
+     * @see io.github.shuoros.jfiler.io.AtomicPublisher
+     */
+    public CopyOptions atomic(boolean atomic) {
+        this.publisher = atomic ? AtomicPublisher.create() : null;
+        this.ownPublisher = atomic;
+        return this;
+    }
+
+    /**
+     * Publishes each copied file atomically through the given publisher, which may be shared by many copies so
+     * their folders are forced to disk once, when the publisher is synced or closed.
+     *
+     * @param publisher Publisher of copied files.
+     * @return These options.
+     */
+    public CopyOptions publishWith(AtomicPublisher publisher) {
+        this.publisher = publisher;
+        this.ownPublisher = false;
+        return this;
+    }
+
+    boolean isSparse() {
+        return sparse;
+    }
+
+    boolean isDirect() {
+        return direct;
+    }
+
+    int getBlockSize() {
+        return blockSize;
+    }
+
+    Path getPreviousSnapshot() {
+        return previousSnapshot;
+    }
+
+    int getParallelism() {
+        return parallelism;
+    }
+
+    int getMaxRanges() {
+        return maxRanges;
+    }
+
+    Path getCheckpoint() {
+        return checkpoint;
+    }
+
+    boolean isVerifyResume() {
+        return verifyResume;
+    }
+
+    AtomicPublisher getPublisher() {
+        return publisher;
+    }
+
+    boolean isOwnPublisher() {
+        return ownPublisher;
+    }
+
+}
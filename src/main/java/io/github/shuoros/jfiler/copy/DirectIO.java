@@ -0,0 +1,142 @@
+package io.github.shuoros.jfiler.copy;
+
+import io.github.shuoros.jfiler.io.IOScheduler;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.FileStore;
+import java.nio.file.Files;
+import java.nio.file.OpenOption;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Copies files with direct I/O, which moves data between disks and memory of the process without keeping it in
+ * the page cache, so a large copy doesn't evict pages which other processes on the same machine need.
+ * <p>
+ * Direct I/O needs the file position, length and memory address of every read and write to be multiples of block
+ * size of file system. Buffers are aligned slices of direct buffers, and are reused through a pool per alignment.
+ * Last block of destination is written whole and then truncated to size of source.
+ * <p>
+ * Direct I/O is only available on Java 10 or later and on file systems which support it; elsewhere
+ * {@link #copy(Path, Path, long, IOScheduler.Permit)} returns false before it touches destination.
+ *
+ * @author Soroush Shemshadi
+ * @version 1.0.0
+ * @since 1.2.0
+ */
+class DirectIO {
+
+    private static final int DEFAULT_ALIGNMENT = 4096;
+    private static final int BUFFER_SIZE = 1024 * 1024;
+    private static final int MAX_POOLED_BUFFERS = 16;
+    private static final OpenOption DIRECT = directOption();
+    private static final Map<Integer, Queue<ByteBuffer>> POOLS = new ConcurrentHashMap<>();
+
+    private DirectIO() {
+    }
+
+    /**
+     * Copies content of a file into another, which exists and is empty, with direct I/O.
+     *
+     * @param source      Location of file to copy.
+     * @param destination Location of empty file to copy in.
+     * @param size        Size of source.
+     * @param permit      Permit of copy which transferred bytes are reported to.
+     * @return True if file has been copied, or false if direct I/O is not supported for these files and nothing
+     * has been written.
+     * @throws IOException If anything goes wrong in coping an IOException will be thrown.
+     */
+    static boolean copy(Path source, Path destination, long size, IOScheduler.Permit permit) throws IOException {
+        if (DIRECT == null)
+            return false;
+        int alignment = Math.max(blockSizeOf(source), blockSizeOf(destination));
+        FileChannel in;
+        FileChannel out;
+        try {
+            in = FileChannel.open(source, StandardOpenOption.READ, DIRECT);
+        } catch (UnsupportedOperationException | IOException e) {
+            // File system of source refuses direct I/O, like tmpfs does
+            return false;
+        }
+        try {
+            out = FileChannel.open(destination, StandardOpenOption.WRITE, DIRECT);
+        } catch (UnsupportedOperationException | IOException e) {
+            in.close();
+            return false;
+        }
+
+        ByteBuffer buffer = take(alignment);
+        try (FileChannel input = in; FileChannel output = out) {
+            long position = 0;
+            while (position < size) {
+                buffer.clear();
+                int read = 0;
+                while (buffer.hasRemaining() && position + buffer.position() < size && read >= 0)
+                    read = input.read(buffer, position + buffer.position());
+                if (buffer.position() == 0)
+                    break;
+                int length = buffer.position();
+                permit.transferred(length);
+
+                // A short last block is padded to a whole block and cut off after
+                buffer.limit((length + alignment - 1) / alignment * alignment).position(0);
+                for (int i = length; i < buffer.limit(); i++)
+                    buffer.put(i, (byte) 0);
+                while (buffer.hasRemaining())
+                    output.write(buffer, position + buffer.position());
+                position += length;
+            }
+            if (output.size() > size)
+                output.truncate(size);
+            if (position != size)
+                throw new IOException(source + " was truncated while it was copied");
+        } finally {
+            give(alignment, buffer);
+        }
+        return true;
+    }
+
+    private static ByteBuffer take(int alignment) {
+        ByteBuffer buffer = POOLS.computeIfAbsent(alignment, key -> new ConcurrentLinkedQueue<>()).poll();
+        if (buffer != null)
+            return buffer;
+        int size = Math.max(alignment, BUFFER_SIZE / alignment * alignment);
+        return ByteBuffer.allocateDirect(size + alignment).alignedSlice(alignment).limit(size).slice();
+    }
+
+    private static void give(int alignment, ByteBuffer buffer) {
+        Queue<ByteBuffer> pool = POOLS.get(alignment);
+        // Buffers beyond the limit are left to garbage collector
+        if (pool.size() < MAX_POOLED_BUFFERS)
+            pool.offer(buffer);
+    }
+
+    private static int blockSizeOf(Path location) {
+        try {
+            FileStore store = Files.getFileStore(location);
+            // FileStore#getBlockSize is only there on Java 10 or later
+            long blockSize = (long) FileStore.class.getMethod("getBlockSize").invoke(store);
+            return blockSize > 0 && blockSize <= BUFFER_SIZE ? (int) blockSize : DEFAULT_ALIGNMENT;
+        } catch (ReflectiveOperationException | IOException | RuntimeException e) {
+            return DEFAULT_ALIGNMENT;
+        }
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static OpenOption directOption() {
+        try {
+            // ExtendedOpenOption#DIRECT is only there on Java 10 or later
+            Class options = Class.forName("com.sun.nio.file.ExtendedOpenOption");
+            return (OpenOption) Enum.valueOf(options, "DIRECT");
+        } catch (ClassNotFoundException | IllegalArgumentException | LinkageError e) {
+            return null;
+        }
+    }
+
+}
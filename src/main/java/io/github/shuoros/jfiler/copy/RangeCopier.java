@@ -0,0 +1,187 @@
+package io.github.shuoros.jfiler.copy;
+
+import io.github.shuoros.jfiler.io.AtomicPublisher;
+import io.github.shuoros.jfiler.io.IOPriority;
+import io.github.shuoros.jfiler.io.IOScheduler;
+import io.github.shuoros.jfiler.util.MappedBuffers;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Copies a single large file by splitting it in byte ranges which are copied at the same time, each with its own
+ * positional reads and writes on shared channels. Striped arrays and NVMe drives only reach their full bandwidth
+ * when many requests are outstanding, which one thread copying from start to end never does.
+ * <p>
+ * Number of ranges is chosen by size of file: one range per {@link #MIN_RANGE_SIZE} bytes, up to the maximum.
+ * The copy is written to a temporary file next to destination, which is extended to full size before ranges are
+ * copied. It's renamed to destination only after every range has been copied completely and source hasn't changed
+ * meanwhile, so destination is either complete or missing.
+ *
+ * @author Soroush Shemshadi
+ * @version 1.0.0
+ * @see io.github.shuoros.jfiler.copy.Copier
+ * @since 1.2.0
+ */
+public class RangeCopier {
+
+    /**
+     * Files of this size or bigger are worth copying in ranges.
+     */
+    public static final long LARGE_FILE_SIZE = 256L * 1024 * 1024;
+
+    /**
+     * Smallest range which a file is split in.
+     */
+    public static final long MIN_RANGE_SIZE = 64L * 1024 * 1024;
+
+    /**
+     * Maximum number of ranges which are copied at the same time by default.
+     */
+    public static final int DEFAULT_MAX_RANGES = 8;
+
+    private static final String TEMPORARY_PREFIX = ".jfiler-";
+    private static final int BUFFER_SIZE = 1024 * 1024;
+    private static final AtomicInteger THREAD_NUMBER = new AtomicInteger();
+
+    private final int maxRanges;
+
+    /**
+     * Constructs a copier which copies up to {@link #DEFAULT_MAX_RANGES} ranges at the same time.
+     */
+    public RangeCopier() {
+        this(DEFAULT_MAX_RANGES);
+    }
+
+    /**
+     * Constructs a copier.
+     *
+     * @param maxRanges Maximum number of ranges which are copied at the same time.
+     */
+    public RangeCopier(int maxRanges) {
+        if (maxRanges < 1)
+            throw new IllegalArgumentException("Maximum ranges must be at least 1 but was " + maxRanges);
+        this.maxRanges = maxRanges;
+    }
+
+    /**
+     * Finds number of ranges which a file of given size is split in.
+     *
+     * @param size Size of file in bytes.
+     * @return Number of ranges, at least 1.
+     */
+    public int rangesOf(long size) {
+        return (int) Math.max(1, Math.min(maxRanges, size / MIN_RANGE_SIZE));
+    }
+
+    /**
+     * Copies a file in ranges. The copy keeps last modification time of source.
+     *
+     * @param source      Location of file to copy.
+     * @param destination Location to copy in, which must not exist.
+     * @throws IOException If source changes while it's copied, or anything else goes wrong in coping, an
+     *                     IOException will be thrown and destination won't be created.
+     */
+    public void copy(Path source, Path destination) throws IOException {
+        if (Files.exists(destination, LinkOption.NOFOLLOW_LINKS))
+            throw new FileAlreadyExistsException(destination.toString());
+        BasicFileAttributes before = Files.readAttributes(source, BasicFileAttributes.class);
+        long size = before.size();
+        int ranges = rangesOf(size);
+        Path temporary = destination.resolveSibling(TEMPORARY_PREFIX + UUID.randomUUID() + "-" + destination.getFileName());
+
+        ExecutorService pool = ranges == 1 ? null : Executors.newFixedThreadPool(ranges, runnable -> {
+            Thread thread = new Thread(runnable, "jfiler-range-" + THREAD_NUMBER.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        try (IOScheduler.Permit permit = IOScheduler.getDefault().acquire(IOPriority.BULK, source);
+             FileChannel in = FileChannel.open(source, StandardOpenOption.READ);
+             FileChannel out = FileChannel.open(temporary, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+            // Extending it first lets file system lay the whole file out at once and ranges never grow it
+            if (size > 0)
+                out.write(ByteBuffer.allocate(1), size - 1);
+
+            long copied = 0;
+            if (pool == null)
+                copied = copyRange(in, out, 0, size, permit);
+            else {
+                List<Future<Long>> copies = new ArrayList<>(ranges);
+                long rangeSize = (size + ranges - 1) / ranges;
+                for (long start = 0; start < size; start += rangeSize) {
+                    long from = start;
+                    long to = Math.min(size, start + rangeSize);
+                    copies.add(pool.submit(() -> copyRange(in, out, from, to, permit)));
+                }
+                for (Future<Long> range : copies)
+                    copied += take(range);
+            }
+
+            BasicFileAttributes after = Files.readAttributes(source, BasicFileAttributes.class);
+            if (copied != size || out.size() != size || after.size() != size//
+                    || !after.lastModifiedTime().equals(before.lastModifiedTime()))
+                throw new IOException(source + " was changed while it was copied");
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temporary);
+            throw e;
+        } finally {
+            if (pool != null)
+                pool.shutdownNow();
+        }
+
+        try {
+            Files.setLastModifiedTime(temporary, before.lastModifiedTime());
+            // Unlike a plain rename, it never replaces a file which appears at destination meanwhile
+            AtomicPublisher.moveNew(temporary, destination);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temporary);
+            throw e;
+        }
+    }
+
+    private static long copyRange(FileChannel in, FileChannel out, long from, long to, IOScheduler.Permit permit)//
+            throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocateDirect((int) Math.min(BUFFER_SIZE, Math.max(to - from, 1)));
+        long position = from;
+        try {
+            while (position < to) {
+                buffer.clear().limit((int) Math.min(buffer.capacity(), to - position));
+                int read = in.read(buffer, position);
+                if (read < 0)
+                    break;
+                buffer.flip();
+                permit.transferred(read);
+                long offset = position;
+                while (buffer.hasRemaining())
+                    offset += out.write(buffer, offset);
+                position += read;
+            }
+        } finally {
+            // Direct memory is otherwise only given back once garbage collector finds the buffer
+            MappedBuffers.release(buffer);
+        }
+        return position - from;
+    }
+
+    private static long take(Future<Long> range) throws IOException {
+        try {
+            return range.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while coping");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            throw cause instanceof IOException ? (IOException) cause : new IOException(cause);
+        }
+    }
+
+}
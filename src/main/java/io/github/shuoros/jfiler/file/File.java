@@ -1,12 +1,12 @@
 package io.github.shuoros.jfiler.file;
 
+import io.github.shuoros.jfiler.util.Locations;
 import io.github.shuoros.jfiler.util.SystemOS;
 
 import java.io.IOException;
 import java.nio.file.FileAlreadyExistsException;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.Paths;
 import java.nio.file.attribute.BasicFileAttributes;
 import java.util.Date;
 
@@ -35,11 +35,11 @@ public class File extends java.io.File {
         if (exists())
             extractFileAttributes(location);
         this.location = location;
-        this.type = super.isFile() ? Type.type(super.getName().substring(super.getName().lastIndexOf('.') + 1)) : Type.Folder;
+        this.type = super.isFile() ? Type.byName(super.getName()) : Type.Folder;
     }
 
     public static File open(String location) {
-        return open(Paths.get(location));
+        return open(Locations.toPath(location));
     }
 
     /**
@@ -53,7 +53,7 @@ public class File extends java.io.File {
     }
 
     public static File create(String location) throws IOException {
-        return create(Paths.get(location));
+        return create(Locations.toPath(location));
     }
 
     /**
@@ -74,7 +74,7 @@ public class File extends java.io.File {
     }
 
     public static Boolean exists(String location) {
-        return exists(Paths.get(location));
+        return exists(Locations.toPath(location));
     }
 
     public static Boolean exists(Path location) {
@@ -82,7 +82,7 @@ public class File extends java.io.File {
     }
 
     public static Boolean isFile(String location) {
-        return isFile(Paths.get(location));
+        return isFile(Locations.toPath(location));
     }
 
     public static Boolean isFile(Path location) {
@@ -98,7 +98,7 @@ public class File extends java.io.File {
     }
 
     public static Boolean isHidden(String location) {
-        return isHidden(Paths.get(location));
+        return isHidden(Locations.toPath(location));
     }
 
     public static Boolean isHidden(Path location) {
@@ -114,6 +114,17 @@ public class File extends java.io.File {
         return type;
     }
 
+    /**
+     * Detects type of file by its content instead of its extension. Only the first few hundred bytes of file
+     * are read and the result is cached until file changes.
+     *
+     * @return Type of file by its content, or by its extension if content doesn't tell.
+     * @see io.github.shuoros.jfiler.file.Type#detect(Path)
+     */
+    public Type detectType() {
+        return Type.detect(this.location);
+    }
+
     /**
      * Gets location of file.
      *
@@ -159,6 +170,27 @@ public class File extends java.io.File {
         return lastModifiedDate;
     }
 
+    /**
+     * Opens content of file to read it. Don't forget to close it, which also releases its memory mappings.
+     *
+     * @return Content of file which can only be read.
+     * @throws IOException If file can't be opened an IOException will be thrown.
+     */
+    public FileContent openForRead() throws IOException {
+        return new FileContent(this.location, false, FileContent.DEFAULT_MAPPING_SIZE);
+    }
+
+    /**
+     * Opens content of file to read and write it. Don't forget to close it, which also releases
+     * its memory mappings.
+     *
+     * @return Content of file which can be read and written.
+     * @throws IOException If file can't be opened an IOException will be thrown.
+     */
+    public FileContent openForWrite() throws IOException {
+        return new FileContent(this.location, true, FileContent.DEFAULT_MAPPING_SIZE);
+    }
+
     @Override
     public boolean isHidden() {
         if (SystemOS.isWindows())
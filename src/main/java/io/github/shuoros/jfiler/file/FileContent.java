@@ -0,0 +1,396 @@
+package io.github.shuoros.jfiler.file;
+
+import io.github.shuoros.jfiler.util.MappedBuffers;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+
+/**
+ * Gives access to content of a {@link io.github.shuoros.jfiler.file.File}. Reads and writes are positional so
+ * they never move a shared position and can be called from many threads at the same time.
+ * <p>
+ * Large files can be read as memory-mapped {@link ByteBuffer} views. The file is mapped in chunks which are
+ * reused by every view that falls in them, and all mappings are released when this content is closed.
+ * Views which were taken from this content must not be used after {@link #close()}.
+ * <p>
+ * Each chunk's mapping overlaps the next chunk by a whole chunk, so a view no bigger than a chunk always falls in
+ * one mapping wherever it starts. Bigger views are mapped on their own and reused for the same part. Only the
+ * most recently used of those, and of mappings which were replaced when a chunk grew, are kept to be released on
+ * close; the others are left to garbage collector, which unmaps them once none of their views is reachable, so
+ * a long-lived content never piles mappings up.
+ *
+ * @author Soroush Shemshadi
+ * @version 1.0.0
+ * @see io.github.shuoros.jfiler.file.File#openForRead()
+ * @see io.github.shuoros.jfiler.file.File#openForWrite()
+ * @since 1.2.0
+ */
+public class FileContent implements Closeable {
+
+    /**
+     * Size of each chunk of file which is mapped in memory.
+     */
+    public static final int DEFAULT_MAPPING_SIZE = 64 * 1024 * 1024;
+
+    private static final int APPEND_BATCH_SIZE = 64;
+    private static final int MAX_KEPT_MAPPINGS = 64;
+    private static final int LINE_BUFFER_SIZE = 8 * 1024;
+
+    private final FileChannel channel;
+    private final int mappingSize;
+    private final Map<Long, MappedByteBuffer> chunks = new HashMap<>();
+    private final Map<String, MappedByteBuffer> otherMappings = new LinkedHashMap<String, MappedByteBuffer>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, MappedByteBuffer> eldest) {
+            // Its views may still be in use so it can't be released now, garbage collector unmaps it after them
+            return size() > MAX_KEPT_MAPPINGS;
+        }
+    };
+    private long retiredMappings;
+    private boolean closed;
+
+    FileContent(Path location, boolean writable, int mappingSize) throws IOException {
+        if (mappingSize < 1)
+            throw new IllegalArgumentException("Mapping size must be positive but was " + mappingSize);
+        this.channel = writable//
+                ? FileChannel.open(location, StandardOpenOption.READ, StandardOpenOption.WRITE)//
+                : FileChannel.open(location, StandardOpenOption.READ);
+        this.mappingSize = mappingSize;
+    }
+
+    /**
+     * Gets current size of content in bytes.
+     *
+     * @return Size of content in bytes.
+     * @throws IOException If size can't be read an IOException will be thrown.
+     */
+    public long size() throws IOException {
+        return channel.size();
+    }
+
+    /**
+     * Gets a read only memory-mapped view of a part of content. If the part is no bigger than a chunk, mapping of
+     * the chunk which it starts in is reused, otherwise the part is mapped on its own, or that mapping of it is
+     * reused if the same part has been mapped before.
+     *
+     * @param position Position of first byte of the part.
+     * @param size     Number of bytes in the part.
+     * @return A read only view which starts at position 0 and holds exactly the requested bytes.
+     * @throws IOException If mapping fails an IOException will be thrown.
+     */
+    public synchronized ByteBuffer map(long position, int size) throws IOException {
+        ensureOpen();
+        if (position < 0 || size < 0 || position + size > channel.size())
+            throw new IndexOutOfBoundsException("Can't map " + size + " bytes at " + position + " of " + channel.size());
+
+        long chunk = position / mappingSize;
+        long chunkStart = chunk * mappingSize;
+        if (position + size > chunkStart + chunkSpan()) {
+            String part = position + "+" + size;
+            MappedByteBuffer mapping = otherMappings.get(part);
+            if (mapping == null) {
+                mapping = channel.map(FileChannel.MapMode.READ_ONLY, position, size);
+                otherMappings.put(part, mapping);
+            }
+            return mapping.asReadOnlyBuffer();
+        }
+
+        ByteBuffer view = chunkMapping(chunk, position + size - chunkStart).duplicate();
+        view.position((int) (position - chunkStart));
+        view.limit(view.position() + size);
+        return view.slice();
+    }
+
+    /**
+     * Iterates over whole content as read only memory-mapped views, each one as big as a mapping chunk
+     * except the last one.
+     *
+     * @return An iterator over views of content.
+     * @throws IOException If size of content can't be read an IOException will be thrown.
+     */
+    public Iterator<ByteBuffer> chunks() throws IOException {
+        long size = channel.size();
+        return new Iterator<ByteBuffer>() {
+
+            private long position = 0;
+
+            @Override
+            public boolean hasNext() {
+                return position < size;
+            }
+
+            @Override
+            public ByteBuffer next() {
+                if (!hasNext())
+                    throw new NoSuchElementException();
+                int length = (int) Math.min(mappingSize, size - position);
+                try {
+                    ByteBuffer view = map(position, length);
+                    position += length;
+                    return view;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+
+        };
+    }
+
+    /**
+     * Reads bytes from given position until the buffer is full or content ends, without moving any position.
+     *
+     * @param position    Position of content to read from.
+     * @param destination Buffer to read in.
+     * @return Number of bytes which have been read, or -1 if position is at or after end of content.
+     * @throws IOException If anything goes wrong in reading an IOException will be thrown.
+     */
+    public int read(long position, ByteBuffer destination) throws IOException {
+        int total = 0;
+        while (destination.hasRemaining()) {
+            int read = channel.read(destination, position + total);
+            if (read < 0)
+                return total == 0 ? -1 : total;
+            total += read;
+        }
+        return total;
+    }
+
+    /**
+     * Reads bytes from given position, without moving any position.
+     *
+     * @param position Position of content to read from.
+     * @param length   Maximum number of bytes to read.
+     * @return Bytes which have been read, fewer than length if content ends before.
+     * @throws IOException If anything goes wrong in reading an IOException will be thrown.
+     */
+    public byte[] read(long position, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        int read = read(position, buffer);
+        return read == length ? buffer.array() : Arrays.copyOf(buffer.array(), Math.max(read, 0));
+    }
+
+    /**
+     * Writes all remaining bytes of buffer at given position, without moving any position.
+     *
+     * @param position Position of content to write at.
+     * @param source   Bytes to write.
+     * @return Number of bytes which have been written.
+     * @throws IOException If anything goes wrong in writing an IOException will be thrown.
+     */
+    public int write(long position, ByteBuffer source) throws IOException {
+        int total = 0;
+        while (source.hasRemaining())
+            total += channel.write(source, position + total);
+        return total;
+    }
+
+    /**
+     * Appends given records at end of content. Records are written in batches with one gathering write
+     * per batch instead of one write per record.
+     *
+     * @param records Records to append, in order.
+     * @return Number of bytes which have been appended.
+     * @throws IOException If anything goes wrong in writing an IOException will be thrown.
+     */
+    public synchronized long append(Collection<byte[]> records) throws IOException {
+        ensureOpen();
+        channel.position(channel.size());
+        long total = 0;
+        ByteBuffer[] batch = new ByteBuffer[Math.min(APPEND_BATCH_SIZE, Math.max(records.size(), 1))];
+        int count = 0;
+        for (byte[] record : records) {
+            batch[count++] = ByteBuffer.wrap(record);
+            if (count == batch.length) {
+                total += writeFully(batch, count);
+                count = 0;
+            }
+        }
+        if (count > 0)
+            total += writeFully(batch, count);
+        return total;
+    }
+
+    /**
+     * Appends given bytes at end of content.
+     *
+     * @param bytes Bytes to append.
+     * @return Number of bytes which have been appended.
+     * @throws IOException If anything goes wrong in writing an IOException will be thrown.
+     */
+    public long append(byte[] bytes) throws IOException {
+        return append(Collections.singletonList(bytes));
+    }
+
+    /**
+     * Iterates over lines of content. Content is read and decoded a small buffer at a time, so the whole
+     * content is never loaded at once. Lines end with "\n" or "\r\n" and the line breaks are not returned.
+     *
+     * @param charset Charset of content.
+     * @return An iterator over lines of content.
+     */
+    public Iterator<String> lines(Charset charset) {
+        return new LineIterator(charset.newDecoder());
+    }
+
+    /**
+     * Forces all written content to be stored on disk.
+     *
+     * @throws IOException If anything goes wrong in forcing an IOException will be thrown.
+     */
+    public void force() throws IOException {
+        channel.force(false);
+    }
+
+    /**
+     * Releases all mappings and closes the file. Views which have been taken from this content must not be
+     * used anymore.
+     *
+     * @throws IOException If anything goes wrong in closing the file an IOException will be thrown.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (closed)
+            return;
+        closed = true;
+        chunks.values().forEach(MappedBuffers::release);
+        otherMappings.values().forEach(MappedBuffers::release);
+        chunks.clear();
+        otherMappings.clear();
+        channel.close();
+    }
+
+    private MappedByteBuffer chunkMapping(long chunk, long neededSize) throws IOException {
+        MappedByteBuffer mapping = chunks.get(chunk);
+        if (mapping == null || mapping.capacity() < neededSize) {
+            if (mapping != null)
+                // Views of the old mapping may still be in use, so it's not released now
+                otherMappings.put("retired-" + retiredMappings++, mapping);
+            long chunkStart = chunk * mappingSize;
+            mapping = channel.map(FileChannel.MapMode.READ_ONLY, chunkStart,//
+                    Math.min(chunkSpan(), channel.size() - chunkStart));
+            chunks.put(chunk, mapping);
+        }
+        return mapping;
+    }
+
+    private long chunkSpan() {
+        return Math.min(2L * mappingSize, Integer.MAX_VALUE);
+    }
+
+    private long writeFully(ByteBuffer[] batch, int count) throws IOException {
+        long total = 0;
+        int offset = 0;
+        while (offset < count) {
+            total += channel.write(batch, offset, count - offset);
+            while (offset < count && !batch[offset].hasRemaining())
+                batch[offset++] = null;
+        }
+        return total;
+    }
+
+    private void ensureOpen() throws IOException {
+        if (closed)
+            throw new ClosedChannelException();
+    }
+
+    private class LineIterator implements Iterator<String> {
+
+        private final CharsetDecoder decoder;
+        private final ByteBuffer bytes = ByteBuffer.allocate(LINE_BUFFER_SIZE);
+        private final CharBuffer chars = CharBuffer.allocate(LINE_BUFFER_SIZE);
+        private final StringBuilder line = new StringBuilder();
+        private long position = 0;
+        private boolean endOfContent;
+        private boolean flushing;
+        private boolean decoded;
+        private String next;
+
+        LineIterator(CharsetDecoder decoder) {
+            this.decoder = decoder;
+            this.chars.flip();
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (next == null)
+                next = readLine();
+            return next != null;
+        }
+
+        @Override
+        public String next() {
+            if (!hasNext())
+                throw new NoSuchElementException();
+            String line = next;
+            next = null;
+            return line;
+        }
+
+        private String readLine() {
+            while (true) {
+                while (chars.hasRemaining()) {
+                    char c = chars.get();
+                    if (c == '\n')
+                        return takeLine();
+                    line.append(c);
+                }
+                if (decoded)
+                    return line.length() > 0 ? takeLine() : null;
+                fill();
+            }
+        }
+
+        private String takeLine() {
+            int length = line.length();
+            if (length > 0 && line.charAt(length - 1) == '\r')
+                line.setLength(length - 1);
+            String taken = line.toString();
+            line.setLength(0);
+            return taken;
+        }
+
+        private void fill() {
+            try {
+                chars.clear();
+                if (flushing) {
+                    decoded = decoder.flush(chars).isUnderflow();
+                    chars.flip();
+                    return;
+                }
+                if (!endOfContent) {
+                    int read = channel.read(bytes, position);
+                    if (read < 0)
+                        endOfContent = true;
+                    else
+                        position += read;
+                }
+                bytes.flip();
+                CoderResult result = decoder.decode(bytes, chars, endOfContent);
+                bytes.compact();
+                if (result.isError())
+                    result.throwException();
+                if (endOfContent && result.isUnderflow()) {
+                    flushing = true;
+                    decoded = decoder.flush(chars).isUnderflow();
+                }
+                chars.flip();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+    }
+
+}
@@ -1,9 +1,10 @@
 package io.github.shuoros.jfiler.file;
 
+import io.github.shuoros.jfiler.util.Locations;
+
 import java.io.IOException;
 import java.nio.file.FileAlreadyExistsException;
 import java.nio.file.Path;
-import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
@@ -21,8 +22,6 @@ import java.util.Objects;
  */
 public class Folder extends File {
 
-    private final List<File> contains = new ArrayList<>();
-
     /**
      * Constructs a {@link io.github.shuoros.jfiler.file.Folder} instance in your given path.
      *
@@ -33,7 +32,7 @@ public class Folder extends File {
     }
 
     public static Folder open(String location) {
-        return open(Paths.get(location));
+        return open(Locations.toPath(location));
     }
 
     /**
@@ -47,7 +46,7 @@ public class Folder extends File {
     }
 
     public static Folder create(String location) throws IOException {
-        return create(Paths.get(location));
+        return create(Locations.toPath(location));
     }
 
     /**
@@ -68,13 +67,15 @@ public class Folder extends File {
     }
 
     /**
-     * Gets list of sub files and folders in this folder.
+     * Gets list of sub files and folders in this folder. The folder is listed on each call and the
+     * list is not kept by this folder.
      *
-     * @return A list of sub files and folders in this folder.
+     * @return A new list of sub files and folders in this folder.
      */
     public List<File> getContains() {
+        List<File> contains = new ArrayList<>();
         if (super.exists())
-            extractContainedFilesAndFolders(super.getLocation());
+            extractContainedFilesAndFolders(super.getLocation(), contains);
         return contains;
     }
 
@@ -98,11 +99,11 @@ public class Folder extends File {
                 '}';
     }
 
-    private void extractContainedFilesAndFolders(Path location) {
+    private void extractContainedFilesAndFolders(Path location, List<File> contains) {
         Arrays.stream(Objects.requireNonNull(super.list())).forEach(i -> {
             if (!skipFolder(i)) {
-                i = pathConcator(location.toString(), i);
-                contains.add(new java.io.File(i).isFile() ? new File(Paths.get(i)) : new Folder(Paths.get(i)));
+                Path child = location.resolve(i);
+                contains.add(child.toFile().isFile() ? new File(child) : new Folder(child));
             }
         });
     }
@@ -120,15 +121,4 @@ public class Folder extends File {
         return false;
     }
 
-    private String pathConcator(String path, String location) {
-        path = pathSeparatorCorrector(path);
-        if (!path.endsWith("/"))
-            path += "/";
-        return path.concat(location);
-    }
-
-    private String pathSeparatorCorrector(String path) {
-        return path.replaceAll("\\\\", "/");
-    }
-
 }
@@ -1,7 +1,15 @@
 package io.github.shuoros.jfiler.file;
 
+import java.nio.file.Path;
+import java.util.*;
+
 /**
- * Enumeration af files different types.
+ * Enumeration af files different types. Each type has a main extension, which is its name, and may have
+ * some other extensions too, for example {@link #JPG} is also "jpeg" and "jfif".
+ * <p>
+ * Finding a type by extension is a case-insensitive lookup in a map which is built once, so it's cheap
+ * enough to be done for every file. To find type of a file by its content instead of its name
+ * use {@link #detect(Path)}.
  *
  * @author Soroush Shemshadi
  * @version 1.0.0
@@ -10,27 +18,250 @@ package io.github.shuoros.jfiler.file;
 public enum Type {
 
     Folder("Folder"),
-    TXT("txt");
+
+    // Documents
+    TXT("txt", "text", "log"),
+    PDF("pdf"),
+    DOC("doc", "dot"),
+    DOCX("docx", "dotx", "docm"),
+    ODT("odt", "ott"),
+    RTF("rtf"),
+    XLS("xls", "xlt"),
+    XLSX("xlsx", "xlsm", "xltx"),
+    ODS("ods"),
+    CSV("csv"),
+    TSV("tsv", "tab"),
+    PPT("ppt", "pps", "pot"),
+    PPTX("pptx", "ppsx", "potx"),
+    ODP("odp"),
+    EPUB("epub"),
+    MOBI("mobi", "azw", "azw3"),
+    MD("md", "markdown", "mdown"),
+    TEX("tex", "latex"),
+    PS("ps", "eps"),
+    PAGES("pages"),
+    NUMBERS("numbers"),
+    KEY("key"),
+
+    // Images
+    JPG("jpg", "jpeg", "jpe", "jfif"),
+    PNG("png"),
+    GIF("gif"),
+    BMP("bmp", "dib"),
+    TIFF("tiff", "tif"),
+    WEBP("webp"),
+    SVG("svg", "svgz"),
+    ICO("ico", "cur"),
+    HEIC("heic", "heif"),
+    AVIF("avif"),
+    PSD("psd", "psb"),
+    RAW("raw", "cr2", "cr3", "nef", "arw", "dng", "orf", "rw2"),
+    XCF("xcf"),
+    AI("ai"),
+    JP2("jp2", "j2k", "jpf"),
+
+    // Audio
+    MP3("mp3"),
+    WAV("wav", "wave"),
+    FLAC("flac"),
+    AAC("aac"),
+    M4A("m4a", "m4b"),
+    OGG("ogg", "oga"),
+    OPUS("opus"),
+    WMA("wma"),
+    AIFF("aiff", "aif"),
+    MID("mid", "midi"),
+    AMR("amr"),
+
+    // Videos
+    MP4("mp4", "m4v"),
+    MKV("mkv", "mk3d"),
+    WEBM("webm"),
+    AVI("avi"),
+    MOV("mov", "qt"),
+    WMV("wmv"),
+    FLV("flv"),
+    MPEG("mpeg", "mpg", "mpe", "m2v"),
+    M2TS("m2ts", "mts"),
+    THREE_GP("3gp", "3g2"),
+    OGV("ogv"),
+
+    // Archives and packages
+    ZIP("zip", "zipx"),
+    RAR("rar"),
+    SEVEN_Z("7z"),
+    TAR("tar"),
+    GZ("gz", "gzip", "tgz"),
+    BZ2("bz2", "bzip2", "tbz2"),
+    XZ("xz", "txz"),
+    ZST("zst", "zstd"),
+    LZ4("lz4"),
+    LZMA("lzma"),
+    Z("z"),
+    CAB("cab"),
+    ISO("iso"),
+    DMG("dmg"),
+    DEB("deb"),
+    RPM("rpm"),
+    APK("apk", "aab"),
+    JAR("jar", "war", "ear"),
+    CPIO("cpio"),
+
+    // Source codes
+    JAVA("java"),
+    CLASS("class"),
+    KT("kt", "kts"),
+    SCALA("scala", "sc"),
+    GROOVY("groovy", "gradle"),
+    C("c"),
+    H("h"),
+    CPP("cpp", "cc", "cxx", "c++"),
+    HPP("hpp", "hh", "hxx"),
+    CS("cs"),
+    GO("go"),
+    RS("rs"),
+    PY("py", "pyw", "pyi"),
+    PYC("pyc"),
+    RB("rb"),
+    PHP("php", "phtml"),
+    JS("js", "mjs", "cjs"),
+    TS("ts", "cts"),
+    TSX("tsx"),
+    JSX("jsx"),
+    SWIFT("swift"),
+    M("m", "mm"),
+    R("r"),
+    LUA("lua"),
+    PL("pl", "pm"),
+    SH("sh", "bash", "zsh", "ksh"),
+    BAT("bat", "cmd"),
+    PS1("ps1", "psm1"),
+    SQL("sql"),
+    DART("dart"),
+    HS("hs"),
+    ERL("erl", "hrl"),
+    EX("ex", "exs"),
+    CLJ("clj", "cljs", "cljc", "edn"),
+    ASM("asm", "s"),
+    VB("vb", "vbs"),
+    FS("fs", "fsx"),
+    WASM("wasm"),
+
+    // Web and data
+    HTML("html", "htm", "xhtml"),
+    CSS("css", "scss", "sass", "less"),
+    XML("xml", "xsd", "xsl", "xslt"),
+    JSON("json", "jsonl", "ndjson", "geojson"),
+    YAML("yaml", "yml"),
+    TOML("toml"),
+    INI("ini", "cfg", "conf"),
+    PROPERTIES("properties"),
+    ENV("env"),
+    PROTO("proto"),
+    AVRO("avro"),
+    PARQUET("parquet"),
+    ORC("orc"),
+    SQLITE("sqlite", "sqlite3", "db"),
+    MDB("mdb", "accdb"),
+
+    // Executables and libraries
+    EXE("exe", "msi"),
+    DLL("dll", "sys"),
+    SO("so"),
+    DYLIB("dylib"),
+    ELF("elf"),
+    BIN("bin"),
+    APP("app"),
+    O("o", "obj"),
+    A("a", "lib"),
+
+    // Fonts
+    TTF("ttf"),
+    OTF("otf"),
+    WOFF("woff"),
+    WOFF2("woff2"),
+    EOT("eot"),
+
+    // Others
+    TORRENT("torrent"),
+    ICS("ics"),
+    VCF("vcf"),
+    GPX("gpx"),
+    KML("kml", "kmz"),
+    STL("stl"),
+    BLEND("blend"),
+    DWG("dwg", "dxf"),
+    PEM("pem", "crt", "cer", "der"),
+    P12("p12", "pfx"),
+    BAK("bak", "old", "orig"),
+    TMP("tmp", "temp", "swp"),
+    LOCK("lock"),
+    PATCH("patch", "diff");
+
+    private static final Map<String, Type> TYPES = new HashMap<>();
+
+    static {
+        for (Type typ : values()) {
+            TYPES.put(typ.type.toLowerCase(Locale.ROOT), typ);
+            for (String extension : typ.extensions)
+                TYPES.put(extension, typ);
+        }
+    }
 
     private final String type;
+    private final List<String> extensions;
 
-    Type(String type) {
+    Type(String type, String... extensions) {
         this.type = type;
+        this.extensions = Collections.unmodifiableList(Arrays.asList(extensions));
     }
 
     /**
-     * Extract {@link io.github.shuoros.jfiler.file.Type} with name of it.
+     * Extract {@link io.github.shuoros.jfiler.file.Type} with name of it or one of its extensions.
      *
-     * @param type A valid file type.
+     * @param type A valid file type or extension, in any case.
      * @return Enum of given type. null if given type is un valid.
      */
     public static Type type(String type) {
-        for (Type typ : Type.values()) {
-            if (typ.type.equalsIgnoreCase(String.valueOf(type))) {
-                return typ;
-            }
-        }
-        return null;
+        if (type == null)
+            return null;
+        Type typ = TYPES.get(type);
+        return typ != null ? typ : TYPES.get(type.toLowerCase(Locale.ROOT));
+    }
+
+    /**
+     * Extract {@link io.github.shuoros.jfiler.file.Type} with extension of a file name, which is what comes after
+     * its last dot. Names without a dot, like "key" or "lock", have no extension and so no type.
+     *
+     * @param name Name of a file.
+     * @return Type of file. null if it has no extension or its extension is unknown.
+     */
+    public static Type byName(String name) {
+        if (name == null)
+            return null;
+        int dot = name.lastIndexOf('.');
+        return dot < 0 || dot == name.length() - 1 ? null : type(name.substring(dot + 1));
+    }
+
+    /**
+     * Detects type of a file by the first bytes of its content, and falls back to its extension if content
+     * doesn't tell. Results are cached by location, size and last modification time of file.
+     *
+     * @param location Location of file.
+     * @return Type of file, {@link #Folder} for folders and null if type is unknown.
+     * @see io.github.shuoros.jfiler.file.TypeDetector
+     */
+    public static Type detect(Path location) {
+        return TypeDetector.getDefault().detect(location);
+    }
+
+    /**
+     * Gets other extensions of this type, beside its name.
+     *
+     * @return Other extensions of this type.
+     */
+    public List<String> getExtensions() {
+        return extensions;
     }
 
     @Override
@@ -0,0 +1,284 @@
+package io.github.shuoros.jfiler.file;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Detects {@link io.github.shuoros.jfiler.file.Type} of files by their content. Only the first
+ * {@link #SNIFF_SIZE} bytes of a file are read, into a buffer which is reused by each thread, and are checked
+ * against well known signatures ("magic bytes"). If content doesn't tell, type is taken from extension.
+ * <p>
+ * Results are cached by location, size and last modification time, in a cache which keeps the most recently
+ * used entries up to a limit.
+ *
+ * @author Soroush Shemshadi
+ * @version 1.0.0
+ * @see io.github.shuoros.jfiler.file.Type#detect(Path)
+ * @since 1.2.0
+ */
+public class TypeDetector {
+
+    /**
+     * Number of bytes which are read from start of a file to detect its type.
+     */
+    public static final int SNIFF_SIZE = 512;
+
+    private static final int DEFAULT_CACHE_SIZE = 100_000;
+    private static final TypeDetector DEFAULT = new TypeDetector(DEFAULT_CACHE_SIZE);
+    private static final ThreadLocal<ByteBuffer> BUFFERS = ThreadLocal.withInitial(() -> ByteBuffer.allocate(SNIFF_SIZE));
+
+    private final Map<Path, Detected> cache;
+
+    /**
+     * Constructs a detector.
+     *
+     * @param cacheSize Maximum number of files which their types are cached.
+     */
+    public TypeDetector(int cacheSize) {
+        this.cache = new LinkedHashMap<Path, Detected>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Path, Detected> eldest) {
+                return size() > cacheSize;
+            }
+        };
+    }
+
+    /**
+     * Gets the detector which {@link io.github.shuoros.jfiler.file.Type#detect(Path)} uses.
+     *
+     * @return The default detector.
+     */
+    public static TypeDetector getDefault() {
+        return DEFAULT;
+    }
+
+    /**
+     * Detects type of a file by its content, and falls back to its extension if content doesn't tell.
+     *
+     * @param location Location of file.
+     * @return Type of file, {@link io.github.shuoros.jfiler.file.Type#Folder} for folders
+     * and null if type is unknown.
+     */
+    public Type detect(Path location) {
+        BasicFileAttributes attributes;
+        try {
+            attributes = Files.readAttributes(location, BasicFileAttributes.class);
+        } catch (IOException e) {
+            return byExtension(location);
+        }
+        if (attributes.isDirectory())
+            return Type.Folder;
+
+        long lastModified = attributes.lastModifiedTime().toMillis();
+        synchronized (cache) {
+            Detected detected = cache.get(location);
+            if (detected != null && detected.size == attributes.size() && detected.lastModified == lastModified)
+                return detected.type;
+        }
+
+        Type type = sniff(location);
+        synchronized (cache) {
+            cache.put(location, new Detected(attributes.size(), lastModified, type));
+        }
+        return type;
+    }
+
+    /**
+     * Removes all cached types.
+     */
+    public void clearCache() {
+        synchronized (cache) {
+            cache.clear();
+        }
+    }
+
+    private Type sniff(Path location) {
+        ByteBuffer buffer = BUFFERS.get();
+        buffer.clear();
+        try (FileChannel channel = FileChannel.open(location, StandardOpenOption.READ)) {
+            int read = 0;
+            while (buffer.hasRemaining() && read >= 0)
+                read = channel.read(buffer);
+        } catch (IOException e) {
+            return byExtension(location);
+        }
+        buffer.flip();
+
+        Type extension = byExtension(location);
+        Type content = byContent(buffer, extension);
+        return content != null ? content : extension;
+    }
+
+    private static Type byExtension(Path location) {
+        Path name = location.getFileName();
+        return name == null ? null : Type.byName(name.toString());
+    }
+
+    private static Type byContent(ByteBuffer bytes, Type extension) {
+        if (bytes.remaining() == 0)
+            return null;
+
+        if (startsWith(bytes, 0, 'P', 'K', 3, 4) || startsWith(bytes, 0, 'P', 'K', 5, 6))
+            return isZipBased(extension) ? extension : Type.ZIP;
+        if (startsWith(bytes, 0, '%', 'P', 'D', 'F'))
+            return Type.PDF;
+        if (startsWith(bytes, 0, 0x89, 'P', 'N', 'G', 0x0D, 0x0A, 0x1A, 0x0A))
+            return Type.PNG;
+        if (startsWith(bytes, 0, 0xFF, 0xD8, 0xFF))
+            return Type.JPG;
+        if (startsWith(bytes, 0, 'G', 'I', 'F', '8'))
+            return Type.GIF;
+        if (startsWith(bytes, 0, 'R', 'I', 'F', 'F'))
+            return riff(bytes);
+        if (startsWith(bytes, 4, 'f', 't', 'y', 'p'))
+            return isoMedia(bytes);
+        if (startsWith(bytes, 0, 'B', 'M') && bytes.remaining() >= 14)
+            return weak(Type.BMP, extension);
+        if (startsWith(bytes, 0, 'I', 'I', '*', 0) || startsWith(bytes, 0, 'M', 'M', 0, '*'))
+            return extension == Type.RAW ? Type.RAW : Type.TIFF;
+        if (startsWith(bytes, 0, 0, 0, 1, 0))
+            return weak(Type.ICO, extension);
+        if (startsWith(bytes, 0, '8', 'B', 'P', 'S'))
+            return Type.PSD;
+        if (startsWith(bytes, 0, 0x1F, 0x8B))
+            return weak(Type.GZ, extension);
+        if (startsWith(bytes, 0, 'B', 'Z', 'h'))
+            return weak(Type.BZ2, extension);
+        if (startsWith(bytes, 0, 0xFD, '7', 'z', 'X', 'Z', 0))
+            return Type.XZ;
+        if (startsWith(bytes, 0, '7', 'z', 0xBC, 0xAF, 0x27, 0x1C))
+            return Type.SEVEN_Z;
+        if (startsWith(bytes, 0, 'R', 'a', 'r', '!', 0x1A, 0x07))
+            return Type.RAR;
+        if (startsWith(bytes, 0, 0x28, 0xB5, 0x2F, 0xFD))
+            return Type.ZST;
+        if (startsWith(bytes, 0, 0x04, 0x22, 0x4D, 0x18))
+            return Type.LZ4;
+        if (startsWith(bytes, 257, 'u', 's', 't', 'a', 'r'))
+            return Type.TAR;
+        if (startsWith(bytes, 0, 0x7F, 'E', 'L', 'F'))
+            return extension == Type.SO || extension == Type.O ? extension : Type.ELF;
+        if (startsWith(bytes, 0, 'M', 'Z'))
+            return extension == Type.DLL ? Type.DLL : weak(Type.EXE, extension);
+        if (startsWith(bytes, 0, 0xCA, 0xFE, 0xBA, 0xBE))
+            return Type.CLASS;
+        if (startsWith(bytes, 0, 0, 'a', 's', 'm'))
+            return Type.WASM;
+        if (startsWith(bytes, 0, 'S', 'Q', 'L', 'i', 't', 'e', ' ', 'f', 'o', 'r', 'm', 'a', 't', ' ', '3', 0))
+            return Type.SQLITE;
+        if (startsWith(bytes, 0, 'I', 'D', '3') || startsWith(bytes, 0, 0xFF, 0xFB) || startsWith(bytes, 0, 0xFF, 0xF3))
+            return weak(Type.MP3, extension);
+        if (startsWith(bytes, 0, 'f', 'L', 'a', 'C'))
+            return Type.FLAC;
+        if (startsWith(bytes, 0, 'O', 'g', 'g', 'S'))
+            return extension == Type.OPUS || extension == Type.OGV ? extension : Type.OGG;
+        if (startsWith(bytes, 0, 0x1A, 0x45, 0xDF, 0xA3))
+            return extension == Type.WEBM ? Type.WEBM : Type.MKV;
+        if (startsWith(bytes, 0, 'w', 'O', 'F', 'F'))
+            return Type.WOFF;
+        if (startsWith(bytes, 0, 'w', 'O', 'F', '2'))
+            return Type.WOFF2;
+        if (startsWith(bytes, 0, '{', '\\', 'r', 't', 'f'))
+            return Type.RTF;
+        if (startsWith(bytes, 0, '%', '!', 'P', 'S'))
+            return Type.PS;
+
+        return isText(bytes) ? text(bytes, extension) : null;
+    }
+
+    private static Type riff(ByteBuffer bytes) {
+        if (startsWith(bytes, 8, 'W', 'E', 'B', 'P'))
+            return Type.WEBP;
+        if (startsWith(bytes, 8, 'W', 'A', 'V', 'E'))
+            return Type.WAV;
+        if (startsWith(bytes, 8, 'A', 'V', 'I', ' '))
+            return Type.AVI;
+        return null;
+    }
+
+    private static Type isoMedia(ByteBuffer bytes) {
+        if (startsWith(bytes, 8, 'q', 't', ' ', ' '))
+            return Type.MOV;
+        if (startsWith(bytes, 8, 'M', '4', 'A'))
+            return Type.M4A;
+        if (startsWith(bytes, 8, 'h', 'e', 'i', 'c') || startsWith(bytes, 8, 'm', 'i', 'f', '1'))
+            return Type.HEIC;
+        if (startsWith(bytes, 8, 'a', 'v', 'i', 'f'))
+            return Type.AVIF;
+        if (startsWith(bytes, 8, '3', 'g'))
+            return Type.THREE_GP;
+        return Type.MP4;
+    }
+
+    private static Type text(ByteBuffer bytes, Type extension) {
+        if (extension != null)
+            return extension;
+        String start = StandardCharsets.UTF_8.decode(bytes.duplicate()).toString().trim().toLowerCase(Locale.ROOT);
+        if (start.startsWith("<?xml"))
+            return start.contains("<svg") ? Type.SVG : Type.XML;
+        if (start.startsWith("<!doctype html") || start.startsWith("<html"))
+            return Type.HTML;
+        if (start.startsWith("#!"))
+            return Type.SH;
+        if (start.startsWith("{") || start.startsWith("["))
+            return Type.JSON;
+        return Type.TXT;
+    }
+
+    private static boolean isText(ByteBuffer bytes) {
+        for (int i = bytes.position(); i < bytes.limit(); i++) {
+            int b = bytes.get(i) & 0xFF;
+            if (b == 0 || (b < 0x20 && b != '\n' && b != '\r' && b != '\t' && b != '\f' && b != 0x1B))
+                return false;
+        }
+        return true;
+    }
+
+    /**
+     * Signatures of two or three bytes are found at start of ordinary files too, "MZ" or "BM" in a text file for
+     * example, so they only tell type of files which have no known extension or the same one.
+     */
+    private static Type weak(Type type, Type extension) {
+        return extension == null || extension == type ? type : null;
+    }
+
+    private static boolean isZipBased(Type type) {
+        return type == Type.JAR || type == Type.APK || type == Type.DOCX || type == Type.XLSX//
+                || type == Type.PPTX || type == Type.ODT || type == Type.ODS || type == Type.ODP//
+                || type == Type.EPUB || type == Type.KML || type == Type.PAGES || type == Type.NUMBERS//
+                || type == Type.KEY;
+    }
+
+    private static boolean startsWith(ByteBuffer bytes, int offset, int... signature) {
+        if (bytes.remaining() < offset + signature.length)
+            return false;
+        for (int i = 0; i < signature.length; i++)
+            if ((bytes.get(bytes.position() + offset + i) & 0xFF) != signature[i])
+                return false;
+        return true;
+    }
+
+    private static class Detected {
+
+        private final long size;
+        private final long lastModified;
+        private final Type type;
+
+        Detected(long size, long lastModified, Type type) {
+            this.size = size;
+            this.lastModified = lastModified;
+            this.type = type;
+        }
+
+    }
+
+}
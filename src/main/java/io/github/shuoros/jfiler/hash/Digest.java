@@ -0,0 +1,28 @@
+package io.github.shuoros.jfiler.hash;
+
+import java.nio.ByteBuffer;
+
+/**
+ * A running hash computation of one {@link io.github.shuoros.jfiler.hash.HashAlgorithm}.
+ *
+ * @author Soroush Shemshadi
+ * @version 1.0.0
+ * @since 1.2.0
+ */
+interface Digest {
+
+    /**
+     * Adds remaining bytes of buffer to hash and consumes them.
+     *
+     * @param bytes Bytes to add.
+     */
+    void update(ByteBuffer bytes);
+
+    /**
+     * Finishes computation.
+     *
+     * @return Hash of all added bytes.
+     */
+    byte[] digest();
+
+}
@@ -0,0 +1,76 @@
+package io.github.shuoros.jfiler.hash;
+
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.zip.CRC32C;
+
+/**
+ * Enumeration of hash algorithms which {@link io.github.shuoros.jfiler.hash.Hasher} can compute.
+ *
+ * @author Soroush Shemshadi
+ * @version 1.0.0
+ * @since 1.2.0
+ */
+public enum HashAlgorithm {
+
+    /**
+     * CRC-32C checksum, hardware accelerated on most CPUs. Good to detect corruption, not tampering.
+     */
+    CRC32C {
+        @Override
+        Digest newDigest() {
+            CRC32C crc = new CRC32C();
+            return new Digest() {
+                @Override
+                public void update(ByteBuffer bytes) {
+                    crc.update(bytes);
+                }
+
+                @Override
+                public byte[] digest() {
+                    return ByteBuffer.allocate(4).putInt((int) crc.getValue()).array();
+                }
+            };
+        }
+    },
+
+    /**
+     * SHA-256 cryptographic hash.
+     */
+    SHA_256 {
+        @Override
+        Digest newDigest() {
+            MessageDigest sha;
+            try {
+                sha = MessageDigest.getInstance("SHA-256");
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException(e);
+            }
+            return new Digest() {
+                @Override
+                public void update(ByteBuffer bytes) {
+                    sha.update(bytes);
+                }
+
+                @Override
+                public byte[] digest() {
+                    return sha.digest();
+                }
+            };
+        }
+    },
+
+    /**
+     * 64 bit xxHash, a very fast non cryptographic hash.
+     */
+    XXHASH64 {
+        @Override
+        Digest newDigest() {
+            return new XXHash64();
+        }
+    };
+
+    abstract Digest newDigest();
+
+}
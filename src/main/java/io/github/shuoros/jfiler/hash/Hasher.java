@@ -0,0 +1,373 @@
+package io.github.shuoros.jfiler.hash;
+
+import io.github.shuoros.jfiler.file.File;
+import io.github.shuoros.jfiler.file.FileContent;
+import io.github.shuoros.jfiler.file.Folder;
+import io.github.shuoros.jfiler.io.IOPriority;
+import io.github.shuoros.jfiler.io.IOScheduler;
+import io.github.shuoros.jfiler.util.MappedBuffers;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A service which computes hashes of files and folders.
+ * <ul>
+ *     <li>Files bigger than {@link #MAPPED_READ_THRESHOLD} are read through memory mappings.</li>
+ *     <li>A folder is hashed as a Merkle tree: its hash is the hash of names and hashes of its children,
+ *     and children are hashed in parallel.</li>
+ *     <li>{@link #copy(Path, Path)} hashes a file or folder in the same pass which copies it, so verifying
+ *     a copy doesn't need to read it again.</li>
+ *     <li>Hashes of files are cached by their location, size and last modification time, so an unchanged file
+ *     is never hashed twice by the same hasher while it's among the most recently used ones.</li>
+ * </ul>
+ * Hashes are returned as lower case hex strings.
+ * <p>
+ * Copies go through the default {@link io.github.shuoros.jfiler.io.IOScheduler} as bulk I/O, one permit per
+ * file, while hashing reads files directly.
+ * <p>
+ * Reading files blocks, so by default folders are hashed on a pool of their own instead of the common pool,
+ * where they would hold up parallel streams and other users of it.
+ *
+ * @author Soroush Shemshadi
+ * @version 1.0.0
+ * @since 1.2.0
+ */
+public class Hasher {
+
+    /**
+     * Files of this size or bigger are read through memory mappings.
+     */
+    public static final long MAPPED_READ_THRESHOLD = 1024 * 1024;
+
+    /**
+     * Number of files which their hashes are cached by default.
+     */
+    public static final int DEFAULT_CACHE_SIZE = 100_000;
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+    private static final AtomicInteger THREAD_NUMBER = new AtomicInteger();
+
+    private final HashAlgorithm algorithm;
+    private final ForkJoinPool pool;
+    private final Map<Path, CachedHash> cache;
+
+    /**
+     * Constructs a hasher which hashes folders on a pool which is shared by hashers without one of their own.
+     *
+     * @param algorithm Hash algorithm.
+     */
+    public Hasher(HashAlgorithm algorithm) {
+        this(algorithm, DefaultPool.POOL);
+    }
+
+    /**
+     * Constructs a hasher which hashes folders on the given pool.
+     *
+     * @param algorithm Hash algorithm.
+     * @param pool      Pool to hash children of folders in parallel on.
+     */
+    public Hasher(HashAlgorithm algorithm, ForkJoinPool pool) {
+        this(algorithm, pool, DEFAULT_CACHE_SIZE);
+    }
+
+    /**
+     * Constructs a hasher which hashes folders on the given pool and caches hashes of up to the given number of
+     * most recently used files.
+     *
+     * @param algorithm Hash algorithm.
+     * @param pool      Pool to hash children of folders in parallel on.
+     * @param cacheSize Maximum number of files which their hashes are cached.
+     */
+    public Hasher(HashAlgorithm algorithm, ForkJoinPool pool, int cacheSize) {
+        this.algorithm = algorithm;
+        this.pool = pool;
+        this.cache = new LinkedHashMap<Path, CachedHash>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Path, CachedHash> eldest) {
+                return size() > cacheSize;
+            }
+        };
+    }
+
+    /**
+     * Gets hash algorithm of this hasher.
+     *
+     * @return Hash algorithm.
+     */
+    public HashAlgorithm getAlgorithm() {
+        return algorithm;
+    }
+
+    /**
+     * Computes hash of a file, or of a folder as a Merkle tree.
+     *
+     * @param file File or folder to hash.
+     * @return Hash of file or folder.
+     * @throws IOException If anything goes wrong in reading an IOException will be thrown.
+     */
+    public String hash(File file) throws IOException {
+        return hash(file.getLocation());
+    }
+
+    /**
+     * Computes hash of a folder as a Merkle tree.
+     *
+     * @param folder Folder to hash.
+     * @return Hash of folder.
+     * @throws IOException If anything goes wrong in reading an IOException will be thrown.
+     */
+    public String hash(Folder folder) throws IOException {
+        return hash(folder.getLocation());
+    }
+
+    /**
+     * Computes hash of a file, or of a folder as a Merkle tree.
+     *
+     * @param location Location of file or folder to hash.
+     * @return Hash of file or folder.
+     * @throws IOException If anything goes wrong in reading an IOException will be thrown.
+     */
+    public String hash(Path location) throws IOException {
+        return hex(hashBytes(location));
+    }
+
+    /**
+     * Copies a file or folder to destination and computes its hash from the same bytes which are written,
+     * so the copy never needs to be read again to be verified. Destination must not exist.
+     *
+     * @param source      Location of file or folder to copy.
+     * @param destination Location to copy in.
+     * @return Hash of copied file or folder.
+     * @throws IOException If anything goes wrong in coping an IOException will be thrown.
+     */
+    public String copy(Path source, Path destination) throws IOException {
+        return hex(copyBytes(source, destination));
+    }
+
+    /**
+     * Removes all cached hashes.
+     */
+    public void clearCache() {
+        synchronized (cache) {
+            cache.clear();
+        }
+    }
+
+    private byte[] hashBytes(Path location) throws IOException {
+        BasicFileAttributes attributes = Files.readAttributes(location, BasicFileAttributes.class);
+        if (attributes.isDirectory())
+            return hashFolder(location);
+
+        synchronized (cache) {
+            CachedHash cached = cache.get(location);
+            if (cached != null && cached.matches(attributes))
+                return cached.hash;
+        }
+
+        byte[] hash = attributes.size() >= MAPPED_READ_THRESHOLD//
+                ? hashMapped(location)//
+                : hashRead(location);
+        synchronized (cache) {
+            cache.put(location, new CachedHash(attributes, hash));
+        }
+        return hash;
+    }
+
+    private byte[] hashFolder(Path location) throws IOException {
+        try {
+            return pool.invoke(new FolderHashTask(location));
+        } catch (UncheckedIOException e) {
+            Throwable cause = e.getCause();
+            while (cause instanceof UncheckedIOException)
+                cause = cause.getCause();
+            throw (IOException) cause;
+        }
+    }
+
+    private byte[] hashMapped(Path location) throws IOException {
+        Digest digest = algorithm.newDigest();
+        try (FileChannel channel = FileChannel.open(location, StandardOpenOption.READ)) {
+            long size = channel.size();
+            for (long position = 0; position < size; position += FileContent.DEFAULT_MAPPING_SIZE) {
+                MappedByteBuffer chunk = channel.map(FileChannel.MapMode.READ_ONLY, position,//
+                        Math.min(FileContent.DEFAULT_MAPPING_SIZE, size - position));
+                try {
+                    digest.update(chunk);
+                } finally {
+                    // Each chunk is unmapped once hashed, so a huge file never holds its whole size of address space
+                    MappedBuffers.release(chunk);
+                }
+            }
+        }
+        return digest.digest();
+    }
+
+    private byte[] hashRead(Path location) throws IOException {
+        Digest digest = algorithm.newDigest();
+        ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+        try (FileChannel channel = FileChannel.open(location, StandardOpenOption.READ)) {
+            while (channel.read(buffer) >= 0) {
+                buffer.flip();
+                digest.update(buffer);
+                buffer.clear();
+            }
+        }
+        return digest.digest();
+    }
+
+    private byte[] copyBytes(Path source, Path destination) throws IOException {
+        if (Files.isDirectory(source)) {
+            Files.createDirectory(destination);
+            SortedMap<String, byte[]> children = new TreeMap<>();
+            for (Path child : children(source))
+                children.put(child.getFileName().toString(),//
+                        copyBytes(child, destination.resolve(child.getFileName().toString())));
+            return merkle(children);
+        }
+
+        BasicFileAttributes before = Files.readAttributes(source, BasicFileAttributes.class);
+        Digest digest = algorithm.newDigest();
+        ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+        long copied = 0;
+        try (IOScheduler.Permit permit = IOScheduler.getDefault().acquire(IOPriority.BULK, source);
+             FileChannel in = FileChannel.open(source, StandardOpenOption.READ);
+             FileChannel out = FileChannel.open(destination, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+            while (in.read(buffer) >= 0) {
+                buffer.flip();
+                permit.transferred(buffer.remaining());
+                copied += buffer.remaining();
+                ByteBuffer written = buffer.duplicate();
+                while (written.hasRemaining())
+                    out.write(written);
+                digest.update(buffer);
+                buffer.clear();
+            }
+        } finally {
+            MappedBuffers.release(buffer);
+        }
+        byte[] hash = digest.digest();
+        BasicFileAttributes after = Files.readAttributes(source, BasicFileAttributes.class);
+        // Hash is of the bytes which were written, so it's always the copy's, but it's only the source's
+        // if source didn't change while it was read
+        boolean sourceUnchanged = copied == before.size() && after.size() == before.size()//
+                && after.lastModifiedTime().equals(before.lastModifiedTime());
+        CachedHash ofDestination = new CachedHash(Files.readAttributes(destination, BasicFileAttributes.class), hash);
+        synchronized (cache) {
+            if (sourceUnchanged)
+                cache.put(source, new CachedHash(before, hash));
+            else
+                cache.remove(source);
+            cache.put(destination, ofDestination);
+        }
+        return hash;
+    }
+
+    private byte[] merkle(SortedMap<String, byte[]> children) {
+        Digest digest = algorithm.newDigest();
+        for (Map.Entry<String, byte[]> child : children.entrySet()) {
+            digest.update(ByteBuffer.wrap(child.getKey().getBytes(StandardCharsets.UTF_8)));
+            digest.update(ByteBuffer.wrap(new byte[]{0}));
+            digest.update(ByteBuffer.wrap(child.getValue()));
+        }
+        return digest.digest();
+    }
+
+    private static List<Path> children(Path folder) throws IOException {
+        List<Path> children = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(folder)) {
+            stream.forEach(children::add);
+        }
+        return children;
+    }
+
+    private static String hex(byte[] bytes) {
+        char[] hex = new char[bytes.length * 2];
+        for (int i = 0; i < bytes.length; i++) {
+            hex[i * 2] = HEX[(bytes[i] >> 4) & 0xF];
+            hex[i * 2 + 1] = HEX[bytes[i] & 0xF];
+        }
+        return new String(hex);
+    }
+
+    /**
+     * Pool of hashers which don't have one of their own, created when it's first needed.
+     */
+    private static class DefaultPool {
+
+        private static final ForkJoinPool POOL = new ForkJoinPool(Runtime.getRuntime().availableProcessors(), pool -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            thread.setName("jfiler-hash-" + THREAD_NUMBER.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }, null, false);
+
+    }
+
+    private static class CachedHash {
+
+        private final long size;
+        private final long lastModified;
+        private final byte[] hash;
+
+        CachedHash(BasicFileAttributes attributes, byte[] hash) {
+            this.size = attributes.size();
+            this.lastModified = attributes.lastModifiedTime().toMillis();
+            this.hash = hash;
+        }
+
+        boolean matches(BasicFileAttributes attributes) {
+            return size == attributes.size() && lastModified == attributes.lastModifiedTime().toMillis();
+        }
+
+    }
+
+    private class FolderHashTask extends RecursiveTask<byte[]> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final Path location;
+
+        FolderHashTask(Path location) {
+            this.location = location;
+        }
+
+        @Override
+        protected byte[] compute() {
+            try {
+                if (!Files.isDirectory(location))
+                    return hashBytes(location);
+
+                List<Path> children = children(location);
+                List<FolderHashTask> tasks = new ArrayList<>(children.size());
+                for (Path child : children)
+                    tasks.add(new FolderHashTask(child));
+                invokeAll(tasks);
+
+                SortedMap<String, byte[]> hashes = new TreeMap<>();
+                for (int i = 0; i < children.size(); i++)
+                    hashes.put(children.get(i).getFileName().toString(), tasks.get(i).join());
+                return merkle(hashes);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,108 @@
+package io.github.shuoros.jfiler.hash;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Streaming implementation of 64 bit xxHash with seed 0.
+ *
+ * @author Soroush Shemshadi
+ * @version 1.0.0
+ * @see <a href="https://github.com/Cyan4973/xxHash/blob/dev/doc/xxhash_spec.md">xxHash specification</a>
+ * @since 1.2.0
+ */
+class XXHash64 implements Digest {
+
+    private static final long PRIME_1 = 0x9E3779B185EBCA87L;
+    private static final long PRIME_2 = 0xC2B2AE3D27D4EB4FL;
+    private static final long PRIME_3 = 0x165667B19E3779F9L;
+    private static final long PRIME_4 = 0x85EBCA77C2B2AE63L;
+    private static final long PRIME_5 = 0x27D4EB2F165667C5L;
+    private static final int STRIPE = 32;
+
+    private final ByteBuffer pending = ByteBuffer.allocate(STRIPE).order(ByteOrder.LITTLE_ENDIAN);
+    private long v1 = PRIME_1 + PRIME_2;
+    private long v2 = PRIME_2;
+    private long v3 = 0;
+    private long v4 = -PRIME_1;
+    private long length;
+
+    @Override
+    public void update(ByteBuffer bytes) {
+        length += bytes.remaining();
+        ByteOrder order = bytes.order();
+        bytes.order(ByteOrder.LITTLE_ENDIAN);
+
+        if (pending.position() > 0) {
+            while (pending.hasRemaining() && bytes.hasRemaining())
+                pending.put(bytes.get());
+            if (pending.hasRemaining()) {
+                bytes.order(order);
+                return;
+            }
+            pending.flip();
+            consumeStripe(pending);
+            pending.clear();
+        }
+
+        while (bytes.remaining() >= STRIPE)
+            consumeStripe(bytes);
+        pending.put(bytes);
+        bytes.order(order);
+    }
+
+    @Override
+    public byte[] digest() {
+        long hash;
+        if (length >= STRIPE) {
+            hash = Long.rotateLeft(v1, 1) + Long.rotateLeft(v2, 7) + Long.rotateLeft(v3, 12) + Long.rotateLeft(v4, 18);
+            hash = merge(hash, v1);
+            hash = merge(hash, v2);
+            hash = merge(hash, v3);
+            hash = merge(hash, v4);
+        } else {
+            hash = PRIME_5;
+        }
+        hash += length;
+
+        pending.flip();
+        while (pending.remaining() >= 8) {
+            hash ^= round(0, pending.getLong());
+            hash = Long.rotateLeft(hash, 27) * PRIME_1 + PRIME_4;
+        }
+        if (pending.remaining() >= 4) {
+            hash ^= (pending.getInt() & 0xFFFFFFFFL) * PRIME_1;
+            hash = Long.rotateLeft(hash, 23) * PRIME_2 + PRIME_3;
+        }
+        while (pending.hasRemaining()) {
+            hash ^= (pending.get() & 0xFFL) * PRIME_5;
+            hash = Long.rotateLeft(hash, 11) * PRIME_1;
+        }
+
+        hash ^= hash >>> 33;
+        hash *= PRIME_2;
+        hash ^= hash >>> 29;
+        hash *= PRIME_3;
+        hash ^= hash >>> 32;
+        return ByteBuffer.allocate(8).putLong(hash).array();
+    }
+
+    private void consumeStripe(ByteBuffer bytes) {
+        v1 = round(v1, bytes.getLong());
+        v2 = round(v2, bytes.getLong());
+        v3 = round(v3, bytes.getLong());
+        v4 = round(v4, bytes.getLong());
+    }
+
+    private static long round(long accumulator, long input) {
+        accumulator += input * PRIME_2;
+        accumulator = Long.rotateLeft(accumulator, 31);
+        return accumulator * PRIME_1;
+    }
+
+    private static long merge(long hash, long accumulator) {
+        hash ^= round(0, accumulator);
+        return hash * PRIME_1 + PRIME_4;
+    }
+
+}
@@ -0,0 +1,195 @@
+package io.github.shuoros.jfiler.io;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Publishes files atomically: content is written to a hidden temporary file next to its destination, forced to
+ * disk, and then renamed to destination, so readers either see no file or the whole file, never a half written
+ * one, even if the process or machine crashes in the middle.
+ * <p>
+ * A rename is only durable once its folder is forced to disk too. Forcing a folder after each file would cost
+ * as much as forcing the file itself, so folders of published files are collected and each of them is forced
+ * once by {@link #sync()} or {@link #close()}. Publishing many files into the same folder then costs one folder
+ * force in total:
+ * <pre>{@code
+ * try (AtomicPublisher publisher = AtomicPublisher.create()) {
+ *     for (Report report : reports)
+ *         JFiler.createNewFile("/shared/reports/" + report.getName(), report.toBytes(), publisher);
+ * }
+ * }</pre>
+ *
+ * @author Soroush Shemshadi
+ * @version 1.0.0
+ * @since 1.2.0
+ */
+public class AtomicPublisher implements Closeable {
+
+    private static final String TEMPORARY_PREFIX = ".jfiler-";
+
+    private final Set<Path> unsyncedFolders = new LinkedHashSet<>();
+    private boolean durable = true;
+
+    private AtomicPublisher() {
+    }
+
+    /**
+     * Creates a publisher which forces files and their folders to disk.
+     *
+     * @return A new publisher.
+     */
+    public static AtomicPublisher create() {
+        return new AtomicPublisher();
+    }
+
+    /**
+     * Sets if published files and their folders are forced to disk. Without it, files are still published
+     * atomically for readers, but a crash of the machine may lose the latest ones.
+     *
+     * @param durable True to force files and folders to disk.
+     * @return This publisher.
+     */
+    public AtomicPublisher durable(boolean durable) {
+        this.durable = durable;
+        return this;
+    }
+
+    /**
+     * Gets a hidden temporary location next to destination to write content of destination in.
+     *
+     * @param destination Location which is going to be published.
+     * @return Temporary location which doesn't exist.
+     */
+    public Path temporaryOf(Path destination) {
+        return destination.resolveSibling(TEMPORARY_PREFIX + UUID.randomUUID() + "-" + destination.getFileName());
+    }
+
+    /**
+     * Publishes a completely written temporary file to its destination. If anything goes wrong, temporary file
+     * is deleted.
+     *
+     * @param temporary   Location of temporary file, in the same folder as destination.
+     * @param destination Location to publish it in.
+     * @param replace     True to replace destination if it exists, false to fail if it exists.
+     * @throws IOException If destination exists and must not be replaced a FileAlreadyExistsException, or if
+     *                     anything else goes wrong an IOException, will be thrown.
+     */
+    public void publish(Path temporary, Path destination, boolean replace) throws IOException {
+        try {
+            if (durable)
+                try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.WRITE)) {
+                    channel.force(true);
+                }
+            if (replace)
+                Files.move(temporary, destination, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            else
+                moveNew(temporary, destination);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temporary);
+            throw e;
+        }
+        if (durable)
+            synchronized (unsyncedFolders) {
+                unsyncedFolders.add(destination.toAbsolutePath().getParent());
+            }
+    }
+
+    /**
+     * Writes content to a file atomically.
+     *
+     * @param destination Location of file.
+     * @param content     Whole content of file.
+     * @param replace     True to replace destination if it exists, false to fail if it exists.
+     * @throws IOException If destination exists and must not be replaced a FileAlreadyExistsException, or if
+     *                     anything else goes wrong an IOException, will be thrown.
+     */
+    public void write(Path destination, byte[] content, boolean replace) throws IOException {
+        if (!replace && Files.exists(destination, LinkOption.NOFOLLOW_LINKS))
+            throw new FileAlreadyExistsException(destination.toString());
+        Path temporary = temporaryOf(destination);
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+            ByteBuffer bytes = ByteBuffer.wrap(content);
+            while (bytes.hasRemaining())
+                channel.write(bytes);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temporary);
+            throw e;
+        }
+        publish(temporary, destination, replace);
+    }
+
+    /**
+     * Forces every folder which files have been published in since the last sync to disk, each folder once.
+     *
+     * @throws IOException If a folder can't be forced an IOException will be thrown.
+     */
+    public void sync() throws IOException {
+        Path[] folders;
+        synchronized (unsyncedFolders) {
+            folders = unsyncedFolders.toArray(new Path[0]);
+            unsyncedFolders.clear();
+        }
+        for (Path folder : folders)
+            try (FileChannel channel = FileChannel.open(folder, StandardOpenOption.READ)) {
+                channel.force(true);
+            } catch (AccessDeniedException e) {
+                // Folders can't be opened on Windows, where renames are durable on their own
+            }
+    }
+
+    /**
+     * Forces folders of published files to disk.
+     *
+     * @throws IOException If a folder can't be forced an IOException will be thrown.
+     */
+    @Override
+    public void close() throws IOException {
+        sync();
+    }
+
+    /**
+     * Moves a file to a destination in the same file system only if destination doesn't exist. A rename
+     * replaces whatever appears at destination after it's checked, so files are linked to destination and
+     * then unlinked from source instead, which fails if destination exists. Folders can't be linked and are
+     * renamed, which fails if a file or a folder which isn't empty appears at destination after it's checked,
+     * but replaces an empty folder which appears there meanwhile.
+     *
+     * @param source      Location of file or folder to move.
+     * @param destination Location to move it to.
+     * @throws IOException If destination exists a FileAlreadyExistsException, if it's in another file system an
+     *                     AtomicMoveNotSupportedException, or if anything else goes wrong an IOException, will be
+     *                     thrown. Source is left in place in all of these cases.
+     */
+    public static void moveNew(Path source, Path destination) throws IOException {
+        if (!Files.isDirectory(source, LinkOption.NOFOLLOW_LINKS)) {
+            boolean linked = false;
+            try {
+                Files.createLink(destination, source);
+                linked = true;
+            } catch (FileAlreadyExistsException e) {
+                throw e;
+            } catch (UnsupportedOperationException | FileSystemException e) {
+                // File system has no hard links, or destination is in another one
+            }
+            if (linked) {
+                try {
+                    Files.delete(source);
+                } catch (IOException | RuntimeException e) {
+                    Files.deleteIfExists(destination);
+                    throw e;
+                }
+                return;
+            }
+        }
+        if (Files.exists(destination, LinkOption.NOFOLLOW_LINKS))
+            throw new FileAlreadyExistsException(destination.toString());
+        Files.move(source, destination, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+}
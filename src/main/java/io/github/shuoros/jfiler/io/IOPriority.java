@@ -0,0 +1,23 @@
+package io.github.shuoros.jfiler.io;
+
+/**
+ * Priority classes of I/O which goes through an {@link io.github.shuoros.jfiler.io.IOScheduler}.
+ *
+ * @author Soroush Shemshadi
+ * @version 1.0.0
+ * @since 1.2.0
+ */
+public enum IOPriority {
+
+    /**
+     * I/O which a user is waiting for, like listing a folder or opening it.
+     */
+    INTERACTIVE,
+
+    /**
+     * I/O of background jobs, like copying, moving or deleting files. It waits while interactive I/O is running
+     * on the same file store.
+     */
+    BULK
+
+}
@@ -0,0 +1,246 @@
+package io.github.shuoros.jfiler.io;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.file.FileStore;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Schedules I/O of JFiler operations by their {@link io.github.shuoros.jfiler.io.IOPriority}. Each priority
+ * class can have its own bandwidth and IOPS limits, as token buckets, and its own cap of concurrent operations
+ * on each {@link FileStore}. While interactive I/O runs on a file store, new bulk I/O on it waits, up to
+ * {@link #MAX_BULK_DEFERRAL_MILLIS}, so foreground latency stays low and background jobs still use the
+ * bandwidth which is left.
+ * <p>
+ * Listings of folders by {@link io.github.shuoros.jfiler.JFiler} and its sessions go through the default scheduler
+ * as interactive I/O, and background prefetching, copies, moves and deletes as bulk I/O, including copies which
+ * are hashed on the way. Hashing itself, {@link io.github.shuoros.jfiler.file.FileContent} and disk usage reports read files directly. The
+ * default scheduler has no limits until it's replaced:
+ * <pre>{@code
+ * IOScheduler.setDefault(IOScheduler.create()
+ *         .bandwidth(IOPriority.BULK, 50 * 1024 * 1024)
+ *         .iops(IOPriority.BULK, 500)
+ *         .concurrency(IOPriority.BULK, 2));
+ * }</pre>
+ *
+ * @author Soroush Shemshadi
+ * @version 1.0.0
+ * @since 1.2.0
+ */
+public class IOScheduler {
+
+    /**
+     * Longest time which new bulk I/O waits for interactive I/O on the same file store.
+     */
+    public static final long MAX_BULK_DEFERRAL_MILLIS = 200;
+
+    private static final int MAX_CACHED_STORES = 4096;
+    private static volatile IOScheduler defaultScheduler = new IOScheduler();
+
+    private final Map<IOPriority, TokenBucket> bandwidth = new EnumMap<>(IOPriority.class);
+    private final Map<IOPriority, TokenBucket> iops = new EnumMap<>(IOPriority.class);
+    private final Map<IOPriority, Integer> concurrency = new EnumMap<>(IOPriority.class);
+    private final Map<Path, Object> storesOfFolders = new ConcurrentHashMap<>();
+    private final Map<Object, StoreSlots> slots = new ConcurrentHashMap<>();
+
+    private IOScheduler() {
+    }
+
+    /**
+     * Creates a scheduler without any limits. Limits must be set before the scheduler is used.
+     *
+     * @return A new scheduler.
+     */
+    public static IOScheduler create() {
+        return new IOScheduler();
+    }
+
+    /**
+     * Gets the scheduler which JFiler operations go through.
+     *
+     * @return The default scheduler.
+     */
+    public static IOScheduler getDefault() {
+        return defaultScheduler;
+    }
+
+    /**
+     * Sets the scheduler which JFiler operations go through from now on.
+     *
+     * @param scheduler The new default scheduler.
+     */
+    public static void setDefault(IOScheduler scheduler) {
+        defaultScheduler = scheduler;
+    }
+
+    /**
+     * Limits bandwidth of a priority class.
+     *
+     * @param priority       Priority class.
+     * @param bytesPerSecond Maximum number of bytes per second.
+     * @return This scheduler.
+     */
+    public IOScheduler bandwidth(IOPriority priority, long bytesPerSecond) {
+        bandwidth.put(priority, new TokenBucket(bytesPerSecond));
+        return this;
+    }
+
+    /**
+     * Limits number of operations per second of a priority class.
+     *
+     * @param priority           Priority class.
+     * @param operationsPerSecond Maximum number of operations per second.
+     * @return This scheduler.
+     */
+    public IOScheduler iops(IOPriority priority, long operationsPerSecond) {
+        iops.put(priority, new TokenBucket(operationsPerSecond));
+        return this;
+    }
+
+    /**
+     * Limits number of operations of a priority class which run at the same time on each file store.
+     *
+     * @param priority     Priority class.
+     * @param perFileStore Maximum number of concurrent operations on each file store.
+     * @return This scheduler.
+     */
+    public IOScheduler concurrency(IOPriority priority, int perFileStore) {
+        if (perFileStore < 1)
+            throw new IllegalArgumentException("Concurrency must be at least 1 but was " + perFileStore);
+        concurrency.put(priority, perFileStore);
+        return this;
+    }
+
+    /**
+     * Waits until an operation of given priority can run on the file store of given location, and takes one
+     * operation from its IOPS limit. The returned permit must be closed when the operation is done.
+     *
+     * @param priority Priority class of operation.
+     * @param location Location which operation works on. If it doesn't exist, its nearest existing parent is used.
+     * @return A permit to run the operation.
+     * @throws InterruptedIOException If thread is interrupted while waiting.
+     */
+    public Permit acquire(IOPriority priority, Path location) throws InterruptedIOException {
+        TokenBucket operations = iops.get(priority);
+        if (operations != null)
+            operations.take(1);
+
+        StoreSlots store = slots.computeIfAbsent(storeOf(location), key -> new StoreSlots());
+        store.acquire(priority);
+        return new Permit(store, priority, bandwidth.get(priority));
+    }
+
+    private Object storeOf(Path location) {
+        Path folder = location.toAbsolutePath().getParent();
+        if (folder == null)
+            folder = location.toAbsolutePath();
+        Object store = storesOfFolders.get(folder);
+        if (store != null)
+            return store;
+
+        // Finding a file store may read the whole mount table, so it's done once per folder
+        Path existing = folder;
+        while (existing != null && !Files.exists(existing))
+            existing = existing.getParent();
+        try {
+            store = existing == null ? folder.getRoot() : Files.getFileStore(existing);
+        } catch (IOException e) {
+            store = folder.getRoot();
+        }
+        if (store == null)
+            store = folder;
+        if (storesOfFolders.size() >= MAX_CACHED_STORES)
+            storesOfFolders.clear();
+        storesOfFolders.put(folder, store);
+        return store;
+    }
+
+    /**
+     * A permit to run one operation. Closing it lets other operations run on its file store.
+     */
+    public static class Permit implements AutoCloseable {
+
+        private final StoreSlots store;
+        private final IOPriority priority;
+        private final TokenBucket bandwidth;
+        private boolean closed;
+
+        private Permit(StoreSlots store, IOPriority priority, TokenBucket bandwidth) {
+            this.store = store;
+            this.priority = priority;
+            this.bandwidth = bandwidth;
+        }
+
+        /**
+         * Takes transferred bytes from bandwidth limit of this operation's priority, and waits if they
+         * are more than the limit allows now.
+         *
+         * @param bytes Number of bytes which have been, or are going to be, read or written.
+         * @throws InterruptedIOException If thread is interrupted while waiting.
+         */
+        public void transferred(long bytes) throws InterruptedIOException {
+            if (bandwidth != null && bytes > 0)
+                bandwidth.take(bytes);
+        }
+
+        @Override
+        public void close() {
+            if (closed)
+                return;
+            closed = true;
+            store.release(priority);
+        }
+
+    }
+
+    private class StoreSlots {
+
+        private final int[] running = new int[IOPriority.values().length];
+        private int waitingInteractive;
+
+        synchronized void acquire(IOPriority priority) throws InterruptedIOException {
+            int cap = concurrency.getOrDefault(priority, Integer.MAX_VALUE);
+            long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(MAX_BULK_DEFERRAL_MILLIS);
+            try {
+                if (priority == IOPriority.INTERACTIVE) {
+                    waitingInteractive++;
+                    try {
+                        while (running[priority.ordinal()] >= cap)
+                            wait();
+                    } finally {
+                        waitingInteractive--;
+                    }
+                } else {
+                    while (running[priority.ordinal()] >= cap || isInteractiveBusy(deadline)) {
+                        long left = deadline - System.nanoTime();
+                        if (running[priority.ordinal()] >= cap || left <= 0)
+                            wait();
+                        else
+                            TimeUnit.NANOSECONDS.timedWait(this, left);
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while waiting for file store");
+            }
+            running[priority.ordinal()]++;
+        }
+
+        synchronized void release(IOPriority priority) {
+            running[priority.ordinal()]--;
+            notifyAll();
+        }
+
+        private boolean isInteractiveBusy(long deadline) {
+            return System.nanoTime() < deadline//
+                    && (running[IOPriority.INTERACTIVE.ordinal()] > 0 || waitingInteractive > 0);
+        }
+
+    }
+
+}
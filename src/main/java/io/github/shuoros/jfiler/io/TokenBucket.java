@@ -0,0 +1,55 @@
+package io.github.shuoros.jfiler.io;
+
+import java.io.InterruptedIOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Limits rate of something, like bytes or operations per second. Bucket holds up to one second worth of tokens,
+ * so short bursts are not slowed down. A taker which takes more tokens than the bucket has goes in debt and
+ * sleeps until the debt is paid by time, so big and small takes are treated the same.
+ *
+ * @author Soroush Shemshadi
+ * @version 1.0.0
+ * @since 1.2.0
+ */
+class TokenBucket {
+
+    private final double tokensPerNano;
+    private final double capacity;
+    private double tokens;
+    private long refilled;
+
+    TokenBucket(long tokensPerSecond) {
+        if (tokensPerSecond < 1)
+            throw new IllegalArgumentException("Rate must be at least 1 per second but was " + tokensPerSecond);
+        this.tokensPerNano = tokensPerSecond / (double) TimeUnit.SECONDS.toNanos(1);
+        this.capacity = tokensPerSecond;
+        this.tokens = capacity;
+        this.refilled = System.nanoTime();
+    }
+
+    /**
+     * Takes tokens and waits until they are paid.
+     *
+     * @param amount Number of tokens to take.
+     * @throws InterruptedIOException If thread is interrupted while waiting.
+     */
+    void take(long amount) throws InterruptedIOException {
+        long wait;
+        synchronized (this) {
+            long now = System.nanoTime();
+            tokens = Math.min(capacity, tokens + (now - refilled) * tokensPerNano);
+            refilled = now;
+            tokens -= amount;
+            wait = tokens >= 0 ? 0 : (long) (-tokens / tokensPerNano);
+        }
+        if (wait > 0)
+            try {
+                TimeUnit.NANOSECONDS.sleep(wait);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while waiting for I/O tokens");
+            }
+    }
+
+}
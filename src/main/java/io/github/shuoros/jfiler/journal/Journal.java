@@ -0,0 +1,433 @@
+package io.github.shuoros.jfiler.journal;
+
+import io.github.shuoros.jfiler.operation.OperationResult;
+import io.github.shuoros.jfiler.util.Locations;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.*;
+import java.util.zip.CRC32C;
+
+/**
+ * A write-ahead journal of operations which change files. Before an operation touches any file, its intent is
+ * appended to the journal file, and when it's done its end is appended, so if the process crashes in the middle
+ * of a bulk operation the next {@link #recover()} knows exactly which operations were left incomplete and rolls
+ * each of them back or forward.
+ * <p>
+ * Records are not forced to disk one by one. They are buffered until someone calls {@link #sync()}, and the
+ * caller which finds no other sync in progress writes and forces everything which has been appended by every
+ * thread so far, so many entries share one fsync. A bulk operation logs all of its intents, syncs once, runs,
+ * logs all of its ends and syncs once more.
+ * <p>
+ * An operation may be done while its end is lost, so deletes are only rolled forward, and sources of moves only
+ * deleted, if their source still has the identity which was written in its intent: the same file key, and
+ * for files also the same size and last modification time. A file which has been recreated or moved back to
+ * source meanwhile is left in place.
+ * <p>
+ * Each record carries a CRC32C checksum, and a torn record at the end of the file is dropped when the
+ * journal is opened. When no operation is incomplete the journal file is truncated once it grows big,
+ * and when the journal is closed.
+ * <p>
+ * Each time a journal is opened it starts a new random session, which is written in every operation it begins.
+ * Ids of operations start over whenever journal file is emptied, so temporary files of operations are named by
+ * both, and two journals, or the same journal before and after it's truncated, never share one.
+ *
+ * @author Soroush Shemshadi
+ * @version 1.0.0
+ * @since 1.2.0
+ */
+public class Journal implements Closeable {
+
+    private static final byte BEGIN = 1;
+    private static final byte COPIED = 2;
+    private static final byte END = 3;
+    private static final int HEADER_SIZE = 8;
+    private static final long COMPACTION_SIZE = 1024 * 1024;
+
+    private final FileChannel channel;
+    private final UUID session = UUID.randomUUID();
+    private final Object lock = new Object();
+    private final Map<Long, JournalEntry> incomplete = new LinkedHashMap<>();
+    private List<ByteBuffer> pending = new ArrayList<>();
+    private long nextId;
+    private long appended;
+    private long durable;
+    private boolean syncing;
+    private boolean closed;
+    private IOException broken;
+
+    private Journal(FileChannel channel) {
+        this.channel = channel;
+    }
+
+    /**
+     * Opens a journal file, or creates it if it doesn't exist, and reads operations which were left incomplete.
+     *
+     * @param location Location of journal file.
+     * @return The opened journal.
+     * @throws IOException If journal file can't be opened or read an IOException will be thrown.
+     */
+    public static Journal open(String location) throws IOException {
+        return open(Locations.toPath(location));
+    }
+
+    /**
+     * Opens a journal file, or creates it if it doesn't exist, and reads operations which were left incomplete.
+     *
+     * @param location Location of journal file.
+     * @return The opened journal.
+     * @throws IOException If journal file can't be opened or read an IOException will be thrown.
+     */
+    public static Journal open(Path location) throws IOException {
+        FileChannel channel = FileChannel.open(location,//
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        Journal journal = new Journal(channel);
+        try {
+            journal.read();
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+        return journal;
+    }
+
+    /**
+     * Gets operations which have been begun but not ended yet, in order of beginning.
+     *
+     * @return A list of incomplete operations.
+     */
+    public List<JournalEntry> getIncomplete() {
+        synchronized (lock) {
+            return new ArrayList<>(incomplete.values());
+        }
+    }
+
+    /**
+     * Appends intent of an operation. It's not forced to disk until {@link #sync()} is called, and the operation
+     * must not touch any file before that.
+     *
+     * @param operation   Operation which is going to be done.
+     * @param source      Location of file or folder which operation is done on.
+     * @param destination Location which source is copied or moved to, or null for deletes.
+     * @return The entry of operation.
+     * @throws IOException If journal is closed or broken, or attributes of source can't be read, an IOException
+     *                     will be thrown.
+     */
+    public JournalEntry begin(JournalOperation operation, Path source, Path destination) throws IOException {
+        String identity = identityOf(source);
+        synchronized (lock) {
+            ensureUsable();
+            JournalEntry entry = new JournalEntry(nextId++, session, operation, source, destination, identity);
+            incomplete.put(entry.getId(), entry);
+            append(encode(BEGIN, entry));
+            return entry;
+        }
+    }
+
+    /**
+     * Records that a complete copy of source of a {@link JournalOperation#MOVE} is in its destination, so source
+     * can be deleted. This record is forced to disk before it returns.
+     *
+     * @param entry Entry of the move.
+     * @throws IOException If anything goes wrong in writing an IOException will be thrown.
+     */
+    public void copied(JournalEntry entry) throws IOException {
+        synchronized (lock) {
+            ensureUsable();
+            entry.setCopied();
+            append(encode(COPIED, entry));
+        }
+        sync();
+    }
+
+    /**
+     * Appends end of an operation, whether it succeeded or failed. It's not forced to disk until
+     * {@link #sync()} is called.
+     *
+     * @param entry Entry of the operation.
+     * @throws IOException If journal is closed or broken an IOException will be thrown.
+     */
+    public void end(JournalEntry entry) throws IOException {
+        synchronized (lock) {
+            ensureUsable();
+            if (incomplete.remove(entry.getId()) != null)
+                append(encode(END, entry));
+        }
+    }
+
+    /**
+     * Forces every record which has been appended so far, by any thread, to disk. If another thread is already
+     * forcing, this one waits and then forces everything which has been appended meanwhile in one go.
+     *
+     * @throws IOException If anything goes wrong in writing an IOException will be thrown.
+     */
+    public void sync() throws IOException {
+        long target;
+        synchronized (lock) {
+            target = appended;
+        }
+        while (true) {
+            List<ByteBuffer> batch;
+            long batchEnd;
+            synchronized (lock) {
+                while (syncing && durable < target)
+                    waitForSync();
+                if (durable >= target)
+                    return;
+                ensureUsable();
+                syncing = true;
+                batch = pending;
+                batchEnd = appended;
+                pending = new ArrayList<>();
+            }
+            IOException failure = null;
+            try {
+                write(batch);
+                channel.force(false);
+            } catch (IOException e) {
+                failure = e;
+            }
+            synchronized (lock) {
+                syncing = false;
+                if (failure == null) {
+                    durable = batchEnd;
+                    compactIfIdle();
+                } else {
+                    // Part of batch may be on disk, so nothing else can be appended after it
+                    broken = failure;
+                }
+                lock.notifyAll();
+            }
+            if (failure != null)
+                throw failure;
+        }
+    }
+
+    /**
+     * Rolls every incomplete operation back or forward, as its {@link JournalOperation} says, and ends it.
+     * Operations which can't be recovered stay incomplete and are tried again by the next recovery.
+     *
+     * @return Result of recovery for source of each incomplete operation.
+     * @throws IOException If anything goes wrong in writing journal an IOException will be thrown.
+     */
+    public List<OperationResult> recover() throws IOException {
+        List<OperationResult> results = new ArrayList<>();
+        for (JournalEntry entry : getIncomplete()) {
+            try {
+                recover(entry);
+                end(entry);
+                results.add(OperationResult.success(entry.getSource().toString()));
+            } catch (IOException e) {
+                results.add(OperationResult.failed(entry.getSource().toString(), e));
+            }
+        }
+        sync();
+        return results;
+    }
+
+    /**
+     * Forces all appended records to disk and closes the journal file.
+     *
+     * @throws IOException If anything goes wrong in writing or closing an IOException will be thrown.
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            synchronized (lock) {
+                if (closed)
+                    return;
+            }
+            if (broken == null) {
+                sync();
+                synchronized (lock) {
+                    if (incomplete.isEmpty())
+                        channel.truncate(0);
+                }
+            }
+        } finally {
+            synchronized (lock) {
+                closed = true;
+            }
+            channel.close();
+        }
+    }
+
+    private void recover(JournalEntry entry) throws IOException {
+        switch (entry.getOperation()) {
+            case COPY:
+                deleteTree(entry.getTemporaryLocation());
+                break;
+            case MOVE:
+                if (!entry.isCopied())
+                    deleteTree(entry.getTemporaryLocation());
+                else if (isSameSource(entry))
+                    deleteTree(entry.getSource());
+                break;
+            case DELETE:
+                if (isSameSource(entry))
+                    deleteTree(entry.getSource());
+                break;
+        }
+    }
+
+    private void read() throws IOException {
+        long valid = 0;
+        DataInputStream in = new DataInputStream(new BufferedInputStream(Channels.newInputStream(channel.position(0))));
+        CRC32C crc = new CRC32C();
+        while (true) {
+            byte[] payload;
+            try {
+                int length = in.readInt();
+                int checksum = in.readInt();
+                if (length < 0 || length > channel.size())
+                    break;
+                payload = new byte[length];
+                in.readFully(payload);
+                crc.reset();
+                crc.update(payload);
+                if ((int) crc.getValue() != checksum)
+                    break;
+            } catch (EOFException e) {
+                break;
+            }
+            apply(payload);
+            valid += HEADER_SIZE + payload.length;
+        }
+        // Anything after the last valid record was torn by a crash
+        channel.truncate(valid);
+        channel.position(valid);
+        durable = appended = 0;
+    }
+
+    private void apply(byte[] payload) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload));
+        byte type = in.readByte();
+        long id = in.readLong();
+        nextId = Math.max(nextId, id + 1);
+        if (type == BEGIN) {
+            UUID begunIn = new UUID(in.readLong(), in.readLong());
+            JournalOperation operation = JournalOperation.values()[in.readByte()];
+            Path source = Paths.get(in.readUTF());
+            String destination = in.readUTF();
+            String identity = in.readUTF();
+            incomplete.put(id, new JournalEntry(id, begunIn, operation, source,//
+                    destination.isEmpty() ? null : Paths.get(destination), identity.isEmpty() ? null : identity));
+        } else if (type == COPIED) {
+            JournalEntry entry = incomplete.get(id);
+            if (entry != null)
+                entry.setCopied();
+        } else if (type == END) {
+            incomplete.remove(id);
+        }
+    }
+
+    private static ByteBuffer encode(byte type, JournalEntry entry) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64);
+        bytes.write(new byte[HEADER_SIZE]);
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeByte(type);
+        out.writeLong(entry.getId());
+        if (type == BEGIN) {
+            out.writeLong(entry.getSession().getMostSignificantBits());
+            out.writeLong(entry.getSession().getLeastSignificantBits());
+            out.writeByte(entry.getOperation().ordinal());
+            out.writeUTF(entry.getSource().toString());
+            out.writeUTF(entry.getDestination() == null ? "" : entry.getDestination().toString());
+            out.writeUTF(entry.getSourceIdentity() == null ? "" : entry.getSourceIdentity());
+        }
+        out.flush();
+
+        ByteBuffer record = ByteBuffer.wrap(bytes.toByteArray());
+        CRC32C crc = new CRC32C();
+        crc.update(record.array(), HEADER_SIZE, record.capacity() - HEADER_SIZE);
+        record.putInt(0, record.capacity() - HEADER_SIZE);
+        record.putInt(4, (int) crc.getValue());
+        return record;
+    }
+
+    private void append(ByteBuffer record) {
+        pending.add(record);
+        appended++;
+    }
+
+    private void write(List<ByteBuffer> batch) throws IOException {
+        ByteBuffer[] buffers = batch.toArray(new ByteBuffer[0]);
+        long remaining = 0;
+        for (ByteBuffer buffer : buffers)
+            remaining += buffer.remaining();
+        while (remaining > 0)
+            remaining -= channel.write(buffers);
+    }
+
+    private void compactIfIdle() {
+        try {
+            if (incomplete.isEmpty() && pending.isEmpty() && channel.size() > COMPACTION_SIZE) {
+                channel.truncate(0);
+                channel.position(0);
+            }
+        } catch (IOException e) {
+            // Journal stays as it is, all of its operations are ended anyway
+        }
+    }
+
+    private void waitForSync() throws InterruptedIOException {
+        try {
+            lock.wait();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for journal to be synced");
+        }
+    }
+
+    private void ensureUsable() throws IOException {
+        if (closed)
+            throw new IOException("Journal is closed");
+        if (broken != null)
+            throw new IOException("Journal can't be written anymore", broken);
+    }
+
+    private static boolean isSameSource(JournalEntry entry) throws IOException {
+        // Otherwise operation was already done and whatever is at source now is not ours to delete
+        return entry.getSourceIdentity() != null && entry.getSourceIdentity().equals(identityOf(entry.getSource()));
+    }
+
+    private static String identityOf(Path location) throws IOException {
+        BasicFileAttributes attributes;
+        try {
+            attributes = Files.readAttributes(location, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+        } catch (NoSuchFileException e) {
+            return null;
+        }
+        // Without a file key, like on Windows, creation time tells a recreated file apart
+        Object key = attributes.fileKey() != null ? attributes.fileKey() : attributes.creationTime().toMillis();
+        // Deleting children of a folder changes its last modification time but not its key
+        if (attributes.isDirectory())
+            return "folder:" + key;
+        return "file:" + key + ":" + attributes.size() + ":" + attributes.lastModifiedTime().toMillis();
+    }
+
+    private static void deleteTree(Path location) throws IOException {
+        if (location == null || !Files.exists(location, LinkOption.NOFOLLOW_LINKS))
+            return;
+        Files.walkFileTree(location, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attributes) throws IOException {
+                Files.deleteIfExists(file);
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult postVisitDirectory(Path dir, IOException e) throws IOException {
+                if (e != null)
+                    throw e;
+                Files.deleteIfExists(dir);
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+
+}
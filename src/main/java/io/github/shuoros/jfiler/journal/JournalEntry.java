@@ -0,0 +1,129 @@
+package io.github.shuoros.jfiler.journal;
+
+import java.nio.file.Path;
+import java.util.UUID;
+
+/**
+ * A single operation which is written in a {@link io.github.shuoros.jfiler.journal.Journal}.
+ *
+ * @author Soroush Shemshadi
+ * @version 1.0.0
+ * @since 1.2.0
+ */
+public class JournalEntry {
+
+    private static final String TEMPORARY_PREFIX = ".jfiler-";
+
+    private final long id;
+    private final UUID session;
+    private final JournalOperation operation;
+    private final Path source;
+    private final Path destination;
+    private final String sourceIdentity;
+    private volatile boolean copied;
+
+    JournalEntry(long id, UUID session, JournalOperation operation, Path source, Path destination,//
+                 String sourceIdentity) {
+        this.id = id;
+        this.session = session;
+        this.operation = operation;
+        this.source = source;
+        this.destination = destination;
+        this.sourceIdentity = sourceIdentity;
+    }
+
+    /**
+     * Gets id of this entry which is unique in its journal.
+     *
+     * @return Id of entry.
+     */
+    public long getId() {
+        return id;
+    }
+
+    /**
+     * Gets session of journal which this entry was begun in. Ids start over whenever journal file is emptied, so
+     * together with id it's unique among every journal.
+     *
+     * @return Session of entry.
+     */
+    public UUID getSession() {
+        return session;
+    }
+
+    /**
+     * Gets operation of this entry.
+     *
+     * @return Operation of entry.
+     */
+    public JournalOperation getOperation() {
+        return operation;
+    }
+
+    /**
+     * Gets location of file or folder which operation is done on.
+     *
+     * @return Location of source.
+     */
+    public Path getSource() {
+        return source;
+    }
+
+    /**
+     * Gets location which source is copied or moved to.
+     *
+     * @return Location of destination, or null for {@link JournalOperation#DELETE}.
+     */
+    public Path getDestination() {
+        return destination;
+    }
+
+    /**
+     * Gets location which source is copied in before it's renamed to destination. It's next to destination so
+     * the rename never leaves its file system, and its name carries session and id of this entry so no other
+     * operation, of this journal or any other one, ever uses it.
+     *
+     * @return Temporary location, or null for {@link JournalOperation#DELETE}.
+     */
+    public Path getTemporaryLocation() {
+        if (destination == null)
+            return null;
+        return destination.resolveSibling(TEMPORARY_PREFIX + session + "-" + id + "-" + destination.getFileName());
+    }
+
+    /**
+     * Gets identity of source when this entry was begun: its file key, and for files also their size and last
+     * modification time. A source which has another identity is not the one which this operation was begun on.
+     *
+     * @return Identity of source, or null if it didn't exist.
+     */
+    String getSourceIdentity() {
+        return sourceIdentity;
+    }
+
+    /**
+     * Determines if a complete copy of source has been made in destination.
+     *
+     * @return True if source has been copied completely and false if not.
+     */
+    public boolean isCopied() {
+        return copied;
+    }
+
+    void setCopied() {
+        this.copied = true;
+    }
+
+    @Override
+    public String toString() {
+        return "JournalEntry{" +
+                "id=" + id +
+                ", session=" + session +
+                ", operation=" + operation +
+                ", source=" + source +
+                ", destination=" + destination +
+                ", copied=" + copied +
+                '}';
+    }
+
+}
@@ -0,0 +1,30 @@
+package io.github.shuoros.jfiler.journal;
+
+/**
+ * Enumeration of operations which are written in a {@link io.github.shuoros.jfiler.journal.Journal}, and how
+ * each of them is recovered when it was left incomplete.
+ *
+ * @author Soroush Shemshadi
+ * @version 1.0.0
+ * @since 1.2.0
+ */
+public enum JournalOperation {
+
+    /**
+     * Copies source to a temporary location next to destination and then renames it to destination.
+     * It's rolled back by deleting the temporary location, so destination is either complete or missing.
+     */
+    COPY,
+
+    /**
+     * Renames source to destination, or copies it like {@link #COPY} and then deletes source. It's rolled forward
+     * by deleting what is left of source if the copy was complete, and rolled back like {@link #COPY} if not.
+     */
+    MOVE,
+
+    /**
+     * Deletes source. It's rolled forward by deleting what is left of source.
+     */
+    DELETE
+
+}
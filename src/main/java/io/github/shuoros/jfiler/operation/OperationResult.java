@@ -0,0 +1,121 @@
+package io.github.shuoros.jfiler.operation;
+
+/**
+ * Result of a single item of a bulk operation. Bulk operations of {@link io.github.shuoros.jfiler.JFiler}
+ * don't fail fast, instead they return one of these for every location they were given.
+ *
+ * @author Soroush Shemshadi
+ * @version 1.0.0
+ * @since 1.2.0
+ */
+public class OperationResult {
+
+    private final String location;
+    private final Status status;
+    private final Throwable cause;
+    private final String reason;
+
+    private OperationResult(String location, Status status, Throwable cause, String reason) {
+        this.location = location;
+        this.status = status;
+        this.cause = cause;
+        this.reason = reason;
+    }
+
+    /**
+     * Creates a result for a location which the operation has been done on it successfully.
+     *
+     * @param location Location of file or folder.
+     * @return A successful result.
+     */
+    public static OperationResult success(String location) {
+        return new OperationResult(location, Status.SUCCESS, null, null);
+    }
+
+    /**
+     * Creates a result for a location which the operation has been skipped for it,
+     * For example because it doesn't exist.
+     *
+     * @param location Location of file or folder.
+     * @param reason   Why this location has been skipped.
+     * @return A skipped result.
+     */
+    public static OperationResult skipped(String location, String reason) {
+        return new OperationResult(location, Status.SKIPPED, null, reason);
+    }
+
+    /**
+     * Creates a result for a location which the operation has been failed on it.
+     *
+     * @param location Location of file or folder.
+     * @param cause    Exception which made the operation fail.
+     * @return A failed result.
+     */
+    public static OperationResult failed(String location, Throwable cause) {
+        return new OperationResult(location, Status.FAILED, cause, null);
+    }
+
+    /**
+     * Gets location of file or folder which this result belongs to.
+     *
+     * @return Location of file or folder.
+     */
+    public String getLocation() {
+        return location;
+    }
+
+    /**
+     * Gets status of operation on this location.
+     *
+     * @return Status of operation.
+     */
+    public Status getStatus() {
+        return status;
+    }
+
+    /**
+     * Gets the cause of failing the operation. Skipped locations have no cause, only a reason.
+     *
+     * @return Cause of failure and null if operation wasn't failed.
+     */
+    public Throwable getCause() {
+        return cause;
+    }
+
+    /**
+     * Gets why the operation has been skipped or failed on this location.
+     *
+     * @return Reason of skip or failure and null if operation was successful.
+     */
+    public String getReason() {
+        return cause != null ? String.valueOf(cause) : reason;
+    }
+
+    /**
+     * Determines if operation on this location was successful or not.
+     *
+     * @return True if operation was successful and false if not.
+     */
+    public boolean isSuccess() {
+        return status == Status.SUCCESS;
+    }
+
+    @Override
+    public String toString() {
+        return "OperationResult{" +
+                "location='" + location + '\'' +
+                ", status=" + status +
+                ", reason=" + getReason() +
+                '}';
+    }
+
+    /**
+     * Enumeration of different statuses of an operation on a single location.
+     */
+    public enum Status {
+        SUCCESS,
+        SKIPPED,
+        FAILED
+    }
+
+}
@@ -0,0 +1,227 @@
+package io.github.shuoros.jfiler.search;
+
+import io.github.shuoros.jfiler.archive.Archives;
+import io.github.shuoros.jfiler.file.Type;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.*;
+import java.util.*;
+import java.util.regex.Pattern;
+
+/**
+ * A compound query to search for files and folders in a folder. Every condition you add to a query must match
+ * for a file or folder to be found. Conditions which can rule out a whole folder, like {@link #maxDepth(int)}
+ * and {@link #exclude(String)}, are checked before walking into that folder so its content is never read.
+ * <p>
+ * For example, to find big logs in a project without walking into its dependencies:
+ * <pre>{@code
+ * SearchQuery.create()
+ *         .name("*.log")
+ *         .minSize(1024 * 1024)
+ *         .exclude("node_modules")
+ *         .exclude(".git")
+ *         .maxDepth(5);
+ * }</pre>
+ *
+ * @author Soroush Shemshadi
+ * @version 1.0.0
+ * @since 1.2.0
+ */
+public class SearchQuery {
+
+    private final List<PathMatcher> names = new ArrayList<>();
+    private final List<PathMatcher> excludes = new ArrayList<>();
+    private final Set<Type> types = EnumSet.noneOf(Type.class);
+    private Pattern regex;
+    private long minSize = 0;
+    private long maxSize = Long.MAX_VALUE;
+    private long modifiedAfter = Long.MIN_VALUE;
+    private long modifiedBefore = Long.MAX_VALUE;
+    private Boolean hidden;
+    private int maxDepth = Integer.MAX_VALUE;
+
+    private SearchQuery() {
+    }
+
+    /**
+     * Creates a new query which matches every file and folder.
+     *
+     * @return A new query.
+     */
+    public static SearchQuery create() {
+        return new SearchQuery();
+    }
+
+    /**
+     * Only matches files or folders which their names match with given glob, like "*.txt" or "report-??.{csv,xls}".
+     * If you call it more than once, a name which matches with any of given globs is accepted.
+     *
+     * @param glob Glob pattern of name.
+     * @return This query.
+     */
+    public SearchQuery name(String glob) {
+        this.names.add(FileSystems.getDefault().getPathMatcher("glob:" + glob));
+        return this;
+    }
+
+    /**
+     * Only matches files or folders which a part of their names matches with given regex.
+     *
+     * @param regex Expression to find in name.
+     * @return This query.
+     */
+    public SearchQuery regex(String regex) {
+        this.regex = Pattern.compile(regex);
+        return this;
+    }
+
+    /**
+     * Only matches files or folders with one of given types. Use {@link Type#Folder} to match folders.
+     *
+     * @param types Accepted types.
+     * @return This query.
+     */
+    public SearchQuery type(Type... types) {
+        this.types.addAll(Arrays.asList(types));
+        return this;
+    }
+
+    /**
+     * Only matches files which their size is at least given bytes.
+     *
+     * @param bytes Minimum size in bytes.
+     * @return This query.
+     */
+    public SearchQuery minSize(long bytes) {
+        this.minSize = bytes;
+        return this;
+    }
+
+    /**
+     * Only matches files which their size is at most given bytes.
+     *
+     * @param bytes Maximum size in bytes.
+     * @return This query.
+     */
+    public SearchQuery maxSize(long bytes) {
+        this.maxSize = bytes;
+        return this;
+    }
+
+    /**
+     * Only matches files or folders which have been modified at or after given date.
+     *
+     * @param date Earliest modification date.
+     * @return This query.
+     */
+    public SearchQuery modifiedAfter(Date date) {
+        this.modifiedAfter = date.getTime();
+        return this;
+    }
+
+    /**
+     * Only matches files or folders which have been modified at or before given date.
+     *
+     * @param date Latest modification date.
+     * @return This query.
+     */
+    public SearchQuery modifiedBefore(Date date) {
+        this.modifiedBefore = date.getTime();
+        return this;
+    }
+
+    /**
+     * Only matches hidden files and folders if given true and only visible ones if given false.
+     *
+     * @param hidden Whether found files must be hidden or visible.
+     * @return This query.
+     */
+    public SearchQuery hidden(boolean hidden) {
+        this.hidden = hidden;
+        return this;
+    }
+
+    /**
+     * Limits how deep search goes in folders. Depth 1 means only files and folders directly
+     * in the searched folder.
+     *
+     * @param depth Maximum depth of search.
+     * @return This query.
+     */
+    public SearchQuery maxDepth(int depth) {
+        if (depth < 1)
+            throw new IllegalArgumentException("Depth must be at least 1 but was " + depth);
+        this.maxDepth = depth;
+        return this;
+    }
+
+    /**
+     * Skips folders which their names match with given glob, like "node_modules" or ".git". Skipped folders and
+     * everything in them are neither read nor found.
+     *
+     * @param glob Glob pattern of name of folders to skip.
+     * @return This query.
+     */
+    public SearchQuery exclude(String glob) {
+        this.excludes.add(FileSystems.getDefault().getPathMatcher("glob:" + glob));
+        return this;
+    }
+
+    /**
+     * Searches the given folder with this query. A zip file, or a folder in it, is searched through its
+     * central directory without being extracted.
+     *
+     * @param folder Location of folder you want to search in.
+     * @return List of paths of files or folders which match with this query, in the order they were walked.
+     */
+    public List<Path> searchIn(Path folder) {
+        SearchVisitor visitor = new SearchVisitor(this, folder);
+        try {
+            if (Archives.isFolder(folder))
+                Archives.walkFileTree(folder, maxDepth, visitor);
+            else
+                Files.walkFileTree(folder, EnumSet.noneOf(FileVisitOption.class), maxDepth, visitor);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return visitor.getFound();
+    }
+
+    boolean isExcluded(Path name) {
+        for (PathMatcher exclude : excludes)
+            if (exclude.matches(name))
+                return true;
+        return false;
+    }
+
+    boolean needsType() {
+        return !types.isEmpty();
+    }
+
+    boolean needsHidden() {
+        return hidden != null;
+    }
+
+    boolean matches(Path name, boolean isFolder, long size, long lastModified, Type type, boolean isHidden) {
+        if (!isFolder && (size < minSize || size > maxSize))
+            return false;
+        if (lastModified < modifiedAfter || lastModified > modifiedBefore)
+            return false;
+        if (hidden != null && hidden != isHidden)
+            return false;
+        if (!types.isEmpty() && !types.contains(type))
+            return false;
+        if (regex != null && !regex.matcher(name.toString()).find())
+            return false;
+        return names.isEmpty() || matchesAnyName(name);
+    }
+
+    private boolean matchesAnyName(Path name) {
+        for (PathMatcher matcher : names)
+            if (matcher.matches(name))
+                return true;
+        return false;
+    }
+
+}
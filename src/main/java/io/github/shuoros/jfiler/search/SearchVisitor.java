@@ -0,0 +1,90 @@
+package io.github.shuoros.jfiler.search;
+
+import io.github.shuoros.jfiler.file.Type;
+import io.github.shuoros.jfiler.util.SystemOS;
+
+import java.io.IOException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Walks a folder for a {@link io.github.shuoros.jfiler.search.SearchQuery} and collects what matches.
+ * Excluded folders are pruned in {@link #preVisitDirectory(Path, BasicFileAttributes)} before they are opened.
+ *
+ * @author Soroush Shemshadi
+ * @version 1.0.0
+ * @since 1.2.0
+ */
+class SearchVisitor extends SimpleFileVisitor<Path> {
+
+    private final SearchQuery query;
+    private final Path root;
+    private final List<Path> found = new ArrayList<>();
+
+    SearchVisitor(SearchQuery query, Path root) {
+        this.query = query;
+        this.root = root;
+    }
+
+    List<Path> getFound() {
+        return found;
+    }
+
+    @Override
+    public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
+        if (dir.equals(root))
+            return FileVisitResult.CONTINUE;
+        if (query.isExcluded(dir.getFileName()))
+            return FileVisitResult.SKIP_SUBTREE;
+
+        check(dir, attrs);
+        return FileVisitResult.CONTINUE;
+    }
+
+    @Override
+    public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+        // Folders at max depth are reported here instead of preVisitDirectory
+        if (attrs.isDirectory() && query.isExcluded(file.getFileName()))
+            return FileVisitResult.CONTINUE;
+
+        check(file, attrs);
+        return FileVisitResult.CONTINUE;
+    }
+
+    @Override
+    public FileVisitResult visitFileFailed(Path file, IOException exc) {
+        return FileVisitResult.CONTINUE;
+    }
+
+    private void check(Path location, BasicFileAttributes attrs) {
+        Path name = location.getFileName();
+        boolean isFolder = attrs.isDirectory();
+        Type type = query.needsType() ? typeOf(name, isFolder) : null;
+        boolean hidden = query.needsHidden() && isHidden(location, name);
+
+        if (query.matches(name, isFolder, attrs.size(), attrs.lastModifiedTime().toMillis(), type, hidden))
+            found.add(location);
+    }
+
+    private Type typeOf(Path name, boolean isFolder) {
+        if (isFolder)
+            return Type.Folder;
+        return Type.byName(name.toString());
+    }
+
+    private boolean isHidden(Path location, Path name) {
+        if (!SystemOS.isWindows())
+            return name.toString().startsWith(".");
+        try {
+            return Files.isHidden(location);
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+}
@@ -0,0 +1,400 @@
+package io.github.shuoros.jfiler.trash;
+
+import io.github.shuoros.jfiler.io.AtomicPublisher;
+import io.github.shuoros.jfiler.io.IOPriority;
+import io.github.shuoros.jfiler.io.IOScheduler;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Deletes files and folders in constant time by renaming them into a trash folder on the same file store, and
+ * reclaims their space later on a background thread, at a rate which can be limited so purging doesn't compete
+ * with other I/O. Trashed items can be restored until they are purged, which is after a retention time.
+ * <p>
+ * Trash folder of a file store is {@value #FOLDER_NAME} in user's home if home is on that file store, otherwise
+ * in the topmost writable folder of the file store above the trashed item, unless another folder is given by
+ * {@link #trashIn(Path)}. Each item is kept by an id which starts with the time it was trashed, next to a small
+ * info file which holds its original location, so items left by a previous process are purged or restored too.
+ * <p>
+ * Purging claims an item by renaming it before deleting it, and restoring moves it back by a rename too, so an
+ * item is either restored or purged even if both happen at the same time. Restoring never replaces a file which
+ * has appeared at original location.
+ *
+ * @author Soroush Shemshadi
+ * @version 1.0.0
+ * @since 1.2.0
+ */
+public class Trash implements Closeable {
+
+    /**
+     * Name of trash folders.
+     */
+    public static final String FOLDER_NAME = ".jfiler-trash";
+
+    /**
+     * Time which items are kept for before they are purged, by default.
+     */
+    public static final long DEFAULT_RETENTION_MILLIS = TimeUnit.MINUTES.toMillis(5);
+
+    private static final String INFO_SUFFIX = ".trashinfo";
+    private static final String PURGING_PREFIX = ".purging-";
+    private static final String LOCATION_KEY = "location";
+    private static final long MIN_PURGE_INTERVAL_MILLIS = 1000;
+    private static final long MAX_PURGE_INTERVAL_MILLIS = TimeUnit.MINUTES.toMillis(1);
+    private static final int MAX_CACHED_FOLDERS = 4096;
+    private static final AtomicInteger THREAD_NUMBER = new AtomicInteger();
+    private static volatile Trash defaultTrash = new Trash();
+
+    private final Map<Path, Path> trashOfFolders = new ConcurrentHashMap<>();
+    private final Set<Path> trashFolders = ConcurrentHashMap.newKeySet();
+    private final List<Path> givenFolders = new CopyOnWriteArrayList<>();
+    private final AtomicPublisher publisher = AtomicPublisher.create().durable(false);
+    private final Object purgeLock = new Object();
+    private volatile long retentionMillis = DEFAULT_RETENTION_MILLIS;
+    private volatile IOScheduler purgeScheduler = IOScheduler.create();
+    private Thread purger;
+    private boolean closed;
+
+    private Trash() {
+    }
+
+    /**
+     * Creates a trash which keeps items for {@link #DEFAULT_RETENTION_MILLIS} and purges them without a rate limit.
+     *
+     * @return A new trash.
+     */
+    public static Trash create() {
+        return new Trash();
+    }
+
+    /**
+     * Gets the trash which {@link io.github.shuoros.jfiler.JFiler#moveToTrash(String)} uses.
+     *
+     * @return The default trash.
+     */
+    public static Trash getDefault() {
+        return defaultTrash;
+    }
+
+    /**
+     * Sets the trash which JFiler uses from now on.
+     *
+     * @param trash The new default trash.
+     */
+    public static void setDefault(Trash trash) {
+        defaultTrash = Objects.requireNonNull(trash);
+    }
+
+    /**
+     * Sets how long items are kept, and can be restored, before they are purged.
+     *
+     * @param millis Retention time in milliseconds, or 0 to purge items as soon as possible.
+     * @return This trash.
+     */
+    public Trash retention(long millis) {
+        if (millis < 0)
+            throw new IllegalArgumentException("Retention must not be negative but was " + millis);
+        this.retentionMillis = millis;
+        return this;
+    }
+
+    /**
+     * Limits number of files and folders which are deleted per second while purging.
+     *
+     * @param filesPerSecond Maximum number of deletes per second.
+     * @return This trash.
+     */
+    public Trash purgeRate(long filesPerSecond) {
+        if (filesPerSecond < 1)
+            throw new IllegalArgumentException("Purge rate must be at least 1 but was " + filesPerSecond);
+        this.purgeScheduler = IOScheduler.create().iops(IOPriority.BULK, filesPerSecond);
+        return this;
+    }
+
+    /**
+     * Uses given folder as trash of its file store, instead of the default one. It's created when the first
+     * item is trashed in it.
+     *
+     * @param folder Location of trash folder.
+     * @return This trash.
+     */
+    public Trash trashIn(Path folder) {
+        givenFolders.add(folder.toAbsolutePath().normalize());
+        trashOfFolders.clear();
+        return this;
+    }
+
+    /**
+     * Moves a file or folder to trash of its file store by one rename, however big it is.
+     *
+     * @param location Location of file or folder.
+     * @return The trashed item, which can be restored until it's purged.
+     * @throws IOException If location doesn't exist, or it holds its own trash folder, or anything else goes wrong
+     *                     an IOException will be thrown.
+     */
+    public TrashedItem trash(Path location) throws IOException {
+        Path source = location.toAbsolutePath().normalize();
+        if (!Files.exists(source, LinkOption.NOFOLLOW_LINKS))
+            throw new NoSuchFileException(source.toString());
+        Path folder = trashFolderOf(source);
+        if (source.startsWith(folder) || folder.startsWith(source))
+            throw new IOException(source + " can't be trashed in " + folder);
+        Files.createDirectories(folder);
+        trashFolders.add(folder);
+
+        long now = System.currentTimeMillis();
+        String id = now + "-" + UUID.randomUUID();
+        Path info = folder.resolve(id + INFO_SUFFIX);
+        // Info is written first, so a trashed item never loses its original location
+        publisher.write(info, infoOf(source), false);
+        try {
+            Files.move(source, folder.resolve(id), StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(info);
+            throw e;
+        }
+        startPurger();
+        return new TrashedItem(id, source, new Date(now), folder);
+    }
+
+    /**
+     * Lists items which are in trash of the file store of a location, including the ones which have been
+     * trashed by other processes, oldest first.
+     *
+     * @param location Any location on the file store.
+     * @return Trashed items.
+     * @throws IOException If trash folder can't be read an IOException will be thrown.
+     */
+    public List<TrashedItem> items(Path location) throws IOException {
+        Path folder = trashFolderOf(location.toAbsolutePath().normalize());
+        List<TrashedItem> items = new ArrayList<>();
+        if (!Files.isDirectory(folder))
+            return items;
+        trashFolders.add(folder);
+        for (Path entry : entriesOf(folder)) {
+            String name = entry.getFileName().toString();
+            if (!name.endsWith(INFO_SUFFIX))
+                continue;
+            String id = name.substring(0, name.length() - INFO_SUFFIX.length());
+            long trashed = trashedTimeOf(id);
+            Path original = originalLocationOf(entry);
+            if (trashed >= 0 && original != null && Files.exists(folder.resolve(id), LinkOption.NOFOLLOW_LINKS))
+                items.add(new TrashedItem(id, original, new Date(trashed), folder));
+        }
+        items.sort(Comparator.comparing(TrashedItem::getTrashedDate));
+        return items;
+    }
+
+    /**
+     * Moves a trashed item back to its original location.
+     *
+     * @param item Item to restore.
+     * @return Original location of item.
+     * @throws IOException If original location is taken a FileAlreadyExistsException, if item has been purged
+     *                     a NoSuchFileException, or if anything else goes wrong an IOException, will be thrown.
+     */
+    public Path restore(TrashedItem item) throws IOException {
+        Path trashed = item.getTrashFolder().resolve(item.getId());
+        if (Files.exists(item.getLocation(), LinkOption.NOFOLLOW_LINKS))
+            throw new FileAlreadyExistsException(item.getLocation().toString());
+        Files.createDirectories(item.getLocation().getParent());
+        try {
+            // Unlike a plain rename, it never replaces a file which appears at original location meanwhile
+            AtomicPublisher.moveNew(trashed, item.getLocation());
+        } catch (NoSuchFileException e) {
+            throw new NoSuchFileException(trashed.toString(), null, "Item has been purged");
+        }
+        Files.deleteIfExists(item.getTrashFolder().resolve(item.getId() + INFO_SUFFIX));
+        return item.getLocation();
+    }
+
+    /**
+     * Purges items which have been kept for the retention time from every trash folder which this trash has
+     * used, now, on the calling thread. The background purger does this periodically.
+     *
+     * @throws IOException If anything goes wrong in purging an IOException will be thrown.
+     */
+    public void purge() throws IOException {
+        synchronized (purgeLock) {
+            long now = System.currentTimeMillis();
+            for (Path folder : trashFolders)
+                if (Files.isDirectory(folder))
+                    purge(folder, now);
+        }
+    }
+
+    /**
+     * Stops the background purger. Items which are left are purged by the next trash which uses their folder.
+     */
+    @Override
+    public void close() {
+        synchronized (this) {
+            closed = true;
+            if (purger != null)
+                purger.interrupt();
+        }
+    }
+
+    private void purge(Path folder, long now) throws IOException {
+        for (Path entry : entriesOf(folder)) {
+            String name = entry.getFileName().toString();
+            if (name.startsWith(PURGING_PREFIX)) {
+                // Claimed by a purge which was interrupted
+                deleteTree(entry);
+                continue;
+            }
+            String id = name.endsWith(INFO_SUFFIX) ? name.substring(0, name.length() - INFO_SUFFIX.length()) : name;
+            long trashed = trashedTimeOf(id);
+            if (trashed < 0 || now - trashed < retentionMillis)
+                continue;
+
+            Path claimed = folder.resolve(PURGING_PREFIX + id);
+            try {
+                Files.move(folder.resolve(id), claimed, StandardCopyOption.ATOMIC_MOVE);
+            } catch (NoSuchFileException e) {
+                // Restored, purged already, or info of an item which never made it to trash
+            }
+            Files.deleteIfExists(folder.resolve(id + INFO_SUFFIX));
+            if (Files.exists(claimed, LinkOption.NOFOLLOW_LINKS))
+                deleteTree(claimed);
+        }
+    }
+
+    private void deleteTree(Path location) throws IOException {
+        IOScheduler scheduler = purgeScheduler;
+        Files.walkFileTree(location, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attributes) throws IOException {
+                IOScheduler.Permit permit = scheduler.acquire(IOPriority.BULK, file);
+                try {
+                    Files.deleteIfExists(file);
+                } finally {
+                    permit.close();
+                }
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult postVisitDirectory(Path dir, IOException e) throws IOException {
+                if (e != null)
+                    throw e;
+                IOScheduler.Permit permit = scheduler.acquire(IOPriority.BULK, dir);
+                try {
+                    Files.deleteIfExists(dir);
+                } finally {
+                    permit.close();
+                }
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+
+    private synchronized void startPurger() {
+        if (purger != null || closed)
+            return;
+        purger = new Thread(() -> {
+            while (!Thread.currentThread().isInterrupted()) {
+                try {
+                    purge();
+                } catch (IOException | RuntimeException e) {
+                    // Tried again in the next round
+                }
+                try {
+                    Thread.sleep(Math.max(MIN_PURGE_INTERVAL_MILLIS, Math.min(MAX_PURGE_INTERVAL_MILLIS, retentionMillis / 4)));
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        }, "jfiler-trash-" + THREAD_NUMBER.incrementAndGet());
+        purger.setDaemon(true);
+        purger.start();
+    }
+
+    private Path trashFolderOf(Path location) throws IOException {
+        Path parent = location.getParent() != null ? location.getParent() : location;
+        Path cached = trashOfFolders.get(parent);
+        if (cached != null)
+            return cached;
+
+        // Finding a file store may read the whole mount table, so it's done once per folder
+        FileStore store = storeOf(parent);
+        Path trash = null;
+        for (Path folder : givenFolders)
+            if (store.equals(storeOf(folder))) {
+                trash = folder;
+                break;
+            }
+        if (trash == null) {
+            Path home = Paths.get(System.getProperty("user.home")).toAbsolutePath();
+            if (Files.isWritable(home) && store.equals(storeOf(home)))
+                trash = home.resolve(FOLDER_NAME);
+        }
+        if (trash == null) {
+            Path top = parent;
+            for (Path folder = parent.getParent(); folder != null && store.equals(storeOf(folder)); folder = folder.getParent())
+                if (Files.isWritable(folder))
+                    top = folder;
+            trash = top.resolve(FOLDER_NAME);
+        }
+        if (trashOfFolders.size() >= MAX_CACHED_FOLDERS)
+            trashOfFolders.clear();
+        trashOfFolders.put(parent, trash);
+        return trash;
+    }
+
+    private static FileStore storeOf(Path location) throws IOException {
+        Path existing = location;
+        while (existing != null && !Files.exists(existing))
+            existing = existing.getParent();
+        if (existing == null)
+            throw new NoSuchFileException(location.toString());
+        return Files.getFileStore(existing);
+    }
+
+    private static List<Path> entriesOf(Path folder) throws IOException {
+        List<Path> entries = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(folder)) {
+            stream.forEach(entries::add);
+        }
+        return entries;
+    }
+
+    private static long trashedTimeOf(String id) {
+        int dash = id.indexOf('-');
+        try {
+            return dash > 0 ? Long.parseLong(id.substring(0, dash)) : -1;
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private static byte[] infoOf(Path location) throws IOException {
+        Properties info = new Properties();
+        info.setProperty(LOCATION_KEY, location.toString());
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        info.store(bytes, null);
+        return bytes.toByteArray();
+    }
+
+    private static Path originalLocationOf(Path info) {
+        Properties properties = new Properties();
+        try (InputStream in = Files.newInputStream(info)) {
+            properties.load(in);
+        } catch (IOException | IllegalArgumentException e) {
+            return null;
+        }
+        String location = properties.getProperty(LOCATION_KEY);
+        return location == null ? null : Paths.get(location);
+    }
+
+}
@@ -0,0 +1,73 @@
+package io.github.shuoros.jfiler.trash;
+
+import java.nio.file.Path;
+import java.util.Date;
+
+/**
+ * A file or folder which has been moved to a {@link io.github.shuoros.jfiler.trash.Trash} and can be restored
+ * until it's purged.
+ *
+ * @author Soroush Shemshadi
+ * @version 1.0.0
+ * @since 1.2.0
+ */
+public class TrashedItem {
+
+    private final String id;
+    private final Path location;
+    private final Date trashedDate;
+    private final Path trashFolder;
+
+    TrashedItem(String id, Path location, Date trashedDate, Path trashFolder) {
+        this.id = id;
+        this.location = location;
+        this.trashedDate = trashedDate;
+        this.trashFolder = trashFolder;
+    }
+
+    /**
+     * Gets id of item, which is unique in its trash folder.
+     *
+     * @return Id of item.
+     */
+    public String getId() {
+        return id;
+    }
+
+    /**
+     * Gets location which item was in before it was trashed, and is restored to.
+     *
+     * @return Original location of item.
+     */
+    public Path getLocation() {
+        return location;
+    }
+
+    /**
+     * Gets when item was trashed.
+     *
+     * @return Date of trashing.
+     */
+    public Date getTrashedDate() {
+        return trashedDate;
+    }
+
+    /**
+     * Gets trash folder which item is kept in.
+     *
+     * @return Location of trash folder.
+     */
+    public Path getTrashFolder() {
+        return trashFolder;
+    }
+
+    @Override
+    public String toString() {
+        return "TrashedItem{" +
+                "id='" + id + '\'' +
+                ", location=" + location +
+                ", trashed=" + trashedDate +
+                '}';
+    }
+
+}
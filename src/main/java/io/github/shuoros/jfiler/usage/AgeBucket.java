@@ -0,0 +1,59 @@
+package io.github.shuoros.jfiler.usage;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Enumeration of buckets which files fall in by time since their last modification, in
+ * {@link io.github.shuoros.jfiler.usage.DiskUsageReport#getAges()}.
+ *
+ * @author Soroush Shemshadi
+ * @version 1.0.0
+ * @since 1.2.0
+ */
+public enum AgeBucket {
+
+    /**
+     * Modified in the last day.
+     */
+    DAY(TimeUnit.DAYS.toMillis(1)),
+
+    /**
+     * Modified in the last week, but not in the last day.
+     */
+    WEEK(TimeUnit.DAYS.toMillis(7)),
+
+    /**
+     * Modified in the last 30 days, but not in the last week.
+     */
+    MONTH(TimeUnit.DAYS.toMillis(30)),
+
+    /**
+     * Modified in the last 365 days, but not in the last 30 days.
+     */
+    YEAR(TimeUnit.DAYS.toMillis(365)),
+
+    /**
+     * Not modified in the last 365 days.
+     */
+    OLDER(Long.MAX_VALUE);
+
+    private final long maxAgeMillis;
+
+    AgeBucket(long maxAgeMillis) {
+        this.maxAgeMillis = maxAgeMillis;
+    }
+
+    /**
+     * Finds bucket of a file by its age.
+     *
+     * @param ageMillis Time since last modification of file in milliseconds.
+     * @return Bucket which file falls in.
+     */
+    public static AgeBucket of(long ageMillis) {
+        for (AgeBucket bucket : values())
+            if (ageMillis < bucket.maxAgeMillis)
+                return bucket;
+        return OLDER;
+    }
+
+}
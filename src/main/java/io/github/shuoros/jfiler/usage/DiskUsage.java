@@ -0,0 +1,359 @@
+package io.github.shuoros.jfiler.usage;
+
+import io.github.shuoros.jfiler.file.Folder;
+import io.github.shuoros.jfiler.file.Type;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryIteratorException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Finds what takes space under a folder in one parallel walk, like {@code du}. The walk produces total usage of
+ * each folder down to a depth, the largest files and folders, and histograms of files by type and by age, all as
+ * a {@link io.github.shuoros.jfiler.usage.DiskUsageReport}.
+ * <p>
+ * Memory of a walk doesn't grow with number of files: largest files and folders are kept in heaps of fixed size,
+ * histograms have a fixed number of buckets, and usage of folders deeper than the asked depth is only added to
+ * their parents. So volumes with tens of millions of files can be analyzed:
+ * <pre>{@code
+ * DiskUsageReport report = DiskUsage.create().top(50).depth(2).analyze(Paths.get("/data"));
+ * report.writeJson(writer);
+ * }</pre>
+ * Symbolic links are not followed, and files and folders which can't be read are counted as errors.
+ * <p>
+ * Walks block on the file system, so by default they run on a pool of their own instead of the common pool,
+ * where they would hold up parallel streams and other users of it on a slow or huge volume.
+ *
+ * @author Soroush Shemshadi
+ * @version 1.0.0
+ * @since 1.2.0
+ */
+public class DiskUsage {
+
+    /**
+     * Number of largest files and folders which are reported by default.
+     */
+    public static final int DEFAULT_TOP = 20;
+
+    /**
+     * Number of distinct unknown extensions which are counted on their own, beyond which they are counted
+     * together.
+     */
+    public static final int MAX_EXTENSIONS = 256;
+
+    private static final String NO_EXTENSION = "(none)";
+    private static final String OTHER_EXTENSIONS = "(other)";
+    private static final AtomicInteger THREAD_NUMBER = new AtomicInteger();
+
+    private int top = DEFAULT_TOP;
+    private int depth = 1;
+    private ForkJoinPool pool;
+
+    private DiskUsage() {
+    }
+
+    /**
+     * Creates an analyzer which reports the {@link #DEFAULT_TOP} largest files and folders, and usage of each
+     * child folder of the analyzed folder.
+     *
+     * @return A new analyzer.
+     */
+    public static DiskUsage create() {
+        return new DiskUsage();
+    }
+
+    /**
+     * Sets number of largest files and folders which are reported.
+     *
+     * @param top Number of largest files and of largest folders.
+     * @return This analyzer.
+     */
+    public DiskUsage top(int top) {
+        if (top < 0)
+            throw new IllegalArgumentException("Top must not be negative but was " + top);
+        this.top = top;
+        return this;
+    }
+
+    /**
+     * Sets how deep under the analyzed folder usage of each folder is reported. Deeper folders still count in
+     * their parents and in largest folders.
+     *
+     * @param depth 0 for only the analyzed folder, 1 for it and its children, and so on.
+     * @return This analyzer.
+     */
+    public DiskUsage depth(int depth) {
+        if (depth < 0)
+            throw new IllegalArgumentException("Depth must not be negative but was " + depth);
+        this.depth = depth;
+        return this;
+    }
+
+    /**
+     * Sets the pool which folders are walked in parallel on. By default it's a pool which is shared by walks and
+     * has as many threads as processors.
+     *
+     * @param pool Pool to walk on.
+     * @return This analyzer.
+     */
+    public DiskUsage pool(ForkJoinPool pool) {
+        this.pool = Objects.requireNonNull(pool);
+        return this;
+    }
+
+    /**
+     * Analyzes usage of a folder.
+     *
+     * @param folder Folder to analyze.
+     * @return Report of usage.
+     * @throws IOException If folder can't be read an IOException will be thrown.
+     */
+    public DiskUsageReport analyze(Folder folder) throws IOException {
+        return analyze(folder.getLocation());
+    }
+
+    /**
+     * Analyzes usage of a folder.
+     *
+     * @param folder Location of folder to analyze.
+     * @return Report of usage.
+     * @throws IOException If folder can't be read an IOException will be thrown.
+     */
+    public DiskUsageReport analyze(Path folder) throws IOException {
+        if (!Files.isDirectory(folder, LinkOption.NOFOLLOW_LINKS))
+            throw new IOException(folder + " is not a folder");
+        Walk walk = new Walk(System.currentTimeMillis());
+        long[] total;
+        try {
+            total = (pool != null ? pool : DefaultPool.POOL).invoke(new FolderTask(walk, folder, 0));
+        } catch (UncheckedIOException e) {
+            Throwable cause = e.getCause();
+            while (cause instanceof UncheckedIOException)
+                cause = cause.getCause();
+            throw (IOException) cause;
+        }
+        return walk.report(folder, total);
+    }
+
+    private static String typeOf(Path file) {
+        String name = file.getFileName().toString();
+        int dot = name.lastIndexOf('.');
+        if (dot <= 0 || dot == name.length() - 1)
+            return NO_EXTENSION;
+        String extension = name.substring(dot + 1);
+        Type type = Type.type(extension);
+        return type != null ? type.name() : extension.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Pool of walks which don't have one of their own, created when it's first needed.
+     */
+    private static class DefaultPool {
+
+        private static final ForkJoinPool POOL = new ForkJoinPool(Runtime.getRuntime().availableProcessors(), pool -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            thread.setName("jfiler-usage-" + THREAD_NUMBER.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }, null, false);
+
+    }
+
+    /**
+     * Totals of files which fall in a bucket of a histogram.
+     */
+    private static class Counter {
+
+        private final LongAdder size = new LongAdder();
+        private final LongAdder files = new LongAdder();
+
+        void add(long bytes) {
+            size.add(bytes);
+            files.increment();
+        }
+
+        Usage toUsage() {
+            return new Usage(size.sum(), files.sum(), 0);
+        }
+
+    }
+
+    /**
+     * Largest entries which have been seen so far, in a min heap of fixed size. Entries which are not bigger than
+     * the smallest one in a full heap are rejected without taking the lock.
+     */
+    private static class TopEntries {
+
+        private final int capacity;
+        private final PriorityQueue<DiskUsageReport.Entry> heap;
+        private volatile long floor = -1;
+
+        TopEntries(int capacity) {
+            this.capacity = capacity;
+            this.heap = new PriorityQueue<>(Math.max(capacity, 1),//
+                    Comparator.comparingLong(DiskUsageReport.Entry::getSize));
+        }
+
+        void offer(Path location, long size) {
+            if (capacity == 0 || size <= floor)
+                return;
+            synchronized (heap) {
+                if (heap.size() < capacity)
+                    heap.add(new DiskUsageReport.Entry(location, size));
+                else if (size > heap.peek().getSize()) {
+                    heap.poll();
+                    heap.add(new DiskUsageReport.Entry(location, size));
+                }
+                if (heap.size() == capacity)
+                    floor = heap.peek().getSize();
+            }
+        }
+
+        List<DiskUsageReport.Entry> largestFirst() {
+            List<DiskUsageReport.Entry> entries;
+            synchronized (heap) {
+                entries = new ArrayList<>(heap);
+            }
+            entries.sort(Comparator.comparingLong(DiskUsageReport.Entry::getSize).reversed());
+            return Collections.unmodifiableList(entries);
+        }
+
+    }
+
+    /**
+     * Everything which is collected by one walk, shared by all of its tasks.
+     */
+    private class Walk {
+
+        private final long now;
+        private final TopEntries largestFiles = new TopEntries(top);
+        private final TopEntries largestFolders = new TopEntries(top);
+        private final Map<Path, Usage> folders = new ConcurrentHashMap<>();
+        private final Map<String, Counter> types = new ConcurrentHashMap<>();
+        private final Counter[] ages = new Counter[AgeBucket.values().length];
+        private final LongAdder errors = new LongAdder();
+
+        Walk(long now) {
+            this.now = now;
+            for (int i = 0; i < ages.length; i++)
+                ages[i] = new Counter();
+        }
+
+        void file(Path file, BasicFileAttributes attributes) {
+            long size = attributes.size();
+            largestFiles.offer(file, size);
+            String type = typeOf(file);
+            Counter counter = types.get(type);
+            if (counter == null)
+                counter = types.size() < MAX_EXTENSIONS + Type.values().length//
+                        ? types.computeIfAbsent(type, key -> new Counter())//
+                        : types.computeIfAbsent(OTHER_EXTENSIONS, key -> new Counter());
+            counter.add(size);
+            ages[AgeBucket.of(now - attributes.lastModifiedTime().toMillis()).ordinal()].add(size);
+        }
+
+        void folder(Path folder, int level, long[] usage) {
+            if (level > 0)
+                largestFolders.offer(folder, usage[0]);
+            if (level <= depth)
+                folders.put(folder, new Usage(usage[0], usage[1], usage[2]));
+        }
+
+        DiskUsageReport report(Path root, long[] total) {
+            List<Map.Entry<String, Counter>> byType = new ArrayList<>(types.entrySet());
+            byType.sort(Comparator.comparingLong((Map.Entry<String, Counter> entry) -> entry.getValue().size.sum())//
+                    .reversed());
+            Map<String, Usage> typeUsage = new LinkedHashMap<>();
+            for (Map.Entry<String, Counter> entry : byType)
+                typeUsage.put(entry.getKey(), entry.getValue().toUsage());
+
+            Map<AgeBucket, Usage> ageUsage = new EnumMap<>(AgeBucket.class);
+            for (AgeBucket bucket : AgeBucket.values())
+                ageUsage.put(bucket, ages[bucket.ordinal()].toUsage());
+
+            return new DiskUsageReport(root, new Usage(total[0], total[1], total[2]),//
+                    Collections.unmodifiableMap(new TreeMap<>(folders)), largestFiles.largestFirst(),//
+                    largestFolders.largestFirst(), Collections.unmodifiableMap(typeUsage),//
+                    Collections.unmodifiableMap(ageUsage), errors.sum());
+        }
+
+    }
+
+    /**
+     * Walks a folder, forking a task for each child folder, and returns its size, files and folders.
+     */
+    private static class FolderTask extends RecursiveTask<long[]> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final Walk walk;
+        private final Path location;
+        private final int level;
+
+        FolderTask(Walk walk, Path location, int level) {
+            this.walk = walk;
+            this.location = location;
+            this.level = level;
+        }
+
+        @Override
+        protected long[] compute() {
+            long[] usage = new long[3];
+            List<FolderTask> children = new ArrayList<>();
+            try (DirectoryStream<Path> stream = Files.newDirectoryStream(location)) {
+                for (Path child : stream) {
+                    BasicFileAttributes attributes;
+                    try {
+                        attributes = Files.readAttributes(child, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+                    } catch (IOException e) {
+                        walk.errors.increment();
+                        continue;
+                    }
+                    if (attributes.isDirectory()) {
+                        FolderTask task = new FolderTask(walk, child, level + 1);
+                        task.fork();
+                        children.add(task);
+                    } else {
+                        usage[0] += attributes.size();
+                        usage[1]++;
+                        walk.file(child, attributes);
+                    }
+                }
+            } catch (IOException e) {
+                // The analyzed folder itself must be readable, its children are only counted as errors
+                if (level == 0)
+                    throw new UncheckedIOException(e);
+                walk.errors.increment();
+            } catch (DirectoryIteratorException e) {
+                if (level == 0)
+                    throw new UncheckedIOException(e.getCause());
+                walk.errors.increment();
+            } catch (RuntimeException e) {
+                walk.errors.increment();
+            }
+
+            for (FolderTask child : children) {
+                long[] childUsage = child.join();
+                usage[0] += childUsage[0];
+                usage[1] += childUsage[1];
+                usage[2] += childUsage[2] + 1;
+            }
+            walk.folder(location, level, usage);
+            return usage;
+        }
+
+    }
+
+}
@@ -0,0 +1,248 @@
+package io.github.shuoros.jfiler.usage;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * What takes space under a folder, as it was found by one {@link io.github.shuoros.jfiler.usage.DiskUsage} walk.
+ * Sizes are apparent sizes of files, which symbolic links are not followed for.
+ *
+ * @author Soroush Shemshadi
+ * @version 1.0.0
+ * @since 1.2.0
+ */
+public class DiskUsageReport {
+
+    private final Path root;
+    private final Usage total;
+    private final Map<Path, Usage> folders;
+    private final List<Entry> largestFiles;
+    private final List<Entry> largestFolders;
+    private final Map<String, Usage> types;
+    private final Map<AgeBucket, Usage> ages;
+    private final long errors;
+
+    DiskUsageReport(Path root, Usage total, Map<Path, Usage> folders, List<Entry> largestFiles,//
+                    List<Entry> largestFolders, Map<String, Usage> types, Map<AgeBucket, Usage> ages, long errors) {
+        this.root = root;
+        this.total = total;
+        this.folders = folders;
+        this.largestFiles = largestFiles;
+        this.largestFolders = largestFolders;
+        this.types = types;
+        this.ages = ages;
+        this.errors = errors;
+    }
+
+    /**
+     * Gets location of the folder which has been analyzed.
+     *
+     * @return Location of folder.
+     */
+    public Path getRoot() {
+        return root;
+    }
+
+    /**
+     * Gets usage of the whole folder.
+     *
+     * @return Usage of folder.
+     */
+    public Usage getTotal() {
+        return total;
+    }
+
+    /**
+     * Gets usage of each folder down to the depth which analyzer was asked for, in order of locations.
+     *
+     * @return Usage of folders by their locations.
+     */
+    public Map<Path, Usage> getFolders() {
+        return folders;
+    }
+
+    /**
+     * Gets largest files, largest first.
+     *
+     * @return Largest files.
+     */
+    public List<Entry> getLargestFiles() {
+        return largestFiles;
+    }
+
+    /**
+     * Gets largest folders under the analyzed folder, by total size of their content, largest first.
+     *
+     * @return Largest folders.
+     */
+    public List<Entry> getLargestFolders() {
+        return largestFolders;
+    }
+
+    /**
+     * Gets usage of files by their type. Files of known types are grouped by name of their
+     * {@link io.github.shuoros.jfiler.file.Type}, others by their lower case extension, "(none)" for files
+     * without extension, and "(other)" once there are too many distinct extensions.
+     *
+     * @return Usage of files by type, largest first.
+     */
+    public Map<String, Usage> getTypes() {
+        return types;
+    }
+
+    /**
+     * Gets usage of files by time since their last modification.
+     *
+     * @return Usage of files by age.
+     */
+    public Map<AgeBucket, Usage> getAges() {
+        return ages;
+    }
+
+    /**
+     * Gets number of files and folders which couldn't be read, and are not counted.
+     *
+     * @return Number of errors.
+     */
+    public long getErrors() {
+        return errors;
+    }
+
+    /**
+     * Writes this report as a JSON object.
+     *
+     * @param out Where to write JSON in.
+     * @throws IOException If anything goes wrong in writing an IOException will be thrown.
+     */
+    public void writeJson(Appendable out) throws IOException {
+        out.append("{\"root\":");
+        string(out, root.toString());
+        out.append(",\"total\":");
+        usage(out, total);
+        out.append(",\"errors\":").append(Long.toString(errors));
+
+        out.append(",\"folders\":[");
+        String separator = "";
+        for (Map.Entry<Path, Usage> folder : folders.entrySet()) {
+            out.append(separator).append("{\"location\":");
+            string(out, folder.getKey().toString());
+            out.append(",\"usage\":");
+            usage(out, folder.getValue());
+            out.append('}');
+            separator = ",";
+        }
+        out.append("],\"largestFiles\":");
+        entries(out, largestFiles);
+        out.append(",\"largestFolders\":");
+        entries(out, largestFolders);
+
+        out.append(",\"types\":{");
+        separator = "";
+        for (Map.Entry<String, Usage> type : types.entrySet()) {
+            out.append(separator);
+            string(out, type.getKey());
+            out.append(':');
+            usage(out, type.getValue());
+            separator = ",";
+        }
+        out.append("},\"ages\":{");
+        separator = "";
+        for (Map.Entry<AgeBucket, Usage> age : ages.entrySet()) {
+            out.append(separator);
+            string(out, age.getKey().name());
+            out.append(':');
+            usage(out, age.getValue());
+            separator = ",";
+        }
+        out.append("}}");
+    }
+
+    /**
+     * Gets this report as a JSON object.
+     *
+     * @return JSON of report.
+     */
+    public String toJson() {
+        StringBuilder json = new StringBuilder();
+        try {
+            writeJson(json);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return json.toString();
+    }
+
+    private static void entries(Appendable out, List<Entry> entries) throws IOException {
+        out.append('[');
+        String separator = "";
+        for (Entry entry : entries) {
+            out.append(separator).append("{\"location\":");
+            string(out, entry.getLocation().toString());
+            out.append(",\"size\":").append(Long.toString(entry.getSize())).append('}');
+            separator = ",";
+        }
+        out.append(']');
+    }
+
+    private static void usage(Appendable out, Usage usage) throws IOException {
+        out.append("{\"size\":").append(Long.toString(usage.getSize()))//
+                .append(",\"files\":").append(Long.toString(usage.getFiles()))//
+                .append(",\"folders\":").append(Long.toString(usage.getFolders())).append('}');
+    }
+
+    private static void string(Appendable out, String value) throws IOException {
+        out.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\')
+                out.append('\\').append(c);
+            else if (c < 0x20)
+                out.append(String.format("\\u%04x", (int) c));
+            else
+                out.append(c);
+        }
+        out.append('"');
+    }
+
+    /**
+     * A file or folder and its size.
+     */
+    public static class Entry {
+
+        private final Path location;
+        private final long size;
+
+        Entry(Path location, long size) {
+            this.location = location;
+            this.size = size;
+        }
+
+        /**
+         * Gets location of file or folder.
+         *
+         * @return Location of file or folder.
+         */
+        public Path getLocation() {
+            return location;
+        }
+
+        /**
+         * Gets size of file, or total size of content of folder, in bytes.
+         *
+         * @return Size in bytes.
+         */
+        public long getSize() {
+            return size;
+        }
+
+        @Override
+        public String toString() {
+            return location + "=" + size;
+        }
+
+    }
+
+}
@@ -0,0 +1,59 @@
+package io.github.shuoros.jfiler.usage;
+
+/**
+ * Space which a group of files takes: total size of them, and how many files and folders are in it.
+ *
+ * @author Soroush Shemshadi
+ * @version 1.0.0
+ * @see io.github.shuoros.jfiler.usage.DiskUsageReport
+ * @since 1.2.0
+ */
+public class Usage {
+
+    private final long size;
+    private final long files;
+    private final long folders;
+
+    Usage(long size, long files, long folders) {
+        this.size = size;
+        this.files = files;
+        this.folders = folders;
+    }
+
+    /**
+     * Gets total size of files in bytes.
+     *
+     * @return Total size in bytes.
+     */
+    public long getSize() {
+        return size;
+    }
+
+    /**
+     * Gets number of files.
+     *
+     * @return Number of files.
+     */
+    public long getFiles() {
+        return files;
+    }
+
+    /**
+     * Gets number of folders, not counting the folder itself. It's 0 for histograms of files.
+     *
+     * @return Number of folders.
+     */
+    public long getFolders() {
+        return folders;
+    }
+
+    @Override
+    public String toString() {
+        return "Usage{" +
+                "size=" + size +
+                ", files=" + files +
+                ", folders=" + folders +
+                '}';
+    }
+
+}
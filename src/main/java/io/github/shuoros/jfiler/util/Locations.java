@@ -0,0 +1,89 @@
+package io.github.shuoros.jfiler.util;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * A utility class to normalise and take apart locations without regexes or splitting them into arrays.
+ * JFiler works with "/" as its separator on every OS, so every location which comes in from outside
+ * goes through {@link #normalize(String)} once.
+ *
+ * @author Soroush Shemshadi
+ * @version 1.0.0
+ * @see <a href="https://github.com/shuoros/JFiler">JFiler</a>
+ * @since 1.2.0
+ */
+public final class Locations {
+
+    private static final char SEPARATOR = '/';
+    private static final char WINDOWS_SEPARATOR = '\\';
+
+    private Locations() {
+    }
+
+    /**
+     * Replaces windows separators "\" of given location with "/". If location has no windows separator
+     * the same string is returned and nothing is allocated.
+     *
+     * @param location A location.
+     * @return Location with "/" as its separator.
+     */
+    public static String normalize(String location) {
+        if (location.indexOf(WINDOWS_SEPARATOR) < 0)
+            return location;
+        return location.replace(WINDOWS_SEPARATOR, SEPARATOR);
+    }
+
+    /**
+     * Converts given location to a {@link java.nio.file.Path} after normalising it.
+     *
+     * @param location A location.
+     * @return Path of location.
+     */
+    public static Path toPath(String location) {
+        return Paths.get(normalize(location));
+    }
+
+    /**
+     * Gets name of the last file or folder in given location.
+     *
+     * @param location A normalised location.
+     * @return Name of file or folder which location points to.
+     */
+    public static String nameOf(String location) {
+        int end = endOfName(location);
+        return location.substring(location.lastIndexOf(SEPARATOR, end - 1) + 1, end);
+    }
+
+    /**
+     * Replaces name of the last file or folder in given location with a new name.
+     *
+     * @param location A normalised location.
+     * @param newName  New name of file or folder.
+     * @return Location of file or folder with its new name.
+     */
+    public static String rename(String location, String newName) {
+        int end = endOfName(location);
+        return location.substring(0, location.lastIndexOf(SEPARATOR, end - 1) + 1).concat(newName);
+    }
+
+    /**
+     * Determines if given location is a root or a direct child of a root, which means going up from it
+     * reaches the list of roots.
+     *
+     * @param location A location.
+     * @return True if parent of location is a root or location has no parent and false if not.
+     */
+    public static boolean isRootOrChildOfRoot(Path location) {
+        Path parent = location.getParent();
+        return parent == null || parent.getParent() == null;
+    }
+
+    private static int endOfName(String location) {
+        int end = location.length();
+        while (end > 1 && location.charAt(end - 1) == SEPARATOR)
+            end--;
+        return end;
+    }
+
+}
@@ -0,0 +1,61 @@
+package io.github.shuoros.jfiler.util;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+
+/**
+ * A utility class to release memory-mapped and direct buffers as soon as they are not needed instead of
+ * waiting for the garbage collector, which may keep gigabytes of address space mapped for a long time.
+ * <p>
+ * A released buffer and every view of it must never be touched again, doing so can crash the JVM.
+ *
+ * @author Soroush Shemshadi
+ * @version 1.0.0
+ * @see <a href="https://github.com/shuoros/JFiler">JFiler</a>
+ * @since 1.2.0
+ */
+public final class MappedBuffers {
+
+    private static final Object UNSAFE;
+    private static final Method INVOKE_CLEANER;
+
+    static {
+        Object unsafe = null;
+        Method invokeCleaner = null;
+        try {
+            Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+            Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+            theUnsafe.setAccessible(true);
+            unsafe = theUnsafe.get(null);
+            invokeCleaner = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            // Not available on this JVM, buffers are released by garbage collector
+        }
+        UNSAFE = unsafe;
+        INVOKE_CLEANER = invokeCleaner;
+    }
+
+    private MappedBuffers() {
+    }
+
+    /**
+     * Releases the memory or mapping behind the given direct buffer right now. It does nothing for
+     * heap buffers or if this JVM doesn't let us release buffers.
+     *
+     * @param buffer A buffer which was returned by {@link java.nio.channels.FileChannel#map} or
+     *               {@link ByteBuffer#allocateDirect(int)}, not a view of it.
+     * @return True if buffer has been released and false if it's left for garbage collector.
+     */
+    public static boolean release(ByteBuffer buffer) {
+        if (buffer == null || !buffer.isDirect() || INVOKE_CLEANER == null)
+            return false;
+        try {
+            INVOKE_CLEANER.invoke(UNSAFE, buffer);
+            return true;
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return false;
+        }
+    }
+
+}
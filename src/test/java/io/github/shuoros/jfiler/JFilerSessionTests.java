@@ -0,0 +1,174 @@
+package io.github.shuoros.jfiler;
+
+import io.github.shuoros.jfiler.exception.LocationNotFoundException;
+import io.github.shuoros.jfiler.exception.NoBackwardHistoryException;
+import io.github.shuoros.jfiler.file.File;
+import io.github.shuoros.jfiler.file.Folder;
+import org.junit.jupiter.api.*;
+
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+public class JFilerSessionTests {
+
+    private static String resource;
+    private JFilerSessions sessions;
+    private JFilerSession session;
+
+    @BeforeAll
+    public static void beforeAll() throws Exception {
+        resource = Paths.get(//
+                Objects.requireNonNull(//
+                        JFilerSessionTests.class.getResource("/")).toURI()).toFile().getPath();
+    }
+
+    @BeforeEach
+    public void beforeEach() {
+        sessions = JFilerSessions.create();
+        session = sessions.open(resource + "/JFilerCreatedSuccessfully");
+    }
+
+    @Test
+    @Order(1)
+    public void sessionMustNavigateLikeJFiler() {
+        // When
+        session.openFolder("/move");
+
+        // Then
+        assertEquals(openFolder("JFilerCreatedSuccessfully/move"), session.getCurrent());
+        assertEquals(openFolder("JFilerCreatedSuccessfully"), session.getRear());
+        assertEquals(List.of(openFile("JFilerCreatedSuccessfully/move/nothing")), session.getList());
+
+        // When
+        session.goBackward();
+
+        // Then
+        assertEquals(openFolder("JFilerCreatedSuccessfully"), session.getCurrent());
+        assertEquals(openFolder("JFilerCreatedSuccessfully/move"), session.getFront());
+
+        // When
+        session.goForward();
+        session.goUp();
+
+        // Then
+        assertEquals(openFolder("JFilerCreatedSuccessfully"), session.getCurrent());
+        assertEquals(openFolder("JFilerCreatedSuccessfully/move"), session.getFront());
+        assertThrows(LocationNotFoundException.class, () -> session.goUp());
+    }
+
+    @Test
+    @Order(2)
+    public void sessionsMustShareListingsAndLocations() {
+        // Given
+        JFilerSession other = sessions.open(resource + "/JFilerCreatedSuccessfully");
+
+        // When
+        session.openFolder("/move");
+        other.openFolder("/move");
+
+        // Then
+        assertSame(session.getList(), other.getList());
+        assertSame(session.getCurrent().getLocation(), other.getCurrent().getLocation());
+    }
+
+    @Test
+    @Order(3)
+    public void historyOfSessionMustBeBounded() {
+        // Given
+        session = new JFilerSessions(3, 16).open(resource + "/JFilerCreatedSuccessfully");
+
+        // When
+        for (int i = 0; i < 5; i++)
+            session.openFolder(i % 2 == 0 ? "/move" : "/");
+        session.goBackward();
+        session.goBackward();
+
+        // Then
+        assertThrows(NoBackwardHistoryException.class, () -> session.goBackward());
+    }
+
+    @Test
+    @Order(4)
+    public void sessionMustStayConsistentWhenItIsNavigatedConcurrently() throws Exception {
+        // Given
+        int threads = 8;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+
+        // When
+        for (int i = 0; i < threads; i++)
+            futures.add(pool.submit(() -> {
+                start.await();
+                for (int j = 0; j < 1000; j++) {
+                    session.openFolder("/move");
+                    session.goBackward();
+                }
+                return null;
+            }));
+        start.countDown();
+        for (Future<?> future : futures)
+            future.get(30, TimeUnit.SECONDS);
+        pool.shutdown();
+
+        // Then
+        assertEquals(openFolder("JFilerCreatedSuccessfully"), session.getCurrent());
+    }
+
+    @Test
+    @Order(5)
+    public void onlyOneOfConcurrentPastesMustPasteClipBoard() throws Exception {
+        // Given
+        File copied = openFile("JFilerCreatedSuccessfully/move/file.txt");
+        session.copy("/file.txt");
+
+        // When
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < 4; i++)
+            futures.add(pool.submit(() -> {
+                session.paste("/move/file.txt");
+                return null;
+            }));
+        for (Future<?> future : futures)
+            future.get(30, TimeUnit.SECONDS);
+        pool.shutdown();
+
+        // Then
+        assertTrue(copied.exists());
+        assertNull(session.getClipBoard());
+        assertEquals("NaN", session.pasteOperation());
+
+        // After
+        session.delete("/move/file.txt");
+    }
+
+    @Test
+    @Order(6)
+    public void sessionMustNotLeaveItsHome() {
+        // When
+        session.openFolder("/move/../move");
+
+        // Then
+        assertEquals(openFolder("JFilerCreatedSuccessfully/move"), session.getCurrent());
+        assertThrows(LocationNotFoundException.class, () -> session.openFolder("../"));
+        assertThrows(LocationNotFoundException.class, () -> session.delete("/move/../../file.txt"));
+        assertThrows(LocationNotFoundException.class, () -> session.copy("../../"));
+        assertEquals(openFolder("JFilerCreatedSuccessfully/move"), session.getCurrent());
+    }
+
+    private File openFile(String location) {
+        return new File(Paths.get(resource + "/" + location));
+    }
+
+    private Folder openFolder(String location) {
+        return new Folder(Paths.get(resource + "/" + location));
+    }
+
+}
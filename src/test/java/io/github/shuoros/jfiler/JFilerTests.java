@@ -1,20 +1,29 @@
 package io.github.shuoros.jfiler;
 
 import io.github.shuoros.jcompressor.compress.ZipCompressor;
+import io.github.shuoros.jfiler.archive.ArchiveFolder;
 import io.github.shuoros.jfiler.exception.CannotSearchInFileException;
 import io.github.shuoros.jfiler.exception.LocationNotFoundException;
 import io.github.shuoros.jfiler.exception.NoBackwardHistoryException;
 import io.github.shuoros.jfiler.exception.NoForwardHistoryException;
 import io.github.shuoros.jfiler.file.File;
 import io.github.shuoros.jfiler.file.Folder;
+import io.github.shuoros.jfiler.file.Type;
+import io.github.shuoros.jfiler.operation.OperationResult;
+import io.github.shuoros.jfiler.search.SearchQuery;
 import io.github.shuoros.jfiler.util.SystemOS;
 import org.junit.jupiter.api.*;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
 import java.nio.file.Paths;
+import java.nio.file.attribute.FileTime;
 import java.util.List;
 import java.util.Objects;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -561,6 +570,397 @@ public class JFilerTests {
         assertFalse(deletedFile.exists());
     }
 
+    @Test
+    @Order(39)
+    public void whenJFilerDeletesAllLocationsTheyMustBeDeletedAndMissingOnesMustBeSkipped() throws IOException {
+        // Given
+        File first = openFile("JFilerCreatedSuccessfully/move/first.bulk");
+        File second = openFile("JFilerCreatedSuccessfully/move/second.bulk");
+        File missing = openFile("JFilerCreatedSuccessfully/move/missing.bulk");
+        JFiler.createNewFile(first.getPath());
+        JFiler.createNewFile(second.getPath());
+
+        // When
+        List<OperationResult> results = JFiler.deleteAll(//
+                List.of(first.getPath(), missing.getPath(), second.getPath()), 2);
+
+        // Then
+        assertFalse(first.exists());
+        assertFalse(second.exists());
+        assertEquals(OperationResult.Status.SUCCESS, results.get(0).getStatus());
+        assertEquals(OperationResult.Status.SKIPPED, results.get(1).getStatus());
+        assertEquals(OperationResult.Status.SUCCESS, results.get(2).getStatus());
+    }
+
+    @Test
+    @Order(40)
+    public void whenJFilerCopiesAllLocationsInToAFolderTheyMustBeCopiedAndFailuresMustNotStopIt() throws IOException {
+        // Given
+        File first = openFile("JFilerCreatedSuccessfully/first.bulk");
+        File second = openFile("JFilerCreatedSuccessfully/second.bulk");
+        File copiedFirst = openFile("JFilerCreatedSuccessfully/move/first.bulk");
+        File copiedSecond = openFile("JFilerCreatedSuccessfully/move/second.bulk");
+        JFiler.createNewFile(first.getPath());
+        JFiler.createNewFile(second.getPath());
+        JFiler.createNewFile(copiedFirst.getPath());
+
+        // When
+        List<OperationResult> results = JFiler.copyAll(//
+                List.of(first.getPath(), second.getPath()), openFolder("JFilerCreatedSuccessfully/move").getPath());
+
+        // Then
+        assertEquals(OperationResult.Status.FAILED, results.get(0).getStatus());
+        assertTrue(results.get(0).getCause() instanceof FileAlreadyExistsException);
+        assertTrue(results.get(1).isSuccess());
+        assertTrue(copiedSecond.exists());
+        assertTrue(second.exists());
+
+        // After
+        JFiler.deleteAll(List.of(first.getPath(), second.getPath(), copiedFirst.getPath(), copiedSecond.getPath()));
+    }
+
+    @Test
+    @Order(41)
+    public void whenJFilerMovesAllLocationsInToAFolderTheyMustBeMoved() throws IOException {
+        // Given
+        File first = openFile("JFilerCreatedSuccessfully/first.bulk");
+        File movedFirst = openFile("JFilerCreatedSuccessfully/move/first.bulk");
+        JFiler.createNewFile(first.getPath());
+
+        // When
+        List<OperationResult> results = JFiler.moveAll(//
+                List.of(first.getPath()), openFolder("JFilerCreatedSuccessfully/move").getPath());
+
+        // Then
+        assertTrue(results.get(0).isSuccess());
+        assertFalse(first.exists());
+        assertTrue(movedFirst.exists());
+
+        // After
+        JFiler.deleteThe(movedFirst);
+    }
+
+    @Test
+    @Order(42)
+    public void whenJFilerSearchesAQueryItMustNotFindFilesInExcludedFoldersOrDeeperThanMaxDepth() throws IOException {
+        // Given
+        Folder folder = openFolder("JFilerCreatedSuccessfully/query");
+        JFiler.createNewFolder(folder.getPath());
+        JFiler.createNewFolder(folder.getPath() + "/node_modules");
+        JFiler.createNewFolder(folder.getPath() + "/deep");
+        JFiler.createNewFolder(folder.getPath() + "/deep/deeper");
+        JFiler.createNewFile(folder.getPath() + "/found.log");
+        JFiler.createNewFile(folder.getPath() + "/notFound.txt");
+        JFiler.createNewFile(folder.getPath() + "/node_modules/excluded.log");
+        JFiler.createNewFile(folder.getPath() + "/deep/deeper/tooDeep.log");
+        SearchQuery query = SearchQuery.create()//
+                .name("*.log")//
+                .exclude("node_modules")//
+                .maxDepth(2);
+
+        // When
+        List<String> foundedFiles = JFiler.search(query, folder);
+
+        // Then
+        assertEquals(List.of(openFile("JFilerCreatedSuccessfully/query/found.log").getPath()), foundedFiles);
+
+        // After
+        JFiler.deleteThe(folder);
+    }
+
+    @Test
+    @Order(43)
+    public void whenJFilerSearchesAQueryWithTypeAndSizeItMustFindOnlyMatchingFiles() throws IOException {
+        // Given
+        Folder folder = openFolder("JFilerCreatedSuccessfully");
+        SearchQuery query = SearchQuery.create()//
+                .type(Type.TXT)//
+                .maxSize(0)//
+                .hidden(false);
+
+        // When
+        List<String> foundedFiles = JFiler.search(query, folder);
+
+        // Then
+        assertEquals(List.of(openFile("JFilerCreatedSuccessfully/file.txt").getPath()), foundedFiles);
+    }
+
+    @Test
+    @Order(44)
+    public void whenJFilerPrefetchesSubFoldersOfCurrentLocationMustBeListedInBackground() throws Exception {
+        // Given
+        Folder move = openFolder("JFilerCreatedSuccessfully/move");
+
+        // When
+        jFiler.enablePrefetch(PrefetchPolicy.create().depth(1));
+        for (int i = 0; i < 100 && !jFiler.getPrefetcher().isListed(move.getLocation()); i++)
+            Thread.sleep(50);
+
+        // Then
+        assertTrue(jFiler.getPrefetcher().isListed(move.getLocation()));
+        jFiler.openFolder("/move");
+        assertEquals(List.of(openFile("JFilerCreatedSuccessfully/move/nothing")), jFiler.getList());
+
+        // After
+        jFiler.disablePrefetch();
+    }
+
+    @Test
+    @Order(45)
+    public void whenAFolderChangesItsPrefetchedListingMustNotBeUsed() throws Exception {
+        // Given
+        jFiler.enablePrefetch(PrefetchPolicy.create().depth(0));
+        jFiler.openFolder("/move");
+        jFiler.getList();
+        File newFile = openFile("JFilerCreatedSuccessfully/move/new.prefetch");
+
+        // When
+        Thread.sleep(1100);
+        JFiler.createNewFile(newFile.getPath());
+
+        // Then
+        assertTrue(jFiler.getList().contains(newFile));
+
+        // After
+        JFiler.deleteThe(newFile);
+        jFiler.disablePrefetch();
+    }
+
+    @Test
+    @Order(46)
+    public void whenHistoryIsFullJFilerMustDropOldestLocations() {
+        // Given
+        jFiler.limitHistory(3, HistoryEviction.OLDEST);
+
+        // When
+        for (int i = 0; i < 5; i++)
+            jFiler.openFolder(i % 2 == 0 ? "/move" : "/");
+        jFiler.goBackward();
+        jFiler.goBackward();
+
+        // Then
+        assertNull(jFiler.getRear());
+        assertThrows(NoBackwardHistoryException.class, () -> jFiler.goBackward());
+        assertEquals(openFolder("JFilerCreatedSuccessfully/move"), jFiler.getCurrent());
+        assertEquals(openFolder("JFilerCreatedSuccessfully"), jFiler.getFront());
+    }
+
+    @Test
+    @Order(47)
+    public void whenHistoryIsFullJFilerMustDropRepeatedLocationsFirst() {
+        // Given
+        jFiler.limitHistory(3, HistoryEviction.REPEATED_FIRST);
+
+        // When
+        jFiler.openFolder("/move");
+        jFiler.openFolder("/");
+        jFiler.openFolder("/move");
+        jFiler.goBackward();
+
+        // Then
+        assertEquals(openFolder("JFilerCreatedSuccessfully"), jFiler.getCurrent());
+        assertEquals(openFolder("JFilerCreatedSuccessfully/move"), jFiler.getRear());
+    }
+
+    @Test
+    @Order(48)
+    public void JFilerMustCopyAllFilesInClipBoardInOneBatch() throws IOException {
+        // Given
+        List<String> names = List.of("a.clip", "b.clip", "c.clip");
+        for (String name : names)
+            JFiler.createNewFile(resource + "/JFilerCreatedSuccessfully/" + name);
+
+        // When
+        jFiler.copy(List.of("/a.clip", "/b.clip", "/c.clip", "/missing.clip"));
+        List<OperationResult> results = jFiler.pasteAll("/move", 2);
+
+        // Then
+        assertEquals(4, results.size());
+        for (int i = 0; i < names.size(); i++) {
+            assertTrue(results.get(i).isSuccess());
+            assertTrue(openFile("JFilerCreatedSuccessfully/move/" + names.get(i)).exists());
+            assertTrue(openFile("JFilerCreatedSuccessfully/" + names.get(i)).exists());
+        }
+        assertEquals(OperationResult.Status.SKIPPED, results.get(3).getStatus());
+        assertTrue(jFiler.getClipBoardEntries().isEmpty());
+
+        // After
+        for (String name : names) {
+            JFiler.deleteThe(resource + "/JFilerCreatedSuccessfully/" + name);
+            JFiler.deleteThe(resource + "/JFilerCreatedSuccessfully/move/" + name);
+        }
+    }
+
+    @Test
+    @Order(49)
+    public void JFilerMustMoveAllFilesInClipBoardWhenTheyArePasted() throws IOException {
+        // Given
+        List<String> names = List.of("a.clip", "b.clip");
+        for (String name : names)
+            JFiler.createNewFile(resource + "/JFilerCreatedSuccessfully/" + name);
+
+        // When
+        jFiler.cut(List.of("/a.clip", "/b.clip"));
+        jFiler.paste("/move");
+
+        // Then
+        for (String name : names) {
+            assertTrue(openFile("JFilerCreatedSuccessfully/move/" + name).exists());
+            assertFalse(openFile("JFilerCreatedSuccessfully/" + name).exists());
+        }
+        assertNull(jFiler.getClipBoard());
+
+        // After
+        for (String name : names)
+            JFiler.deleteThe(resource + "/JFilerCreatedSuccessfully/move/" + name);
+    }
+
+    @Test
+    @Order(50)
+    public void JFilerMustPasteThroughJournalWhenItIsEnabled() throws IOException {
+        // Given
+        String journal = resource + "/JFilerCreatedSuccessfully/move/jfiler.journal";
+        JFiler.createNewFile(resource + "/JFilerCreatedSuccessfully/a.clip");
+
+        // When
+        assertTrue(jFiler.enableJournal(journal).isEmpty());
+        jFiler.copy(List.of("/a.clip", "/file.txt"));
+        List<OperationResult> results = jFiler.pasteAll("/move");
+        jFiler.cut("/move/a.clip");
+        jFiler.paste("/move/b.clip");
+        jFiler.disableJournal();
+
+        // Then
+        assertTrue(results.stream().allMatch(OperationResult::isSuccess));
+        assertTrue(openFile("JFilerCreatedSuccessfully/move/file.txt").exists());
+        assertTrue(openFile("JFilerCreatedSuccessfully/move/b.clip").exists());
+        assertFalse(openFile("JFilerCreatedSuccessfully/move/a.clip").exists());
+        assertEquals(0, openFile("JFilerCreatedSuccessfully/move/jfiler.journal").length());
+
+        // After
+        JFiler.deleteThe(journal);
+        JFiler.deleteThe(resource + "/JFilerCreatedSuccessfully/a.clip");
+        JFiler.deleteThe(resource + "/JFilerCreatedSuccessfully/move/b.clip");
+        JFiler.deleteThe(resource + "/JFilerCreatedSuccessfully/move/file.txt");
+    }
+
+    @Test
+    @Order(51)
+    public void JFilerMustBrowseZipFilesWithoutExtractingThem() throws IOException {
+        // Given
+        String zip = resource + "/JFilerCreatedSuccessfully/site.zip";
+        try (ZipOutputStream out = new ZipOutputStream(Files.newOutputStream(Paths.get(zip)))) {
+            out.putNextEntry(new ZipEntry("conf/site.properties"));
+            out.write("name=jfiler".getBytes(StandardCharsets.UTF_8));
+            out.closeEntry();
+            out.putNextEntry(new ZipEntry("readme.txt"));
+            out.write("readme".getBytes(StandardCharsets.UTF_8));
+            out.closeEntry();
+        }
+        String copied = resource + "/JFilerCreatedSuccessfully/move/site.properties";
+
+        // When
+        jFiler.openFolder("/site.zip");
+        List<File> root = jFiler.getList();
+        jFiler.openFolder("/site.zip/conf");
+        List<File> conf = jFiler.getList();
+        jFiler.goUp();
+        Folder up = jFiler.getCurrent();
+        List<String> found = JFiler.search("properties", zip);
+        JFiler.copyTo(zip + "/conf/site.properties", copied);
+
+        // Then
+        assertEquals(2, root.size());
+        assertTrue(root.get(0).isDirectory());
+        assertEquals("readme.txt", root.get(1).getName());
+        assertEquals(1, conf.size());
+        assertEquals(11L, conf.get(0).getSize().longValue());
+        assertTrue(up instanceof ArchiveFolder);
+        assertEquals(Paths.get(zip), up.getLocation());
+        assertEquals(List.of(Paths.get(zip, "conf", "site.properties").toString()), found);
+        assertEquals("name=jfiler", new String(Files.readAllBytes(Paths.get(copied)), StandardCharsets.UTF_8));
+        assertFalse(openFile("JFilerCreatedSuccessfully/conf").exists());
+        assertThrows(LocationNotFoundException.class, () -> jFiler.openFolder("/site.zip/missing"));
+
+        // After
+        JFiler.deleteThe(zip);
+        JFiler.deleteThe(copied);
+    }
+
+    @Test
+    @Order(52)
+    public void whenJFilerMovesAllLocationsWithTheSameNameOnlyTheFirstMustBeMovedAndNothingReplaced() throws IOException {
+        // Given
+        String base = resource + "/JFilerCreatedSuccessfully";
+        JFiler.createNewFolder(base + "/a");
+        JFiler.createNewFolder(base + "/b");
+        JFiler.createNewFile(base + "/a/x.bulk", "a".getBytes(StandardCharsets.UTF_8));
+        JFiler.createNewFile(base + "/b/x.bulk", "b".getBytes(StandardCharsets.UTF_8));
+        JFiler.createNewFile(base + "/b/y.bulk", "b".getBytes(StandardCharsets.UTF_8));
+        JFiler.createNewFile(base + "/move/y.bulk", "kept".getBytes(StandardCharsets.UTF_8));
+
+        // When
+        List<OperationResult> results = JFiler.moveAll(//
+                List.of(base + "/a/x.bulk", base + "/b/x.bulk", base + "/b/y.bulk"), base + "/move", 3);
+
+        // Then
+        assertTrue(results.get(0).isSuccess());
+        assertEquals(OperationResult.Status.SKIPPED, results.get(1).getStatus());
+        assertTrue(results.get(2).getCause() instanceof FileAlreadyExistsException);
+        assertEquals("a", new String(Files.readAllBytes(Paths.get(base, "move", "x.bulk")), StandardCharsets.UTF_8));
+        assertEquals("kept", new String(Files.readAllBytes(Paths.get(base, "move", "y.bulk")), StandardCharsets.UTF_8));
+        assertTrue(openFile("JFilerCreatedSuccessfully/b/x.bulk").exists());
+        assertTrue(openFile("JFilerCreatedSuccessfully/b/y.bulk").exists());
+
+        // After
+        JFiler.deleteAll(List.of(base + "/a", base + "/b", base + "/move/x.bulk", base + "/move/y.bulk"));
+    }
+
+    @Test
+    @Order(53)
+    public void whenAFileInAPrefetchedFolderIsRewrittenItsListingMustShowNewAttributes() throws Exception {
+        // Given
+        jFiler.enablePrefetch(PrefetchPolicy.create().depth(0));
+        jFiler.openFolder("/move");
+        jFiler.getList();
+        File nothing = openFile("JFilerCreatedSuccessfully/move/nothing");
+
+        // When
+        Files.setLastModifiedTime(nothing.getLocation(), FileTime.fromMillis(1_000_000_000_000L));
+
+        // Then
+        assertEquals(1_000_000_000_000L, jFiler.getList().get(0).getLastModifiedDate().getTime());
+
+        // After
+        jFiler.close();
+    }
+
+    @Test
+    @Order(54)
+    public void whenJFilerDeletesNestedOrMalformedLocationsEachOneMustGetItsOwnResult() throws IOException {
+        // Given
+        String base = resource + "/JFilerCreatedSuccessfully";
+        JFiler.createNewFolder(base + "/a");
+        JFiler.createNewFolder(base + "/a/b");
+        JFiler.createNewFile(base + "/a/b/x.bulk");
+
+        // When
+        List<OperationResult> results = JFiler.deleteAll(List.of(base + "/a", base + "/a/b", base + "/a/b/x.bulk",//
+                base + "/a/b", base + "/bad\0name"), 4);
+        List<OperationResult> copied = JFiler.copyAll(List.of("/"), base + "/move");
+
+        // Then
+        assertFalse(Files.exists(Paths.get(base + "/a")));
+        assertEquals(OperationResult.Status.SUCCESS, results.get(0).getStatus());
+        assertEquals(OperationResult.Status.SUCCESS, results.get(1).getStatus());
+        assertEquals(OperationResult.Status.SUCCESS, results.get(2).getStatus());
+        assertEquals(OperationResult.Status.SKIPPED, results.get(3).getStatus());
+        assertNull(results.get(3).getCause());
+        assertEquals(OperationResult.Status.FAILED, results.get(4).getStatus());
+        assertEquals(OperationResult.Status.FAILED, copied.get(0).getStatus());
+        assertTrue(copied.get(0).getCause() instanceof IllegalArgumentException);
+    }
+
     private JFiler openJFiler(String location) {
         return JFiler.open(resource + "/" + location);
     }
@@ -0,0 +1,119 @@
+package io.github.shuoros.jfiler.archive;
+
+import io.github.shuoros.jfiler.JFiler;
+import io.github.shuoros.jfiler.JFilerTests;
+import org.junit.jupiter.api.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Objects;
+import java.util.Random;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.ZipException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+public class ParallelGzipTests {
+
+    private static String resource;
+    private Path folder;
+    private byte[] content;
+
+    @BeforeAll
+    public static void beforeAll() throws Exception {
+        resource = Paths.get(Objects.requireNonNull(JFilerTests.class.getResource("/")).toURI()).toFile().getPath();
+    }
+
+    @BeforeEach
+    public void beforeEach() throws IOException {
+        folder = Paths.get(resource + "/JFilerCreatedSuccessfully/gzip");
+        Files.createDirectory(folder);
+
+        StringBuilder lines = new StringBuilder();
+        Random random = new Random(7);
+        for (int i = 0; i < 40000; i++)
+            lines.append("request ").append(i).append(" took ").append(random.nextInt(500)).append("ms\n");
+        content = lines.toString().getBytes(StandardCharsets.UTF_8);
+        Files.write(folder.resolve("app.log"), content);
+    }
+
+    @AfterEach
+    public void afterEach() throws IOException {
+        JFiler.deleteThe(folder.toString());
+    }
+
+    @Test
+    @Order(1)
+    public void compressMustWriteStandardMultiMemberGzip() throws Exception {
+        // Given
+        Path gzip = folder.resolve("app.log.gz");
+
+        // When
+        JFiler.compressGzip(folder.resolve("app.log").toString(), gzip.toString(),//
+                new ParallelGzip(4, 64 * 1024, Deflater.DEFAULT_COMPRESSION));
+
+        // Then
+        assertTrue(Files.size(gzip) < content.length / 2);
+        try (InputStream in = new GZIPInputStream(Files.newInputStream(gzip))) {
+            assertArrayEquals(content, in.readAllBytes());
+        }
+    }
+
+    @Test
+    @Order(2)
+    public void decompressMustReadItsOwnAndOtherGzipFiles() throws Exception {
+        // Given
+        Path ours = folder.resolve("ours.gz");
+        Path other = folder.resolve("other.gz");
+        Path empty = folder.resolve("empty");
+        Files.createFile(empty);
+        ParallelGzip gzip = new ParallelGzip(3, 10_000, Deflater.BEST_SPEED);
+        gzip.compress(folder.resolve("app.log"), ours);
+        gzip.compress(empty, folder.resolve("empty.gz"));
+        try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(other))) {
+            out.write(content);
+        }
+
+        // When
+        JFiler.extractGzip(ours.toString(), folder.resolve("ours.log").toString());
+        gzip.decompress(other, folder.resolve("other.log"));
+        gzip.decompress(folder.resolve("empty.gz"), folder.resolve("empty.out"));
+
+        // Then
+        assertArrayEquals(content, Files.readAllBytes(folder.resolve("ours.log")));
+        assertArrayEquals(content, Files.readAllBytes(folder.resolve("other.log")));
+        assertEquals(0, Files.size(folder.resolve("empty.out")));
+        assertThrows(ZipException.class, () -> gzip.decompress(folder.resolve("app.log"), folder.resolve("not.log")));
+    }
+
+    @Test
+    @Order(3)
+    public void decompressMustRejectCraftedMemberSizesAndLeaveNoPartialDestination() throws Exception {
+        // Given
+        Path gzip = folder.resolve("app.log.gz");
+        Path extracted = folder.resolve("app.out");
+        new ParallelGzip(2, 64 * 1024, Deflater.BEST_SPEED).compress(folder.resolve("app.log"), gzip);
+        try (FileChannel channel = FileChannel.open(gzip, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[]{(byte) 0xF0, (byte) 0xFF, (byte) 0xFF, 0x7F}), 16);
+        }
+
+        // When
+        ZipException thrown = assertThrows(ZipException.class, () -> new ParallelGzip().decompress(gzip, extracted));
+
+        // Then
+        assertTrue(thrown.getMessage().contains("size"));
+        assertFalse(Files.exists(extracted));
+    }
+
+}
@@ -0,0 +1,129 @@
+package io.github.shuoros.jfiler.archive;
+
+import io.github.shuoros.jfiler.JFiler;
+import io.github.shuoros.jfiler.JFilerTests;
+import io.github.shuoros.jfiler.file.Type;
+import org.junit.jupiter.api.*;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Objects;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+public class PolicyZipCompressorTests {
+
+    private static String resource;
+    private Path folder;
+    private Path media;
+    private byte[] photo;
+    private byte[] noise;
+    private String log;
+
+    @BeforeAll
+    public static void beforeAll() throws Exception {
+        resource = Paths.get(Objects.requireNonNull(JFilerTests.class.getResource("/")).toURI()).toFile().getPath();
+    }
+
+    @BeforeEach
+    public void beforeEach() throws IOException {
+        folder = Paths.get(resource + "/JFilerCreatedSuccessfully/policy");
+        media = folder.resolve("media");
+        Files.createDirectories(media.resolve("empty"));
+
+        Random random = new Random(42);
+        photo = new byte[200 * 1024];
+        noise = new byte[100 * 1024];
+        random.nextBytes(photo);
+        random.nextBytes(noise);
+        StringBuilder lines = new StringBuilder();
+        for (int i = 0; i < 5000; i++)
+            lines.append("2022-01-01 INFO request ").append(i).append(" served\n");
+        log = lines.toString();
+
+        Files.write(media.resolve("photo.jpg"), photo);
+        Files.write(media.resolve("noise.bin"), noise);
+        Files.write(media.resolve("server.log.txt"), log.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @AfterEach
+    public void afterEach() throws IOException {
+        JFiler.deleteThe(folder.toString());
+    }
+
+    @Test
+    @Order(1)
+    public void compressorMustStoreCompressedFilesAndDeflateTheRest() throws Exception {
+        // Given
+        Path zip = folder.resolve("media.zip");
+        Path extracted = folder.resolve("extracted");
+
+        // When
+        JFiler.compress(List.of(media.toString()), zip.toString(), CompressionPolicy.create());
+        new PolicyZipCompressor(CompressionPolicy.create()).extract(zip.toFile(), extracted.toFile());
+
+        // Then
+        try (ZipArchive archive = ZipArchive.open(zip)) {
+            assertEquals(ArchiveEntry.STORED, archive.entry("media/photo.jpg").getMethod());
+            assertEquals(ArchiveEntry.STORED, archive.entry("media/noise.bin").getMethod());
+            assertEquals(ArchiveEntry.DEFLATED, archive.entry("media/server.log.txt").getMethod());
+            assertTrue(archive.entry("media/server.log.txt").getCompressedSize() < log.length() / 4);
+            assertNotNull(archive.entry("media/empty/"));
+        }
+        assertArrayEquals(photo, Files.readAllBytes(extracted.resolve("media/photo.jpg")));
+        assertArrayEquals(noise, Files.readAllBytes(extracted.resolve("media/noise.bin")));
+        assertEquals(log, new String(Files.readAllBytes(extracted.resolve("media/server.log.txt")), StandardCharsets.UTF_8));
+        assertTrue(Files.isDirectory(extracted.resolve("media/empty")));
+    }
+
+    @Test
+    @Order(2)
+    public void compressorMustFollowLevelsAndStoredTypesOfPolicy() throws Exception {
+        // Given
+        Path zip = folder.resolve("media.zip");
+        CompressionPolicy policy = CompressionPolicy.create().store(Type.TXT).trialSize(0);
+
+        // When
+        JFiler.compress(List.of(media.toString()), zip.toString(), policy);
+
+        // Then
+        try (ZipArchive archive = ZipArchive.open(zip)) {
+            assertEquals(ArchiveEntry.STORED, archive.entry("media/server.log.txt").getMethod());
+            assertEquals(ArchiveEntry.STORED, archive.entry("media/photo.jpg").getMethod());
+            // Without a trial, files which their types are not stored are deflated
+            assertEquals(ArchiveEntry.DEFLATED, archive.entry("media/noise.bin").getMethod());
+        }
+        assertThrows(IllegalArgumentException.class, () -> CompressionPolicy.create().level(Type.TXT, 10));
+    }
+
+    @Test
+    @Order(3)
+    public void storedFilesBiggerThanWhatIsHeldMustBeDeflatedWithoutCompression() throws Exception {
+        // Given
+        byte[] video = new byte[PolicyZipCompressor.MAX_HELD_SIZE + 1000];
+        new Random(7).nextBytes(video);
+        Files.write(media.resolve("video.mp4"), video);
+        Path zip = folder.resolve("media.zip");
+        Path extracted = folder.resolve("extracted");
+
+        // When
+        JFiler.compress(List.of(media.toString()), zip.toString(), CompressionPolicy.create());
+        new PolicyZipCompressor(CompressionPolicy.create()).extract(zip.toFile(), extracted.toFile());
+
+        // Then
+        try (ZipArchive archive = ZipArchive.open(zip)) {
+            assertEquals(ArchiveEntry.STORED, archive.entry("media/photo.jpg").getMethod());
+            assertEquals(ArchiveEntry.DEFLATED, archive.entry("media/video.mp4").getMethod());
+            assertTrue(archive.entry("media/video.mp4").getCompressedSize() < video.length + video.length / 100);
+        }
+        assertArrayEquals(video, Files.readAllBytes(extracted.resolve("media/video.mp4")));
+        assertArrayEquals(photo, Files.readAllBytes(extracted.resolve("media/photo.jpg")));
+    }
+
+}
@@ -0,0 +1,124 @@
+package io.github.shuoros.jfiler.archive;
+
+import io.github.shuoros.jfiler.JFiler;
+import io.github.shuoros.jfiler.JFilerTests;
+import org.junit.jupiter.api.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Random;
+import java.util.zip.ZipException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+public class TarTests {
+
+    private static final String LONG_NAME = "a-folder-with-a-name-which-is-long-enough/"//
+            + "and-a-file-in-it-with-a-name-which-is-long-enough-to-need-more-than-the-ustar-name-field-and-prefix.txt";
+
+    private static String resource;
+    private Path folder;
+    private Path data;
+    private byte[] video;
+
+    @BeforeAll
+    public static void beforeAll() throws Exception {
+        resource = Paths.get(Objects.requireNonNull(JFilerTests.class.getResource("/")).toURI()).toFile().getPath();
+    }
+
+    @BeforeEach
+    public void beforeEach() throws IOException {
+        folder = Paths.get(resource + "/JFilerCreatedSuccessfully/tar");
+        data = folder.resolve("data");
+        Files.createDirectories(data.resolve("empty"));
+        video = new byte[3 * 1024 * 1024 + 17];
+        new Random(3).nextBytes(video);
+        Files.write(data.resolve("video.mp4"), video);
+        Files.createDirectories(data.resolve(LONG_NAME).getParent());
+        Files.write(data.resolve(LONG_NAME), "long".getBytes(StandardCharsets.UTF_8));
+    }
+
+    @AfterEach
+    public void afterEach() throws IOException {
+        JFiler.deleteThe(folder.toString());
+    }
+
+    @Test
+    @Order(1)
+    public void tarMustArchiveAndExtractFolders() throws Exception {
+        // Given
+        Path tar = folder.resolve("data.tar");
+        Path extracted = folder.resolve("extracted");
+
+        // When
+        JFiler.compressTar(List.of(data.toString()), tar.toString());
+        JFiler.extractTar(tar.toString(), extracted.toString());
+
+        // Then
+        assertEquals(0, Files.size(tar) % 512);
+        assertArrayEquals(video, Files.readAllBytes(extracted.resolve("data/video.mp4")));
+        assertEquals("long", new String(Files.readAllBytes(extracted.resolve("data/" + LONG_NAME)), StandardCharsets.UTF_8));
+        assertTrue(Files.isDirectory(extracted.resolve("data/empty")));
+        assertEquals(Files.getLastModifiedTime(data.resolve("video.mp4")).toMillis() / 1000,//
+                Files.getLastModifiedTime(extracted.resolve("data/video.mp4")).toMillis() / 1000);
+    }
+
+    @Test
+    @Order(2)
+    public void tarMustStreamThroughAnyChannel() throws Exception {
+        // Given
+        ByteArrayOutputStream archive = new ByteArrayOutputStream();
+
+        // When
+        try (TarWriter writer = new TarWriter(Channels.newChannel(archive))) {
+            writer.add(data.resolve("video.mp4"), "media/video.mp4");
+        }
+        List<String> names = new ArrayList<>();
+        ByteArrayOutputStream content = new ByteArrayOutputStream();
+        try (TarReader reader = new TarReader(Channels.newChannel(new ByteArrayInputStream(archive.toByteArray())))) {
+            for (TarEntry entry = reader.next(); entry != null; entry = reader.next()) {
+                names.add(entry.getName());
+                reader.transferTo(Channels.newChannel(content));
+            }
+        }
+
+        // Then
+        assertEquals(List.of("media/video.mp4"), names);
+        assertArrayEquals(video, content.toByteArray());
+    }
+
+    @Test
+    @Order(3)
+    public void tarMustRejectOversizedMetadataHeaders() {
+        // Given
+        byte[] header = new byte[512];
+        byte[] name = "././@LongLink".getBytes(StandardCharsets.US_ASCII);
+        System.arraycopy(name, 0, header, 0, name.length);
+        byte[] size = "77777777777".getBytes(StandardCharsets.US_ASCII);
+        System.arraycopy(size, 0, header, 124, size.length);
+        header[156] = 'L';
+        long checksum = 0;
+        for (int i = 0; i < header.length; i++)
+            checksum += i >= 148 && i < 156 ? ' ' : header[i] & 0xFF;
+        byte[] octal = String.format("%06o", checksum).getBytes(StandardCharsets.US_ASCII);
+        System.arraycopy(octal, 0, header, 148, octal.length);
+        header[155] = ' ';
+
+        // When
+        TarReader reader = new TarReader(Channels.newChannel(new ByteArrayInputStream(header)));
+
+        // Then
+        assertThrows(ZipException.class, reader::next);
+    }
+
+}
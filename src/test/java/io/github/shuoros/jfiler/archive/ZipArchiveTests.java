@@ -0,0 +1,184 @@
+package io.github.shuoros.jfiler.archive;
+
+import io.github.shuoros.jfiler.JFiler;
+import io.github.shuoros.jfiler.JFilerTests;
+import io.github.shuoros.jfiler.file.File;
+import org.junit.jupiter.api.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Objects;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipException;
+import java.util.zip.ZipOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+public class ZipArchiveTests {
+
+    private static final String CONFIG = "name=jfiler\nversion=1.2.0\n";
+
+    private static String resource;
+    private Path folder;
+    private Path zip;
+
+    @BeforeAll
+    public static void beforeAll() throws Exception {
+        resource = Paths.get(Objects.requireNonNull(JFilerTests.class.getResource("/")).toURI()).toFile().getPath();
+    }
+
+    @BeforeEach
+    public void beforeEach() throws IOException {
+        folder = Paths.get(resource + "/JFilerCreatedSuccessfully/archive");
+        Files.createDirectory(folder);
+        zip = folder.resolve("site.zip");
+        try (ZipOutputStream out = new ZipOutputStream(Files.newOutputStream(zip))) {
+            out.putNextEntry(new ZipEntry("conf/"));
+            out.closeEntry();
+            out.putNextEntry(new ZipEntry("conf/site.properties"));
+            out.write(CONFIG.getBytes(StandardCharsets.UTF_8));
+            out.closeEntry();
+            out.putNextEntry(new ZipEntry("conf/db.properties"));
+            out.write("url=jdbc:h2:mem".getBytes(StandardCharsets.UTF_8));
+            out.closeEntry();
+
+            byte[] stored = "stored as it is".getBytes(StandardCharsets.UTF_8);
+            CRC32 crc = new CRC32();
+            crc.update(stored);
+            ZipEntry entry = new ZipEntry("readme.txt");
+            entry.setMethod(ZipEntry.STORED);
+            entry.setSize(stored.length);
+            entry.setCrc(crc.getValue());
+            out.putNextEntry(entry);
+            out.write(stored);
+            out.closeEntry();
+
+            out.putNextEntry(new ZipEntry("data/big.bin"));
+            byte[] chunk = new byte[64 * 1024];
+            for (int i = 0; i < 64; i++) {
+                chunk[i] = (byte) i;
+                out.write(chunk);
+            }
+            out.closeEntry();
+        }
+    }
+
+    @AfterEach
+    public void afterEach() throws IOException {
+        JFiler.deleteThe(folder.toString());
+    }
+
+    @Test
+    @Order(1)
+    public void zipArchiveMustListEntriesFromCentralDirectory() throws Exception {
+        // When
+        List<ArchiveEntry> entries = JFiler.listArchive(zip.toString());
+
+        // Then
+        assertEquals(5, entries.size());
+        assertEquals("conf/", entries.get(0).getName());
+        assertTrue(entries.get(0).isFolder());
+        ArchiveEntry config = entries.get(1);
+        assertEquals("conf/site.properties", config.getName());
+        assertEquals(CONFIG.length(), config.getSize());
+        assertEquals(ArchiveEntry.DEFLATED, config.getMethod());
+        assertEquals(ArchiveEntry.STORED, entries.get(3).getMethod());
+        assertEquals(64 * 64 * 1024, entries.get(4).getSize());
+        assertTrue(entries.get(4).getCompressedSize() < entries.get(4).getSize());
+    }
+
+    @Test
+    @Order(2)
+    public void zipArchiveMustExtractSingleEntries() throws Exception {
+        // Given
+        Path config = folder.resolve("site.properties");
+        Path readme = folder.resolve("readme.txt");
+
+        // When
+        JFiler.extractEntry(zip.toString(), "conf/site.properties", config.toString());
+        try (ZipArchive archive = ZipArchive.open(zip)) {
+            archive.extract("readme.txt", readme);
+        }
+
+        // Then
+        assertEquals(CONFIG, new String(Files.readAllBytes(config), StandardCharsets.UTF_8));
+        assertEquals("stored as it is", new String(Files.readAllBytes(readme), StandardCharsets.UTF_8));
+        assertFalse(Files.exists(folder.resolve("conf")));
+    }
+
+    @Test
+    @Order(3)
+    public void zipArchiveMustStreamEntriesAndExtractGlobs() throws Exception {
+        // Given
+        Path destination = folder.resolve("extracted");
+
+        // When
+        byte[] big;
+        try (ZipArchive archive = ZipArchive.open(zip);
+             InputStream in = archive.openEntry("data/big.bin")) {
+            big = in.readAllBytes();
+        }
+        List<String> extracted = JFiler.extractEntries(zip.toString(), "conf/*.properties", destination.toString());
+
+        // Then
+        assertEquals(64 * 64 * 1024, big.length);
+        assertEquals(63, big[63 * 64 * 1024 + 63]);
+        assertEquals(2, extracted.size());
+        assertTrue(Files.exists(destination.resolve("conf/site.properties")));
+        assertTrue(Files.exists(destination.resolve("conf/db.properties")));
+        assertFalse(Files.exists(destination.resolve("readme.txt")));
+    }
+
+    @Test
+    @Order(4)
+    public void zipArchiveMustRejectNonZipFilesAndEntriesOutsideOfDestination() throws Exception {
+        // Given
+        Path text = Files.write(folder.resolve("text.zip"), "not a zip".getBytes(StandardCharsets.UTF_8));
+        Path evil = folder.resolve("evil.zip");
+        try (ZipOutputStream out = new ZipOutputStream(Files.newOutputStream(evil))) {
+            out.putNextEntry(new ZipEntry("../escaped.txt"));
+            out.write(1);
+            out.closeEntry();
+        }
+
+        // Then
+        assertThrows(ZipException.class, () -> ZipArchive.open(text));
+        try (ZipArchive archive = ZipArchive.open(evil)) {
+            assertThrows(ZipException.class, () -> archive.extractAll("**", folder.resolve("inside")));
+        }
+        assertFalse(Files.exists(folder.resolve("escaped.txt")));
+    }
+
+    @Test
+    @Order(5)
+    public void archivesMustBeBrowsedAsFoldersWithCachedIndex() throws Exception {
+        // When
+        ArchiveFolder root = Archives.openFolder(zip);
+        List<File> contains = root.getContains();
+        File config = Archives.open(zip.resolve("conf/site.properties"));
+        String content;
+        try (InputStream in = ((ArchiveFile) config).openStream()) {
+            content = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+
+        // Then
+        assertEquals(3, contains.size());
+        assertEquals("conf", contains.get(0).getName());
+        assertTrue(contains.get(0) instanceof ArchiveFolder);
+        assertEquals(CONFIG, content);
+        assertEquals(root, config.getParentFolder().getParentFolder());
+        assertSame(ZipIndex.of(zip), ZipIndex.of(zip));
+        assertTrue(Archives.isFolder(zip.resolve("data")));
+        assertFalse(Archives.isFolder(zip.resolve("readme.txt")));
+        assertNull(Archives.archiveOf(folder.resolve("site.txt")));
+        assertThrows(UnsupportedOperationException.class, config::openForWrite);
+    }
+
+}
@@ -0,0 +1,307 @@
+package io.github.shuoros.jfiler.copy;
+
+import io.github.shuoros.jfiler.JFiler;
+import io.github.shuoros.jfiler.JFilerTests;
+import io.github.shuoros.jfiler.util.SystemOS;
+import org.junit.jupiter.api.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.FileTime;
+import java.util.Arrays;
+import java.util.Objects;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+public class CopierTests {
+
+    private static final int SIZE = 16 * 1024 * 1024;
+
+    private static String resource;
+    private Path folder;
+
+    @BeforeAll
+    public static void beforeAll() throws Exception {
+        resource = Paths.get(Objects.requireNonNull(JFilerTests.class.getResource("/")).toURI()).toFile().getPath();
+    }
+
+    @BeforeEach
+    public void beforeEach() throws IOException {
+        folder = Paths.get(resource + "/JFilerCreatedSuccessfully/copier");
+        Files.createDirectory(folder);
+    }
+
+    @AfterEach
+    public void afterEach() throws IOException {
+        JFiler.deleteThe(folder.toString());
+    }
+
+    @Test
+    @Order(1)
+    public void sparseCopyMustHaveSameContentAsSource() throws IOException {
+        // Given
+        Path source = sparseFile("source.img");
+        Path copy = folder.resolve("copy.img");
+
+        // When
+        new Copier(CopyOptions.create().sparse(true).blockSize(4096)).copy(source, copy);
+
+        // Then
+        assertEquals(SIZE, Files.size(copy));
+        assertTrue(sameContent(source, copy));
+        assertEquals(Files.getLastModifiedTime(source), Files.getLastModifiedTime(copy));
+    }
+
+    @Test
+    @Order(2)
+    public void sparseCopyMustOnlyAllocateBlocksOfDataOnLinux() throws Exception {
+        Assumptions.assumeTrue(SystemOS.isUnix() && allocatedBytes(folder) >= 0);
+
+        // Given
+        Path source = folder.resolve("dense.img");
+        byte[] bytes = new byte[SIZE];
+        Arrays.fill(bytes, 0, 4096, (byte) 7);
+        Files.write(source, bytes);
+        Path copy = folder.resolve("copy.img");
+
+        // When
+        new Copier(CopyOptions.create().sparse(true)).copy(source, copy);
+
+        // Then
+        assertEquals(SIZE, Files.size(copy));
+        assertTrue(allocatedBytes(copy) < SIZE / 4, "Allocated " + allocatedBytes(copy) + " of " + SIZE);
+        assertTrue(sameContent(source, copy));
+    }
+
+    @Test
+    @Order(3)
+    public void copyMustCopyFoldersAndNotOverwriteDestination() throws IOException {
+        // Given
+        Path source = Files.createDirectories(folder.resolve("source/inner"));
+        Files.write(source.resolve("a.txt"), "a".getBytes(StandardCharsets.UTF_8));
+        Path copy = folder.resolve("copy");
+
+        // When
+        new Copier(CopyOptions.create()).copy(folder.resolve("source"), copy);
+
+        // Then
+        assertEquals("a", new String(Files.readAllBytes(copy.resolve("inner/a.txt")), StandardCharsets.UTF_8));
+        assertThrows(FileAlreadyExistsException.class, () -> new Copier(CopyOptions.create()).copy(source, copy));
+    }
+
+    @Test
+    @Order(4)
+    public void snapshotMustLinkUnchangedFilesAndCopyChangedOnes() throws IOException {
+        // Given
+        Path source = Files.createDirectories(folder.resolve("source/inner"));
+        Files.write(source.resolve("same.txt"), "same".getBytes(StandardCharsets.UTF_8));
+        Files.write(folder.resolve("source/changed.txt"), "old".getBytes(StandardCharsets.UTF_8));
+        Path yesterday = folder.resolve("yesterday");
+        Path today = folder.resolve("today");
+        new Copier(CopyOptions.create()).copy(folder.resolve("source"), yesterday);
+        Files.write(folder.resolve("source/changed.txt"), "new!".getBytes(StandardCharsets.UTF_8));
+        Files.setLastModifiedTime(folder.resolve("source/changed.txt"),//
+                FileTime.fromMillis(Files.getLastModifiedTime(yesterday.resolve("changed.txt")).toMillis() + 5000));
+
+        // When
+        JFiler.copyTo(folder.resolve("source").toString(), today.toString(),//
+                CopyOptions.create().snapshotOf(yesterday).parallelism(4));
+
+        // Then
+        assertTrue(Files.isSameFile(today.resolve("inner/same.txt"), yesterday.resolve("inner/same.txt")));
+        assertFalse(Files.isSameFile(today.resolve("changed.txt"), yesterday.resolve("changed.txt")));
+        assertEquals("new!", new String(Files.readAllBytes(today.resolve("changed.txt")), StandardCharsets.UTF_8));
+        assertEquals("old", new String(Files.readAllBytes(yesterday.resolve("changed.txt")), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    @Order(5)
+    public void rangeCopyMustSplitLargeFilesAndCopyEveryRange() throws IOException {
+        // Given
+        Path source = folder.resolve("large.img");
+        long size = 2 * RangeCopier.MIN_RANGE_SIZE + 5;
+        try (RandomAccessFile random = new RandomAccessFile(source.toFile(), "rw")) {
+            random.setLength(size);
+            for (long position = 0; position < size - 16; position += RangeCopier.MIN_RANGE_SIZE / 3) {
+                random.seek(position);
+                random.writeLong(position);
+            }
+            random.seek(size - 5);
+            random.write(new byte[]{1, 2, 3, 4, 5});
+        }
+        Path copy = folder.resolve("copy.img");
+        RangeCopier copier = new RangeCopier(4);
+
+        // When
+        copier.copy(source, copy);
+
+        // Then
+        assertEquals(1, copier.rangesOf(RangeCopier.MIN_RANGE_SIZE - 1));
+        assertEquals(2, copier.rangesOf(size));
+        assertEquals(4, copier.rangesOf(100 * RangeCopier.MIN_RANGE_SIZE));
+        assertEquals(size, Files.size(copy));
+        assertTrue(sameContent(source, copy));
+        assertEquals(Files.getLastModifiedTime(source), Files.getLastModifiedTime(copy));
+        try (java.util.stream.Stream<Path> files = Files.list(folder)) {
+            assertEquals(2, files.count());
+        }
+    }
+
+    @Test
+    @Order(6)
+    public void rangeCopyMustNotCreateDestinationIfItFails() throws IOException {
+        // Given
+        Path copy = folder.resolve("copy.img");
+
+        // When
+        assertThrows(IOException.class, () -> new RangeCopier().copy(folder.resolve("missing.img"), copy));
+        Files.write(folder.resolve("small.txt"), "small".getBytes(StandardCharsets.UTF_8));
+        Files.write(copy, "there".getBytes(StandardCharsets.UTF_8));
+
+        // Then
+        assertThrows(FileAlreadyExistsException.class, () -> new RangeCopier().copy(folder.resolve("small.txt"), copy));
+        assertEquals("there", new String(Files.readAllBytes(copy), StandardCharsets.UTF_8));
+        try (java.util.stream.Stream<Path> files = Files.list(folder)) {
+            assertEquals(2, files.count());
+        }
+    }
+
+    @Test
+    @Order(7)
+    public void directCopyMustHaveSameContentAsSourceWhateverItsSize() throws IOException {
+        // Given
+        Path source = Files.createDirectories(folder.resolve("source"));
+        byte[] bytes = new byte[3 * 1024 * 1024 + 123];
+        new java.util.Random(46).nextBytes(bytes);
+        Files.write(source.resolve("odd.bin"), bytes);
+        Files.write(source.resolve("tiny.txt"), "tiny".getBytes(StandardCharsets.UTF_8));
+        Files.write(source.resolve("empty.txt"), new byte[0]);
+        Path copy = folder.resolve("copy");
+
+        // When
+        JFiler.copyTo(source.toString(), copy.toString(), CopyOptions.create().direct(true));
+
+        // Then
+        assertTrue(sameContent(source.resolve("odd.bin"), copy.resolve("odd.bin")));
+        assertEquals("tiny", new String(Files.readAllBytes(copy.resolve("tiny.txt")), StandardCharsets.UTF_8));
+        assertEquals(0, Files.size(copy.resolve("empty.txt")));
+        assertEquals(Files.getLastModifiedTime(source.resolve("odd.bin")),//
+                Files.getLastModifiedTime(copy.resolve("odd.bin")));
+    }
+
+    @Test
+    @Order(8)
+    public void resumableCopyMustSkipDoneFilesAndContinuePartlyCopiedOnes() throws IOException {
+        // Given
+        Path source = Files.createDirectories(folder.resolve("source"));
+        byte[] bytes = new byte[5 * 1024 * 1024 + 7];
+        new java.util.Random(47).nextBytes(bytes);
+        Files.write(source.resolve("large.bin"), bytes);
+        Files.write(source.resolve("done.txt"), "source".getBytes(StandardCharsets.UTF_8));
+        Files.write(source.resolve("new.txt"), "new".getBytes(StandardCharsets.UTF_8));
+        Files.write(source.resolve("changed.txt"), "changed".getBytes(StandardCharsets.UTF_8));
+        Path copy = Files.createDirectories(folder.resolve("copy"));
+        Path checkpointFile = folder.resolve("copy.checkpoint");
+        // An interrupted copy which finished done.txt, changed.txt before it changed and 3 MB of large.bin
+        int copied = 3 * 1024 * 1024;
+        Files.write(copy.resolve("large.bin"), Arrays.copyOf(bytes, copied + 1000));
+        Files.write(copy.resolve("done.txt"), "copied".getBytes(StandardCharsets.UTF_8));
+        Files.write(copy.resolve("changed.txt"), "stale".getBytes(StandardCharsets.UTF_8));
+        java.util.zip.CRC32C crc = new java.util.zip.CRC32C();
+        crc.update(bytes, 0, copied);
+        try (Checkpoint checkpoint = Checkpoint.open(checkpointFile, source, copy)) {
+            checkpoint.done("done.txt", Files.size(source.resolve("done.txt")),//
+                    Files.getLastModifiedTime(source.resolve("done.txt")).toMillis());
+            checkpoint.done("changed.txt", "stale".length(),//
+                    Files.getLastModifiedTime(source.resolve("changed.txt")).toMillis() - 5000);
+            checkpoint.progress("large.bin", new Checkpoint.Progress(copied, bytes.length,//
+                    Files.getLastModifiedTime(source.resolve("large.bin")).toMillis(), crc.getValue()));
+        }
+
+        // When
+        JFiler.copyTo(source.toString(), copy.toString(),//
+                CopyOptions.create().checkpoint(checkpointFile).verifyResume(true));
+
+        // Then
+        assertArrayEquals(bytes, Files.readAllBytes(copy.resolve("large.bin")));
+        assertEquals("copied", new String(Files.readAllBytes(copy.resolve("done.txt")), StandardCharsets.UTF_8));
+        assertEquals("new", new String(Files.readAllBytes(copy.resolve("new.txt")), StandardCharsets.UTF_8));
+        assertEquals("changed", new String(Files.readAllBytes(copy.resolve("changed.txt")), StandardCharsets.UTF_8));
+        assertFalse(Files.exists(checkpointFile));
+    }
+
+    @Test
+    @Order(9)
+    public void resumableCopyMustStartFilesOverIfTheirCopiedPartDoesNotMatch() throws IOException {
+        // Given
+        Path source = folder.resolve("source.bin");
+        byte[] bytes = new byte[2 * 1024 * 1024];
+        new java.util.Random(47).nextBytes(bytes);
+        Files.write(source, bytes);
+        Path copy = folder.resolve("copy.bin");
+        Path checkpointFile = folder.resolve("copy.checkpoint");
+        Files.write(copy, new byte[1024 * 1024]);
+        try (Checkpoint checkpoint = Checkpoint.open(checkpointFile, source, copy)) {
+            checkpoint.progress("", new Checkpoint.Progress(1024 * 1024, bytes.length,//
+                    Files.getLastModifiedTime(source).toMillis(), 42));
+        }
+
+        // When
+        assertThrows(FileAlreadyExistsException.class, () -> new Copier(CopyOptions.create()//
+                .checkpoint(folder.resolve("other.checkpoint"))).copy(source, copy));
+        new Copier(CopyOptions.create().checkpoint(checkpointFile).verifyResume(true)).copy(source, copy);
+
+        // Then
+        assertArrayEquals(bytes, Files.readAllBytes(copy));
+        assertFalse(Files.exists(checkpointFile));
+        assertFalse(Files.exists(folder.resolve("other.checkpoint")));
+    }
+
+    private Path sparseFile(String name) throws IOException {
+        Path file = folder.resolve(name);
+        try (RandomAccessFile random = new RandomAccessFile(file.toFile(), "rw")) {
+            random.setLength(SIZE);
+            random.seek(SIZE / 2 + 3);
+            random.write("data in the middle".getBytes(StandardCharsets.UTF_8));
+            random.seek(SIZE - 5);
+            random.write(new byte[]{1, 2, 3, 4, 5});
+        }
+        return file;
+    }
+
+    private static boolean sameContent(Path first, Path second) throws IOException {
+        try (InputStream a = Files.newInputStream(first); InputStream b = Files.newInputStream(second)) {
+            byte[] x = new byte[64 * 1024];
+            byte[] y = new byte[64 * 1024];
+            while (true) {
+                int read = a.readNBytes(x, 0, x.length);
+                if (read != b.readNBytes(y, 0, y.length))
+                    return false;
+                if (read == 0)
+                    return true;
+                if (!Arrays.equals(x, 0, read, y, 0, read))
+                    return false;
+            }
+        }
+    }
+
+    private static long allocatedBytes(Path file) {
+        try {
+            Process stat = new ProcessBuilder("stat", "-c", "%b %B", file.toString()).start();
+            String[] output = new String(stat.getInputStream().readAllBytes(), StandardCharsets.US_ASCII).trim().split(" ");
+            if (stat.waitFor() != 0)
+                return -1;
+            return Long.parseLong(output[0]) * Long.parseLong(output[1]);
+        } catch (IOException | InterruptedException | RuntimeException e) {
+            return -1;
+        }
+    }
+
+}
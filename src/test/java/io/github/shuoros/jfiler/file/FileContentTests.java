@@ -0,0 +1,143 @@
+package io.github.shuoros.jfiler.file;
+
+import io.github.shuoros.jfiler.JFilerTests;
+import org.junit.jupiter.api.*;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+public class FileContentTests {
+
+    private static String resource;
+    private File file;
+
+    @BeforeAll
+    public static void beforeAll() throws Exception {
+        resource = Paths.get(Objects.requireNonNull(JFilerTests.class.getResource("/")).toURI()).toFile().getPath();
+    }
+
+    @BeforeEach
+    public void beforeEach() throws IOException {
+        Path location = Paths.get(resource + "/JFilerCreatedSuccessfully/content.bin");
+        Files.write(location, "0123456789".getBytes(StandardCharsets.US_ASCII));
+        file = File.open(location);
+    }
+
+    @AfterEach
+    public void afterEach() throws IOException {
+        Files.deleteIfExists(file.getLocation());
+    }
+
+    @Test
+    @Order(1)
+    public void mapMustReturnAViewOfRequestedPartOfContent() throws IOException {
+        try (FileContent content = new FileContent(file.getLocation(), false, 4)) {
+            // When
+            ByteBuffer inOneChunk = content.map(5, 2);
+            ByteBuffer overTwoChunks = content.map(2, 5);
+
+            // Then
+            assertEquals("56", ascii(inOneChunk));
+            assertEquals("23456", ascii(overTwoChunks));
+            assertTrue(inOneChunk.isReadOnly());
+        }
+    }
+
+    @Test
+    @Order(2)
+    public void chunksMustIterateOverWholeContent() throws IOException {
+        // Given
+        List<String> chunks = new ArrayList<>();
+
+        // When
+        try (FileContent content = new FileContent(file.getLocation(), false, 4)) {
+            for (Iterator<ByteBuffer> it = content.chunks(); it.hasNext(); )
+                chunks.add(ascii(it.next()));
+        }
+
+        // Then
+        assertEquals(List.of("0123", "4567", "89"), chunks);
+    }
+
+    @Test
+    @Order(3)
+    public void positionalReadsAndWritesMustNotDependOnEachOther() throws IOException {
+        try (FileContent content = file.openForWrite()) {
+            // When
+            content.write(8, ByteBuffer.wrap("ab".getBytes(StandardCharsets.US_ASCII)));
+
+            // Then
+            assertEquals("0123", new String(content.read(0, 4), StandardCharsets.US_ASCII));
+            assertEquals("67ab", new String(content.read(6, 10), StandardCharsets.US_ASCII));
+            assertEquals(-1, content.read(10, ByteBuffer.allocate(1)));
+        }
+    }
+
+    @Test
+    @Order(4)
+    public void appendMustWriteAllRecordsAtEndOfContent() throws IOException {
+        // Given
+        List<byte[]> records = new ArrayList<>();
+        for (int i = 0; i < 100; i++)
+            records.add(new byte[]{'x'});
+
+        // When
+        try (FileContent content = file.openForWrite()) {
+            content.append(records);
+        }
+
+        // Then
+        assertEquals(110, Files.size(file.getLocation()));
+    }
+
+    @Test
+    @Order(5)
+    public void linesMustReturnEachLineWithoutLineBreaks() throws IOException {
+        // Given
+        Files.write(file.getLocation(), "first\r\nسطر دوم\n\nlast".getBytes(StandardCharsets.UTF_8));
+        List<String> lines = new ArrayList<>();
+
+        // When
+        try (FileContent content = file.openForRead()) {
+            content.lines(StandardCharsets.UTF_8).forEachRemaining(lines::add);
+        }
+
+        // Then
+        assertEquals(List.of("first", "سطر دوم", "", "last"), lines);
+    }
+
+    @Test
+    @Order(6)
+    public void mapMustReuseMappingsForViewsAcrossChunkBoundaries() throws IOException {
+        try (FileContent content = new FileContent(file.getLocation(), false, 4)) {
+            // When
+            List<String> views = new ArrayList<>();
+            for (int i = 0; i < 1000; i++)
+                views.add(ascii(content.map(3, 4)));
+            ByteBuffer again = content.map(2, 5);
+            ByteBuffer bigger = content.map(2, 5);
+
+            // Then
+            assertTrue(views.stream().allMatch("3456"::equals));
+            assertEquals(ascii(again), ascii(bigger));
+        }
+    }
+
+    private String ascii(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.remaining()];
+        buffer.duplicate().get(bytes);
+        return new String(bytes, StandardCharsets.US_ASCII);
+    }
+
+}
@@ -3,7 +3,9 @@ package io.github.shuoros.jfiler.file;
 import io.github.shuoros.jfiler.JFilerTests;
 import org.junit.jupiter.api.*;
 
+import java.io.IOException;
 import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.Objects;
@@ -110,6 +112,66 @@ public class FileTests {
         assertFalse(equals);
     }
 
+    @Test
+    @Order(8)
+    public void typeMethodMustFindTypeByAnyOfItsExtensionsInAnyCase() {
+        assertEquals(Type.JPG, Type.type("JPEG"));
+        assertEquals(Type.JPG, Type.type("jfif"));
+        assertEquals(Type.TXT, Type.type("TXT"));
+        assertNull(Type.type("notAnExtension"));
+    }
+
+    @Test
+    @Order(9)
+    public void detectTypeMethodMustFindTypeByContentOfFile() throws IOException {
+        // Given
+        Path location = Paths.get(resource + "/JFilerCreatedSuccessfully/picture.txt");
+        Files.write(location, new byte[]{(byte) 0x89, 'P', 'N', 'G', 0x0D, 0x0A, 0x1A, 0x0A, 0, 0, 0, 0x0D});
+        File file = openFile("JFilerCreatedSuccessfully/picture.txt");
+
+        // When
+        Type type = file.detectType();
+
+        // Then
+        assertEquals(Type.TXT, file.getType());
+        assertEquals(Type.PNG, type);
+
+        // After
+        Files.delete(location);
+    }
+
+    @Test
+    @Order(10)
+    public void detectTypeMethodMustFallBackToExtensionForTextFiles() {
+        // Given
+        File file = openFile("JFilerCreatedSuccessfully/file.txt");
+
+        // Then
+        assertEquals(Type.TXT, file.detectType());
+        assertEquals(Type.Folder, file.getParentFolder().detectType());
+    }
+
+    @Test
+    @Order(11)
+    public void shortSignaturesMustNotOverrideAKnownExtension() throws IOException {
+        // Given
+        Path notes = Paths.get(resource + "/JFilerCreatedSuccessfully/notes.txt");
+        Files.write(notes, "MZ is where the story starts.".getBytes());
+        Path program = Paths.get(resource + "/JFilerCreatedSuccessfully/program");
+        Files.write(program, new byte[]{'M', 'Z', (byte) 0x90, 0, 3, 0});
+
+        // Then
+        assertEquals(Type.TXT, Type.detect(notes));
+        assertEquals(Type.EXE, Type.detect(program));
+        assertNull(openFile("JFilerCreatedSuccessfully/program").getType());
+        assertNull(Type.byName("key"));
+        assertEquals(Type.TS, Type.byName("index.ts"));
+
+        // After
+        Files.delete(notes);
+        Files.delete(program);
+    }
+
     private File openFile(String location) {
         return new File(Paths.get(resource + "/" + location));
     }
@@ -64,6 +64,19 @@ public class FolderTests {
         assertEquals(files, folder.getContains());
     }
 
+    @Test
+    @Order(4)
+    public void containsMethodMustNotGrowWhenItIsCalledAgain() {
+        // Given
+        Folder folder = openFolder("JFilerCreatedSuccessfully/move");
+
+        // When
+        folder.getContains();
+
+        // Then
+        assertEquals(List.of(openFile("JFilerCreatedSuccessfully/move/nothing")), folder.getContains());
+    }
+
     private File openFile(String location) {
         return new File(Paths.get(resource + "/" + location));
     }
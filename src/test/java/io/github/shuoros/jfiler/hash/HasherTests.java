@@ -0,0 +1,114 @@
+package io.github.shuoros.jfiler.hash;
+
+import io.github.shuoros.jfiler.JFiler;
+import io.github.shuoros.jfiler.JFilerTests;
+import io.github.shuoros.jfiler.file.File;
+import io.github.shuoros.jfiler.file.Folder;
+import org.junit.jupiter.api.*;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Objects;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+public class HasherTests {
+
+    private static String resource;
+    private Path folder;
+
+    @BeforeAll
+    public static void beforeAll() throws Exception {
+        resource = Paths.get(Objects.requireNonNull(JFilerTests.class.getResource("/")).toURI()).toFile().getPath();
+    }
+
+    @BeforeEach
+    public void beforeEach() throws IOException {
+        folder = Paths.get(resource + "/JFilerCreatedSuccessfully/hash");
+        Files.createDirectory(folder);
+    }
+
+    @AfterEach
+    public void afterEach() throws IOException {
+        JFiler.deleteThe(folder.toString());
+    }
+
+    @Test
+    @Order(1)
+    public void hashMustMatchWithKnownHashesOfEachAlgorithm() throws IOException {
+        // Given
+        Path abc = write("abc.txt", "abc".getBytes(StandardCharsets.US_ASCII));
+        Path longer = write("longer.txt", "Nobody inspects the spammish repetition".getBytes(StandardCharsets.US_ASCII));
+
+        // Then
+        assertEquals("364b3fb7", new Hasher(HashAlgorithm.CRC32C).hash(abc));
+        assertEquals("ba7816bf8f01cfea414140de5dae2223b00361a396177a9cb410ff61f20015ad",//
+                new Hasher(HashAlgorithm.SHA_256).hash(abc));
+        assertEquals("44bc2cf5ad770999", new Hasher(HashAlgorithm.XXHASH64).hash(abc));
+        assertEquals("fbcea83c8a378bf1", new Hasher(HashAlgorithm.XXHASH64).hash(longer));
+    }
+
+    @Test
+    @Order(2)
+    public void hashOfAMappedFileMustBeSameAsHashOfSameBytesInSmallParts() throws IOException {
+        // Given
+        byte[] bytes = new byte[(int) Hasher.MAPPED_READ_THRESHOLD + 12345];
+        new Random(7).nextBytes(bytes);
+        Path big = write("big.bin", bytes);
+        Digest digest = HashAlgorithm.XXHASH64.newDigest();
+        for (int i = 0; i < bytes.length; i += 1000)
+            digest.update(java.nio.ByteBuffer.wrap(bytes, i, Math.min(1000, bytes.length - i)));
+        Digest whole = HashAlgorithm.XXHASH64.newDigest();
+        whole.update(java.nio.ByteBuffer.wrap(bytes));
+
+        // When
+        String hash = new Hasher(HashAlgorithm.XXHASH64).hash(File.open(big));
+
+        // Then
+        assertArrayEquals(whole.digest(), digest.digest());
+        assertEquals(new Hasher(HashAlgorithm.XXHASH64).copy(big, folder.resolve("copy.bin")), hash);
+    }
+
+    @Test
+    @Order(3)
+    public void copyMustReturnHashOfCopiedFolderWhichIsSameAsHashOfBothFolders() throws IOException {
+        // Given
+        Files.createDirectory(folder.resolve("source"));
+        Files.createDirectory(folder.resolve("source/sub"));
+        write("source/a.txt", "a".getBytes(StandardCharsets.US_ASCII));
+        write("source/sub/b.txt", "b".getBytes(StandardCharsets.US_ASCII));
+        Hasher hasher = new Hasher(HashAlgorithm.SHA_256);
+
+        // When
+        String hash = JFiler.copyTo(folder.resolve("source").toString(), folder.resolve("copy").toString(), hasher);
+
+        // Then
+        assertEquals(hash, new Hasher(HashAlgorithm.SHA_256).hash(Folder.open(folder.resolve("source"))));
+        assertEquals(hash, new Hasher(HashAlgorithm.SHA_256).hash(Folder.open(folder.resolve("copy"))));
+    }
+
+    @Test
+    @Order(4)
+    public void hashOfAFolderMustChangeWhenOneOfItsFilesChanges() throws IOException {
+        // Given
+        Path a = write("a.txt", "a".getBytes(StandardCharsets.US_ASCII));
+        Hasher hasher = new Hasher(HashAlgorithm.CRC32C);
+        String before = hasher.hash(folder);
+
+        // When
+        Files.write(a, "changed".getBytes(StandardCharsets.US_ASCII));
+
+        // Then
+        assertNotEquals(before, hasher.hash(folder));
+    }
+
+    private Path write(String name, byte[] bytes) throws IOException {
+        return Files.write(folder.resolve(name), bytes);
+    }
+
+}
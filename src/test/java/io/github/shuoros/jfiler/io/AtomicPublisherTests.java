@@ -0,0 +1,95 @@
+package io.github.shuoros.jfiler.io;
+
+import io.github.shuoros.jfiler.JFiler;
+import io.github.shuoros.jfiler.JFilerTests;
+import io.github.shuoros.jfiler.copy.CopyOptions;
+import org.junit.jupiter.api.*;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Objects;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+public class AtomicPublisherTests {
+
+    private static String resource;
+    private Path folder;
+
+    @BeforeAll
+    public static void beforeAll() throws Exception {
+        resource = Paths.get(Objects.requireNonNull(JFilerTests.class.getResource("/")).toURI()).toFile().getPath();
+    }
+
+    @BeforeEach
+    public void beforeEach() throws IOException {
+        folder = Paths.get(resource + "/JFilerCreatedSuccessfully/publisher");
+        Files.createDirectory(folder);
+    }
+
+    @AfterEach
+    public void afterEach() throws IOException {
+        JFiler.deleteThe(folder.toString());
+    }
+
+    @Test
+    @Order(1)
+    public void createNewFileAndWriteContentMustPublishWholeFilesOnly() throws IOException {
+        // Given
+        String report = folder.resolve("report.txt").toString();
+
+        // When
+        try (AtomicPublisher publisher = AtomicPublisher.create()) {
+            JFiler.createNewFile(report, "first".getBytes(StandardCharsets.UTF_8), publisher);
+            JFiler.createNewFile(folder.resolve("other.txt").toString(), new byte[0], publisher);
+        }
+
+        // Then
+        assertEquals("first", content(report));
+        assertThrows(FileAlreadyExistsException.class,//
+                () -> JFiler.createNewFile(report, "second".getBytes(StandardCharsets.UTF_8)));
+        assertEquals("first", content(report));
+        JFiler.writeContent(report, "third".getBytes(StandardCharsets.UTF_8));
+        assertEquals("third", content(report));
+        assertEquals(2, count(folder));
+    }
+
+    @Test
+    @Order(2)
+    public void atomicCopyMustLeaveNoTemporaryFiles() throws IOException {
+        // Given
+        Path source = Files.createDirectories(folder.resolve("source/inner"));
+        Files.write(source.resolve("a.txt"), "a".getBytes(StandardCharsets.UTF_8));
+        Files.write(folder.resolve("source/b.txt"), "b".getBytes(StandardCharsets.UTF_8));
+        Path copy = folder.resolve("copy");
+
+        // When
+        JFiler.copyTo(folder.resolve("source").toString(), copy.toString(),//
+                CopyOptions.create().atomic(true).parallelism(2));
+
+        // Then
+        assertEquals("a", content(copy.resolve("inner/a.txt").toString()));
+        assertEquals("b", content(copy.resolve("b.txt").toString()));
+        assertEquals(Files.getLastModifiedTime(folder.resolve("source/b.txt")),//
+                Files.getLastModifiedTime(copy.resolve("b.txt")));
+        assertEquals(2, count(copy));
+        assertEquals(1, count(copy.resolve("inner")));
+    }
+
+    private static String content(String location) throws IOException {
+        return new String(Files.readAllBytes(Paths.get(location)), StandardCharsets.UTF_8);
+    }
+
+    private static long count(Path folder) throws IOException {
+        try (Stream<Path> files = Files.list(folder)) {
+            return files.count();
+        }
+    }
+
+}
@@ -0,0 +1,131 @@
+package io.github.shuoros.jfiler.io;
+
+import io.github.shuoros.jfiler.JFiler;
+import io.github.shuoros.jfiler.JFilerTests;
+import org.junit.jupiter.api.*;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Objects;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+public class IOSchedulerTests {
+
+    private static Path resource;
+
+    @BeforeAll
+    public static void beforeAll() throws Exception {
+        resource = Paths.get(Objects.requireNonNull(JFilerTests.class.getResource("/")).toURI());
+    }
+
+    @Test
+    @Order(1)
+    public void bandwidthLimitMustSlowTransfersDown() throws Exception {
+        // Given
+        IOScheduler scheduler = IOScheduler.create().bandwidth(IOPriority.BULK, 1024 * 1024);
+
+        // When
+        long start = System.nanoTime();
+        try (IOScheduler.Permit permit = scheduler.acquire(IOPriority.BULK, resource)) {
+            for (int i = 0; i < 3; i++)
+                permit.transferred(512 * 1024);
+        }
+        long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        // Then
+        assertTrue(elapsed >= 400, "Took " + elapsed + "ms");
+    }
+
+    @Test
+    @Order(2)
+    public void iopsLimitMustSlowOperationsDown() throws Exception {
+        // Given
+        IOScheduler scheduler = IOScheduler.create().iops(IOPriority.INTERACTIVE, 10);
+
+        // When
+        long start = System.nanoTime();
+        for (int i = 0; i < 15; i++)
+            scheduler.acquire(IOPriority.INTERACTIVE, resource).close();
+        long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        // Then
+        assertTrue(elapsed >= 400, "Took " + elapsed + "ms");
+    }
+
+    @Test
+    @Order(3)
+    public void bulkOperationsMustWaitForConcurrencyCap() throws Exception {
+        // Given
+        IOScheduler scheduler = IOScheduler.create().concurrency(IOPriority.BULK, 1);
+        IOScheduler.Permit first = scheduler.acquire(IOPriority.BULK, resource);
+        CountDownLatch acquired = new CountDownLatch(1);
+
+        // When
+        Thread second = new Thread(() -> {
+            try {
+                IOScheduler.Permit permit = scheduler.acquire(IOPriority.BULK, resource);
+                acquired.countDown();
+                permit.close();
+            } catch (Exception ignored) {
+            }
+        });
+        second.start();
+
+        // Then
+        assertFalse(acquired.await(300, TimeUnit.MILLISECONDS));
+        first.close();
+        assertTrue(acquired.await(5, TimeUnit.SECONDS));
+        second.join();
+    }
+
+    @Test
+    @Order(4)
+    public void bulkOperationsMustBeDeferredWhileInteractiveOnesRun() throws Exception {
+        // Given
+        IOScheduler scheduler = IOScheduler.create();
+        IOScheduler.Permit interactive = scheduler.acquire(IOPriority.INTERACTIVE, resource);
+
+        // When
+        long start = System.nanoTime();
+        scheduler.acquire(IOPriority.BULK, resource).close();
+        long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        interactive.close();
+
+        // Then
+        assertTrue(elapsed >= IOScheduler.MAX_BULK_DEFERRAL_MILLIS - 20, "Took " + elapsed + "ms");
+        assertTrue(elapsed < 5000, "Took " + elapsed + "ms");
+    }
+
+    @Test
+    @Order(5)
+    public void deletingAFolderMustTakeOneOperationPerFolder() throws Exception {
+        // Given
+        Path folder = Files.createDirectory(resource.resolve("JFilerCreatedSuccessfully/scheduled"));
+        for (int i = 0; i < 3; i++) {
+            Path child = Files.createDirectory(folder.resolve("child" + i));
+            for (int j = 0; j < 100; j++)
+                Files.createFile(child.resolve(j + ".txt"));
+        }
+        IOScheduler previous = IOScheduler.getDefault();
+        IOScheduler.setDefault(IOScheduler.create().iops(IOPriority.BULK, 10));
+
+        // When
+        long start = System.nanoTime();
+        try {
+            JFiler.deleteThe(folder.toString());
+        } finally {
+            IOScheduler.setDefault(previous);
+        }
+        long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        // Then
+        assertFalse(Files.exists(folder));
+        assertTrue(elapsed < 5000, "Took " + elapsed + "ms");
+    }
+
+}
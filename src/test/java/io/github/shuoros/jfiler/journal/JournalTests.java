@@ -0,0 +1,242 @@
+package io.github.shuoros.jfiler.journal;
+
+import io.github.shuoros.jfiler.JFiler;
+import io.github.shuoros.jfiler.JFilerTests;
+import io.github.shuoros.jfiler.operation.OperationResult;
+import org.junit.jupiter.api.*;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+public class JournalTests {
+
+    private static String resource;
+    private Path folder;
+    private Path journalFile;
+
+    @BeforeAll
+    public static void beforeAll() throws Exception {
+        resource = Paths.get(Objects.requireNonNull(JFilerTests.class.getResource("/")).toURI()).toFile().getPath();
+    }
+
+    @BeforeEach
+    public void beforeEach() throws IOException {
+        folder = Paths.get(resource + "/JFilerCreatedSuccessfully/journal");
+        Files.createDirectory(folder);
+        journalFile = folder.resolve("jfiler.journal");
+    }
+
+    @AfterEach
+    public void afterEach() throws IOException {
+        JFiler.deleteThe(folder.toString());
+    }
+
+    @Test
+    @Order(1)
+    public void incompleteOperationsMustBeReadWhenJournalIsOpenedAgain() throws IOException {
+        // Given
+        Path source = write("source.txt");
+        try (Journal journal = Journal.open(journalFile)) {
+            JournalEntry ended = journal.begin(JournalOperation.DELETE, source, null);
+            journal.begin(JournalOperation.COPY, source, folder.resolve("copy.txt"));
+            journal.end(ended);
+            journal.sync();
+        }
+
+        // When
+        try (Journal journal = Journal.open(journalFile)) {
+
+            // Then
+            assertEquals(1, journal.getIncomplete().size());
+            assertEquals(JournalOperation.COPY, journal.getIncomplete().get(0).getOperation());
+            assertEquals(folder.resolve("copy.txt"), journal.getIncomplete().get(0).getDestination());
+        }
+    }
+
+    @Test
+    @Order(2)
+    public void recoveryMustRemoveUnfinishedCopyAndFinishCopiedMove() throws IOException {
+        // Given
+        Path source = write("source.txt");
+        Path moved = write("moved.txt");
+        Path temporary;
+        try (Journal journal = Journal.open(journalFile)) {
+            JournalEntry copy = journal.begin(JournalOperation.COPY, source, folder.resolve("copy.txt"));
+            JournalEntry move = journal.begin(JournalOperation.MOVE, moved, folder.resolve("moved-to.txt"));
+            journal.sync();
+            temporary = copy.getTemporaryLocation();
+            Files.write(temporary, new byte[]{1, 2});
+            Files.copy(moved, move.getDestination());
+            journal.copied(move);
+        }
+
+        // When
+        List<OperationResult> results;
+        try (Journal journal = Journal.open(journalFile)) {
+            results = journal.recover();
+
+            // Then
+            assertTrue(journal.getIncomplete().isEmpty());
+        }
+        assertEquals(2, results.size());
+        assertTrue(results.stream().allMatch(OperationResult::isSuccess));
+        assertFalse(Files.exists(temporary));
+        assertFalse(Files.exists(folder.resolve("copy.txt")));
+        assertTrue(Files.exists(source));
+        assertFalse(Files.exists(moved));
+        assertTrue(Files.exists(folder.resolve("moved-to.txt")));
+        assertEquals(0, Files.size(journalFile));
+    }
+
+    @Test
+    @Order(3)
+    public void tornRecordAtEndOfJournalMustBeDropped() throws IOException {
+        // Given
+        Path source = write("source.txt");
+        try (Journal journal = Journal.open(journalFile)) {
+            journal.begin(JournalOperation.DELETE, source, null);
+            journal.sync();
+        }
+        try (FileChannel channel = FileChannel.open(journalFile, StandardOpenOption.APPEND)) {
+            channel.write(ByteBuffer.wrap(new byte[]{0, 0, 0, 40, 1, 2, 3}));
+        }
+        long valid;
+
+        // When
+        try (Journal journal = Journal.open(journalFile)) {
+            valid = Files.size(journalFile);
+
+            // Then
+            assertEquals(1, journal.getIncomplete().size());
+            journal.begin(JournalOperation.DELETE, source, null);
+            journal.sync();
+        }
+        try (Journal journal = Journal.open(journalFile)) {
+            assertEquals(2, journal.getIncomplete().size());
+            assertTrue(valid < Files.size(journalFile));
+        }
+    }
+
+    @Test
+    @Order(4)
+    public void intentsOfConcurrentOperationsMustAllBeDurable() throws Exception {
+        // Given
+        Path source = write("source.txt");
+        int threads = 8;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        List<Future<?>> futures = new ArrayList<>();
+
+        // When
+        try (Journal journal = Journal.open(journalFile)) {
+            for (int i = 0; i < threads; i++)
+                futures.add(pool.submit(() -> {
+                    for (int j = 0; j < 50; j++) {
+                        journal.begin(JournalOperation.DELETE, source, null);
+                        journal.sync();
+                    }
+                    return null;
+                }));
+            for (Future<?> future : futures)
+                future.get(30, TimeUnit.SECONDS);
+        }
+        pool.shutdown();
+
+        // Then
+        try (Journal journal = Journal.open(journalFile)) {
+            assertEquals(threads * 50, journal.getIncomplete().size());
+        }
+    }
+
+    @Test
+    @Order(5)
+    public void journaledMoveMustNotReplaceDestinations() throws IOException {
+        // Given
+        Path destination = Files.createDirectory(folder.resolve("destination"));
+        Path first = Files.write(Files.createDirectory(folder.resolve("a")).resolve("x.txt"), "a".getBytes());
+        Path second = Files.write(Files.createDirectory(folder.resolve("b")).resolve("x.txt"), "b".getBytes());
+        Path taken = Files.write(folder.resolve("y.txt"), "y".getBytes());
+        Files.write(destination.resolve("y.txt"), "kept".getBytes());
+
+        // When
+        List<OperationResult> results;
+        try (Journal journal = Journal.open(journalFile)) {
+            results = JFiler.moveAll(List.of(first.toString(), second.toString(), taken.toString()),//
+                    destination.toString(), 3, journal);
+        }
+
+        // Then
+        assertTrue(results.get(0).isSuccess());
+        assertEquals(OperationResult.Status.SKIPPED, results.get(1).getStatus());
+        assertEquals(OperationResult.Status.FAILED, results.get(2).getStatus());
+        assertEquals("a", new String(Files.readAllBytes(destination.resolve("x.txt"))));
+        assertEquals("kept", new String(Files.readAllBytes(destination.resolve("y.txt"))));
+        assertTrue(Files.exists(second));
+        assertTrue(Files.exists(taken));
+        try (Journal journal = Journal.open(journalFile)) {
+            assertTrue(journal.getIncomplete().isEmpty());
+        }
+    }
+
+    @Test
+    @Order(6)
+    public void operationsOfDifferentJournalsMustNotShareTemporaryLocations() throws IOException {
+        // Given
+        Path source = write("source.txt");
+        Path destination = folder.resolve("copy.txt");
+
+        // When
+        JournalEntry first;
+        JournalEntry second;
+        try (Journal journal = Journal.open(journalFile);
+             Journal other = Journal.open(folder.resolve("other.journal"))) {
+            first = journal.begin(JournalOperation.COPY, source, destination);
+            second = other.begin(JournalOperation.COPY, source, destination);
+            journal.end(first);
+            other.end(second);
+        }
+
+        // Then
+        assertEquals(first.getId(), second.getId());
+        assertNotEquals(first.getTemporaryLocation(), second.getTemporaryLocation());
+    }
+
+    @Test
+    @Order(7)
+    public void recoveryMustNotDeleteASourceWhichHasBeenRecreated() throws IOException {
+        // Given
+        Path source = write("source.txt");
+        try (Journal journal = Journal.open(journalFile)) {
+            journal.begin(JournalOperation.DELETE, source, null);
+            journal.sync();
+        }
+        Files.delete(source);
+        Files.write(source, "recreated with another content".getBytes());
+
+        // When
+        List<OperationResult> results;
+        try (Journal journal = Journal.open(journalFile)) {
+            results = journal.recover();
+        }
+
+        // Then
+        assertTrue(results.get(0).isSuccess());
+        assertEquals("recreated with another content", new String(Files.readAllBytes(source)));
+    }
+
+    private Path write(String name) throws IOException {
+        return Files.write(folder.resolve(name), name.getBytes());
+    }
+
+}
@@ -0,0 +1,95 @@
+package io.github.shuoros.jfiler.trash;
+
+import io.github.shuoros.jfiler.JFiler;
+import io.github.shuoros.jfiler.JFilerTests;
+import org.junit.jupiter.api.*;
+
+import java.io.IOException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+public class TrashTests {
+
+    private static String resource;
+    private Path folder;
+
+    @BeforeAll
+    public static void beforeAll() throws Exception {
+        resource = Paths.get(Objects.requireNonNull(JFilerTests.class.getResource("/")).toURI()).toFile().getPath();
+    }
+
+    @BeforeEach
+    public void beforeEach() throws IOException {
+        folder = Paths.get(resource + "/JFilerCreatedSuccessfully/trash");
+        Files.createDirectory(folder);
+    }
+
+    @AfterEach
+    public void afterEach() throws IOException {
+        JFiler.deleteThe(folder.toString());
+    }
+
+    @Test
+    @Order(1)
+    public void trashedFolderMustBeRestoredToItsLocation() throws IOException {
+        // Given
+        Path photos = Files.createDirectories(folder.resolve("photos/2021"));
+        Files.write(photos.resolve("a.jpg"), new byte[]{1, 2, 3});
+        try (Trash trash = Trash.create().trashIn(folder.resolve("bin"))) {
+
+            // When
+            TrashedItem item = trash.trash(folder.resolve("photos"));
+
+            // Then
+            assertFalse(Files.exists(folder.resolve("photos")));
+            assertEquals(folder.resolve("bin"), item.getTrashFolder());
+            List<TrashedItem> items = trash.items(folder);
+            assertEquals(1, items.size());
+            assertEquals(item.getId(), items.get(0).getId());
+            assertEquals(folder.resolve("photos").toAbsolutePath(), items.get(0).getLocation());
+
+            Files.createDirectory(folder.resolve("photos"));
+            assertThrows(FileAlreadyExistsException.class, () -> trash.restore(item));
+            Files.delete(folder.resolve("photos"));
+
+            assertEquals(folder.resolve("photos").toAbsolutePath(), trash.restore(item));
+            assertArrayEquals(new byte[]{1, 2, 3}, Files.readAllBytes(photos.resolve("a.jpg")));
+            assertTrue(trash.items(folder).isEmpty());
+            assertThrows(IOException.class, () -> trash.trash(folder.resolve("bin")));
+        }
+    }
+
+    @Test
+    @Order(2)
+    public void expiredItemsMustBePurged() throws IOException {
+        // Given
+        Path logs = Files.createDirectories(folder.resolve("logs/old"));
+        for (int i = 0; i < 20; i++)
+            Files.write(logs.resolve(i + ".log"), new byte[100]);
+        Files.write(folder.resolve("kept.txt"), new byte[1]);
+        try (Trash trash = Trash.create().trashIn(folder.resolve("bin")).retention(0).purgeRate(1000)) {
+            TrashedItem item = trash.trash(folder.resolve("logs"));
+
+            // When
+            trash.purge();
+
+            // Then
+            assertTrue(trash.items(folder).isEmpty());
+            try (Stream<Path> left = Files.list(folder.resolve("bin"))) {
+                assertEquals(0, left.count());
+            }
+            assertThrows(NoSuchFileException.class, () -> trash.restore(item));
+            assertTrue(Files.exists(folder.resolve("kept.txt")));
+        }
+    }
+
+}
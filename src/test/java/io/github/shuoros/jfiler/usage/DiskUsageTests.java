@@ -0,0 +1,94 @@
+package io.github.shuoros.jfiler.usage;
+
+import io.github.shuoros.jfiler.JFiler;
+import io.github.shuoros.jfiler.JFilerTests;
+import org.junit.jupiter.api.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.FileTime;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+public class DiskUsageTests {
+
+    private static String resource;
+    private Path folder;
+
+    @BeforeAll
+    public static void beforeAll() throws Exception {
+        resource = Paths.get(Objects.requireNonNull(JFilerTests.class.getResource("/")).toURI()).toFile().getPath();
+    }
+
+    @BeforeEach
+    public void beforeEach() throws IOException {
+        folder = Paths.get(resource + "/JFilerCreatedSuccessfully/usage");
+        Files.createDirectory(folder);
+    }
+
+    @AfterEach
+    public void afterEach() throws IOException {
+        JFiler.deleteThe(folder.toString());
+    }
+
+    @Test
+    @Order(1)
+    public void reportMustHaveTotalsTopsAndHistograms() throws IOException {
+        // Given
+        Path videos = Files.createDirectories(folder.resolve("videos/old"));
+        Files.write(videos.resolve("movie.mp4"), new byte[5000]);
+        Files.setLastModifiedTime(videos.resolve("movie.mp4"),//
+                FileTime.fromMillis(System.currentTimeMillis() - TimeUnit.DAYS.toMillis(400)));
+        Files.write(folder.resolve("videos/clip.mp4"), new byte[3000]);
+        Path logs = Files.createDirectories(folder.resolve("logs"));
+        Files.write(logs.resolve("app.log"), new byte[100]);
+        Files.write(logs.resolve("app.weird"), new byte[10]);
+        Files.write(folder.resolve("README"), new byte[1]);
+
+        // When
+        DiskUsageReport report = DiskUsage.create().top(2).depth(1).analyze(folder);
+
+        // Then
+        assertEquals(8111, report.getTotal().getSize());
+        assertEquals(5, report.getTotal().getFiles());
+        assertEquals(3, report.getTotal().getFolders());
+        assertEquals(3, report.getFolders().size());
+        assertEquals(8000, report.getFolders().get(folder.resolve("videos")).getSize());
+        assertEquals(1, report.getFolders().get(folder.resolve("videos")).getFolders());
+        assertNull(report.getFolders().get(videos));
+        assertEquals(2, report.getLargestFiles().size());
+        assertEquals(videos.resolve("movie.mp4"), report.getLargestFiles().get(0).getLocation());
+        assertEquals(folder.resolve("videos"), report.getLargestFolders().get(0).getLocation());
+        assertEquals(videos, report.getLargestFolders().get(1).getLocation());
+        assertEquals("MP4", report.getTypes().keySet().iterator().next());
+        assertEquals(8000, report.getTypes().get("MP4").getSize());
+        assertEquals(10, report.getTypes().get("weird").getSize());
+        assertEquals(1, report.getTypes().get("(none)").getFiles());
+        assertEquals(5000, report.getAges().get(AgeBucket.OLDER).getSize());
+        assertEquals(4, report.getAges().get(AgeBucket.DAY).getFiles());
+        assertEquals(0, report.getErrors());
+    }
+
+    @Test
+    @Order(2)
+    public void reportMustBeWrittenAsJson() throws IOException {
+        // Given
+        Files.write(Files.createDirectories(folder.resolve("a \"quoted\"")).resolve("x.txt"), new byte[7]);
+
+        // When
+        String json = JFiler.diskUsage(folder.toString()).toJson();
+
+        // Then
+        assertTrue(json.startsWith("{\"root\":"), json);
+        assertTrue(json.contains("\"total\":{\"size\":7,\"files\":1,\"folders\":1}"), json);
+        assertTrue(json.contains("a \\\"quoted\\\""), json);
+        assertTrue(json.contains("\"TXT\":{\"size\":7,\"files\":1,\"folders\":0}"), json);
+        assertTrue(json.endsWith("}}"), json);
+    }
+
+}
@@ -0,0 +1,55 @@
+package io.github.shuoros.jfiler.util;
+
+import org.junit.jupiter.api.*;
+
+import java.nio.file.Paths;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+public class LocationsTests {
+
+    @Test
+    @Order(1)
+    public void normalizeMustReplaceWindowsSeparatorsWithSlash() {
+        // When
+        String location = Locations.normalize("C:\\Users\\soroush\\file.txt");
+
+        // Then
+        assertEquals("C:/Users/soroush/file.txt", location);
+    }
+
+    @Test
+    @Order(2)
+    public void normalizeMustReturnTheSameStringIfThereIsNothingToReplace() {
+        // Given
+        String location = "/home/soroush/file.txt";
+
+        // Then
+        assertSame(location, Locations.normalize(location));
+    }
+
+    @Test
+    @Order(3)
+    public void nameOfMustReturnNameOfLastFileOrFolderOfLocation() {
+        assertEquals("file.txt", Locations.nameOf("/home/soroush/file.txt"));
+        assertEquals("soroush", Locations.nameOf("/home/soroush/"));
+        assertEquals("file.txt", Locations.nameOf("file.txt"));
+    }
+
+    @Test
+    @Order(4)
+    public void renameMustOnlyChangeNameOfLastFileOrFolderOfLocation() {
+        assertEquals("/home/file/newFile", Locations.rename("/home/file/file", "newFile"));
+        assertEquals("newFile", Locations.rename("file", "newFile"));
+    }
+
+    @Test
+    @Order(5)
+    public void isRootOrChildOfRootMustReturnTrueJustForRootsAndTheirChildren() {
+        assertTrue(Locations.isRootOrChildOfRoot(Paths.get("/")));
+        assertTrue(Locations.isRootOrChildOfRoot(Paths.get("/home")));
+        assertFalse(Locations.isRootOrChildOfRoot(Paths.get("/home/soroush")));
+    }
+
+}